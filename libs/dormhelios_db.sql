@@ -71,7 +71,8 @@ CREATE TABLE `payments` (
   `receipt_reference` varchar(100) DEFAULT NULL,
   `qr_code_data` text,
   `notes` text,
-  `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP
+  `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
 ) ;
 
 -- --------------------------------------------------------
@@ -202,14 +203,18 @@ ALTER TABLE `guardians`
 ALTER TABLE `payments`
   ADD PRIMARY KEY (`payment_id`),
   ADD KEY `tenant_id` (`tenant_id`),
-  ADD KEY `user_id` (`user_id`);
+  ADD KEY `user_id` (`user_id`),
+  ADD KEY `idx_payments_date` (`payment_date`,`created_at`,`payment_id`),
+  ADD KEY `idx_payments_tenant_date` (`tenant_id`,`payment_date`),
+  ADD KEY `idx_payments_updated` (`updated_at`);
 
 --
 -- Indexes for table `rooms`
 --
 ALTER TABLE `rooms`
   ADD PRIMARY KEY (`id`),
-  ADD UNIQUE KEY `room_number` (`room_number`);
+  ADD UNIQUE KEY `room_number` (`room_number`),
+  ADD KEY `idx_rooms_status_active` (`status`,`is_active`,`room_number`);
 
 --
 -- Indexes for table `tenants`
@@ -218,7 +223,9 @@ ALTER TABLE `tenants`
   ADD PRIMARY KEY (`id`),
   ADD KEY `idx_tenants_room` (`room_id`),
   ADD KEY `idx_tenants_user` (`user_id`),
-  ADD KEY `idx_tenants_name` (`last_name`,`first_name`);
+  ADD KEY `idx_tenants_name` (`last_name`,`first_name`),
+  ADD KEY `idx_tenants_active_lease` (`is_active`,`lease_end_date`),
+  ADD KEY `idx_tenants_active_name` (`is_active`,`last_name`,`first_name`);
 
 --
 -- Indexes for table `users`
@@ -6,6 +6,9 @@ import com.dormhelios.controller.RegisterController;
 import com.dormhelios.controller.TenantDashboardController;
 import com.dormhelios.model.dao.*; // Import all DAO interfaces & impls
 import com.dormhelios.model.entity.User; // Needed for passing user
+import com.dormhelios.service.QueryPlanSelfCheck;
+import com.dormhelios.service.SchemaMigrator;
+import com.dormhelios.util.EdtWatchdog;
 import com.dormhelios.view.LoginView;
 import com.dormhelios.view.MainDashboardView;
 import com.dormhelios.view.RegisterView;
@@ -30,9 +33,10 @@ public class Main {
     // --- DAO Instances (Create them once) ---
     // In a real app, use a Dependency Injection framework (like Guice or Spring)
     // or a Service Locator pattern. For simplicity, we instantiate them here.
-    private static final UserDAO userDAO = new UserDAOImpl();
-    private static final TenantDAO tenantDAO = new TenantDAOImpl();
-    private static final RoomDAO roomDAO = new RoomDAOImpl();
+    // Tenant, room and user lookups by ID go through read-through caches
+    private static final CachingRoomDAO roomDAO = new CachingRoomDAO(new RoomDAOImpl());
+    private static final UserDAO userDAO = new CachingUserDAO(new UserDAOImpl());
+    private static final TenantDAO tenantDAO = new CachingTenantDAO(new TenantDAOImpl(), roomDAO);
     private static final PaymentDAO paymentDAO = new PaymentDAOImpl();
     private static final GuardianDAO guardianDAO = new GuardianDAOImpl(); // If needed
     private static final EmergencyContactDAO emergencyContactDAO = new EmergencyContactDAOImpl(); // If needed
@@ -52,6 +56,9 @@ public class Main {
 
     public static void main(String[] args) {
         setupLookAndFeel();
+        EdtWatchdog.startFromSystemProperties(); // Diagnostic mode: logs UI freezes with the blocking stack
+        SchemaMigrator.migrateFromSystemProperties(); // Before any DAO runs, so every query finds its columns and indexes
+        QueryPlanSelfCheck.startFromSystemProperties(); // Diagnostic mode: logs DAO queries that still scan whole tables
 
         // Ensure GUI operations happen on the Event Dispatch Thread (EDT)
         SwingUtilities.invokeLater(Main::startApplication);
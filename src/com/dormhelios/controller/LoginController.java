@@ -2,6 +2,8 @@ package com.dormhelios.controller;
 
 import com.dormhelios.model.dao.*; // Import all DAO interfaces
 import com.dormhelios.model.entity.User;
+import com.dormhelios.service.TaskExecutor;
+import com.dormhelios.service.TaskExecutor.Lane;
 import com.dormhelios.util.CredentialManager;
 import com.dormhelios.util.PasswordUtils;
 import com.dormhelios.view.LoginView;
@@ -14,7 +16,6 @@ import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.SwingUtilities;
-import javax.swing.SwingWorker;
 
 /**
  * Controller responsible for handling the logic of the LoginView.
@@ -111,60 +112,59 @@ public class LoginController {
             // Disable login button to prevent multiple clicks
             loginView.setLoginEnabled(false);
 
-            SwingWorker<User, Void> worker = new SwingWorker<User, Void>() {
-                private String errorMessage;
-
-                @Override
-                protected User doInBackground() {
-                    try {
-                        Optional<User> userOptional = userDAO.findByEmail(email);
-                        if (userOptional.isPresent()) {
-                            User user = userOptional.get();
-                            if (!user.isActive()) {
-                                errorMessage = "Your account is inactive. Please contact an administrator.";
-                            } else if (PasswordUtils.checkPassword(new String(password), user.getPasswordHash())) {
-                                return user;
+            TaskExecutor.submit(Lane.INTERACTIVE, "login.authenticate", () -> authenticate(email, password),
+                    result -> {
+                        try {
+                            if (result.user != null) {
+                                // Handle remember me
+                                CredentialManager.saveCredentials(email, password, rememberMe);
+
+                                LOGGER.log(Level.INFO, "User logged in: {0}", result.user.getUsername());
+                                loginView.closeView();
+                                if (onLoginSuccess != null) onLoginSuccess.run();
                             } else {
-                                errorMessage = "Invalid username or password.";
+                                loginView.displayErrorMessage(result.errorMessage);
+                                LOGGER.log(Level.WARNING, "Login failed: {0}", email);
                             }
-                        } else {
-                            errorMessage = "Invalid username or password.";
+                        } finally {
+                            PasswordUtils.clearPasswordArray(password);
+                            loginView.setLoginEnabled(true);
                         }
-                    } catch (Exception ex) {
-                        LOGGER.log(Level.SEVERE, "Error during login process", ex);
-                        errorMessage = "An unexpected error occurred. Please try again.";
-                    }
-                    return null;
-                }
-
-                @Override
-                protected void done() {
-                    try {
-                        User user = get();
-                        if (user != null) {
-                            // Handle remember me
-                            CredentialManager.saveCredentials(email, password, rememberMe);
-                            
-                            LOGGER.log(Level.INFO, "User logged in: {0}", user.getUsername());
-                            loginView.closeView();
-                            if (onLoginSuccess != null) onLoginSuccess.run();
-                        } else {
-                            loginView.displayErrorMessage(errorMessage);
-                            LOGGER.log(Level.WARNING, "Login failed: {0}", email);
-                        }
-                    } catch (Exception ex) {
-                        LOGGER.log(Level.SEVERE, "Error finalizing login", ex);
-                        loginView.displayErrorMessage("An unexpected error occurred.");
-                    } finally {
+                    },
+                    error -> {
                         PasswordUtils.clearPasswordArray(password);
                         loginView.setLoginEnabled(true);
+                        loginView.displayErrorMessage("An unexpected error occurred.");
+                    });
+        }
+
+        /**
+         * Checks the credentials. Runs off the EDT.
+         */
+        private LoginResult authenticate(String email, char[] password) {
+            try {
+                Optional<User> userOptional = userDAO.findByEmail(email);
+                if (userOptional.isPresent()) {
+                    User user = userOptional.get();
+                    if (!user.isActive()) {
+                        return new LoginResult(null, "Your account is inactive. Please contact an administrator.");
+                    } else if (PasswordUtils.checkPassword(new String(password), user.getPasswordHash())) {
+                        return new LoginResult(user, null);
                     }
                 }
-            };
-            worker.execute();
+                return new LoginResult(null, "Invalid username or password.");
+            } catch (Exception ex) {
+                LOGGER.log(Level.SEVERE, "Error during login process", ex);
+                return new LoginResult(null, "An unexpected error occurred. Please try again.");
+            }
         }
     }
 
+    // --- Helper Data Class for the background login check ---
+    private static record LoginResult(User user, String errorMessage) {
+
+    }
+
     class RegisterButtonListener implements ActionListener {
         @Override
         public void actionPerformed(ActionEvent e) {
@@ -3,28 +3,22 @@ package com.dormhelios.controller;
 import com.dormhelios.model.dao.*; // Import relevant DAOs
 import com.dormhelios.model.dao.GuardianDAO;
 import com.dormhelios.model.dao.EmergencyContactDAO;
+import com.dormhelios.model.entity.DashboardSnapshot;
+import com.dormhelios.model.entity.MonthlyDues;
 import com.dormhelios.model.entity.User;
 import com.dormhelios.model.entity.Payment;
-import com.dormhelios.model.entity.Room;
-import com.dormhelios.util.DatabaseConnection;
+import com.dormhelios.service.DashboardService;
+import com.dormhelios.service.RoomCatalog;
 import com.dormhelios.view.*; // Import relevant Views/Panels
 
 import javax.swing.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.math.BigDecimal; // For potential revenue calculation
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.text.NumberFormat; // For currency formatting
-import java.time.LocalDate;
-import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
-import java.util.concurrent.ExecutionException;
+import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -45,6 +39,7 @@ public class MainDashboardController {
     private final GuardianDAO guardianDAO;
     private final EmergencyContactDAO emergencyContactDAO;
     // Add other DAOs as needed (GuardianDAO, etc.)
+    private final DashboardService dashboardService;
 
     private Runnable onLogoutListener; // Callback for logout action
 
@@ -73,8 +68,19 @@ public class MainDashboardController {
         this.guardianDAO = guardianDAO;
         this.emergencyContactDAO = emergencyContactDAO;
         // Assign other DAOs
+        this.dashboardService = new DashboardService(new DashboardStatsDAOImpl(), paymentDAO);
+        // Every refreshed snapshot (navigation, TTL expiry or invalidation) lands here
+        this.dashboardService.addSnapshotListener(snapshot -> SwingUtilities.invokeLater(() -> displaySnapshot(snapshot)));
+        RoomCatalog.warmUp(); // Room dialogs then open without a query
 
         attachNavigationListeners();
+        // Writes committed by other controllers make the cached snapshot stale
+        mainView.addPropertyChangeListener(evt -> {
+            if (MainDashboardView.DATA_CHANGED.equals(evt.getPropertyName())) {
+                LOGGER.log(Level.FINE, "{0} data changed, invalidating dashboard snapshot", evt.getNewValue());
+                dashboardService.invalidate();
+            }
+        });
     }
 
     /**
@@ -105,12 +111,9 @@ public class MainDashboardController {
         // Display the dashboard panel initially
         mainView.displayPanel(MainDashboardView.DASHBOARD_PANEL, mainView.getDashboardButton()); // Assuming getter exists in view
 
-        // Load dashboard data asynchronously
+        // Load dashboard data and payment status chart asynchronously
         loadDashboardData();
 
-        // Load payment status chart
-        loadPaymentStatusChart();
-
         // Make the main window visible
         SwingUtilities.invokeLater(() -> mainView.setVisible(true));
     }
@@ -191,8 +194,7 @@ public class MainDashboardController {
         SwingUtilities.invokeLater(() -> mainView.getJScrollPane().getVerticalScrollBar().setValue(0));
         
         mainView.displayPanel(MainDashboardView.DASHBOARD_PANEL, mainView.getDashboardButton());
-        loadDashboardData(); // Refresh data when navigating back
-        loadPaymentStatusChart(); // Refresh chart when navigating back
+        loadDashboardData(); // Refresh data and chart when navigating back
     }
 
     private void showTenantListPanel() {
@@ -318,214 +320,106 @@ public class MainDashboardController {
 
     // --- Data Loading (Asynchronous) ---
 
+    /**
+     * Shows the cached dashboard snapshot immediately (no database access) and,
+     * if it is missing or stale, refreshes it in the background. The refreshed
+     * snapshot reaches the panel through the snapshot listener.
+     */
     private void loadDashboardData() {
         if (dashboardPanel == null) return;
 
-        SwingWorker<DashboardData, Void> worker = new SwingWorker<DashboardData, Void>() {
-            @Override
-            protected DashboardData doInBackground() throws Exception {
-                LOGGER.info("Loading dashboard data in background...");
-                // Fetch data using efficient DAO methods
-                int tenantCount = tenantDAO.countAll(); // Efficient count of active tenants
-                
-                // Calculate tenants added this month
-                YearMonth currentMonth = YearMonth.now();
-                LocalDate startOfMonth = currentMonth.atDay(1);
-                LocalDate endOfMonth = currentMonth.atEndOfMonth();
-                
-                // Get tenant count change for current month
-                int newTenantsThisMonth = tenantDAO.countNewTenantsByDateRange(startOfMonth, endOfMonth);
-                
-                // Get room statistics
-                int totalRooms = roomDAO.countAll(); // Efficient count of active rooms
-                int occupiedCount = roomDAO.countByStatus(Room.RoomStatus.OCCUPIED); // Efficient count
-
-                // Get revenue for current month
-                BigDecimal revenue = paymentDAO.sumAmountByDateRange(startOfMonth, endOfMonth); // Efficient sum
-
-                // Get overdue payments - could be implemented in PaymentDAO
-                List<Payment> overduePayments = paymentDAO.findOverduePayments();
-                List<String> reminders = new ArrayList<>();
-                
-                // Transform overdue payments into readable reminders
-                for (Payment payment : overduePayments) {
-                    String tenantName = payment.getTenant() != null ? 
-                            payment.getTenant().getFirstName() + " " + payment.getTenant().getLastName() : 
-                            "Unknown";
-                    String roomNumber = payment.getRoom() != null ? 
-                            payment.getRoom().getRoomNumber() : 
-                            "Unknown";
-                    
-                    reminders.add("Payment overdue: " + tenantName + " (Room " + roomNumber + ")");
-                }
-                
-                // If no overdue payments found, add a placeholder message
-                if (reminders.isEmpty()) {
-                    reminders.add("No overdue payments");
-                }
-                
-                // Get recent activities - ideally from an audit log
-                // This could be enhanced with an actual AuditLogDAO
-                List<String> activities = new ArrayList<>();
-                List<Payment> recentPayments = paymentDAO.findRecentPayments(5); // Get 5 most recent payments
-                
-                // Transform recent payments into readable activities
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd");
-                for (Payment payment : recentPayments) {
-                    String date = payment.getPaymentDate().format(formatter);
-                    String tenantName = payment.getTenant() != null ? 
-                            payment.getTenant().getFirstName() + " " + payment.getTenant().getLastName() : 
-                            "Unknown";
-                    
-                    activities.add(date + ": Payment received from " + tenantName + 
-                            " (" + NumberFormat.getCurrencyInstance(new Locale("en", "PH")).format(payment.getAmount()) + ")");
-                }
-                
-                // If no recent payments found, add a placeholder message
-                if (activities.isEmpty()) {
-                    activities.add("No recent payment activities");
-                }
-
-                return new DashboardData(tenantCount, occupiedCount, totalRooms, revenue, reminders, activities, newTenantsThisMonth);
-            }
+        Optional<DashboardSnapshot> cached = dashboardService.getCachedSnapshot();
+        cached.ifPresent(this::displaySnapshot);
+        if (!dashboardService.isStale()) {
+            return;
+        }
 
-            @Override
-            protected void done() {
-                try {
-                    DashboardData data = get(); // Get results from doInBackground
-                    // --- Update UI on the EDT ---
-                    String tenantChangeText = "+" + data.newTenantsThisMonth + " this month";
-                    dashboardPanel.setTotalTenants(data.tenantCount, tenantChangeText);
-
-                    String occupancyRateStr = "N/A";
-                    String occupancyDetailStr = String.format("%d out of %d rooms", data.occupiedCount, data.totalRooms);
-                    if (data.totalRooms > 0) {
-                        double rate = (double) data.occupiedCount / data.totalRooms * 100;
-                        occupancyRateStr = String.format("%.0f%%", rate);
-                    }
-                    dashboardPanel.setOccupancyRate(occupancyRateStr, occupancyDetailStr);
-
-                    // Format currency
-                    NumberFormat currencyFormatter = NumberFormat.getCurrencyInstance(new Locale("en", "PH")); // PHP Locale
-                    dashboardPanel.setMonthlyRevenue(currencyFormatter.format(data.monthlyRevenue));
-
-                    // Update lists
-                    DefaultListModel<String> reminderModel = dashboardPanel.getRemindersListModel();
-                    reminderModel.clear();
-                    data.reminders.forEach(reminderModel::addElement);
-
-                    DefaultListModel<String> activityModel = dashboardPanel.getRecentActivitiesListModel();
-                    activityModel.clear();
-                    data.activities.forEach(activityModel::addElement);
-
-                    // Update chart placeholder (actual chart update would happen here)
-                    LOGGER.info("Dashboard data loaded and UI updated.");
-
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt(); // Restore interrupt status
-                    LOGGER.log(Level.WARNING, "Dashboard data loading interrupted", e);
-                } catch (ExecutionException e) {
-                    LOGGER.log(Level.SEVERE, "Error loading dashboard data", e.getCause());
-                    // Show error message on dashboard panel or dialog
-                    JOptionPane.showMessageDialog(mainView, "Error loading dashboard data: " + e.getCause().getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-                } finally {
-                    // Re-enable controls if they were disabled
-                    // dashboardPanel.setLoadingState(false);
-                }
+        LOGGER.info("Refreshing dashboard data in background...");
+        dashboardService.refreshAsync().whenComplete((snapshot, error) -> {
+            if (error != null && !cached.isPresent()) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(mainView,
+                        "Error loading dashboard data: " + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
             }
-        };
+        });
+    }
 
-        worker.execute(); // Start the SwingWorker
+    /**
+     * Updates KPIs, lists and the payment status chart from a snapshot. Runs on the EDT.
+     */
+    private void displaySnapshot(DashboardSnapshot snapshot) {
+        if (dashboardPanel == null) return;
+        displayKpis(snapshot.getKpis());
+        displayReminders(snapshot.getOverduePayments());
+        displayRecentActivities(snapshot.getRecentPayments());
+        displayPaymentStatusChart(snapshot.getMonthlyDues());
+    }
+
+    private void displayKpis(DashboardSnapshot.Kpis kpis) {
+        String tenantChangeText = "+" + kpis.getNewTenantsThisMonth() + " this month";
+        dashboardPanel.setTotalTenants(kpis.getActiveTenants(), tenantChangeText);
+
+        String occupancyRateStr = "N/A";
+        String occupancyDetailStr = String.format("%d out of %d rooms", kpis.getOccupiedRooms(), kpis.getTotalRooms());
+        if (kpis.getTotalRooms() > 0) {
+            occupancyRateStr = String.format("%.0f%%", kpis.getOccupancyPercent());
+        }
+        dashboardPanel.setOccupancyRate(occupancyRateStr, occupancyDetailStr);
+
+        // Format currency
+        NumberFormat currencyFormatter = NumberFormat.getCurrencyInstance(new Locale("en", "PH")); // PHP Locale
+        dashboardPanel.setMonthlyRevenue(currencyFormatter.format(kpis.getMonthlyRevenue()));
+    }
+
+    private void displayReminders(List<Payment> overduePayments) {
+        DefaultListModel<String> reminderModel = dashboardPanel.getRemindersListModel();
+        reminderModel.clear();
+        // Transform overdue payments into readable reminders
+        for (Payment payment : overduePayments) {
+            String tenantName = payment.getTenant() != null ? 
+                    payment.getTenant().getFirstName() + " " + payment.getTenant().getLastName() : 
+                    "Unknown";
+            String roomNumber = payment.getRoom() != null ? 
+                    payment.getRoom().getRoomNumber() : 
+                    "Unknown";
+            reminderModel.addElement("Payment overdue: " + tenantName + " (Room " + roomNumber + ")");
+        }
+        // If no overdue payments found, add a placeholder message
+        if (reminderModel.isEmpty()) {
+            reminderModel.addElement("No overdue payments");
+        }
+    }
+
+    private void displayRecentActivities(List<Payment> recentPayments) {
+        DefaultListModel<String> activityModel = dashboardPanel.getRecentActivitiesListModel();
+        activityModel.clear();
+        // Transform recent payments into readable activities
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd");
+        NumberFormat currencyFormatter = NumberFormat.getCurrencyInstance(new Locale("en", "PH"));
+        for (Payment payment : recentPayments) {
+            String date = payment.getPaymentDate().format(formatter);
+            String tenantName = payment.getTenant() != null ? 
+                    payment.getTenant().getFirstName() + " " + payment.getTenant().getLastName() : 
+                    "Unknown";
+            activityModel.addElement(date + ": Payment received from " + tenantName + 
+                    " (" + currencyFormatter.format(payment.getAmount()) + ")");
+        }
+        // If no recent payments found, add a placeholder message
+        if (activityModel.isEmpty()) {
+            activityModel.addElement("No recent payment activities");
+        }
     }
 
     /**
-     * Loads and displays the payment data chart on the dashboard.
-     * Shows payments for the last 6 months with paid vs unpaid counts.
+     * Displays payments for the last months with paid vs unpaid counts.
      */
-    private void loadPaymentStatusChart() {
-        SwingWorker<PaymentChartData, Void> worker = new SwingWorker<>() {
-            @Override
-            protected PaymentChartData doInBackground() throws Exception {
-                // Get current date and calculate the range for the last 6 months
-                LocalDate endDate = LocalDate.now();
-                LocalDate startDate = endDate.minusMonths(5).withDayOfMonth(1); // 6 months including current
-                
-                // Prepare arrays to hold the data
-                String[] monthLabels = new String[6];
-                int[] paidCounts = new int[6];
-                int[] unpaidCounts = new int[6]; // For future expansion if tracking unpaid/due payments
-                
-                // Initialize with zero values
-                for (int i = 0; i < 6; i++) {
-                    LocalDate monthDate = startDate.plusMonths(i);
-                    monthLabels[i] = monthDate.format(DateTimeFormatter.ofPattern("MMM yyyy"));
-                    paidCounts[i] = 0;
-                    unpaidCounts[i] = 0;
-                }
-                
-                // Query payments from the database for the period
-                try (Connection conn = DatabaseConnection.getConnection();
-                     PreparedStatement stmt = conn.prepareStatement(
-                         "SELECT EXTRACT(YEAR FROM payment_date) as year, " +
-                         "EXTRACT(MONTH FROM payment_date) as month, " +
-                         "COUNT(*) as payment_count " +
-                         "FROM payments " +
-                         "WHERE payment_date BETWEEN ? AND ? " +
-                         "GROUP BY EXTRACT(YEAR FROM payment_date), EXTRACT(MONTH FROM payment_date) " +
-                         "ORDER BY year, month")) {
-                    
-                    // Set date parameters
-                    stmt.setDate(1, java.sql.Date.valueOf(startDate));
-                    stmt.setDate(2, java.sql.Date.valueOf(endDate));
-                    
-                    try (ResultSet rs = stmt.executeQuery()) {
-                        while (rs.next()) {
-                            int year = rs.getInt("year");
-                            int month = rs.getInt("month");
-                            int count = rs.getInt("payment_count");
-                            
-                            // Find the matching month in our arrays
-                            for (int i = 0; i < 6; i++) {
-                                LocalDate arrayDate = startDate.plusMonths(i);
-                                if (arrayDate.getYear() == year && arrayDate.getMonthValue() == month) {
-                                    paidCounts[i] = count;
-                                    break;
-                                }
-                            }
-                        }
-                    }
-                    
-                    // For unpaid counts (placeholder - in a real system this would query for due payments)
-                    // This is just sample data for visualization
-                    for (int i = 0; i < 6; i++) {
-                        // Generate sample unpaid data - in a real implementation, this would be from DB
-                        unpaidCounts[i] = (int)(Math.random() * 5); // Random value 0-4 for demo
-                    }
-                    
-                    return new PaymentChartData(monthLabels, paidCounts, unpaidCounts);
-                } catch (SQLException e) {
-                    LOGGER.log(Level.SEVERE, "Error loading payment chart data", e);
-                    return new PaymentChartData(
-                            new String[]{"Error", "Loading", "Data", "Please", "Try", "Again"},
-                            new int[6], new int[6]);
-                }
-            }
-            
-            @Override
-            protected void done() {
-                try {
-                    PaymentChartData data = get();
-                    dashboardPanel.displayPaymentBarChart(
-                            data.monthLabels, 
-                            data.paidCounts, 
-                            data.unpaidCounts);
-                } catch (Exception e) {
-                    LOGGER.log(Level.SEVERE, "Error displaying payment chart", e);
-                }
-            }
-        };
-        
-        worker.execute();
+    private void displayPaymentStatusChart(MonthlyDues dues) {
+        String[] monthLabels = new String[dues.size()];
+        DateTimeFormatter labelFormatter = DateTimeFormatter.ofPattern("MMM yyyy");
+        for (int i = 0; i < monthLabels.length; i++) {
+            monthLabels[i] = dues.monthAt(i).format(labelFormatter);
+        }
+        dashboardPanel.displayPaymentBarChart(monthLabels, dues.getPaidCounts(), dues.getUnpaidCounts());
     }
 
     // --- Logout ---
@@ -540,6 +434,10 @@ public class MainDashboardController {
                 JOptionPane.QUESTION_MESSAGE);
 
         if (confirm == JOptionPane.YES_OPTION) {
+            dashboardService.close();
+            if (reminderController != null) {
+                reminderController.close();
+            }
             if (onLogoutListener != null) {
                 onLogoutListener.run(); // Trigger the action defined in MainApp
             } else {
@@ -550,39 +448,6 @@ public class MainDashboardController {
         }
     }
 
-    // --- Helper Data Class for SwingWorker ---
-    private static class DashboardData {
-        final int tenantCount;
-        final long occupiedCount;
-        final int totalRooms;
-        final BigDecimal monthlyRevenue;
-        final List<String> reminders;
-        final List<String> activities;
-        final int newTenantsThisMonth;
-
-        DashboardData(int tenantCount, long occupiedCount, int totalRooms, BigDecimal monthlyRevenue, List<String> reminders, List<String> activities, int newTenantsThisMonth) {
-            this.tenantCount = tenantCount;
-            this.occupiedCount = occupiedCount;
-            this.totalRooms = totalRooms;
-            this.monthlyRevenue = monthlyRevenue;
-            this.reminders = reminders;
-            this.activities = activities;
-            this.newTenantsThisMonth = newTenantsThisMonth;
-        }
-    }
-
-    private static class PaymentChartData {
-        final String[] monthLabels;
-        final int[] paidCounts;
-        final int[] unpaidCounts;
-
-        PaymentChartData(String[] monthLabels, int[] paidCounts, int[] unpaidCounts) {
-            this.monthLabels = monthLabels;
-            this.paidCounts = paidCounts;
-            this.unpaidCounts = unpaidCounts;
-        }
-    }
-
     /**
      * Shows the send reminder dialog and initializes the controller if needed
      */
@@ -591,7 +456,7 @@ public class MainDashboardController {
         if (reminderDialog == null) {
             LOGGER.info("Creating new SendReminderDialog and ReminderController");
             reminderDialog = new SendReminderDialog(mainView, true);
-            reminderController = new ReminderController(reminderDialog, tenantDAO, mainView);
+            reminderController = new ReminderController(reminderDialog, tenantDAO, paymentDAO, mainView);
         }
         
         // Show the dialog
@@ -2,6 +2,9 @@ package com.dormhelios.controller;
 
 import com.dormhelios.model.dao.*;
 import com.dormhelios.model.entity.*;
+import com.dormhelios.service.RoomCatalog;
+import com.dormhelios.service.TaskExecutor;
+import com.dormhelios.service.TaskExecutor.Lane;
 import com.dormhelios.util.QRCodeGenerator; // Assuming this utility exists
 import com.dormhelios.view.*;
 
@@ -10,22 +13,19 @@ import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.awt.event.KeyAdapter;
-import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.print.PrinterException; // For printing
 import java.awt.print.PrinterJob;
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList; // Import ArrayList
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale; // Add import for Locale
 import java.util.Optional;
-import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -50,13 +50,6 @@ public class PaymentController {
     private PaymentLoggingDialog paymentLoggingDialog;
     private ReceiptDialog receiptDialog;
 
-    // Store the currently loaded list AND associated data for display/filtering
-    // Using a simple inner class or record for DTO (Data Transfer Object)
-    private record PaymentDisplayData(Payment payment, String tenantName, String roomNumber) {
-
-    }
-    private List<PaymentDisplayData> currentPaymentDisplayList = Collections.emptyList();
-
     public PaymentController(PaymentListView paymentListView, PaymentDAO paymentDAO,
             TenantDAO tenantDAO, RoomDAO roomDAO, UserDAO userDAO, User loggedInUser,
             MainDashboardView mainView) {
@@ -68,10 +61,24 @@ public class PaymentController {
         this.loggedInUser = loggedInUser;
         this.mainView = mainView;
 
+        // The table pulls pages on demand; filtering and sorting run in SQL
+        paymentListView.setPageLoader(new PagedPaymentTableModel.PageLoader() {
+            @Override
+            public int count(PaymentQuery query) throws SQLException {
+                return paymentDAO.countMatching(query);
+            }
+
+            @Override
+            public List<Payment> loadPage(PaymentQuery query, Payment after, int offset, int limit)
+                    throws SQLException {
+                return paymentDAO.findPage(query, after, offset, limit);
+            }
+        });
         attachListeners();
         
         // Load payment data immediately when controller is initialized
         loadPaymentData();
+        loadTenantFilterOptions();
     }
 
     /**
@@ -104,6 +111,13 @@ public class PaymentController {
         // Listener for sorting/filter changes (triggers data reload)
         paymentListView.addFilterComboBoxListener(e -> loadPaymentData()); // Reload data based on filter
 
+        // Keep the tenant filters in step with tenant changes
+        mainView.addPropertyChangeListener(MainDashboardView.DATA_CHANGED, evt -> {
+            if ("TENANT".equals(evt.getNewValue())) {
+                loadTenantFilterOptions();
+            }
+        });
+
         // Listener for table clicks (e.g., clicking the "View" link in the Receipt column)
         paymentListView.addTableMouseListener(new MouseAdapter() {
             @Override
@@ -118,110 +132,35 @@ public class PaymentController {
                 }
             }
         });
-
-        // Fallback: listen to key releases directly on the search field
-        paymentListView.getSearchField().addKeyListener(new KeyAdapter() {
-            @Override
-            public void keyReleased(KeyEvent e) {
-                SwingUtilities.invokeLater(() -> filterDisplayedPayments());
-            }
-        });
     }
 
     /**
-     * Loads payment data asynchronously based on the selected filter/sort order
-     * and updates the view. Fetches related data for display.
+     * Reloads the payment table for the selected filter/sort order. Only the row
+     * count and the first page are fetched; further pages load as the table scrolls.
      */
     public void loadPaymentData() {
-        String filter = paymentListView.getSelectedFilter(); // "All Payments", "Most Recent First", "Oldest First"
-        LOGGER.log(Level.INFO, "Loading payment data with filter: " + filter);
-
-        // Show loading state (optional)
-        // paymentListView.showLoadingState(true);
-        SwingWorker<List<PaymentDisplayData>, Void> worker = new SwingWorker<List<PaymentDisplayData>, Void>() {
-            @Override
-            protected List<PaymentDisplayData> doInBackground() throws Exception {
-                // Fetch raw payments based on desired DB order
-                List<Payment> payments;
-                switch (filter) {
-                    case "Oldest First":
-                        // TODO: Add findAndSortByDate(ASC) to PaymentDAO or sort here
-                        payments = paymentDAO.findAll(); // Fetch all
-                        LOGGER.log(Level.INFO, "Retrieved {0} payments from DAO findAll() method", payments.size());
-                        payments.sort(Comparator.comparing(Payment::getPaymentDate)); // Sort ascending
-                        break;
-                    case "Most Recent First":
-                    case "All Payments": // Assuming default DAO fetch is recent first
-                    default:
-                        // TODO: Add findAndSortByDate(DESC) to PaymentDAO or ensure default is DESC
-                        payments = paymentDAO.findAll(); // Fetch all (assuming default sort is recent first)
-                        LOGGER.log(Level.INFO, "Retrieved {0} payments from DAO findAll() method", payments.size());
-                        break;
-                }
-
-                // Enrich data for display (fetch related names/numbers)
-                // This is N+1 query problem if done naively. Better ways exist (Map lookup, JOIN in DAO).
-                // Simple Map lookup example:
-                // Map<Integer, Tenant> tenantMap = tenantDAO.findAll().stream().collect(Collectors.toMap(Tenant::getTenantId, t -> t));
-                // Map<Integer, Room> roomMap = roomDAO.findAll().stream().collect(Collectors.toMap(Room::getRoomId, r -> r));
-                List<PaymentDisplayData> displayData = new ArrayList<>();
-                for (Payment p : payments) {
-                    // Inefficient N+1 lookups - replace with better strategy
-                    String tName = tenantDAO.findById(p.getTenantId())
-                            .map(t -> t.getLastName() + ", " + t.getFirstName())
-                            .orElse("Unknown Tenant");
-                    String rNum = tenantDAO.findById(p.getTenantId())
-                            .flatMap(t -> t.getRoomId() != null ? roomDAO.findById(t.getRoomId()) : Optional.empty())
-                            .map(Room::getRoomNumber)
-                            .orElse("N/A");
-                    displayData.add(new PaymentDisplayData(p, tName, rNum));
-                }
-                LOGGER.log(Level.INFO, "Enriched {0} payment records with tenant and room data", displayData.size());
-                return displayData;
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    currentPaymentDisplayList = get(); // Store the loaded & enriched list
-                    LOGGER.log(Level.INFO, "Worker completed. Retrieved {0} enriched payment records", currentPaymentDisplayList.size());
-
-                    // Create maps for tenant names and room numbers
-                    java.util.Map<Integer, String> tenantNames = new java.util.HashMap<>();
-                    java.util.Map<Integer, String> roomNumbers = new java.util.HashMap<>();
-                    
-                    // Extract Payment objects and prepare maps
-                    List<Payment> payments = new ArrayList<>();
-                    for (PaymentDisplayData data : currentPaymentDisplayList) {
-                        payments.add(data.payment());
-                        tenantNames.put(data.payment().getTenantId(), data.tenantName());
-                        roomNumbers.put(data.payment().getTenantId(), data.roomNumber());
-                    }
+        LOGGER.log(Level.INFO, "Loading payment data with filter: {0}", paymentListView.getSelectedFilter());
+        paymentListView.reloadPayments();
+    }
 
-                    LOGGER.log(Level.INFO, "Preparing to update view with {0} payments", payments.size());
-                    // Pass all information to the view
-                    paymentListView.displayPayments(payments, tenantNames, roomNumbers);
-                    LOGGER.log(Level.INFO, "View update method called with {0} payments", payments.size());
-                    
-                    filterDisplayedPayments(); // Apply search filter to newly loaded data
-                    LOGGER.log(Level.INFO, "Payment data loaded and view updated.");
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    LOGGER.log(Level.WARNING, "Payment data loading interrupted", e);
-                } catch (ExecutionException e) {
-                    LOGGER.log(Level.SEVERE, "Error loading payment data", e.getCause());
-                    paymentListView.displayErrorMessage("Error loading payment data: " + e.getCause().getMessage());
-                } finally {
-                    // paymentListView.showLoadingState(false); // Hide loading state
-                }
-            }
-        };
-        worker.execute();
+    /**
+     * Loads the tenants offered as "Tenant: ..." filters in the background.
+     * Inactive tenants are included since their payments remain in the history.
+     */
+    private void loadTenantFilterOptions() {
+        TaskExecutor.submitLatest("payments.loadTenantFilters", Lane.INTERACTIVE, () -> {
+                    List<Tenant> tenants = new ArrayList<>(tenantDAO.findAllIncludingInactive());
+                    tenants.sort(Comparator.comparing(Tenant::getLastName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                            .thenComparing(Tenant::getFirstName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+                    return tenants;
+                },
+                paymentListView::setTenantFilterOptions,
+                error -> LOGGER.log(Level.WARNING, "Could not load tenant filters", error));
     }
 
     /**
-     * Applies the text search filter and combo box filter to the currently displayed data in the
-     * table using the more comprehensive filterTable method.
+     * Applies the text search filter and combo box filter. The view debounces
+     * the resulting database query.
      */
     private void filterDisplayedPayments() {
         paymentListView.filterTable();
@@ -239,24 +178,27 @@ public class PaymentController {
             // Add OCR listener here if it were implemented
         }
 
-        // Fetch tenants and rooms for populating combo boxes
-        try {
-            // Simple synchronous fetch for now
-            List<Tenant> tenants = tenantDAO.findAll(); // Fetch active tenants ideally
-            List<Room> rooms = roomDAO.findAll();
-            
-            // Populate the combo boxes
-            paymentLoggingDialog.setTenantComboBoxModel(tenants);
-            paymentLoggingDialog.setRoomComboBoxModel(rooms);
-            
-            // Setup the room-tenant linking for interactive filtering
-            paymentLoggingDialog.setupRoomTenantLinking(tenants);
-            
-        } catch (Exception ex) {
-            LOGGER.log(Level.SEVERE, "Failed to load data for payment dialog", ex);
-            paymentLoggingDialog.displayErrorMessage("Error loading room and tenant data.");
-        }
+        // Fetch tenants and rooms for populating combo boxes off the EDT, then show the dialog.
+        // Latest wins, so a double click opens the dialog once
+        TaskExecutor.submitLatest("payments.prepareLogDialog", Lane.INTERACTIVE,
+                () -> new DialogData(tenantDAO.findAll(), // Fetch active tenants ideally
+                        RoomCatalog.getRooms()), // Shared snapshot, no query unless rooms changed
+                data -> {
+                    // Populate the combo boxes
+                    paymentLoggingDialog.setTenantComboBoxModel(data.tenants);
+                    paymentLoggingDialog.setRoomComboBoxModel(data.rooms);
+
+                    // Setup the room-tenant linking for interactive filtering
+                    paymentLoggingDialog.setupRoomTenantLinking(data.tenants);
+                    showLogPaymentDialog();
+                },
+                error -> {
+                    paymentLoggingDialog.displayErrorMessage("Error loading room and tenant data.");
+                    showLogPaymentDialog();
+                });
+    }
 
+    private void showLogPaymentDialog() {
         paymentLoggingDialog.showDialog();
 
         if (paymentLoggingDialog.isSaved()) {
@@ -272,51 +214,41 @@ public class PaymentController {
         if (paymentData != null) {
             paymentData.setUserId(loggedInUser.getUserId());
 
-            // Generate QR Code Data String (Needs related data)
-            String qrData = generateQrCodeString(paymentData); // Pass payment object
-            paymentData.setQrCodeData(qrData);
-
-            SwingWorker<Integer, Void> worker = new SwingWorker<Integer, Void>() {
-                @Override
-                protected Integer doInBackground() throws Exception {
-                    return paymentDAO.addPayment(paymentData);
-                }
-
-                @Override
-                protected void done() {
-                    try {
-                        int newId = get();
-                        if (newId > 0) {
-                            LOGGER.info("New payment saved successfully with ID: " + newId);
+            TaskExecutor.submit(Lane.INTERACTIVE, "payments.add", () -> {
+                        // Generate QR Code Data String (Needs related data)
+                        String qrData = generateQrCodeString(paymentData); // Pass payment object
+                        paymentData.setQrCodeData(qrData);
+                        int newId = paymentDAO.addPayment(paymentData);
+                        if (newId <= 0) {
+                            return null;
+                        }
+                        paymentData.setPaymentId(newId); // Set ID for receipt view
+                        return loadReceiptData(paymentData);
+                    },
+                    receiptData -> {
+                        if (receiptData != null) {
+                            LOGGER.info("New payment saved successfully with ID: " + paymentData.getPaymentId());
+                            mainView.firePropertyChange(MainDashboardView.DATA_CHANGED, null, "PAYMENT");
                             paymentLoggingDialog.setSaved(true);
                             paymentLoggingDialog.closeDialog();
-                            paymentData.setPaymentId(newId); // Set ID for receipt view
-                            viewReceipt(paymentData); // Show receipt immediately
+                            viewReceipt(receiptData.payment, receiptData.tenant, receiptData.room); // Show receipt immediately
                         } else {
                             LOGGER.warning("Failed to save new payment (DAO returned <= 0).");
                             paymentLoggingDialog.displayErrorMessage("Failed to save payment.");
                         }
-                    } catch (Exception e) {
-                        handleWorkerException("saving new payment", e);
-                    }
-                }
-            };
-            worker.execute();
+                    },
+                    error -> handleTaskFailure("saving new payment"));
         }
     }
 
     /**
-     * Overloaded helper method that loads tenant and room data before showing receipt.
-     * Used when we only have a Payment object but need related data for the receipt.
+     * Loads the tenant and room shown on a payment's receipt. Runs off the EDT.
      */
-    private void viewReceipt(Payment payment) {
-        // Fetch related data for the payment
+    private ReceiptData loadReceiptData(Payment payment) {
         Optional<Tenant> tenantOpt = tenantDAO.findById(payment.getTenantId());
-        Optional<Room> roomOpt = tenantOpt.flatMap(t -> t.getRoomId() != null ? 
+        Optional<Room> roomOpt = tenantOpt.flatMap(t -> t.getRoomId() != null ?
                 roomDAO.findById(t.getRoomId()) : Optional.empty());
-        
-        // Call the main viewReceipt method with the fetched data
-        viewReceipt(payment, tenantOpt.orElse(null), roomOpt.orElse(null));
+        return new ReceiptData(payment, tenantOpt.orElse(null), roomOpt.orElse(null));
     }
 
     /**
@@ -381,9 +313,8 @@ public class PaymentController {
      * @param viewRowIndex The row index in the JTable's current view.
      */
     private void viewPaymentReceiptFromTable(int viewRowIndex) {
-        if (viewRowIndex >= 0) {
-            int modelRow = paymentListView.getPaymentTable().convertRowIndexToModel(viewRowIndex);
-            int paymentId = (Integer) paymentListView.getPaymentTable().getModel().getValueAt(modelRow, 0);
+        int paymentId = paymentListView.getPaymentIdAt(viewRowIndex);
+        if (paymentId >= 0) {
             viewPaymentById(paymentId);
         }
     }
@@ -395,38 +326,18 @@ public class PaymentController {
      */
     private void viewPaymentById(int paymentId) {
         LOGGER.info("Viewing receipt for Payment ID: " + paymentId);
-        // Use SwingWorker if fetching related data might be slow
-        SwingWorker<ReceiptData, Void> worker = new SwingWorker<ReceiptData, Void>() {
-            @Override
-            protected ReceiptData doInBackground() throws Exception {
-                Optional<Payment> paymentOpt = paymentDAO.findById(paymentId);
-                if (paymentOpt.isPresent()) {
-                    Payment payment = paymentOpt.get();
-                    Optional<Tenant> tenantOpt = tenantDAO.findById(payment.getTenantId());
-                    Optional<Room> roomOpt = tenantOpt.flatMap(t -> t.getRoomId() != null ? roomDAO.findById(t.getRoomId()) : Optional.empty());
-                    // Optional: Fetch user who logged it if needed on receipt
-                    // Optional<User> loggerOpt = userDAO.findById(payment.getUserId());
-                    return new ReceiptData(payment, tenantOpt.orElse(null), roomOpt.orElse(null));
-                }
-                return null; // Payment not found
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    ReceiptData data = get();
-                    if (data != null) {
+        TaskExecutor.submit(Lane.INTERACTIVE, "payments.loadReceipt",
+                () -> paymentDAO.findById(paymentId).map(this::loadReceiptData),
+                dataOpt -> {
+                    if (dataOpt.isPresent()) {
+                        ReceiptData data = dataOpt.get();
                         viewReceipt(data.payment, data.tenant, data.room); // Call helper to show dialog
                     } else {
                         LOGGER.log(Level.WARNING, "Payment ID {0} not found for viewing receipt.", paymentId);
                         paymentListView.displayErrorMessage("Could not find details for the selected payment.");
                     }
-                } catch (Exception e) {
-                    handleWorkerException("viewing receipt", e);
-                }
-            }
-        };
-        worker.execute();
+                },
+                error -> handleTaskFailure("viewing receipt"));
     }
 
     /**
@@ -530,22 +441,19 @@ public class PaymentController {
         receiptDialog.saveReceiptAsPDF();
     }
 
-    // --- Helper for Handling SwingWorker Exceptions ---
-    private void handleWorkerException(String action, Exception e) {
-        Throwable cause = (e instanceof ExecutionException) ? e.getCause() : e;
-        if (e instanceof InterruptedException) {
-            Thread.currentThread().interrupt();
-            LOGGER.log(Level.WARNING, "Action '" + action + "' interrupted", cause);
-        } else {
-            LOGGER.log(Level.SEVERE, "Error during action '" + action + "'", cause);
-            // Show generic error to user
-            JOptionPane.showMessageDialog(mainView, "An unexpected error occurred while " + action + ".\nPlease check logs or try again.", "Error", JOptionPane.ERROR_MESSAGE);
-        }
+    // --- Helper for Handling Background Task Failures ---
+    private void handleTaskFailure(String action) {
+        // TaskExecutor has already logged the exception; show generic error to user
+        JOptionPane.showMessageDialog(mainView, "An unexpected error occurred while " + action + ".\nPlease check logs or try again.", "Error", JOptionPane.ERROR_MESSAGE);
     }
 
-    // --- Helper Data Class for SwingWorker (Receipt Data) ---
+    // --- Helper Data Classes for background loads ---
     private static record ReceiptData(Payment payment, Tenant tenant, Room room) {
 
     }
 
+    private static record DialogData(List<Tenant> tenants, List<Room> rooms) {
+
+    }
+
 }
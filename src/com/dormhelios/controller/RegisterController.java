@@ -2,6 +2,8 @@ package com.dormhelios.controller;
 
 import com.dormhelios.model.dao.UserDAO;
 import com.dormhelios.model.entity.User;
+import com.dormhelios.service.TaskExecutor;
+import com.dormhelios.service.TaskExecutor.Lane;
 import com.dormhelios.util.PasswordUtils; // Use the same Password Utility
 import com.dormhelios.view.RegisterView;
 
@@ -11,7 +13,6 @@ import java.util.Arrays;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.SwingUtilities;
-import javax.swing.SwingWorker;
 
 /**
  * Controller responsible for handling the logic of the RegisterView.
@@ -111,78 +112,77 @@ public class RegisterController {
             // Disable register button to prevent multiple submissions
             registerView.setRegisterEnabled(false);
 
-            SwingWorker<Integer, Void> worker = new SwingWorker<Integer, Void>() {
-                private String errorMessage;
-
-                @Override
-                protected Integer doInBackground() {
-                    try {
-                        if (userDAO.findByEmail(email).isPresent()) {
-                            errorMessage = "An account with this email already exists.";
-                            return -1;
-                        }
-                        String hashed = PasswordUtils.hashPassword(new String(password));
-                        if (hashed == null) {
-                            errorMessage = "Could not secure password. Registration failed.";
-                            return -1;
-                        }
-                        User newUser = new User("test", hashed, "test", "Test", User.Role.TENANT, email, null);
-                        newUser.setActive(true);
-                        return userDAO.addUser(newUser);
-                    } catch (Exception ex) {
-                        LOGGER.log(Level.SEVERE, "Error during registration process", ex);
-                        errorMessage = "An unexpected error occurred during registration.";
-                        return -1;
-                    }
-                }
-
-                @Override
-                protected void done() {
-                    // Always clear passwords and re-enable button
-                    clearPasswordArrays(password, confirmPassword);
-                    registerView.setRegisterEnabled(true);
-                    try {
-                        int newId = get();
-                        if (newId > 0) {
+            TaskExecutor.submit(Lane.INTERACTIVE, "register.createAccount", () -> register(email, password),
+                    result -> {
+                        // Always clear passwords and re-enable button
+                        clearPasswordArrays(password, confirmPassword);
+                        registerView.setRegisterEnabled(true);
+                        if (result.newUser != null) {
                             registerView.displayInfoMessage("Registration successful! Redirecting to setup...");
-                            LOGGER.log(Level.INFO, "New user registered with ID: {0}", newId);
-                            
-                            // Get the newly created user
-                            User newUser = userDAO.findById(newId).orElse(null);
-                            if (newUser != null) {
-                                // Create and show the SetupView with the new user
-                                javax.swing.SwingUtilities.invokeLater(() -> {
-                                    registerView.closeView();
-                                    
-                                    // Create the setup view and controller
-                                    com.dormhelios.view.SetupView setupView = new com.dormhelios.view.SetupView();
-                                    com.dormhelios.controller.SetupController setupController = 
-                                        new com.dormhelios.controller.SetupController(setupView, userDAO, newUser);
-                                    
-                                    // Set navigation logic for after setup completion (to dashboard)
-                                    setupController.setOnSetupCompleteListener(() -> {
-                                        if (onRegistrationComplete != null) {
-                                            onRegistrationComplete.run();
-                                        }
-                                    });
-                                    
-                                    // Show the setup view
-                                    setupView.setVisible(true);
-                                });
-                            } else {
-                                registerView.displayErrorMessage("Unable to retrieve user information. Please try again.");
-                            }
+                            LOGGER.log(Level.INFO, "New user registered with ID: {0}", result.newUser.getUserId());
+                            showSetupView(result.newUser);
                         } else {
-                            registerView.displayErrorMessage(errorMessage);
+                            registerView.displayErrorMessage(result.errorMessage);
                         }
-                    } catch (Exception ex) {
-                        LOGGER.log(Level.SEVERE, "Error finalizing registration", ex);
+                    },
+                    error -> {
+                        clearPasswordArrays(password, confirmPassword);
+                        registerView.setRegisterEnabled(true);
                         registerView.displayErrorMessage("An unexpected error occurred.");
-                    }
+                    });
+        }
+
+        /**
+         * Creates the account and reads it back. Runs off the EDT.
+         */
+        private RegisterResult register(String email, char[] password) {
+            try {
+                if (userDAO.findByEmail(email).isPresent()) {
+                    return new RegisterResult(null, "An account with this email already exists.");
+                }
+                String hashed = PasswordUtils.hashPassword(new String(password));
+                if (hashed == null) {
+                    return new RegisterResult(null, "Could not secure password. Registration failed.");
                 }
-            };
-            worker.execute();
+                User newUser = new User("test", hashed, "test", "Test", User.Role.TENANT, email, null);
+                newUser.setActive(true);
+                int newId = userDAO.addUser(newUser);
+                if (newId <= 0) {
+                    return new RegisterResult(null, "An unexpected error occurred during registration.");
+                }
+                // Get the newly created user
+                return userDAO.findById(newId)
+                        .map(user -> new RegisterResult(user, null))
+                        .orElse(new RegisterResult(null, "Unable to retrieve user information. Please try again."));
+            } catch (Exception ex) {
+                LOGGER.log(Level.SEVERE, "Error during registration process", ex);
+                return new RegisterResult(null, "An unexpected error occurred during registration.");
+            }
         }
+
+        private void showSetupView(User newUser) {
+            registerView.closeView();
+
+            // Create the setup view and controller
+            com.dormhelios.view.SetupView setupView = new com.dormhelios.view.SetupView();
+            com.dormhelios.controller.SetupController setupController =
+                new com.dormhelios.controller.SetupController(setupView, userDAO, newUser);
+
+            // Set navigation logic for after setup completion (to dashboard)
+            setupController.setOnSetupCompleteListener(() -> {
+                if (onRegistrationComplete != null) {
+                    onRegistrationComplete.run();
+                }
+            });
+
+            // Show the setup view
+            setupView.setVisible(true);
+        }
+    }
+
+    // --- Helper Data Class for the background registration ---
+    private static record RegisterResult(User newUser, String errorMessage) {
+
     }
 
     class BackToLoginButtonListener implements ActionListener {
@@ -1,19 +1,24 @@
 package com.dormhelios.controller;
 
+import com.dormhelios.model.dao.PaymentDAO;
 import com.dormhelios.model.dao.TenantDAO;
 import com.dormhelios.model.entity.Tenant;
+import com.dormhelios.service.OverdueReminderJob;
+import com.dormhelios.service.TaskExecutor;
+import com.dormhelios.service.TaskExecutor.Lane;
+import com.dormhelios.util.SMSDispatcher;
 import com.dormhelios.util.SMSService;
 import com.dormhelios.view.MainDashboardView;
+import com.dormhelios.view.ReminderBatchDialog;
 import com.dormhelios.view.SendReminderDialog;
 import java.awt.event.ActionEvent;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.JOptionPane;
-import javax.swing.SwingWorker;
+import javax.swing.SwingUtilities;
 
 /**
  * Controller class for managing the Send Reminder functionality.
@@ -23,16 +28,26 @@ public class ReminderController {
     
     private static final Logger LOGGER = Logger.getLogger(ReminderController.class.getName());
     
+    private static final String DEFAULT_TEMPLATE = "Dear {firstName},\n\nThis is a friendly reminder that your rent payment "
+            + "for {month} is due. Please settle your account as soon as possible.\n\n"
+            + "Thank you,\nDorm Management";
+    
     private final SendReminderDialog reminderDialog;
     private final TenantDAO tenantDAO;
+    private final PaymentDAO paymentDAO;
     private final MainDashboardView mainView;
     private final SMSService smsService;
+    private SMSDispatcher smsDispatcher; // Created on the first batch run
     
+    // Tenants shown in the combo box, so selection changes need no extra query
+    private final Map<Integer, Tenant> tenantsById = new HashMap<>();
     private Tenant selectedTenant;
     
-    public ReminderController(SendReminderDialog reminderDialog, TenantDAO tenantDAO, MainDashboardView mainView) {
+    public ReminderController(SendReminderDialog reminderDialog, TenantDAO tenantDAO, PaymentDAO paymentDAO,
+            MainDashboardView mainView) {
         this.reminderDialog = reminderDialog;
         this.tenantDAO = tenantDAO;
+        this.paymentDAO = paymentDAO;
         this.mainView = mainView;
         this.smsService = SMSService.fromConfig();
         
@@ -49,31 +64,30 @@ public class ReminderController {
         
         // Add action listener for the tenant selection change
         reminderDialog.addTenantSelectionListener(e -> handleTenantSelectionChange());
+        
+        // Batch mode: every overdue tenant at once
+        reminderDialog.addRemindAllButtonListener(e -> handleRemindAllOverdue());
     }
     
     /**
-     * Loads tenant data into the dialog
+     * Loads tenant data into the dialog in the background
      */
     private void loadTenants() {
-        try {
-            List<Tenant> tenants = tenantDAO.findAll();
-            reminderDialog.setTenantComboBoxModel(tenants);
-            
-            // Set default message template
-            String defaultTemplate = "Dear tenant,\n\nThis is a friendly reminder that your rent payment "
-                    + "for " + LocalDate.now().format(DateTimeFormatter.ofPattern("MMMM yyyy")) 
-                    + " is due. Please settle your account as soon as possible.\n\n"
-                    + "Thank you,\nDorm Management";
-            
-            reminderDialog.setMessageTemplate(defaultTemplate);
-            
-        } catch (Exception ex) {
-            LOGGER.log(Level.SEVERE, "Error loading tenants for reminder", ex);
-            JOptionPane.showMessageDialog(mainView, 
-                    "Error loading tenant data: " + ex.getMessage(), 
-                    "Data Error", 
-                    JOptionPane.ERROR_MESSAGE);
-        }
+        // Set default message template; placeholders are filled per tenant when sending
+        reminderDialog.setMessageTemplate(DEFAULT_TEMPLATE);
+        
+        TaskExecutor.submit(Lane.INTERACTIVE, "reminders.loadTenants", tenantDAO::findAll,
+                tenants -> {
+                    tenantsById.clear();
+                    for (Tenant tenant : tenants) {
+                        tenantsById.put(tenant.getTenantId(), tenant);
+                    }
+                    reminderDialog.setTenantComboBoxModel(tenants);
+                },
+                error -> JOptionPane.showMessageDialog(mainView,
+                        "Error loading tenant data: " + error.getMessage(),
+                        "Data Error",
+                        JOptionPane.ERROR_MESSAGE));
     }
     
     /**
@@ -81,26 +95,32 @@ public class ReminderController {
      */
     public void handleTenantSelectionChange() {
         Integer selectedTenantId = reminderDialog.getSelectedTenantId();
-        if (selectedTenantId != null) {
-            try {
-                Optional<Tenant> optionalTenant = tenantDAO.findById(selectedTenantId);
-                if (optionalTenant.isPresent()) {
-                    selectedTenant = optionalTenant.get();
-                    if (selectedTenant.getPhoneNumber() != null) {
-                        reminderDialog.setContactNumber(selectedTenant.getPhoneNumber());
-                    } else {
-                        reminderDialog.setContactNumber("No phone number available");
-                    }
-                } else {
-                    reminderDialog.setContactNumber("Tenant not found");
-                }
-            } catch (Exception ex) {
-                LOGGER.log(Level.SEVERE, "Error loading tenant details", ex);
-                reminderDialog.setContactNumber("Error loading contact info");
-            }
-        } else {
+        if (selectedTenantId == null) {
             selectedTenant = null;
             reminderDialog.setContactNumber("");
+            return;
+        }
+        Tenant cached = tenantsById.get(selectedTenantId);
+        if (cached != null) {
+            showSelectedTenant(Optional.of(cached));
+            return;
+        }
+        // Not in the loaded list: look it up off the EDT; a newer selection supersedes this one
+        TaskExecutor.submitLatest("reminders.selectTenant", Lane.INTERACTIVE, () -> tenantDAO.findById(selectedTenantId),
+                this::showSelectedTenant,
+                error -> reminderDialog.setContactNumber("Error loading contact info"));
+    }
+    
+    private void showSelectedTenant(Optional<Tenant> optionalTenant) {
+        if (optionalTenant.isPresent()) {
+            selectedTenant = optionalTenant.get();
+            if (selectedTenant.getPhoneNumber() != null) {
+                reminderDialog.setContactNumber(selectedTenant.getPhoneNumber());
+            } else {
+                reminderDialog.setContactNumber("No phone number available");
+            }
+        } else {
+            reminderDialog.setContactNumber("Tenant not found");
         }
     }
     
@@ -139,7 +159,8 @@ public class ReminderController {
             String phoneNumber = selectedTenant.getPhoneNumber();
             
             // Use our simulated SMS sender instead of the actual SMS service
-            boolean result = reminderDialog.simulateSendSMS(tenantName, phoneNumber, message);
+            String rendered = OverdueReminderJob.render(message, selectedTenant, null, null);
+            boolean result = reminderDialog.simulateSendSMS(tenantName, phoneNumber, rendered);
             
             // Always succeeds in simulation mode
             if (result) {
@@ -158,10 +179,64 @@ public class ReminderController {
         }
     }
     
+    /**
+     * Sends the message template to every tenant with an overdue payment,
+     * showing progress in a ReminderBatchDialog that allows cancelling.
+     */
+    private void handleRemindAllOverdue() {
+        String template = reminderDialog.getMessage();
+        if (template == null || template.trim().isEmpty()) {
+            reminderDialog.displayErrorMessage("Please enter a message to send");
+            return;
+        }
+        if (!smsService.isEnabled()) {
+            reminderDialog.displayErrorMessage("SMS service is not configured. Set sms.apiKey in config.properties.");
+            return;
+        }
+        int confirm = JOptionPane.showConfirmDialog(reminderDialog,
+                "Send this reminder to every tenant with an overdue payment?",
+                "Remind All Overdue", JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
+        if (confirm != JOptionPane.YES_OPTION) {
+            return;
+        }
+        
+        if (smsDispatcher == null) {
+            smsDispatcher = new SMSDispatcher(smsService);
+        }
+        OverdueReminderJob job = new OverdueReminderJob(paymentDAO, smsDispatcher);
+        ReminderBatchDialog batchDialog = new ReminderBatchDialog(reminderDialog);
+        
+        batchDialog.addCancelButtonListener(e -> {
+            batchDialog.showCancelling();
+            job.cancel();
+        });
+        batchDialog.addCloseButtonListener(e -> batchDialog.closeDialog());
+        // Bulk send: background lane, progress is handed to the EDT per recipient
+        TaskExecutor.submit(Lane.BACKGROUND, "reminders.remindAllOverdue",
+                () -> job.run(template, (result, finishedCount, totalCount) -> SwingUtilities.invokeLater(() -> {
+                    batchDialog.appendResult(result.toString());
+                    batchDialog.setProgress(finishedCount, totalCount);
+                })),
+                summary -> batchDialog.showFinished(summary.toString()),
+                error -> batchDialog.showFinished("Reminder run failed: " + error.getMessage()));
+        batchDialog.showDialog(); // Modal; the task keeps running while it is shown
+    }
+    
     /**
      * Shows the send reminder dialog
      */
     public void showSendReminderDialog() {
         reminderDialog.showDialog();
     }
+
+    /**
+     * Stops the SMS dispatcher's threads, e.g. on logout. Sends still queued
+     * are abandoned.
+     */
+    public void close() {
+        if (smsDispatcher != null) {
+            smsDispatcher.shutdown();
+            smsDispatcher = null;
+        }
+    }
 }
\ No newline at end of file
@@ -2,6 +2,9 @@ package com.dormhelios.controller;
 
 import com.dormhelios.model.dao.RoomDAO;
 import com.dormhelios.model.entity.Room;
+import com.dormhelios.service.RoomCatalog;
+import com.dormhelios.service.TaskExecutor;
+import com.dormhelios.service.TaskExecutor.Lane;
 import com.dormhelios.view.MainDashboardView; // Needed for parenting dialogs
 import com.dormhelios.view.RoomFormDialog; // The Add/Edit dialog
 import com.dormhelios.view.RoomListView; // The panel this controller manages
@@ -14,8 +17,6 @@ import java.awt.event.ActionListener;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.List;
-import java.util.Optional;
-import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -57,32 +58,26 @@ public class RoomController implements PropertyChangeListener {
         // Add listener for View button if implemented separately
         // roomListView.addViewButtonListener(e -> viewRoomDetails());
 
-        // Listener for live search
+        // Live search: the view debounces keystrokes into a single indexed search
         roomListView.addSearchFieldListener(new DocumentListener() {
             @Override
             public void insertUpdate(DocumentEvent e) {
-                // Use invokeLater to ensure filtering happens on the EDT
-                SwingUtilities.invokeLater(() -> roomListView.filterTable());
+                roomListView.scheduleFilter();
             }
 
             @Override
             public void removeUpdate(DocumentEvent e) {
-                // Use invokeLater to ensure filtering happens on the EDT
-                SwingUtilities.invokeLater(() -> roomListView.filterTable());
+                roomListView.scheduleFilter();
             }
 
             @Override
             public void changedUpdate(DocumentEvent e) {
-                // Use invokeLater to ensure filtering happens on the EDT
-                SwingUtilities.invokeLater(() -> roomListView.filterTable());
+                roomListView.scheduleFilter();
             }
         });
 
         // Listener for filter changes
-        roomListView.addFilterComboBoxListener(e -> {
-            // Use invokeLater for consistency, though less critical for ActionListener
-            SwingUtilities.invokeLater(() -> roomListView.filterTable());
-        });
+        roomListView.addFilterComboBoxListener(e -> roomListView.filterTable());
     }
 
     /**
@@ -90,34 +85,17 @@ public class RoomController implements PropertyChangeListener {
      * when the RoomListView panel is displayed.
      */
     public void loadInitialData() {
-        // Use SwingWorker to fetch data off the EDT
-        SwingWorker<List<Room>, Void> worker = new SwingWorker<List<Room>, Void>() {
-            @Override
-            protected List<Room> doInBackground() throws Exception {
-                LOGGER.info("Loading room data in background...");
-                return roomDAO.findAll(); // Fetch all rooms
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    List<Room> rooms = get(); // Get results
-                    // Update UI on the EDT
+        // Latest wins: a reload requested while one is running replaces it
+        TaskExecutor.submitLatest("rooms.load", Lane.INTERACTIVE,
+                RoomCatalog::getRooms, // Reloads only if a room was written since the last load
+                rooms -> {
                     roomListView.displayRooms(rooms);
                     updateSummaryCards(rooms); // Update counts based on fetched data
                     // Apply current filters/search after loading new data
                     roomListView.filterTable();
                     LOGGER.info("Room data loaded and view updated.");
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    LOGGER.log(Level.WARNING, "Room data loading interrupted", e);
-                } catch (ExecutionException e) {
-                    LOGGER.log(Level.SEVERE, "Error loading room data", e.getCause());
-                    roomListView.displayErrorMessage("Error loading room data: " + e.getCause().getMessage());
-                }
-            }
-        };
-        worker.execute(); // Start the worker
+                },
+                error -> roomListView.displayErrorMessage("Error loading room data: " + error.getMessage()));
     }
 
     /**
@@ -168,27 +146,29 @@ public class RoomController implements PropertyChangeListener {
         }
         LOGGER.info("Opening Edit Room dialog for ID: " + selectedRoomId);
 
-        // Fetch the full Room object (could use SwingWorker if slow)
-        Optional<Room> roomOpt = roomDAO.findById(selectedRoomId);
-
-        if (roomOpt.isPresent()) {
-            if (roomFormDialog == null) {
-                roomFormDialog = new RoomFormDialog(mainView, true);
-                roomFormDialog.addSaveButtonListener(e -> saveUpdatedRoom());
-                roomFormDialog.addCancelButtonListener(e -> roomFormDialog.closeDialog());
-            }
-            roomFormDialog.setupForEdit(roomOpt.get()); // Configure dialog for editing
-            roomFormDialog.showDialog();
+        // Fetch the full Room object off the EDT; latest wins, so a double click opens the dialog once
+        TaskExecutor.submitLatest("rooms.prepareEditDialog", Lane.INTERACTIVE, () -> roomDAO.findById(selectedRoomId),
+                roomOpt -> {
+                    if (roomOpt.isPresent()) {
+                        if (roomFormDialog == null) {
+                            roomFormDialog = new RoomFormDialog(mainView, true);
+                            roomFormDialog.addSaveButtonListener(e -> saveUpdatedRoom());
+                            roomFormDialog.addCancelButtonListener(e -> roomFormDialog.closeDialog());
+                        }
+                        roomFormDialog.setupForEdit(roomOpt.get()); // Configure dialog for editing
+                        roomFormDialog.showDialog();
 
-            // After dialog closes, check if saved and refresh list
-            if (roomFormDialog.isSaved()) {
-                loadInitialData(); // Reload data to show changes
-            }
-        } else {
-            LOGGER.log(Level.WARNING, "Selected room ID {0} not found in database for editing.", selectedRoomId);
-            roomListView.displayErrorMessage("Could not find the selected room details.");
-            loadInitialData(); // Refresh list in case it was deleted concurrently
-        }
+                        // After dialog closes, check if saved and refresh list
+                        if (roomFormDialog.isSaved()) {
+                            loadInitialData(); // Reload data to show changes
+                        }
+                    } else {
+                        LOGGER.log(Level.WARNING, "Selected room ID {0} not found in database for editing.", selectedRoomId);
+                        roomListView.displayErrorMessage("Could not find the selected room details.");
+                        loadInitialData(); // Refresh list in case it was deleted concurrently
+                    }
+                },
+                error -> roomListView.displayErrorMessage("Error loading room: " + error.getMessage()));
     }
 
     /**
@@ -197,19 +177,11 @@ public class RoomController implements PropertyChangeListener {
     private void saveNewRoom() {
         Room roomData = roomFormDialog.getRoomData(); // Get data (includes validation)
         if (roomData != null) {
-            // Use SwingWorker for database operation
-            SwingWorker<Integer, Void> worker = new SwingWorker<Integer, Void>() {
-                @Override
-                protected Integer doInBackground() throws Exception {
-                    return roomDAO.addRoom(roomData); // Attempt to add
-                }
-
-                @Override
-                protected void done() {
-                    try {
-                        int newId = get();
+            TaskExecutor.submit(Lane.INTERACTIVE, "rooms.add", () -> roomDAO.addRoom(roomData), // Attempt to add
+                    newId -> {
                         if (newId > 0) {
                             LOGGER.info("New room saved successfully with ID: " + newId);
+                            notifyDataChanged();
                             roomFormDialog.setSaved(true); // Mark as saved
                             roomFormDialog.closeDialog(); // Close dialog
                             // Optionally show success message via main view or dialog
@@ -217,17 +189,9 @@ public class RoomController implements PropertyChangeListener {
                             LOGGER.warning("Failed to save new room (DAO returned <= 0).");
                             roomFormDialog.displayErrorMessage("Failed to save room. Check logs or ensure Room Number is unique.");
                         }
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        LOGGER.log(Level.WARNING, "Saving new room interrupted", e);
-                    } catch (ExecutionException e) {
-                        LOGGER.log(Level.SEVERE, "Error saving new room", e.getCause());
-                        // Check for specific SQL exceptions like duplicate key if possible
-                        roomFormDialog.displayErrorMessage("Error saving room: " + e.getCause().getMessage());
-                    }
-                }
-            };
-            worker.execute();
+                    },
+                    // Check for specific SQL exceptions like duplicate key if possible
+                    error -> roomFormDialog.displayErrorMessage("Error saving room: " + error.getMessage()));
         }
         // If roomData is null, validation failed in getRoomData(), error message already shown
     }
@@ -238,35 +202,19 @@ public class RoomController implements PropertyChangeListener {
     private void saveUpdatedRoom() {
         Room roomData = roomFormDialog.getRoomData(); // Gets data, includes ID if editing
         if (roomData != null) {
-            // Use SwingWorker for database operation
-            SwingWorker<Boolean, Void> worker = new SwingWorker<Boolean, Void>() {
-                @Override
-                protected Boolean doInBackground() throws Exception {
-                    return roomDAO.updateRoom(roomData); // Attempt to update
-                }
-
-                @Override
-                protected void done() {
-                    try {
-                        boolean success = get();
+            TaskExecutor.submit(Lane.INTERACTIVE, "rooms.update", () -> roomDAO.updateRoom(roomData), // Attempt to update
+                    success -> {
                         if (success) {
                             LOGGER.info("Room updated successfully: ID " + roomData.getRoomId());
+                            notifyDataChanged();
                             roomFormDialog.setSaved(true);
                             roomFormDialog.closeDialog();
                         } else {
                             LOGGER.warning("Failed to update room: ID " + roomData.getRoomId());
                             roomFormDialog.displayErrorMessage("Failed to update room. Check logs or ensure Room Number is unique.");
                         }
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        LOGGER.log(Level.WARNING, "Updating room interrupted", e);
-                    } catch (ExecutionException e) {
-                        LOGGER.log(Level.SEVERE, "Error updating room", e.getCause());
-                        roomFormDialog.displayErrorMessage("Error updating room: " + e.getCause().getMessage());
-                    }
-                }
-            };
-            worker.execute();
+                    },
+                    error -> roomFormDialog.displayErrorMessage("Error updating room: " + error.getMessage()));
         }
     }
 
@@ -287,34 +235,30 @@ public class RoomController implements PropertyChangeListener {
 
         if (confirmation == JOptionPane.YES_OPTION) {
             LOGGER.info("Attempting to deactivate room ID: " + selectedRoomId);
-            SwingWorker<Boolean, Void> worker = new SwingWorker<Boolean, Void>() {
-                @Override
-                protected Boolean doInBackground() throws Exception {
-                    return roomDAO.setActiveStatus(selectedRoomId, false);
-                }
-
-                @Override
-                protected void done() {
-                    try {
-                        boolean success = get();
+            TaskExecutor.submit(Lane.INTERACTIVE, "rooms.deactivate", () -> roomDAO.setActiveStatus(selectedRoomId, false),
+                    success -> {
                         if (success) {
                             LOGGER.info("Room deactivated successfully: ID " + selectedRoomId);
+                            notifyDataChanged();
                             roomListView.displayInfoMessage("Room has been successfully deactivated.");
                             loadInitialData(); // Refresh the list
                         } else {
                             LOGGER.warning("Failed to deactivate room: ID " + selectedRoomId);
                             roomListView.displayErrorMessage("Could not deactivate room. It may have active tenants or already be inactive.");
                         }
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        LOGGER.log(Level.WARNING, "Deactivation interrupted", e);
-                    } catch (ExecutionException e) {
-                        LOGGER.log(Level.SEVERE, "Error deactivating room", e.getCause());
-                        roomListView.displayErrorMessage("Error deactivating room: " + e.getCause().getMessage());
-                    }
-                }
-            };
-            worker.execute();
+                    },
+                    error -> roomListView.displayErrorMessage("Error deactivating room: " + error.getMessage()));
+        }
+    }
+
+    /**
+     * Marks the room catalog stale and tells other controllers (e.g. the
+     * dashboard cache) that room data was written.
+     */
+    private void notifyDataChanged() {
+        RoomCatalog.invalidate();
+        if (mainView != null) {
+            mainView.firePropertyChange(MainDashboardView.DATA_CHANGED, null, "ROOM");
         }
     }
 
@@ -2,6 +2,8 @@ package com.dormhelios.controller;
 
 import com.dormhelios.model.dao.UserDAO;
 import com.dormhelios.model.entity.User;
+import com.dormhelios.service.TaskExecutor;
+import com.dormhelios.service.TaskExecutor.Lane;
 import com.dormhelios.view.SetupView;
 
 import java.awt.event.ActionEvent;
@@ -9,7 +11,6 @@ import java.awt.event.ActionListener;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.SwingUtilities;
-import javax.swing.SwingWorker;
 
 /**
  * Controller responsible for handling the logic of the SetupView.
@@ -80,17 +81,12 @@ public class SetupController {
             // Disable save button to prevent multiple submissions
             setupView.setSaveEnabled(false);
 
-            SwingWorker<Boolean, Void> worker = new SwingWorker<Boolean, Void>() {
-                private String errorMessage;
-
-                @Override
-                protected Boolean doInBackground() {
-                    try {
+            TaskExecutor.submit(Lane.INTERACTIVE, "setup.saveProfile", () -> {
                         // Update the current user with the additional information
                         currentUser.setFirstName(firstName);
                         currentUser.setSurname(lastName);
                         currentUser.setPhoneNumber(contactNumber);
-                        
+
                         // Set the role based on selection
                         switch (role) {
                             case "Landlord":
@@ -100,29 +96,20 @@ public class SetupController {
                                 currentUser.setRole(User.Role.TENANT);
                                 break;
                         }
-                        
+
                         // Additional fields if needed
                         // currentUser.setAddress(address);
-                        
+
                         // Update the user in the database
                         return userDAO.updateUser(currentUser);
-                    } catch (Exception ex) {
-                        LOGGER.log(Level.SEVERE, "Error during setup process", ex);
-                        errorMessage = "An unexpected error occurred during setup.";
-                        return false;
-                    }
-                }
-
-                @Override
-                protected void done() {
-                    // Re-enable button
-                    setupView.setSaveEnabled(true);
-                    try {
-                        boolean success = get();
+                    },
+                    success -> {
+                        // Re-enable button
+                        setupView.setSaveEnabled(true);
                         if (success) {
                             setupView.displayInfoMessage("Setup successful!");
                             LOGGER.log(Level.INFO, "User setup completed for ID: {0}", currentUser.getUserId());
-                            
+
                             // Close the setup view and navigate to the main dashboard
                             if (onSetupComplete != null) {
                                 setupView.closeView();
@@ -132,16 +119,13 @@ public class SetupController {
                                 setupView.closeView();
                             }
                         } else {
-                            setupView.displayErrorMessage(errorMessage != null ? 
-                                errorMessage : "Failed to save user information.");
+                            setupView.displayErrorMessage("Failed to save user information.");
                         }
-                    } catch (Exception ex) {
-                        LOGGER.log(Level.SEVERE, "Error finalizing setup", ex);
-                        setupView.displayErrorMessage("An unexpected error occurred.");
-                    }
-                }
-            };
-            worker.execute();
+                    },
+                    error -> {
+                        setupView.setSaveEnabled(true);
+                        setupView.displayErrorMessage("An unexpected error occurred during setup.");
+                    });
         }
     }
 }
\ No newline at end of file
@@ -2,24 +2,32 @@ package com.dormhelios.controller;
 
 import com.dormhelios.model.dao.*;
 import com.dormhelios.model.entity.*;
+import com.dormhelios.service.RoomCatalog;
+import com.dormhelios.service.TaskExecutor;
+import com.dormhelios.service.TenantImportJob;
+import com.dormhelios.service.TaskExecutor.Lane;
 import com.dormhelios.view.*;
 import javax.swing.*;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
-import java.awt.event.KeyAdapter;
-import java.awt.event.KeyEvent;
+import java.io.File;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class TenantController {
 
     private static final Logger LOGGER = Logger.getLogger(TenantController.class.getName());
+    private static final String FORM_DIALOG_TASK = "tenants.prepareFormDialog";
 
     private final TenantListView listView;
     private final TenantFormDialog formDialog;
@@ -32,6 +40,7 @@ public class TenantController {
     private final UserDAO userDAO; // Add UserDAO dependency
     private final JFrame parentFrame;
     private final User loggedInUser; // Reference to the current logged-in user
+    private boolean editingTenant; // Whether the form dialog's Save updates or adds a tenant
 
     public TenantController(TenantListView listView,
             TenantFormDialog formDialog,
@@ -59,26 +68,14 @@ public class TenantController {
     }
 
     public void loadInitialData() {
-        SwingWorker<List<TenantWithRoom>, Void> worker = new SwingWorker<>() {
-            @Override
-            protected List<TenantWithRoom> doInBackground() {
-                return tenantDAO.findAllWithRoomNumbers();
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    List<TenantWithRoom> tenants = get();
+        // Latest wins: a reload requested while one is running replaces it
+        TaskExecutor.submitLatest("tenants.load", Lane.INTERACTIVE, tenantDAO::findAllWithRoomNumbers,
+                tenants -> {
                     listView.displayTenantsWithRooms(tenants);
                     // Apply current filters/search after loading new data
                     listView.filterTable();
-                } catch (InterruptedException | ExecutionException e) {
-                    LOGGER.log(Level.SEVERE, "Error loading tenants", e.getCause());
-                    listView.displayErrorMessage("Error loading tenants: " + e.getCause().getMessage());
-                }
-            }
-        };
-        worker.execute();
+                },
+                error -> listView.displayErrorMessage("Error loading tenants: " + error.getMessage()));
     }
 
     private void attachListeners() {
@@ -86,51 +83,53 @@ public class TenantController {
         listView.addEditButtonListener(e -> openEditDialog());
         listView.addDeleteButtonListener(e -> deactivateTenant());
         listView.addViewButtonListener(e -> openDetailDialog());
+        listView.addImportButtonListener(e -> importTenantsFromCsv());
+        // Registered once; the dialog is reused for adding and editing
+        formDialog.addSaveButtonListener(e -> {
+            if (editingTenant) {
+                saveUpdatedTenant();
+            } else {
+                saveNewTenant();
+            }
+        });
+        formDialog.addCancelButtonListener(e -> formDialog.closeDialog());
         
-        // Fix the search field listener implementation
+        // Live search: the view debounces keystrokes into a single indexed search
         listView.addSearchFieldListener(new DocumentListener() {
             @Override
             public void insertUpdate(DocumentEvent e) {
-                SwingUtilities.invokeLater(() -> listView.filterTable());
-                System.out.println("Searching!");
+                listView.scheduleFilter();
             }
 
             @Override
             public void removeUpdate(DocumentEvent e) {
-                SwingUtilities.invokeLater(() -> listView.filterTable());
+                listView.scheduleFilter();
             }
 
             @Override
             public void changedUpdate(DocumentEvent e) {
-                SwingUtilities.invokeLater(() -> listView.filterTable());
+                listView.scheduleFilter();
             }
         });
         
-        listView.addFilterComboBoxListener(e -> {
-            // Use invokeLater for consistency
-            SwingUtilities.invokeLater(() -> listView.filterTable());
-        });
-
-        // Fallback: listen to key releases directly on the search field
-        listView.getSearchField().addKeyListener(new KeyAdapter() {
-            @Override
-            public void keyReleased(KeyEvent e) {
-                SwingUtilities.invokeLater(() -> listView.filterTable());
-            }
-        });
+        listView.addFilterComboBoxListener(e -> listView.filterTable());
     }
 
     private void openAddDialog() {
-        formDialog.setupForAdd();
-        // Load combo models
-        formDialog.setRoomComboBoxModel(roomDAO.findAll());
-        formDialog.setUserComboBoxModel(userDAO.findAll(), loggedInUser); // Pass current user
-        formDialog.addSaveButtonListener(e -> saveNewTenant());
-        formDialog.addCancelButtonListener(e -> formDialog.closeDialog());
-        formDialog.showDialog();
-        if (formDialog.isSaved()) {
-            loadInitialData();
-        }
+        // Load combo models off the EDT, then show the dialog. Add and edit share
+        // one key, so a double click opens the dialog once
+        TaskExecutor.submitLatest(FORM_DIALOG_TASK, Lane.INTERACTIVE, this::loadComboData,
+                comboData -> {
+                    editingTenant = false;
+                    formDialog.setupForAdd();
+                    formDialog.setRoomComboBoxModel(comboData.rooms);
+                    formDialog.setUserComboBoxModel(comboData.users, loggedInUser); // Pass current user
+                    formDialog.showDialog();
+                    if (formDialog.isSaved()) {
+                        loadInitialData();
+                    }
+                },
+                error -> listView.displayErrorMessage("Error: " + error.getMessage()));
     }
 
     private void openEditDialog() {
@@ -139,24 +138,16 @@ public class TenantController {
             listView.displayErrorMessage("Select a tenant to edit.");
             return;
         }
-        SwingWorker<Optional<Tenant>, Void> worker = new SwingWorker<>() {
-            @Override
-            protected Optional<Tenant> doInBackground() {
-                return tenantDAO.findById(id);
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    Optional<Tenant> opt = get();
-                    if (opt.isPresent()) {
-                        Tenant t = opt.get();
+        TaskExecutor.submitLatest(FORM_DIALOG_TASK, Lane.INTERACTIVE,
+                () -> new EditData(tenantDAO.findById(id), loadComboData()),
+                editData -> {
+                    if (editData.tenant.isPresent()) {
+                        Tenant t = editData.tenant.get();
+                        editingTenant = true;
                         formDialog.setupForEdit(t);
                         // Load combo models
-                        formDialog.setRoomComboBoxModel(roomDAO.findAll());
-                        formDialog.setUserComboBoxModel(userDAO.findAll(), loggedInUser); // Pass current user
-                        formDialog.addSaveButtonListener(e -> saveUpdatedTenant());
-                        formDialog.addCancelButtonListener(e -> formDialog.closeDialog());
+                        formDialog.setRoomComboBoxModel(editData.comboData.rooms);
+                        formDialog.setUserComboBoxModel(editData.comboData.users, loggedInUser); // Pass current user
                         formDialog.showDialog();
                         if (formDialog.isSaved()) {
                             loadInitialData();
@@ -165,13 +156,8 @@ public class TenantController {
                         listView.displayErrorMessage("Tenant not found.");
                         loadInitialData();
                     }
-                } catch (InterruptedException | ExecutionException e) {
-                    LOGGER.log(Level.SEVERE, "Error fetching tenant for edit", e.getCause());
-                    listView.displayErrorMessage("Error: " + e.getCause().getMessage());
-                }
-            }
-        };
-        worker.execute();
+                },
+                error -> listView.displayErrorMessage("Error: " + error.getMessage()));
     }
 
     private void saveNewTenant() {
@@ -180,16 +166,8 @@ public class TenantController {
             return;
         }
         
-        SwingWorker<Integer, Void> worker = new SwingWorker<>() {
-            @Override
-            protected Integer doInBackground() {
-                return tenantDAO.addTenant(data);
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    int tenantId = get();
+        TaskExecutor.submit(Lane.INTERACTIVE, "tenants.add", () -> tenantDAO.addTenant(data),
+                tenantId -> {
                     if (tenantId > 0) {
                         formDialog.setSaved(true);
                         formDialog.closeDialog();
@@ -197,16 +175,12 @@ public class TenantController {
                         loadInitialData();
                         // Notify RoomController to refresh its data
                         notifyRoomListUpdate();
+                        notifyDataChanged();
                     } else {
                         formDialog.displayErrorMessage("Failed to add tenant.");
                     }
-                } catch (InterruptedException | ExecutionException e) {
-                    LOGGER.log(Level.SEVERE, "Error adding tenant", e.getCause());
-                    formDialog.displayErrorMessage("Error: " + e.getCause().getMessage());
-                }
-            }
-        };
-        worker.execute();
+                },
+                error -> formDialog.displayErrorMessage("Error: " + error.getMessage()));
     }
 
     private void saveUpdatedTenant() {
@@ -215,9 +189,7 @@ public class TenantController {
             return;
         }
         
-        SwingWorker<Boolean, Void> worker = new SwingWorker<>() {
-            @Override
-            protected Boolean doInBackground() {
+        TaskExecutor.submit(Lane.INTERACTIVE, "tenants.update", () -> {
                 // Get the original tenant data to compare room changes
                 Optional<Tenant> originalTenantOpt = tenantDAO.findById(data.getTenantId());
                 if (!originalTenantOpt.isPresent()) {
@@ -254,30 +226,81 @@ public class TenantController {
                     // No room change, just update the tenant normally
                     return tenantDAO.updateTenant(data);
                 }
-            }
+            },
+            updated -> {
+                if (updated) {
+                    formDialog.setSaved(true);
+                    formDialog.closeDialog();
+                    // Refresh the tenant list
+                    loadInitialData();
+                    // Notify RoomController to refresh its data if a room change occurred
+                    notifyRoomListUpdate();
+                    notifyDataChanged();
+                } else {
+                    formDialog.displayErrorMessage("Failed to update tenant.");
+                }
+            },
+            error -> formDialog.displayErrorMessage("Error: " + error.getMessage()));
+    }
+    
+    /**
+     * Asks for a CSV file and imports its tenants in the background, either
+     * for real or as a validation-only dry run, showing progress and every
+     * rejected row in a dialog.
+     */
+    private void importTenantsFromCsv() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import Tenants from CSV");
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV files (*.csv)", "csv"));
+        if (chooser.showOpenDialog(parentFrame) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = chooser.getSelectedFile();
+        Object[] options = {"Import", "Validate Only", "Cancel"};
+        int choice = JOptionPane.showOptionDialog(parentFrame,
+                "Import the tenants in " + file.getName() + "?\n"
+                + "\"Validate Only\" checks every row without saving anything.",
+                "Import Tenants", JOptionPane.YES_NO_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE,
+                null, options, options[0]);
+        if (choice != 0 && choice != 1) {
+            return;
+        }
+        boolean dryRun = choice == 1;
 
-            @Override
-            protected void done() {
-                try {
-                    if (get()) {
-                        formDialog.setSaved(true);
-                        formDialog.closeDialog();
-                        // Refresh the tenant list
+        TenantImportJob job = new TenantImportJob(tenantDAO, roomDAO);
+        TenantImportDialog importDialog = new TenantImportDialog(parentFrame,
+                (dryRun ? "Validate Tenant CSV - " : "Import Tenants - ") + file.getName());
+        importDialog.addCancelButtonListener(e -> {
+            importDialog.showCancelling();
+            job.cancel();
+        });
+        importDialog.addCloseButtonListener(e -> importDialog.closeDialog());
+
+        AtomicInteger rejected = new AtomicInteger();
+        // Bulk work: background lane, progress is handed to the EDT per chunk
+        TaskExecutor.submit(Lane.BACKGROUND, dryRun ? "tenants.importDryRun" : "tenants.import", () -> {
+                    try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                        return job.run(reader, dryRun, (processed, imported, chunkErrors) -> {
+                            int rejectedSoFar = rejected.addAndGet(chunkErrors.size());
+                            SwingUtilities.invokeLater(() -> {
+                                chunkErrors.forEach(rowError -> importDialog.appendResult(rowError.toString()));
+                                importDialog.setProgress(processed, imported, rejectedSoFar);
+                            });
+                        });
+                    }
+                },
+                summary -> {
+                    importDialog.showFinished(summary.toString());
+                    if (!summary.isDryRun() && summary.getRowsImported() > 0) {
                         loadInitialData();
-                        // Notify RoomController to refresh its data if a room change occurred
                         notifyRoomListUpdate();
-                    } else {
-                        formDialog.displayErrorMessage("Failed to update tenant.");
+                        notifyDataChanged();
                     }
-                } catch (InterruptedException | ExecutionException e) {
-                    LOGGER.log(Level.SEVERE, "Error updating tenant", e.getCause());
-                    formDialog.displayErrorMessage("Error: " + e.getCause().getMessage());
-                }
-            }
-        };
-        worker.execute();
+                },
+                error -> importDialog.showFinished("Import failed: " + error.getMessage()));
+        importDialog.showDialog(); // Modal; the task keeps running while it is shown
     }
-    
+
     // Add a method to notify room list to refresh
     private void notifyRoomListUpdate() {
         // Use SwingUtilities.invokeLater to ensure this runs on the EDT
@@ -291,6 +314,18 @@ public class TenantController {
         });
     }
 
+    /**
+     * Marks the room catalog stale, since adding or moving a tenant changes
+     * room slots, and tells other controllers (e.g. the dashboard cache) that
+     * tenant data was written.
+     */
+    private void notifyDataChanged() {
+        RoomCatalog.invalidate();
+        if (parentFrame instanceof MainDashboardView) {
+            ((MainDashboardView) parentFrame).firePropertyChange(MainDashboardView.DATA_CHANGED, null, "TENANT");
+        }
+    }
+
     private void deactivateTenant() {
         int id = listView.getSelectedTenantId();
         if (id < 0) {
@@ -302,28 +337,17 @@ public class TenantController {
         if (confirm != JOptionPane.YES_OPTION) {
             return;
         }
-        SwingWorker<Boolean, Void> worker = new SwingWorker<>() {
-            @Override
-            protected Boolean doInBackground() {
-                return tenantDAO.setActiveStatus(id, false);
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    if (get()) {
+        TaskExecutor.submit(Lane.INTERACTIVE, "tenants.deactivate", () -> tenantDAO.setActiveStatus(id, false),
+                deactivated -> {
+                    if (deactivated) {
                         listView.displayErrorMessage("Tenant deactivated.");
                         loadInitialData();
+                        notifyDataChanged();
                     } else {
                         listView.displayErrorMessage("Could not deactivate tenant.");
                     }
-                } catch (InterruptedException | ExecutionException e) {
-                    LOGGER.log(Level.SEVERE, "Error deactivating tenant", e.getCause());
-                    listView.displayErrorMessage("Error: " + e.getCause().getMessage());
-                }
-            }
-        };
-        worker.execute();
+                },
+                error -> listView.displayErrorMessage("Error: " + error.getMessage()));
     }
 
     private void openDetailDialog() {
@@ -332,27 +356,17 @@ public class TenantController {
             listView.displayErrorMessage("Select a tenant to view.");
             return;
         }
-        SwingWorker<Void, Void> worker = new SwingWorker<>() {
-            Tenant tenant;
-            Room room;
-            List<Payment> payments;
-
-            @Override
-            protected Void doInBackground() {
-                tenant = tenantDAO.findById(id).orElse(null);
-                room = tenant != null && tenant.getRoomId() != null ? roomDAO.findById(tenant.getRoomId()).orElse(null) : null;
-                payments = paymentDAO.findByTenantId(id);
-                return null;
-            }
-
-            @Override
-            protected void done() {
-                detailView.displayTenantDetails(tenant, room, payments);
-                detailView.addCloseButtonListener(e -> detailView.closeDialog());
-                detailView.showDialog();
-            }
-        };
-        worker.execute();
+        TaskExecutor.submit(Lane.INTERACTIVE, "tenants.loadDetails", () -> {
+                    Tenant tenant = tenantDAO.findById(id).orElse(null);
+                    Room room = tenant != null && tenant.getRoomId() != null ? roomDAO.findById(tenant.getRoomId()).orElse(null) : null;
+                    return new DetailData(tenant, room, paymentDAO.findByTenantId(id));
+                },
+                details -> {
+                    detailView.displayTenantDetails(details.tenant, details.room, details.payments);
+                    detailView.addCloseButtonListener(e -> detailView.closeDialog());
+                    detailView.showDialog();
+                },
+                error -> listView.displayErrorMessage("Error: " + error.getMessage()));
     }
 
     /**
@@ -369,6 +383,7 @@ public class TenantController {
         if (tenantId > 0) {
             // Refresh the tenant list if the tenant was added successfully
             refreshTenantList();
+            notifyDataChanged();
         }
         
         return tenantId;
@@ -378,6 +393,47 @@ public class TenantController {
         loadInitialData();
     }
 
+    private ComboData loadComboData() {
+        return new ComboData(RoomCatalog.getRooms(), userDAO.findAll());
+    }
+
+    // --- Helper Data Classes for background loads ---
+
+    private static final class ComboData {
+
+        final List<Room> rooms;
+        final List<User> users;
+
+        ComboData(List<Room> rooms, List<User> users) {
+            this.rooms = rooms;
+            this.users = users;
+        }
+    }
+
+    private static final class EditData {
+
+        final Optional<Tenant> tenant;
+        final ComboData comboData;
+
+        EditData(Optional<Tenant> tenant, ComboData comboData) {
+            this.tenant = tenant;
+            this.comboData = comboData;
+        }
+    }
+
+    private static final class DetailData {
+
+        final Tenant tenant;
+        final Room room;
+        final List<Payment> payments;
+
+        DetailData(Tenant tenant, Room room, List<Payment> payments) {
+            this.tenant = tenant;
+            this.room = room;
+            this.payments = payments;
+        }
+    }
+
     // --- Methods for External Access ---
     /**
      * Public method to open the add tenant dialog. Can be called from external
@@ -24,6 +24,9 @@ import java.util.Currency;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.table.DefaultTableModel;
@@ -41,6 +44,9 @@ public class TenantDashboardController {
     private final RoomDAO roomDAO;
     private final UserDAO userDAO;
     private final User currentUser;
+
+    // Dashboard queries block on JDBC, so each runs on its own virtual thread
+    private static final ExecutorService LOADER = Executors.newVirtualThreadPerTaskExecutor();
     
     // Tenant and room information
     private Tenant tenant;
@@ -81,31 +87,92 @@ public class TenantDashboardController {
     
     /**
      * Initializes the dashboard with tenant data.
-     * Sets up all UI components with data from the DAOs.
+     * The tenant is resolved first; the room, roommate count, landlord and
+     * payment queries then run concurrently and each part of the panel is
+     * filled in on the EDT as soon as its data arrives. Payments are fetched
+     * once and shared by the history table and the rent-due announcement.
      */
     private void initializeDashboard() {
-        // Find tenant by user ID
-        findTenantByUserId();
-        
-        if (tenant != null) {
-            // Set tenant name
-            view.getTenantDashboardPanel().setTenantName(tenant.getFirstName() + " " + tenant.getLastName());
-            
-            // Load room information if assigned
-            if (tenant.getRoomId() != null) {
-                loadRoomInformation();
-            } else {
-                displayNoRoomAssigned();
+        long start = System.nanoTime();
+        CompletableFuture.runAsync(this::findTenantByUserId, LOADER)
+                .thenCompose(ignored -> {
+                    if (tenant == null) {
+                        onEdt(this::handleTenantNotFound);
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    Tenant resolved = tenant;
+                    onEdt(() -> view.getTenantDashboardPanel().setTenantName(resolved.getFirstName() + " " + resolved.getLastName()));
+                    return loadTenantParts(resolved);
+                })
+                .whenComplete((ignored, error) -> {
+                    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+                    if (error != null) {
+                        LOGGER.log(Level.SEVERE, "Tenant dashboard load failed after " + elapsedMillis + " ms", error);
+                    } else {
+                        LOGGER.log(Level.INFO, "Tenant dashboard loaded in {0} ms for user {1}",
+                                new Object[]{elapsedMillis, currentUser.getUserId()});
+                    }
+                });
+    }
+
+    /**
+     * Starts the independent queries for a resolved tenant and applies each
+     * result to the panel as it completes
+     * @return Future that completes when every part has been applied
+     */
+    private CompletableFuture<Void> loadTenantParts(Tenant resolved) {
+        // One payments fetch feeds both the history table and the announcements
+        CompletableFuture<List<Payment>> payments =
+                CompletableFuture.supplyAsync(() -> paymentDAO.findByTenantId(resolved.getTenantId()), LOADER);
+        CompletableFuture<Void> paymentParts = payments.handle((list, error) -> {
+            if (error != null) {
+                LOGGER.log(Level.SEVERE, "Error loading payments for tenant: " + resolved.getTenantId(), error);
             }
-            
-            // Load payment history
-            loadPaymentHistory();
-            
-            // Generate and set announcements
-            generateAnnouncements();
-        } else {
-            handleTenantNotFound();
+            List<Payment> loaded = error != null ? null : list;
+            onEdt(() -> {
+                displayPaymentHistory(loaded);
+                generateAnnouncements(loaded);
+            });
+            return null;
+        });
+
+        if (resolved.getRoomId() == null) {
+            onEdt(this::displayNoRoomAssigned);
+            return paymentParts;
         }
+
+        CompletableFuture<Optional<Room>> roomLookup =
+                CompletableFuture.supplyAsync(() -> roomDAO.findById(resolved.getRoomId()), LOADER);
+        CompletableFuture<Integer> roommates =
+                CompletableFuture.supplyAsync(() -> countTenantsInRoom(resolved.getRoomId()), LOADER);
+        CompletableFuture<List<User>> users =
+                CompletableFuture.supplyAsync(userDAO::findAll, LOADER);
+
+        CompletableFuture<Optional<Room>> roomParts = roomLookup.thenCombine(roommates, (roomOpt, tenantCount) -> {
+            onEdt(() -> displayRoomInformation(roomOpt, tenantCount));
+            return roomOpt;
+        }).exceptionally(error -> {
+            LOGGER.log(Level.SEVERE, "Error loading room information for tenant: " + resolved.getTenantId(), error);
+            onEdt(this::displayNoRoomAssigned);
+            return Optional.empty();
+        });
+        // Landlord details are only shown next to an assigned room
+        CompletableFuture<Void> landlordPart = roomParts.thenAcceptBoth(
+                users.exceptionally(error -> {
+                    LOGGER.log(Level.SEVERE, "Error loading users for landlord information", error);
+                    return null;
+                }),
+                (roomOpt, userList) -> {
+                    if (roomOpt.isPresent()) {
+                        onEdt(() -> setLandlordInformation(userList));
+                    }
+                });
+
+        return CompletableFuture.allOf(paymentParts, roomParts, landlordPart);
+    }
+
+    private static void onEdt(Runnable update) {
+        SwingUtilities.invokeLater(update);
     }
     
     /**
@@ -114,14 +181,12 @@ public class TenantDashboardController {
     private void findTenantByUserId() {
         try {
             // Tenant might have a user account that matches the logged-in user
-            List<Tenant> allTenants = tenantDAO.findAll();
-            for (Tenant t : allTenants) {
-                if (t.getUserId() != null && t.getUserId().equals(currentUser.getUserId())) {
-                    tenant = t;
-                    LOGGER.log(Level.INFO, "Found tenant with ID: {0} for user: {1}", 
-                            new Object[]{tenant.getTenantId(), currentUser.getUserId()});
-                    return;
-                }
+            Optional<Tenant> tenantOpt = tenantDAO.findByUserId(currentUser.getUserId());
+            if (tenantOpt.isPresent()) {
+                tenant = tenantOpt.get();
+                LOGGER.log(Level.INFO, "Found tenant with ID: {0} for user: {1}", 
+                        new Object[]{tenant.getTenantId(), currentUser.getUserId()});
+                return;
             }
             LOGGER.log(Level.WARNING, "No tenant found for user ID: {0}", currentUser.getUserId());
         } catch (Exception e) {
@@ -130,17 +195,16 @@ public class TenantDashboardController {
     }
     
     /**
-     * Loads room information for the tenant.
+     * Shows the tenant's room. Runs on the EDT.
+     * 
+     * @param roomOpt The tenant's room, if found
+     * @param tenantCount Number of active tenants in the room
      */
-    private void loadRoomInformation() {
+    private void displayRoomInformation(Optional<Room> roomOpt, int tenantCount) {
         try {
-            Optional<Room> roomOpt = roomDAO.findById(tenant.getRoomId());
             if (roomOpt.isPresent()) {
                 room = roomOpt.get();
                 
-                // Count how many tenants are in this room
-                int tenantCount = countTenantsInRoom(room.getRoomId());
-                
                 // Calculate per-tenant rate by dividing the monthly rate by tenant count
                 BigDecimal perTenantRate = room.getMonthlyRate();
                 if (tenantCount > 0) {
@@ -158,9 +222,6 @@ public class TenantDashboardController {
                         String.valueOf(room.getSlotsAvailable()),
                         DEFAULT_RULES
                 );
-                
-                // Set landlord information (using admin user info as landlord)
-                setLandlordInformation();
             } else {
                 LOGGER.log(Level.WARNING, "Room not found for ID: {0}", tenant.getRoomId());
                 displayNoRoomAssigned();
@@ -179,14 +240,7 @@ public class TenantDashboardController {
      */
     private int countTenantsInRoom(Integer roomId) {
         try {
-            List<Tenant> tenants = tenantDAO.findAll();
-            int count = 0;
-            for (Tenant t : tenants) {
-                if (roomId != null && roomId.equals(t.getRoomId())) {
-                    count++;
-                }
-            }
-            return count;
+            return roomId != null ? tenantDAO.countActiveByRoomId(roomId) : 0;
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error counting tenants in room ID: " + roomId, e);
             return 0;
@@ -194,13 +248,17 @@ public class TenantDashboardController {
     }
     
     /**
-     * Sets landlord information in the view.
+     * Sets landlord information in the view. Runs on the EDT.
      * This implementation pulls landlord information from users with the LANDLORD role.
+     * 
+     * @param users All users, or null if they could not be loaded
      */
-    private void setLandlordInformation() {
+    private void setLandlordInformation(List<User> users) {
         try {
+            if (users == null) {
+                throw new IllegalStateException("User list not available");
+            }
             // Find a landlord user
-            List<User> users = userDAO.findAll();
             User landlord = null;
             
             for (User user : users) {
@@ -290,12 +348,15 @@ public class TenantDashboardController {
     }
     
     /**
-     * Loads payment history for the tenant.
+     * Shows the tenant's payment history. Runs on the EDT.
+     * 
+     * @param payments The tenant's payments, or null if they could not be loaded
      */
-    private void loadPaymentHistory() {
+    private void displayPaymentHistory(List<Payment> payments) {
         try {
-            // Get payments for the tenant
-            List<Payment> payments = paymentDAO.findByTenantId(tenant.getTenantId());
+            if (payments == null) {
+                throw new IllegalStateException("Payments not available");
+            }
             
             // Create table model for payments
             String[] columnNames = {"Date Paid", "Amount", "Month Covered", "Method", "Show QR"};
@@ -437,14 +498,16 @@ public class TenantDashboardController {
     /**
      * Generates announcements for the tenant based on payment history and lease information.
      * This replaces the need for a separate AnnouncementDAO.
+     * 
+     * @param payments The tenant's payments, or null if they could not be loaded
      */
-    private void generateAnnouncements() {
+    private void generateAnnouncements(List<Payment> payments) {
         StringBuilder announcements = new StringBuilder();
         LocalDate today = LocalDate.now();
         
         try {
             // Check for rent due
-            boolean rentDue = isRentDue();
+            boolean rentDue = isRentDue(payments);
             if (rentDue) {
                 announcements.append("📢 RENT PAYMENT DUE\n");
                 announcements.append("Your rent payment for this month is due. Please make your payment before the 5th to avoid late fees.\n\n");
@@ -491,19 +554,18 @@ public class TenantDashboardController {
     /**
      * Checks if rent is due based on payment history.
      * 
+     * @param payments The tenant's payments, or null if they could not be loaded
      * @return true if rent is due, false otherwise
      */
-    private boolean isRentDue() {
+    private boolean isRentDue(List<Payment> payments) {
         try {
-            if (tenant == null) {
+            if (tenant == null || payments == null) {
                 return false;
             }
             
             LocalDate today = LocalDate.now();
             LocalDate firstDayOfCurrentMonth = today.withDayOfMonth(1);
             
-            // Get payments for current month
-            List<Payment> payments = paymentDAO.findByTenantId(tenant.getTenantId());
             for (Payment payment : payments) {
                 // Check if payment covers current month
                 if (payment.getPeriodCoveredStart() != null) {
@@ -0,0 +1,166 @@
+package com.dormhelios.model.dao;
+
+import com.dormhelios.model.dao.ExportDAO.ColumnKind;
+import com.dormhelios.model.dao.ExportDAO.RowSink;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Raw table access for database backups and restores. Rows travel as plain
+ * strings in the same form ExportDAO produces, so no entity objects are built.
+ */
+public interface BackupDAO {
+
+    /**
+     * A read-only transaction holding one consistent snapshot of the
+     * database. Every table streamed through it shows the data as of the
+     * moment it was opened, while other connections keep writing without
+     * waiting on it.
+     */
+    interface Snapshot extends AutoCloseable {
+
+        /**
+         * Streams every row of a table as of the snapshot
+         * @param table Table name; must exist in the current database
+         * @param sink Receives the column list and then each row
+         * @return Number of rows handed to the sink
+         */
+        long streamTable(String table, RowSink sink) throws SQLException, IOException;
+
+        /**
+         * Streams the rows of a table whose change column is at or after a moment
+         * @param table Table name; must exist in the current database
+         * @param changeColumn Timestamp column set on every insert and update, e.g. updated_at
+         * @param since Server time to start from, as returned by {@link BackupDAO#currentServerTime()}
+         * @param sink Receives the column list and then each changed row
+         * @return Number of rows handed to the sink
+         */
+        long streamChangedRows(String table, String changeColumn, LocalDateTime since, RowSink sink)
+                throws SQLException, IOException;
+
+        /**
+         * Streams the primary key of every row of a table in ascending order,
+         * as single-column rows
+         * @param table Table name; must exist in the current database
+         * @param keyColumn Integer primary key column
+         * @param sink Receives the key column and then each key
+         * @return Number of keys handed to the sink
+         */
+        long streamKeys(String table, String keyColumn, RowSink sink) throws SQLException, IOException;
+
+        /**
+         * @param table Table name
+         * @param column Column name
+         * @return true if the table exists and has the column
+         */
+        boolean hasColumn(String table, String column) throws SQLException;
+
+        /**
+         * @param table Table name
+         * @return The table's primary key column, or null if it has none, the
+         *         key spans several columns or it is not an integer
+         */
+        String findKeyColumn(String table) throws SQLException;
+
+        /**
+         * Ends the snapshot transaction and releases the connection
+         */
+        @Override
+        void close() throws SQLException;
+    }
+
+    /**
+     * Supplies the rows to restore, one at a time
+     */
+    interface RowSource {
+
+        /**
+         * @return The next row's values in column order, or null at the end.
+         *         The array may be reused for the following row.
+         */
+        String[] next() throws IOException;
+    }
+
+    /**
+     * A connection set up for bulk loading: foreign key and unique checks
+     * are off and rows are inserted in JDBC batches.
+     */
+    interface RestoreSession extends AutoCloseable {
+
+        /**
+         * Empties a table and loads the given rows into it. Work is committed
+         * in intervals, so a failure leaves the table partly loaded.
+         * @param table Table name; must exist in the current database
+         * @param columns Column names of the rows; each must exist in the table
+         * @param kinds Kind of each column, as produced when the rows were read
+         * @param rows Rows to insert
+         * @return Number of rows inserted
+         */
+        long replaceTable(String table, List<String> columns, List<ColumnKind> kinds, RowSource rows)
+                throws SQLException, IOException;
+
+        /**
+         * Replaces individual rows, matched by primary key: each row's old
+         * version, if any, is deleted and the given version inserted. Rows are
+         * handled in batches and committed in intervals.
+         * @param table Table name; must exist in the current database
+         * @param keyColumn Primary key column; must be one of the columns
+         * @param columns Column names of the rows; each must exist in the table
+         * @param kinds Kind of each column, as produced when the rows were read
+         * @param rows Rows to write
+         * @return Number of rows written
+         */
+        long replaceRows(String table, String keyColumn, List<String> columns, List<ColumnKind> kinds, RowSource rows)
+                throws SQLException, IOException;
+
+        /**
+         * Deletes every row whose key lies outside the given ranges, so the
+         * table keeps only the keys that still existed when the ranges were read
+         * @param table Table name; must exist in the current database
+         * @param keyColumn Integer primary key column
+         * @param keyRanges Inclusive {first, last} key ranges in ascending order
+         * @return Number of rows deleted
+         */
+        long deleteKeysOutside(String table, String keyColumn, RowSource keyRanges) throws SQLException, IOException;
+
+        /**
+         * Checks that a table exists and has every given column, without
+         * changing anything, so a restore can be refused before its first write
+         * @param table Table name
+         * @param columns Column names the restore will write
+         * @throws SQLException naming the missing table or column
+         */
+        void checkColumns(String table, List<String> columns) throws SQLException;
+
+        /**
+         * Restores the connection's normal checks and releases it
+         */
+        @Override
+        void close() throws SQLException;
+    }
+
+    /**
+     * @return Estimated row count per table in the current database, from
+     *         the server's table statistics (no table is scanned)
+     */
+    Map<String, Long> estimateRowCounts() throws SQLException;
+
+    /**
+     * @return The database server's current time, the clock that fills the
+     *         created_at and updated_at columns
+     */
+    LocalDateTime currentServerTime() throws SQLException;
+
+    /**
+     * Opens a consistent, read-only snapshot on a dedicated connection
+     */
+    Snapshot openSnapshot() throws SQLException;
+
+    /**
+     * Opens a session for restoring tables on a dedicated connection
+     */
+    RestoreSession openRestore() throws SQLException;
+}
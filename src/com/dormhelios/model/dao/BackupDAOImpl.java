@@ -0,0 +1,444 @@
+package com.dormhelios.model.dao;
+
+import com.dormhelios.model.dao.ExportDAO.ColumnKind;
+import com.dormhelios.model.dao.ExportDAO.RowSink;
+import com.dormhelios.util.DatabaseConnection;
+
+import java.io.IOException;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class BackupDAOImpl implements BackupDAO {
+
+    private static final Logger LOGGER = Logger.getLogger(BackupDAOImpl.class.getName());
+
+    private static final int INSERT_BATCH_SIZE = 1_000;
+    private static final int COMMIT_INTERVAL_ROWS = 20_000; // Bounds the undo log of a large restore
+
+    // --- SQL Constants ---
+    private static final String START_SNAPSHOT_SQL = "START TRANSACTION WITH CONSISTENT SNAPSHOT, READ ONLY";
+    private static final String ESTIMATE_ROW_COUNTS_SQL =
+        "SELECT TABLE_NAME, TABLE_ROWS FROM information_schema.TABLES " +
+        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_TYPE = 'BASE TABLE'";
+    private static final String FIND_COLUMNS_SQL =
+        "SELECT COLUMN_NAME FROM information_schema.COLUMNS " +
+        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? ORDER BY ORDINAL_POSITION";
+    private static final String FIND_KEY_COLUMNS_SQL =
+        "SELECT k.COLUMN_NAME, c.DATA_TYPE FROM information_schema.KEY_COLUMN_USAGE k " +
+        "JOIN information_schema.COLUMNS c ON c.TABLE_SCHEMA = k.TABLE_SCHEMA " +
+        "AND c.TABLE_NAME = k.TABLE_NAME AND c.COLUMN_NAME = k.COLUMN_NAME " +
+        "WHERE k.TABLE_SCHEMA = DATABASE() AND k.TABLE_NAME = ? AND k.CONSTRAINT_NAME = 'PRIMARY'";
+    private static final List<String> INTEGER_TYPES = List.of("tinyint", "smallint", "mediumint", "int", "bigint");
+    // Formatted on the server, so the value round-trips without any time zone conversion by the driver
+    private static final String CURRENT_TIME_SQL = "SELECT DATE_FORMAT(NOW(), '%Y-%m-%d %H:%i:%s')";
+    private static final DateTimeFormatter SERVER_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String DISABLE_CHECKS_SQL = "SET SESSION foreign_key_checks = 0, unique_checks = 0";
+    private static final String ENABLE_CHECKS_SQL = "SET SESSION foreign_key_checks = 1, unique_checks = 1";
+
+    @Override
+    public Map<String, Long> estimateRowCounts() throws SQLException {
+        Map<String, Long> counts = new HashMap<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(ESTIMATE_ROW_COUNTS_SQL);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                counts.put(rs.getString(1), rs.getLong(2));
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error reading table row estimates", e);
+            throw e;
+        }
+        return counts;
+    }
+
+    @Override
+    public LocalDateTime currentServerTime() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(CURRENT_TIME_SQL);
+             ResultSet rs = pstmt.executeQuery()) {
+            rs.next();
+            return LocalDateTime.parse(rs.getString(1), SERVER_TIME_FORMAT);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error reading the server time", e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Snapshot openSnapshot() throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        try {
+            int previousIsolation = conn.getTransactionIsolation();
+            conn.setAutoCommit(false);
+            conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            try (Statement stmt = conn.createStatement()) {
+                // Plain consistent reads take no locks, so writers are never blocked
+                stmt.execute(START_SNAPSHOT_SQL);
+            }
+            return new JdbcSnapshot(conn, previousIsolation);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error opening backup snapshot", e);
+            conn.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public RestoreSession openRestore() throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        try {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(DISABLE_CHECKS_SQL);
+            }
+            return new JdbcRestoreSession(conn);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error opening restore session", e);
+            conn.close();
+            throw e;
+        }
+    }
+
+    // --- Sessions ---
+
+    private static final class JdbcSnapshot implements Snapshot {
+
+        private final Connection conn;
+        private final int previousIsolation;
+
+        JdbcSnapshot(Connection conn, int previousIsolation) {
+            this.conn = conn;
+            this.previousIsolation = previousIsolation;
+        }
+
+        @Override
+        public long streamTable(String table, RowSink sink) throws SQLException, IOException {
+            String sql = "SELECT * FROM " + quote(tableColumns(conn, table).tableName);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                return ExportDAOImpl.streamRows(pstmt, sink);
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error streaming table " + table + " for backup", e);
+                throw e;
+            }
+        }
+
+        @Override
+        public long streamChangedRows(String table, String changeColumn, LocalDateTime since, RowSink sink)
+                throws SQLException, IOException {
+            TableColumns existing = tableColumns(conn, table);
+            String sql = "SELECT * FROM " + quote(existing.tableName)
+                    + " WHERE " + quote(existing.column(changeColumn)) + " >= ?";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                pstmt.setString(1, since.format(SERVER_TIME_FORMAT));
+                return ExportDAOImpl.streamRows(pstmt, sink);
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error streaming changed rows of " + table + " for backup", e);
+                throw e;
+            }
+        }
+
+        @Override
+        public long streamKeys(String table, String keyColumn, RowSink sink) throws SQLException, IOException {
+            TableColumns existing = tableColumns(conn, table);
+            String key = quote(existing.column(keyColumn));
+            // Reads only the primary key index
+            String sql = "SELECT " + key + " FROM " + quote(existing.tableName) + " ORDER BY " + key;
+            try (PreparedStatement pstmt = conn.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                return ExportDAOImpl.streamRows(pstmt, sink);
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error streaming keys of " + table + " for backup", e);
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean hasColumn(String table, String column) throws SQLException {
+            try {
+                return tableColumns(conn, table).byLowerName.containsKey(column.toLowerCase(Locale.ROOT));
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error reading the columns of " + table, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public String findKeyColumn(String table) throws SQLException {
+            List<String> keyColumns = new ArrayList<>();
+            boolean integerKey = false;
+            try (PreparedStatement pstmt = conn.prepareStatement(FIND_KEY_COLUMNS_SQL)) {
+                pstmt.setString(1, table);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        keyColumns.add(rs.getString(1));
+                        integerKey = INTEGER_TYPES.contains(rs.getString(2).toLowerCase(Locale.ROOT));
+                    }
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error reading the primary key of " + table, e);
+                throw e;
+            }
+            return keyColumns.size() == 1 && integerKey ? keyColumns.get(0) : null;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                conn.rollback(); // Read-only; ending the transaction releases the snapshot
+                conn.setTransactionIsolation(previousIsolation);
+                conn.setAutoCommit(true);
+            } finally {
+                conn.close();
+            }
+        }
+    }
+
+    private static final class JdbcRestoreSession implements RestoreSession {
+
+        private final Connection conn;
+
+        JdbcRestoreSession(Connection conn) {
+            this.conn = conn;
+        }
+
+        @Override
+        public long replaceTable(String table, List<String> columns, List<ColumnKind> kinds, RowSource rows)
+                throws SQLException, IOException {
+            TableColumns existing = tableColumns(conn, table);
+            String insertSql = insertSql(existing, columns);
+
+            try (Statement stmt = conn.createStatement();
+                 PreparedStatement pstmt = conn.prepareStatement(insertSql)) {
+                stmt.execute("TRUNCATE TABLE " + quote(existing.tableName));
+
+                ColumnKind[] columnKinds = kinds.toArray(new ColumnKind[0]);
+                long inserted = 0;
+                String[] values;
+                while ((values = rows.next()) != null) {
+                    for (int i = 0; i < columnKinds.length; i++) {
+                        bindValue(pstmt, i + 1, columnKinds[i], values[i]);
+                    }
+                    pstmt.addBatch();
+                    inserted++;
+                    if (inserted % INSERT_BATCH_SIZE == 0) {
+                        pstmt.executeBatch();
+                    }
+                    if (inserted % COMMIT_INTERVAL_ROWS == 0) {
+                        conn.commit();
+                    }
+                }
+                pstmt.executeBatch();
+                conn.commit();
+                return inserted;
+            } catch (SQLException | IOException e) {
+                LOGGER.log(Level.SEVERE, "Error restoring table " + table, e);
+                rollbackQuietly(conn);
+                throw e;
+            }
+        }
+
+        @Override
+        public long replaceRows(String table, String keyColumn, List<String> columns, List<ColumnKind> kinds,
+                RowSource rows) throws SQLException, IOException {
+            TableColumns existing = tableColumns(conn, table);
+            int keyIndex = indexOfIgnoreCase(columns, keyColumn);
+            if (keyIndex < 0) {
+                throw new SQLException("Rows for " + table + " do not include the key column " + keyColumn);
+            }
+            String deleteSql = "DELETE FROM " + quote(existing.tableName)
+                    + " WHERE " + quote(existing.column(keyColumn)) + " = ?";
+
+            try (PreparedStatement delete = conn.prepareStatement(deleteSql);
+                 PreparedStatement insert = conn.prepareStatement(insertSql(existing, columns))) {
+                ColumnKind[] columnKinds = kinds.toArray(new ColumnKind[0]);
+                long written = 0;
+                String[] values;
+                while ((values = rows.next()) != null) {
+                    bindValue(delete, 1, columnKinds[keyIndex], values[keyIndex]);
+                    delete.addBatch();
+                    for (int i = 0; i < columnKinds.length; i++) {
+                        bindValue(insert, i + 1, columnKinds[i], values[i]);
+                    }
+                    insert.addBatch();
+                    written++;
+                    if (written % INSERT_BATCH_SIZE == 0) {
+                        // All deletes of a batch go first, so rows that swapped a
+                        // unique value (e.g. two room numbers) never collide
+                        delete.executeBatch();
+                        insert.executeBatch();
+                    }
+                    if (written % COMMIT_INTERVAL_ROWS == 0) {
+                        conn.commit();
+                    }
+                }
+                delete.executeBatch();
+                insert.executeBatch();
+                conn.commit();
+                return written;
+            } catch (SQLException | IOException e) {
+                LOGGER.log(Level.SEVERE, "Error applying changed rows to " + table, e);
+                rollbackQuietly(conn);
+                throw e;
+            }
+        }
+
+        @Override
+        public long deleteKeysOutside(String table, String keyColumn, RowSource keyRanges)
+                throws SQLException, IOException {
+            TableColumns existing = tableColumns(conn, table);
+            String key = quote(existing.column(keyColumn));
+            String deleteSql = "DELETE FROM " + quote(existing.tableName) + " WHERE " + key + " > ? AND " + key + " < ?";
+
+            try (PreparedStatement pstmt = conn.prepareStatement(deleteSql)) {
+                // Deletes each gap between consecutive ranges, plus everything before the first and after the last
+                long previousLast = Long.MIN_VALUE;
+                String[] range;
+                while ((range = keyRanges.next()) != null) {
+                    long first = Long.parseLong(range[0]);
+                    if (first > previousLast + 1) {
+                        addGap(pstmt, previousLast, first);
+                    }
+                    previousLast = Long.parseLong(range[1]);
+                }
+                if (previousLast < Long.MAX_VALUE) {
+                    addGap(pstmt, previousLast, Long.MAX_VALUE);
+                }
+                long deleted = 0;
+                for (int count : pstmt.executeBatch()) {
+                    deleted += Math.max(0, count);
+                }
+                conn.commit();
+                return deleted;
+            } catch (SQLException | IOException | NumberFormatException e) {
+                LOGGER.log(Level.SEVERE, "Error removing deleted rows from " + table, e);
+                rollbackQuietly(conn);
+                if (e instanceof NumberFormatException) {
+                    throw new IOException("Invalid key range for " + table, e);
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        public void checkColumns(String table, List<String> columns) throws SQLException {
+            try {
+                TableColumns existing = tableColumns(conn, table);
+                for (String column : columns) {
+                    existing.column(column);
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Backup does not match table " + table, e);
+                throw e;
+            }
+        }
+
+        private static void addGap(PreparedStatement pstmt, long after, long before) throws SQLException {
+            pstmt.setLong(1, after);
+            pstmt.setLong(2, before);
+            pstmt.addBatch();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try (Statement stmt = conn.createStatement()) {
+                // Session settings stay with a pooled connection, so undo them before handing it back
+                stmt.execute(ENABLE_CHECKS_SQL);
+                conn.setAutoCommit(true);
+            } finally {
+                conn.close();
+            }
+        }
+    }
+
+    // --- Helpers ---
+
+    /**
+     * Column names of an existing table, used to validate the identifiers
+     * that are spliced into backup and restore statements
+     */
+    private static final class TableColumns {
+
+        private final String tableName;
+        private final Map<String, String> byLowerName = new HashMap<>();
+
+        TableColumns(String tableName) {
+            this.tableName = tableName;
+        }
+
+        String column(String name) throws SQLException {
+            String actual = byLowerName.get(name.toLowerCase(Locale.ROOT));
+            if (actual == null) {
+                throw new SQLException("Table " + tableName + " has no column " + name);
+            }
+            return actual;
+        }
+    }
+
+    private static TableColumns tableColumns(Connection conn, String table) throws SQLException {
+        TableColumns columns = new TableColumns(table);
+        try (PreparedStatement pstmt = conn.prepareStatement(FIND_COLUMNS_SQL)) {
+            pstmt.setString(1, table);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String column = rs.getString(1);
+                    columns.byLowerName.put(column.toLowerCase(Locale.ROOT), column);
+                }
+            }
+        }
+        if (columns.byLowerName.isEmpty()) {
+            throw new SQLException("Unknown table: " + table);
+        }
+        return columns;
+    }
+
+    private static String insertSql(TableColumns existing, List<String> columns) throws SQLException {
+        List<String> targetColumns = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            targetColumns.add(quote(existing.column(column)));
+        }
+        return "INSERT INTO " + quote(existing.tableName) + " (" + String.join(", ", targetColumns)
+                + ") VALUES (" + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+    }
+
+    private static int indexOfIgnoreCase(List<String> columns, String column) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).equalsIgnoreCase(column)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String quote(String identifier) {
+        return "`" + identifier.replace("`", "``") + "`";
+    }
+
+    private static void bindValue(PreparedStatement pstmt, int index, ColumnKind kind, String value) throws SQLException {
+        if (value == null) {
+            pstmt.setNull(index, Types.NULL);
+        } else if (kind == ColumnKind.BOOLEAN) {
+            pstmt.setBoolean(index, Boolean.parseBoolean(value));
+        } else {
+            pstmt.setString(index, value); // The server converts numbers and dates from their text form
+        }
+    }
+
+    private static void rollbackQuietly(Connection conn) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error rolling back restore", e);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.dormhelios.model.dao;
+
+import com.dormhelios.model.entity.Room;
+import com.dormhelios.util.LruCache;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RoomDAO decorator that caches findById results in a bounded LRU.
+ * Writes go straight to the delegate and invalidate the affected room once
+ * it has committed; writes in a caller's transaction are invalidated by the
+ * caller through invalidateRooms. List and count queries are not cached.
+ */
+public class CachingRoomDAO implements RoomDAO {
+
+    public static final int DEFAULT_MAX_ENTRIES = 500;
+    public static final long DEFAULT_TTL_SECONDS = 120;
+
+    private final RoomDAO delegate;
+    private final LruCache<Integer, Room> cache;
+
+    public CachingRoomDAO(RoomDAO delegate) {
+        this(delegate, DEFAULT_MAX_ENTRIES, DEFAULT_TTL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param delegate The DAO that reads and writes the database
+     * @param maxEntries Maximum number of rooms kept in the cache
+     * @param ttl Time a cached room stays valid, or 0 to keep it until invalidated or evicted
+     * @param unit Unit of ttl
+     */
+    public CachingRoomDAO(RoomDAO delegate, int maxEntries, long ttl, TimeUnit unit) {
+        this.delegate = delegate;
+        this.cache = new LruCache<>("rooms", maxEntries, ttl, unit, Room::copy);
+    }
+
+    public LruCache.Stats getCacheStats() {
+        return cache.getStats();
+    }
+
+    /**
+     * Drops one room from the cache, e.g. after another DAO changed its slots
+     */
+    public void invalidate(int roomId) {
+        cache.invalidate(roomId);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void invalidateRooms(Collection<Integer> roomIds) {
+        for (int roomId : roomIds) {
+            cache.invalidate(roomId);
+        }
+    }
+
+    // --- Cached reads ---
+
+    @Override
+    public Optional<Room> findById(int roomId) {
+        return cache.getOrLoad(roomId, delegate::findById);
+    }
+
+    // --- Uncached reads ---
+
+    @Override
+    public Optional<Room> findByRoomNumber(String roomNumber) {
+        return delegate.findByRoomNumber(roomNumber);
+    }
+
+    @Override
+    public List<Room> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Room> findAllOrThrow() throws SQLException {
+        return delegate.findAllOrThrow();
+    }
+
+    @Override
+    public List<Room> findByStatus(Room.RoomStatus status) {
+        return delegate.findByStatus(status);
+    }
+
+    @Override
+    public int countAll() {
+        return delegate.countAll();
+    }
+
+    @Override
+    public int countByStatus(Room.RoomStatus status) {
+        return delegate.countByStatus(status);
+    }
+
+    @Override
+    public String findChangeStamp() {
+        return delegate.findChangeStamp();
+    }
+
+    // --- Writes (delegate, then invalidate once the delegate has committed) ---
+
+    @Override
+    public int addRoom(Room room) {
+        return delegate.addRoom(room);
+    }
+
+    @Override
+    public boolean updateRoom(Room room) {
+        try {
+            return delegate.updateRoom(room);
+        } finally {
+            cache.invalidate(room.getRoomId());
+        }
+    }
+
+    @Override
+    public boolean deleteRoom(int roomId) {
+        try {
+            return delegate.deleteRoom(roomId);
+        } finally {
+            cache.invalidate(roomId);
+        }
+    }
+
+    @Override
+    public boolean setActiveStatus(int roomId, boolean status) {
+        try {
+            return delegate.setActiveStatus(roomId, status);
+        } finally {
+            cache.invalidate(roomId);
+        }
+    }
+
+    // --- Writes in the caller's transaction ---
+    // Invalidating here would let a concurrent findById re-cache the row as it
+    // was before the commit, so the caller calls invalidateRooms after committing
+
+    @Override
+    public boolean decrementSlotsAvailable(int roomId, Connection conn) throws SQLException {
+        return delegate.decrementSlotsAvailable(roomId, conn);
+    }
+
+    @Override
+    public boolean reserveSlots(int roomId, int count, Connection conn) throws SQLException {
+        return delegate.reserveSlots(roomId, count, conn);
+    }
+
+    @Override
+    public boolean incrementSlotsAvailable(int roomId, Connection conn) throws SQLException {
+        return delegate.incrementSlotsAvailable(roomId, conn);
+    }
+}
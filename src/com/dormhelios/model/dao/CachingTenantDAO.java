@@ -0,0 +1,196 @@
+package com.dormhelios.model.dao;
+
+import com.dormhelios.model.entity.Tenant;
+import com.dormhelios.model.entity.TenantWithRoom;
+import com.dormhelios.util.LruCache;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TenantDAO decorator that caches findById results in a bounded LRU.
+ * Writes go straight to the delegate and invalidate the tenant; writes that
+ * move a tenant between rooms also invalidate those rooms in the room cache,
+ * since TenantDAOImpl adjusts their slots in the same transaction.
+ */
+public class CachingTenantDAO implements TenantDAO {
+
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+    public static final long DEFAULT_TTL_SECONDS = 120;
+
+    private final TenantDAO delegate;
+    private final CachingRoomDAO roomCache; // Nullable
+    private final LruCache<Integer, Tenant> cache;
+
+    /**
+     * @param delegate The DAO that reads and writes the database
+     * @param roomCache Room cache to invalidate when slots change, or null if rooms are not cached
+     */
+    public CachingTenantDAO(TenantDAO delegate, CachingRoomDAO roomCache) {
+        this(delegate, roomCache, DEFAULT_MAX_ENTRIES, DEFAULT_TTL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param delegate The DAO that reads and writes the database
+     * @param roomCache Room cache to invalidate when slots change, or null if rooms are not cached
+     * @param maxEntries Maximum number of tenants kept in the cache
+     * @param ttl Time a cached tenant stays valid, or 0 to keep it until invalidated or evicted
+     * @param unit Unit of ttl
+     */
+    public CachingTenantDAO(TenantDAO delegate, CachingRoomDAO roomCache, int maxEntries, long ttl, TimeUnit unit) {
+        this.delegate = delegate;
+        this.roomCache = roomCache;
+        this.cache = new LruCache<>("tenants", maxEntries, ttl, unit, CachingTenantDAO::copy);
+    }
+
+    public LruCache.Stats getCacheStats() {
+        return cache.getStats();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    // --- Cached reads ---
+
+    @Override
+    public Optional<Tenant> findById(int tenantId) {
+        return cache.getOrLoad(tenantId, delegate::findById);
+    }
+
+    // --- Uncached reads ---
+
+    @Override
+    public List<Tenant> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<TenantWithRoom> findAllWithRoomNumbers() {
+        return delegate.findAllWithRoomNumbers();
+    }
+
+    @Override
+    public List<Tenant> findByRoomId(int roomId) {
+        return delegate.findByRoomId(roomId);
+    }
+
+    @Override
+    public Optional<Tenant> findByUserId(int userId) {
+        return delegate.findByUserId(userId);
+    }
+
+    @Override
+    public int countActiveByRoomId(int roomId) {
+        return delegate.countActiveByRoomId(roomId);
+    }
+
+    @Override
+    public List<Tenant> findByLastName(String lastName) {
+        return delegate.findByLastName(lastName);
+    }
+
+    @Override
+    public int countAll() {
+        return delegate.countAll();
+    }
+
+    @Override
+    public int countNewTenantsByDateRange(LocalDate startDate, LocalDate endDate) {
+        return delegate.countNewTenantsByDateRange(startDate, endDate);
+    }
+
+    @Override
+    public List<Tenant> findAllIncludingInactive() {
+        return delegate.findAllIncludingInactive();
+    }
+
+    // --- Writes ---
+
+    @Override
+    public int addTenant(Tenant tenant) {
+        try {
+            return delegate.addTenant(tenant);
+        } finally {
+            invalidateRoom(tenant.getRoomId());
+        }
+    }
+
+    @Override
+    public void addTenantsBatch(List<Tenant> tenants, Connection conn) throws SQLException {
+        // Runs in the caller's transaction; the caller invalidates the rooms once it has committed
+        delegate.addTenantsBatch(tenants, conn);
+    }
+
+    @Override
+    public boolean updateTenant(Tenant tenant) {
+        try {
+            return delegate.updateTenant(tenant);
+        } finally {
+            cache.invalidate(tenant.getTenantId());
+        }
+    }
+
+    @Override
+    public boolean setActiveStatus(int tenantId, boolean isActive) {
+        try {
+            return delegate.setActiveStatus(tenantId, isActive);
+        } finally {
+            cache.invalidate(tenantId);
+        }
+    }
+
+    @Override
+    public boolean assignTenantToRoom(int tenantId, Integer roomId) {
+        Integer oldRoomId = findById(tenantId).map(Tenant::getRoomId).orElse(null);
+        try {
+            return delegate.assignTenantToRoom(tenantId, roomId);
+        } finally {
+            cache.invalidate(tenantId);
+            invalidateRoom(oldRoomId);
+            invalidateRoom(roomId);
+        }
+    }
+
+    @Override
+    public boolean assignUserAccountToTenant(int tenantId, Integer userId) {
+        try {
+            return delegate.assignUserAccountToTenant(tenantId, userId);
+        } finally {
+            cache.invalidate(tenantId);
+        }
+    }
+
+    private void invalidateRoom(Integer roomId) {
+        if (roomCache != null && roomId != null && roomId > 0) {
+            roomCache.invalidate(roomId);
+        }
+    }
+
+    private static Tenant copy(Tenant tenant) {
+        Tenant copy = new Tenant();
+        copy.setTenantId(tenant.getTenantId());
+        copy.setUserId(tenant.getUserId());
+        copy.setRoomId(tenant.getRoomId());
+        copy.setGuardianName(tenant.getGuardianName());
+        copy.setEmergencyContactNumber(tenant.getEmergencyContactNumber());
+        copy.setFirstName(tenant.getFirstName());
+        copy.setLastName(tenant.getLastName());
+        copy.setStudentIdNumber(tenant.getStudentIdNumber());
+        copy.setEmail(tenant.getEmail());
+        copy.setPhoneNumber(tenant.getPhoneNumber());
+        copy.setPermanentAddress(tenant.getPermanentAddress());
+        copy.setLeaseStartDate(tenant.getLeaseStartDate());
+        copy.setLeaseEndDate(tenant.getLeaseEndDate());
+        copy.setSecurityDepositAmount(tenant.getSecurityDepositAmount());
+        copy.setSecurityDepositStatus(tenant.getSecurityDepositStatus());
+        copy.setNotes(tenant.getNotes());
+        copy.setCreatedAt(tenant.getCreatedAt());
+        copy.setUpdatedAt(tenant.getUpdatedAt());
+        copy.setActive(tenant.isActive());
+        return copy;
+    }
+}
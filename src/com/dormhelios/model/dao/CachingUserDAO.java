@@ -0,0 +1,124 @@
+package com.dormhelios.model.dao;
+
+import com.dormhelios.model.entity.User;
+import com.dormhelios.util.LruCache;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserDAO decorator that caches findById results in a bounded LRU.
+ * Lookups by username or email (login, registration checks) always go to
+ * the database so credential changes are seen immediately.
+ */
+public class CachingUserDAO implements UserDAO {
+
+    public static final int DEFAULT_MAX_ENTRIES = 200;
+    public static final long DEFAULT_TTL_SECONDS = 300;
+
+    private final UserDAO delegate;
+    private final LruCache<Integer, User> cache;
+
+    public CachingUserDAO(UserDAO delegate) {
+        this(delegate, DEFAULT_MAX_ENTRIES, DEFAULT_TTL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param delegate The DAO that reads and writes the database
+     * @param maxEntries Maximum number of users kept in the cache
+     * @param ttl Time a cached user stays valid, or 0 to keep it until invalidated or evicted
+     * @param unit Unit of ttl
+     */
+    public CachingUserDAO(UserDAO delegate, int maxEntries, long ttl, TimeUnit unit) {
+        this.delegate = delegate;
+        this.cache = new LruCache<>("users", maxEntries, ttl, unit, CachingUserDAO::copy);
+    }
+
+    public LruCache.Stats getCacheStats() {
+        return cache.getStats();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    // --- Cached reads ---
+
+    @Override
+    public Optional<User> findById(int userId) {
+        return cache.getOrLoad(userId, delegate::findById);
+    }
+
+    // --- Uncached reads ---
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return delegate.findByUsername(username);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return delegate.findByEmail(email);
+    }
+
+    @Override
+    public List<User> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public int countAll() {
+        return delegate.countAll();
+    }
+
+    @Override
+    public int countActive() {
+        return delegate.countActive();
+    }
+
+    // --- Writes ---
+
+    @Override
+    public int addUser(User user) {
+        return delegate.addUser(user);
+    }
+
+    @Override
+    public int addUserByAdmin(User user) {
+        return delegate.addUserByAdmin(user);
+    }
+
+    @Override
+    public boolean updateUser(User user) {
+        try {
+            return delegate.updateUser(user);
+        } finally {
+            cache.invalidate(user.getUserId());
+        }
+    }
+
+    @Override
+    public boolean deleteUser(int userId) {
+        try {
+            return delegate.deleteUser(userId);
+        } finally {
+            cache.invalidate(userId);
+        }
+    }
+
+    private static User copy(User user) {
+        User copy = new User();
+        copy.setUserId(user.getUserId());
+        copy.setUsername(user.getUsername());
+        copy.setPasswordHash(user.getPasswordHash());
+        copy.setFirstName(user.getFirstName());
+        copy.setSurname(user.getSurname());
+        copy.setRole(user.getRole());
+        copy.setEmail(user.getEmail());
+        copy.setPhoneNumber(user.getPhoneNumber());
+        copy.setActive(user.isActive());
+        copy.setCreatedAt(user.getCreatedAt());
+        copy.setUpdatedAt(user.getUpdatedAt());
+        return copy;
+    }
+}
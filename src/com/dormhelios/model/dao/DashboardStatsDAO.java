@@ -0,0 +1,32 @@
+package com.dormhelios.model.dao;
+
+import com.dormhelios.model.entity.DashboardSnapshot;
+import com.dormhelios.model.entity.MonthlyDues;
+import java.time.YearMonth;
+
+/**
+ * Read-only aggregate queries for the main dashboard
+ */
+public interface DashboardStatsDAO {
+
+    /**
+     * Loads all scalar KPIs (active tenants, new tenants, rooms, occupied rooms,
+     * revenue) in a single query
+     * @param month The month for the "new tenants" and revenue figures
+     * @return The KPI figures; all zero if the query fails
+     */
+    DashboardSnapshot.Kpis loadKpis(YearMonth month);
+
+    /**
+     * Computes, for every month in the range, how many active tenants were due
+     * (lease started on or before the month and not ended before it) and how
+     * many of those had the month covered by a payment's period_covered_start/end
+     * (or by its payment date when no period was recorded). Runs as one streaming
+     * pass over tenants and their overlapping payments, ordered by tenant, so
+     * multi-year ranges cost one query.
+     * @param from First month, inclusive
+     * @param to Last month, inclusive
+     * @return Due and paid counts per month; all zero if the query fails
+     */
+    MonthlyDues loadMonthlyDues(YearMonth from, YearMonth to);
+}
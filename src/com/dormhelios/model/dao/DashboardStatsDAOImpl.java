@@ -0,0 +1,151 @@
+package com.dormhelios.model.dao;
+
+import com.dormhelios.model.entity.DashboardSnapshot;
+import com.dormhelios.model.entity.MonthlyDues;
+import com.dormhelios.model.entity.Room;
+import com.dormhelios.util.DatabaseConnection;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.YearMonth;
+import java.util.BitSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class DashboardStatsDAOImpl implements DashboardStatsDAO {
+
+    private static final Logger LOGGER = Logger.getLogger(DashboardStatsDAOImpl.class.getName());
+
+    // One round trip for every scalar KPI; same filters as the individual DAO count methods
+    static final String LOAD_KPIS_SQL =
+        "SELECT " +
+        "(SELECT COUNT(*) FROM tenants WHERE is_active = TRUE) AS active_tenants, " +
+        "(SELECT COUNT(*) FROM tenants WHERE is_active = TRUE AND created_at >= ? AND created_at < ?) AS new_tenants, " +
+        "(SELECT COUNT(*) FROM rooms WHERE is_active = 1) AS total_rooms, " +
+        "(SELECT COUNT(*) FROM rooms WHERE is_active = 1 AND status = ?) AS occupied_rooms, " +
+        "(SELECT COALESCE(SUM(amount), 0) FROM payments WHERE payment_date BETWEEN ? AND ?) AS monthly_revenue";
+
+    // Active tenants whose lease overlaps the range, each joined with the payments whose
+    // coverage overlaps the range; ordered by tenant so one pass can fold each tenant's rows
+    static final String STREAM_DUES_SQL =
+        "SELECT t.id AS tenant_id, " +
+        "COALESCE(t.lease_start_date, DATE(t.created_at)) AS due_from, t.lease_end_date AS due_until, " +
+        "COALESCE(p.period_covered_start, p.payment_date) AS covered_from, " +
+        "COALESCE(p.period_covered_end, p.period_covered_start, p.payment_date) AS covered_until " +
+        "FROM tenants t " +
+        "LEFT JOIN payments p ON p.tenant_id = t.id " +
+        "AND COALESCE(p.period_covered_end, p.period_covered_start, p.payment_date) >= ? " +
+        "AND COALESCE(p.period_covered_start, p.payment_date) <= ? " +
+        "WHERE t.is_active = TRUE " +
+        "AND COALESCE(t.lease_start_date, DATE(t.created_at)) <= ? " +
+        "AND (t.lease_end_date IS NULL OR t.lease_end_date >= ?) " +
+        "ORDER BY t.id";
+
+    @Override
+    public DashboardSnapshot.Kpis loadKpis(YearMonth month) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(LOAD_KPIS_SQL)) {
+            pstmt.setTimestamp(1, Timestamp.valueOf(month.atDay(1).atStartOfDay()));
+            pstmt.setTimestamp(2, Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()));
+            pstmt.setString(3, Room.RoomStatus.OCCUPIED.name());
+            pstmt.setDate(4, Date.valueOf(month.atDay(1)));
+            pstmt.setDate(5, Date.valueOf(month.atEndOfMonth()));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return new DashboardSnapshot.Kpis(
+                            rs.getInt("active_tenants"),
+                            rs.getInt("new_tenants"),
+                            rs.getInt("total_rooms"),
+                            rs.getInt("occupied_rooms"),
+                            rs.getBigDecimal("monthly_revenue"));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error loading dashboard KPIs for " + month, e);
+        }
+        return new DashboardSnapshot.Kpis(0, 0, 0, 0, BigDecimal.ZERO);
+    }
+
+    @Override
+    public MonthlyDues loadMonthlyDues(YearMonth from, YearMonth to) {
+        int months = MonthlyDues.monthsBetween(from, to) + 1;
+        if (months <= 0) {
+            return MonthlyDues.empty(from, from.minusMonths(1));
+        }
+        // Due counts are accumulated as a difference array: +1 at the first due month, -1 after the last
+        int[] dueDelta = new int[months + 1];
+        int[] paidCounts = new int[months];
+        BitSet covered = new BitSet(months); // Months covered for the current tenant, reused across tenants
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(STREAM_DUES_SQL,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            pstmt.setFetchSize(Integer.MIN_VALUE); // MySQL Connector/J: stream rows instead of buffering the result
+            Date rangeStart = Date.valueOf(from.atDay(1));
+            Date rangeEnd = Date.valueOf(to.atEndOfMonth());
+            pstmt.setDate(1, rangeStart);
+            pstmt.setDate(2, rangeEnd);
+            pstmt.setDate(3, rangeEnd);
+            pstmt.setDate(4, rangeStart);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                int currentTenant = -1;
+                int dueFirst = 0;
+                int dueLast = -1;
+                while (rs.next()) {
+                    int tenantId = rs.getInt("tenant_id");
+                    if (tenantId != currentTenant) {
+                        foldTenant(dueFirst, dueLast, covered, dueDelta, paidCounts);
+                        currentTenant = tenantId;
+                        dueFirst = Math.max(0, monthIndex(from, rs.getDate("due_from")));
+                        Date dueUntil = rs.getDate("due_until");
+                        dueLast = dueUntil == null ? months - 1 : Math.min(months - 1, monthIndex(from, dueUntil));
+                        covered.clear();
+                    }
+                    Date coveredFrom = rs.getDate("covered_from");
+                    Date coveredUntil = rs.getDate("covered_until");
+                    if (coveredFrom != null && coveredUntil != null) {
+                        int first = Math.max(0, monthIndex(from, coveredFrom));
+                        int last = Math.min(months - 1, monthIndex(from, coveredUntil));
+                        if (first <= last) {
+                            covered.set(first, last + 1);
+                        }
+                    }
+                }
+                foldTenant(dueFirst, dueLast, covered, dueDelta, paidCounts);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error computing monthly dues from " + from + " to " + to, e);
+            return MonthlyDues.empty(from, to);
+        }
+
+        int[] dueCounts = new int[months];
+        int running = 0;
+        for (int i = 0; i < months; i++) {
+            running += dueDelta[i];
+            dueCounts[i] = running;
+        }
+        return new MonthlyDues(from, dueCounts, paidCounts);
+    }
+
+    /**
+     * Adds one tenant's due range and covered months to the running totals.
+     * Only months the tenant was due in count as paid.
+     */
+    private static void foldTenant(int dueFirst, int dueLast, BitSet covered, int[] dueDelta, int[] paidCounts) {
+        if (dueFirst > dueLast) {
+            return;
+        }
+        dueDelta[dueFirst]++;
+        dueDelta[dueLast + 1]--;
+        for (int i = covered.nextSetBit(dueFirst); i >= 0 && i <= dueLast; i = covered.nextSetBit(i + 1)) {
+            paidCounts[i]++;
+        }
+    }
+
+    /**
+     * @return Month offset of a date from the first month of the range (may be negative or past the end)
+     */
+    private static int monthIndex(YearMonth from, Date date) {
+        return MonthlyDues.monthsBetween(from, YearMonth.from(date.toLocalDate()));
+    }
+}
@@ -0,0 +1,85 @@
+package com.dormhelios.model.dao;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Read-only access for bulk exports. Rows are streamed from the database one
+ * at a time as plain strings, so an export never holds more than the current
+ * row in memory and never builds entity objects.
+ */
+public interface ExportDAO {
+
+    /**
+     * Tables that can be exported
+     */
+    enum Dataset {
+        PAYMENTS("Payments"),
+        TENANTS("Tenants"),
+        ROOMS("Rooms");
+
+        private final String label;
+
+        Dataset(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /**
+     * How a column's string value should be written by formats that are typed, like JSON
+     */
+    enum ColumnKind {
+        TEXT,
+        NUMBER,
+        BOOLEAN
+    }
+
+    /**
+     * Receives the rows of a streamed export
+     */
+    interface RowSink {
+
+        /**
+         * Called once before the first row
+         * @param columns Column labels in row order
+         * @param kinds Kind of each column
+         */
+        void start(List<String> columns, List<ColumnKind> kinds) throws IOException;
+
+        /**
+         * Called for every row. The array is reused for the next row, so copy
+         * anything that must outlive the call.
+         * @param values Column values in database text form; null for SQL NULL.
+         *               BOOLEAN columns are "true" or "false".
+         * @return false to stop the export early
+         */
+        boolean row(String[] values) throws IOException;
+    }
+
+    /**
+     * @param dataset Dataset to count
+     * @return Number of rows the dataset currently has
+     */
+    long count(Dataset dataset) throws SQLException;
+
+    /**
+     * Streams every row of a dataset into a sink, in primary key order,
+     * over a forward-only cursor on a dedicated connection.
+     * @param dataset Dataset to export
+     * @param sink Receives the column list and then each row
+     * @return Number of rows handed to the sink
+     * @throws SQLException if the query fails
+     * @throws IOException if the sink fails
+     */
+    long stream(Dataset dataset, RowSink sink) throws SQLException, IOException;
+}
@@ -0,0 +1,193 @@
+package com.dormhelios.model.dao;
+
+import com.dormhelios.util.DatabaseConnection;
+
+import java.io.IOException;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class ExportDAOImpl implements ExportDAO {
+
+    private static final Logger LOGGER = Logger.getLogger(ExportDAOImpl.class.getName());
+
+    // --- SQL Constants ---
+    // Ordered by primary key so the server reads the clustered index instead of sorting
+    private static final String EXPORT_PAYMENTS_SQL =
+        "SELECT p.payment_id, p.payment_date, p.amount, p.payment_method, " +
+        "p.period_covered_start, p.period_covered_end, p.receipt_reference, p.notes, " +
+        "p.tenant_id, t.first_name AS tenant_first_name, t.last_name AS tenant_last_name, r.room_number, " +
+        "p.user_id, p.created_at " +
+        "FROM payments p " +
+        "LEFT JOIN tenants t ON p.tenant_id = t.id " +
+        "LEFT JOIN rooms r ON t.room_id = r.id " +
+        "ORDER BY p.payment_id";
+    // Column names match what TenantImportJob reads, so an export can be imported elsewhere
+    private static final String EXPORT_TENANTS_SQL =
+        "SELECT t.id, t.first_name, t.last_name, t.student_number, t.email, t.phone_number, " +
+        "t.room_id, r.room_number, t.guardian_name, t.emergency_contact_number, t.permanent_address, " +
+        "t.lease_start_date, t.lease_end_date, t.deposit_amount, t.deposit_status, t.notes, " +
+        "t.is_active, t.created_at, t.updated_at " +
+        "FROM tenants t " +
+        "LEFT JOIN rooms r ON t.room_id = r.id " +
+        "ORDER BY t.id";
+    private static final String EXPORT_ROOMS_SQL =
+        "SELECT id, room_number, capacity, slots_available, monthly_rate, status, description, " +
+        "is_active, created_at, updated_at " +
+        "FROM rooms ORDER BY id";
+    private static final String COUNT_PAYMENTS_SQL = "SELECT COUNT(*) FROM payments";
+    private static final String COUNT_TENANTS_SQL = "SELECT COUNT(*) FROM tenants";
+    private static final String COUNT_ROOMS_SQL = "SELECT COUNT(*) FROM rooms";
+
+    @Override
+    public long count(Dataset dataset) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(countSql(dataset));
+             ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error counting rows for export of " + dataset, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public long stream(Dataset dataset, RowSink sink) throws SQLException, IOException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(exportSql(dataset),
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            return streamRows(pstmt, sink);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error streaming export of " + dataset, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Runs a query with a streaming result set and hands each row to a sink.
+     * Shared with BackupDAOImpl.
+     * @param pstmt Forward-only, read-only statement to execute
+     * @param sink Receives the column list and then each row
+     * @return Number of rows handed to the sink
+     */
+    static long streamRows(PreparedStatement pstmt, RowSink sink) throws SQLException, IOException {
+        // Integer.MIN_VALUE makes Connector/J stream the result row by row
+        // instead of reading all of it into memory first
+        pstmt.setFetchSize(Integer.MIN_VALUE);
+
+        ResultSet rs = pstmt.executeQuery();
+        boolean exhausted = false;
+        try {
+            ResultSetMetaData meta = rs.getMetaData();
+            int columnCount = meta.getColumnCount();
+            List<String> columns = new ArrayList<>(columnCount);
+            ColumnKind[] kinds = new ColumnKind[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                columns.add(meta.getColumnLabel(i + 1));
+                kinds[i] = kindOf(meta.getColumnType(i + 1));
+            }
+            sink.start(columns, List.of(kinds));
+
+            String[] values = new String[columnCount];
+            long rows = 0;
+            while (rs.next()) {
+                for (int i = 0; i < columnCount; i++) {
+                    values[i] = readValue(rs, i + 1, kinds[i]);
+                }
+                rows++;
+                if (!sink.row(values)) {
+                    return rows; // Stopped early by the sink
+                }
+            }
+            exhausted = true;
+            return rows;
+        } finally {
+            if (exhausted) {
+                rs.close();
+            } else {
+                // Closing a streaming result set reads the remaining rows off the
+                // wire first; cancelling the query lets an early stop return at once
+                cancelQuietly(pstmt);
+                closeQuietly(rs);
+            }
+        }
+    }
+
+    // --- Helpers ---
+
+    private static String exportSql(Dataset dataset) {
+        switch (dataset) {
+            case PAYMENTS:
+                return EXPORT_PAYMENTS_SQL;
+            case TENANTS:
+                return EXPORT_TENANTS_SQL;
+            case ROOMS:
+                return EXPORT_ROOMS_SQL;
+            default:
+                throw new IllegalArgumentException("Unknown dataset: " + dataset);
+        }
+    }
+
+    private static String countSql(Dataset dataset) {
+        switch (dataset) {
+            case PAYMENTS:
+                return COUNT_PAYMENTS_SQL;
+            case TENANTS:
+                return COUNT_TENANTS_SQL;
+            case ROOMS:
+                return COUNT_ROOMS_SQL;
+            default:
+                throw new IllegalArgumentException("Unknown dataset: " + dataset);
+        }
+    }
+
+    private static ColumnKind kindOf(int sqlType) {
+        switch (sqlType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return ColumnKind.NUMBER;
+            case Types.BIT:     // tinyint(1) flags such as is_active
+            case Types.BOOLEAN:
+                return ColumnKind.BOOLEAN;
+            default:
+                return ColumnKind.TEXT;
+        }
+    }
+
+    /**
+     * Reads a column as text without creating BigDecimal or date objects
+     */
+    private static String readValue(ResultSet rs, int column, ColumnKind kind) throws SQLException {
+        if (kind == ColumnKind.BOOLEAN) {
+            boolean value = rs.getBoolean(column);
+            return rs.wasNull() ? null : String.valueOf(value);
+        }
+        return rs.getString(column);
+    }
+
+    private static void cancelQuietly(Statement statement) {
+        try {
+            statement.cancel();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Could not cancel export query", e);
+        }
+    }
+
+    private static void closeQuietly(ResultSet rs) {
+        try {
+            rs.close();
+        } catch (SQLException e) {
+            // Expected after a cancel: the server reports the query as interrupted
+            LOGGER.log(Level.FINE, "Error closing cancelled export result set", e);
+        }
+    }
+}
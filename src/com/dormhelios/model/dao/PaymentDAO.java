@@ -1,6 +1,7 @@
 package com.dormhelios.model.dao;
 
 import com.dormhelios.model.entity.Payment;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -12,6 +13,26 @@ public interface PaymentDAO {
 
     List<Payment> findAll();
 
+    /**
+     * Count payments matching the given filter
+     * @param query filter options
+     * @return number of matching payments
+     * @throws SQLException so the table can show the failure instead of no rows
+     */
+    int countMatching(PaymentQuery query) throws SQLException;
+
+    /**
+     * Fetch one page of payments (with tenant and room attached) using keyset
+     * pagination on (payment_date, created_at, payment_id)
+     * @param query filter and sort options
+     * @param after last payment of the previous page, or null to start at {@code offset}
+     * @param offset absolute index of the first row; only used when {@code after} is null
+     * @param limit maximum number of payments to return
+     * @return the page of payments in query order
+     * @throws SQLException so the table can mark the page as failed instead of empty
+     */
+    List<Payment> findPage(PaymentQuery query, Payment after, int offset, int limit) throws SQLException;
+
     List<Payment> findByTenantId(int tenantId); // Get all payments for a specific tenant
 
     List<Payment> findByDateRange(LocalDate startDate, LocalDate endDate); // Find payments within a date range
@@ -28,6 +49,8 @@ public interface PaymentDAO {
     
     /**
      * Find payments that are overdue (past due date but not paid)
+     * Each result carries the tenant (with phone number) and room (with monthly rate);
+     * the payment date is the tenant's last payment date.
      * @return list of overdue payments
      */
     List<Payment> findOverduePayments();
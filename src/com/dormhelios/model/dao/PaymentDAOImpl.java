@@ -19,27 +19,41 @@ public class PaymentDAOImpl implements PaymentDAO {
     // --- SQL Constants ---
     private static final String FIND_BY_ID_SQL = "SELECT * FROM payments WHERE payment_id = ?";
     private static final String FIND_ALL_SQL = "SELECT * FROM payments ORDER BY payment_date DESC, created_at DESC";
-    private static final String FIND_BY_TENANT_ID_SQL = "SELECT * FROM payments WHERE tenant_id = ? ORDER BY payment_date DESC, created_at DESC";
-    private static final String FIND_BY_DATE_RANGE_SQL = "SELECT * FROM payments WHERE payment_date BETWEEN ? AND ? ORDER BY payment_date DESC, tenant_id";
+    private static final String PAGE_SELECT_SQL =
+        "SELECT p.*, t.first_name, t.last_name, t.room_id, r.room_number " +
+        "FROM payments p " +
+        "LEFT JOIN tenants t ON p.tenant_id = t.id " +
+        "LEFT JOIN rooms r ON t.room_id = r.id";
+    private static final String PAGE_COUNT_SQL =
+        "SELECT COUNT(*) " +
+        "FROM payments p " +
+        "LEFT JOIN tenants t ON p.tenant_id = t.id " +
+        "LEFT JOIN rooms r ON t.room_id = r.id";
+    // Both joins are on primary keys and cannot change the row count, so counts
+    // without a text search skip them and stay on the payments indexes
+    private static final String PAGE_COUNT_PAYMENTS_ONLY_SQL = "SELECT COUNT(*) FROM payments p";
+    static final String FIND_BY_TENANT_ID_SQL = "SELECT * FROM payments WHERE tenant_id = ? ORDER BY payment_date DESC, created_at DESC";
+    static final String FIND_BY_DATE_RANGE_SQL = "SELECT * FROM payments WHERE payment_date BETWEEN ? AND ? ORDER BY payment_date DESC, tenant_id";
     private static final String FIND_BY_USER_ID_SQL = "SELECT * FROM payments WHERE user_id = ? ORDER BY created_at DESC";
     private static final String ADD_SQL = "INSERT INTO payments (tenant_id, user_id, payment_date, amount, payment_method, period_covered_start, period_covered_end, receipt_reference, qr_code_data, notes, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW())";
     private static final String UPDATE_SQL = "UPDATE payments SET tenant_id = ?, user_id = ?, payment_date = ?, amount = ?, payment_method = ?, period_covered_start = ?, period_covered_end = ?, receipt_reference = ?, qr_code_data = ?, notes = ? WHERE payment_id = ?"; // Note: created_at usually not updated
     private static final String DELETE_SQL = "DELETE FROM payments WHERE payment_id = ?";
-    private static final String SUM_AMOUNT_BY_DATE_RANGE_SQL = "SELECT SUM(amount) FROM payments WHERE payment_date BETWEEN ? AND ?"; // New SQL
+    static final String SUM_AMOUNT_BY_DATE_RANGE_SQL = "SELECT SUM(amount) FROM payments WHERE payment_date BETWEEN ? AND ?"; // New SQL
 
     // Overdue payments SQL - Tenants who haven't paid in current month
     private static final String FIND_OVERDUE_PAYMENTS_SQL = 
-        "SELECT t.id, t.first_name, t.last_name, r.room_number, MAX(p.payment_date) as last_payment_date " +
+        "SELECT t.id, t.first_name, t.last_name, t.phone_number, r.room_number, r.monthly_rate, " +
+        "MAX(p.payment_date) as last_payment_date " +
         "FROM tenants t " +
         "LEFT JOIN rooms r ON t.room_id = r.id " +
         "LEFT JOIN payments p ON t.id = p.tenant_id " +
         "WHERE t.is_active = TRUE " +
-        "GROUP BY t.id, t.first_name, t.last_name, r.room_number " +
+        "GROUP BY t.id, t.first_name, t.last_name, t.phone_number, r.room_number, r.monthly_rate " +
         "HAVING MAX(p.payment_date) < ? OR MAX(p.payment_date) IS NULL " +
         "ORDER BY last_payment_date ASC, t.last_name, t.first_name";
     
     // Recent payments SQL for dashboard
-    private static final String FIND_RECENT_PAYMENTS_SQL = 
+    static final String FIND_RECENT_PAYMENTS_SQL = 
         "SELECT p.*, t.first_name, t.last_name, r.room_number " +
         "FROM payments p " +
         "JOIN tenants t ON p.tenant_id = t.id " +
@@ -84,6 +98,61 @@ public class PaymentDAOImpl implements PaymentDAO {
         return payments;
     }
 
+    @Override
+    public int countMatching(PaymentQuery query) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String sql = (query.getSearchText() != null ? PAGE_COUNT_SQL : PAGE_COUNT_PAYMENTS_ONLY_SQL)
+                + buildWhereClause(query, null, params);
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            bindParameters(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error counting payments for " + query, e);
+            throw e;
+        }
+        return 0;
+    }
+
+    @Override
+    public List<Payment> findPage(PaymentQuery query, Payment after, int offset, int limit) throws SQLException {
+        List<Payment> payments = new ArrayList<>();
+        if (after != null && (after.getPaymentDate() == null || after.getCreatedAt() == null)) {
+            after = null; // Incomplete sort key, fall back to the offset
+        }
+        List<Object> params = new ArrayList<>();
+        String direction = query.isAscending() ? "ASC" : "DESC";
+        StringBuilder sql = new StringBuilder(PAGE_SELECT_SQL)
+                .append(buildWhereClause(query, after, params))
+                .append(" ORDER BY p.payment_date ").append(direction)
+                .append(", p.created_at ").append(direction)
+                .append(", p.payment_id ").append(direction)
+                .append(" LIMIT ?");
+        params.add(limit);
+        if (after == null && offset > 0) {
+            sql.append(" OFFSET ?");
+            params.add(offset);
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            bindParameters(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    payments.add(mapResultSetToPaymentWithTenantAndRoom(rs));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error finding payment page for " + query + " (offset " + offset + ")", e);
+            throw e;
+        }
+        return payments;
+    }
+
     @Override
     public List<Payment> findByTenantId(int tenantId) {
         List<Payment> payments = new ArrayList<>();
@@ -324,12 +393,14 @@ public class PaymentDAOImpl implements PaymentDAO {
         tenant.setTenantId(rs.getInt("id"));
         tenant.setFirstName(rs.getString("first_name"));
         tenant.setLastName(rs.getString("last_name"));
+        tenant.setPhoneNumber(rs.getString("phone_number"));
         return tenant;
     }
     
     private com.dormhelios.model.entity.Room createRoomForOverduePayment(ResultSet rs) throws SQLException {
         com.dormhelios.model.entity.Room room = new com.dormhelios.model.entity.Room();
         room.setRoomNumber(rs.getString("room_number"));
+        room.setMonthlyRate(rs.getBigDecimal("monthly_rate"));
         return room;
     }
     
@@ -347,6 +418,75 @@ public class PaymentDAOImpl implements PaymentDAO {
         return room;
     }
 
+    // --- Helpers for paged queries ---
+
+    /**
+     * Builds the WHERE clause for a paged query and collects its parameters.
+     * When {@code after} is given, a row-constructor comparison on the sort key
+     * continues right after that payment (keyset pagination).
+     */
+    private String buildWhereClause(PaymentQuery query, Payment after, List<Object> params) {
+        List<String> predicates = new ArrayList<>();
+        if (query.getFromDate() != null) {
+            predicates.add("p.payment_date >= ?");
+            params.add(Date.valueOf(query.getFromDate()));
+        }
+        if (query.getToDate() != null) {
+            predicates.add("p.payment_date <= ?");
+            params.add(Date.valueOf(query.getToDate()));
+        }
+        if (query.getMethod() != null) {
+            predicates.add("p.payment_method = ?");
+            params.add(query.getMethod().name());
+        }
+        if (query.getTenantId() != null) {
+            predicates.add("p.tenant_id = ?");
+            params.add(query.getTenantId());
+        }
+        if (query.getSearchText() != null) {
+            predicates.add("(t.first_name LIKE ? OR t.last_name LIKE ? OR CONCAT(t.last_name, ', ', t.first_name) LIKE ? "
+                    + "OR r.room_number LIKE ? OR p.payment_method LIKE ? OR CAST(p.amount AS CHAR) LIKE ?)");
+            String pattern = "%" + escapeLike(query.getSearchText()) + "%";
+            for (int i = 0; i < 6; i++) {
+                params.add(pattern);
+            }
+        }
+        if (after != null) {
+            predicates.add("(p.payment_date, p.created_at, p.payment_id) " + (query.isAscending() ? ">" : "<") + " (?, ?, ?)");
+            params.add(Date.valueOf(after.getPaymentDate()));
+            params.add(Timestamp.valueOf(after.getCreatedAt()));
+            params.add(after.getPaymentId());
+        }
+        return predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static void bindParameters(PreparedStatement pstmt, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            pstmt.setObject(i + 1, params.get(i));
+        }
+    }
+
+    /**
+     * Maps a payment row joined with tenants/rooms. The tenant is left null
+     * when the join found no tenant row, and the room when no room is assigned.
+     */
+    private Payment mapResultSetToPaymentWithTenantAndRoom(ResultSet rs) throws SQLException {
+        Payment payment = mapResultSetToPayment(rs);
+        if (rs.getString("first_name") != null) {
+            com.dormhelios.model.entity.Tenant tenant = createTenantForRecentPayment(rs);
+            tenant.setRoomId((Integer) rs.getObject("room_id"));
+            payment.setTenant(tenant);
+        }
+        if (rs.getString("room_number") != null) {
+            payment.setRoom(createRoomForRecentPayment(rs));
+        }
+        return payment;
+    }
+
     // --- Helper Method for Mapping ---
 
     private Payment mapResultSetToPayment(ResultSet rs) throws SQLException {
@@ -0,0 +1,118 @@
+package com.dormhelios.model.dao;
+
+import com.dormhelios.model.entity.Payment.PaymentMethod;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Immutable set of filter and sort options for paged payment queries.
+ * PaymentDAOImpl translates it into SQL predicates so filtering happens in
+ * the database instead of over an in-memory table model.
+ */
+public final class PaymentQuery {
+
+    private static final PaymentQuery ALL = new PaymentQuery(null, null, null, null, null, false);
+
+    private final String searchText;  // Matched against tenant name, room number, method and amount
+    private final LocalDate fromDate; // Inclusive, nullable
+    private final LocalDate toDate;   // Inclusive, nullable
+    private final PaymentMethod method; // Nullable
+    private final Integer tenantId;     // Nullable
+    private final boolean ascending;  // Sort direction on (payment_date, created_at, payment_id)
+
+    private PaymentQuery(String searchText, LocalDate fromDate, LocalDate toDate, PaymentMethod method,
+            Integer tenantId, boolean ascending) {
+        this.searchText = searchText == null || searchText.trim().isEmpty() ? null : searchText.trim();
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.method = method;
+        this.tenantId = tenantId;
+        this.ascending = ascending;
+    }
+
+    /**
+     * @return a query matching every payment, most recent first
+     */
+    public static PaymentQuery all() {
+        return ALL;
+    }
+
+    public PaymentQuery withSearchText(String searchText) {
+        return new PaymentQuery(searchText, fromDate, toDate, method, tenantId, ascending);
+    }
+
+    public PaymentQuery withDateRange(LocalDate fromDate, LocalDate toDate) {
+        return new PaymentQuery(searchText, fromDate, toDate, method, tenantId, ascending);
+    }
+
+    /**
+     * @param method Payment method to match, or null for any
+     */
+    public PaymentQuery withMethod(PaymentMethod method) {
+        return new PaymentQuery(searchText, fromDate, toDate, method, tenantId, ascending);
+    }
+
+    /**
+     * @param tenantId Tenant whose payments to match, or null for all tenants
+     */
+    public PaymentQuery withTenantId(Integer tenantId) {
+        return new PaymentQuery(searchText, fromDate, toDate, method, tenantId, ascending);
+    }
+
+    public PaymentQuery withAscending(boolean ascending) {
+        return new PaymentQuery(searchText, fromDate, toDate, method, tenantId, ascending);
+    }
+
+    public String getSearchText() {
+        return searchText;
+    }
+
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+
+    public LocalDate getToDate() {
+        return toDate;
+    }
+
+    public PaymentMethod getMethod() {
+        return method;
+    }
+
+    public Integer getTenantId() {
+        return tenantId;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PaymentQuery)) {
+            return false;
+        }
+        PaymentQuery other = (PaymentQuery) o;
+        return ascending == other.ascending
+                && Objects.equals(searchText, other.searchText)
+                && Objects.equals(fromDate, other.fromDate)
+                && Objects.equals(toDate, other.toDate)
+                && method == other.method
+                && Objects.equals(tenantId, other.tenantId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(searchText, fromDate, toDate, method, tenantId, ascending);
+    }
+
+    @Override
+    public String toString() {
+        return "PaymentQuery{" + "searchText=" + searchText + ", fromDate=" + fromDate
+                + ", toDate=" + toDate + ", method=" + method + ", tenantId=" + tenantId
+                + ", ascending=" + ascending + '}';
+    }
+}
@@ -0,0 +1,107 @@
+package com.dormhelios.model.dao;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Runs EXPLAIN on the DAO statements that sit on hot paths, so a missing or
+ * unused index shows up as a plan that reads a whole table.
+ */
+public interface QueryPlanDAO {
+
+    /**
+     * @return The audited statements, each with sample parameters
+     */
+    List<AuditedQuery> findAuditedQueries();
+
+    /**
+     * @param query Statement to explain
+     * @return One step per table the statement reads, in plan order
+     */
+    List<PlanStep> explain(AuditedQuery query) throws SQLException;
+
+    /**
+     * A DAO statement with parameter values typical for the screen that runs it
+     */
+    final class AuditedQuery {
+
+        private final String name;
+        private final String sql;
+        private final List<Object> parameters;
+
+        public AuditedQuery(String name, String sql, List<Object> parameters) {
+            this.name = name;
+            this.sql = sql;
+            this.parameters = parameters;
+        }
+
+        /**
+         * @return The DAO method running the statement, e.g. "PaymentDAO.findByDateRange"
+         */
+        public String getName() {
+            return name;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public List<Object> getParameters() {
+            return parameters;
+        }
+    }
+
+    /**
+     * One row of EXPLAIN output
+     */
+    final class PlanStep {
+
+        private final String table;
+        private final String accessType;
+        private final String key;
+        private final long estimatedRows;
+        private final String extra;
+
+        public PlanStep(String table, String accessType, String key, long estimatedRows, String extra) {
+            this.table = table;
+            this.accessType = accessType;
+            this.key = key;
+            this.estimatedRows = estimatedRows;
+            this.extra = extra;
+        }
+
+        public String getTable() {
+            return table;
+        }
+
+        /**
+         * @return EXPLAIN's type column, e.g. "ref", "range", "index" or "ALL"
+         */
+        public String getAccessType() {
+            return accessType;
+        }
+
+        /**
+         * @return The index used, or null if none
+         */
+        public String getKey() {
+            return key;
+        }
+
+        public long getEstimatedRows() {
+            return estimatedRows;
+        }
+
+        public String getExtra() {
+            return extra;
+        }
+
+        /**
+         * @return true if the step reads every row of the table ("ALL") or
+         *         every entry of an index ("index")
+         */
+        public boolean isFullScan() {
+            return "ALL".equals(accessType) || "index".equals(accessType);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.dormhelios.model.dao;
+
+import com.dormhelios.model.entity.Room;
+import com.dormhelios.util.DatabaseConnection;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class QueryPlanDAOImpl implements QueryPlanDAO {
+
+    private static final Logger LOGGER = Logger.getLogger(QueryPlanDAOImpl.class.getName());
+
+    private static final int SAMPLE_TENANT_ID = 1;
+    private static final int SAMPLE_LIMIT = 10;
+    private static final int CHART_MONTHS = 6;
+
+    @Override
+    public List<AuditedQuery> findAuditedQueries() {
+        // The statements themselves, not copies, so the check follows any change to them
+        YearMonth month = YearMonth.now();
+        Date monthStart = Date.valueOf(month.atDay(1));
+        Date monthEnd = Date.valueOf(month.atEndOfMonth());
+        Date chartStart = Date.valueOf(month.minusMonths(CHART_MONTHS - 1).atDay(1));
+        Date today = Date.valueOf(LocalDate.now());
+        Date thirtyDaysAgo = Date.valueOf(LocalDate.now().minusDays(30));
+        String occupied = Room.RoomStatus.OCCUPIED.name();
+
+        List<AuditedQuery> queries = new ArrayList<>();
+        queries.add(new AuditedQuery("PaymentDAO.findByDateRange",
+                PaymentDAOImpl.FIND_BY_DATE_RANGE_SQL, List.of(monthStart, monthEnd)));
+        queries.add(new AuditedQuery("PaymentDAO.sumAmountByDateRange",
+                PaymentDAOImpl.SUM_AMOUNT_BY_DATE_RANGE_SQL, List.of(monthStart, monthEnd)));
+        queries.add(new AuditedQuery("PaymentDAO.findRecentPayments",
+                PaymentDAOImpl.FIND_RECENT_PAYMENTS_SQL, List.of(thirtyDaysAgo, today, SAMPLE_LIMIT)));
+        queries.add(new AuditedQuery("PaymentDAO.findByTenantId",
+                PaymentDAOImpl.FIND_BY_TENANT_ID_SQL, List.of(SAMPLE_TENANT_ID)));
+        queries.add(new AuditedQuery("DashboardStatsDAO.loadKpis",
+                DashboardStatsDAOImpl.LOAD_KPIS_SQL, List.of(
+                        Timestamp.valueOf(month.atDay(1).atStartOfDay()),
+                        Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()),
+                        occupied, monthStart, monthEnd)));
+        queries.add(new AuditedQuery("DashboardStatsDAO.loadMonthlyDues",
+                DashboardStatsDAOImpl.STREAM_DUES_SQL, List.of(chartStart, monthEnd, monthEnd, chartStart)));
+        queries.add(new AuditedQuery("TenantDAO.countAll",
+                TenantDAOImpl.COUNT_ALL_SQL, List.of()));
+        queries.add(new AuditedQuery("TenantDAO.findAllWithRoomNumbers",
+                TenantDAOImpl.FIND_ALL_WITH_ROOM_NUMBERS_SQL, List.of()));
+        queries.add(new AuditedQuery("RoomDAO.findByStatus",
+                RoomDAOImpl.FIND_BY_STATUS_SQL, List.of(occupied)));
+        queries.add(new AuditedQuery("RoomDAO.countByStatus",
+                RoomDAOImpl.COUNT_BY_STATUS_SQL, List.of(occupied)));
+        return queries;
+    }
+
+    @Override
+    public List<PlanStep> explain(AuditedQuery query) throws SQLException {
+        List<PlanStep> steps = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("EXPLAIN " + query.getSql())) {
+            List<Object> parameters = query.getParameters();
+            for (int i = 0; i < parameters.size(); i++) {
+                pstmt.setObject(i + 1, parameters.get(i));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    steps.add(new PlanStep(
+                            rs.getString("table"),
+                            rs.getString("type"),
+                            rs.getString("key"),
+                            rs.getLong("rows"),
+                            rs.getString("Extra")));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error explaining " + query.getName(), e);
+            throw e;
+        }
+        return steps;
+    }
+}
@@ -1,6 +1,7 @@
 package com.dormhelios.model.dao;
 
 import com.dormhelios.model.entity.Room;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.sql.Connection;
@@ -12,6 +13,15 @@ public interface RoomDAO {
     Optional<Room> findById(int roomId);
     Optional<Room> findByRoomNumber(String roomNumber);
     List<Room> findAll();
+
+    /**
+     * Same as findAll, but fails instead of returning an empty list, for
+     * callers that keep the result (e.g. RoomCatalog)
+     * @return All active rooms, ordered by room number
+     * @throws SQLException if the rooms could not be read
+     */
+    List<Room> findAllOrThrow() throws SQLException;
+
     List<Room> findByStatus(Room.RoomStatus status);
     int addRoom(Room room);
     boolean updateRoom(Room room);
@@ -21,9 +31,30 @@ public interface RoomDAO {
     int countAll();
     int countByStatus(Room.RoomStatus status);
     boolean setActiveStatus(int roomId, boolean status);
+    String findChangeStamp(); // Cheap "has anything changed?" marker: row count plus latest updated_at over all rooms
     boolean decrementSlotsAvailable(int roomId, Connection conn) throws SQLException; // Add Connection parameter and throws SQLException
     boolean incrementSlotsAvailable(int roomId, Connection conn) throws SQLException; // Add Connection parameter and throws SQLException
 
+    /**
+     * Takes several slots of a room in one statement, within the caller's transaction
+     * @param roomId The room to reserve slots in
+     * @param count Number of slots to take
+     * @param conn Connection of the caller's transaction
+     * @return false if the room does not exist or has fewer than {@code count} slots left
+     * @throws SQLException so the caller can roll back
+     */
+    boolean reserveSlots(int roomId, int count, Connection conn) throws SQLException;
+
+    /**
+     * Drops cached copies of rooms whose slots a caller's transaction changed.
+     * The methods taking a Connection leave caches alone, since the caller may
+     * still roll back; the caller calls this once its commit is visible.
+     * Does nothing for an uncached DAO.
+     * @param roomIds Rooms written in the committed transaction
+     */
+    default void invalidateRooms(Collection<Integer> roomIds) {
+    }
+
     // --- Slots management operations ---
     /*
     boolean decrementSlotsAvailable(int roomId);
@@ -19,14 +19,15 @@ public class RoomDAOImpl implements RoomDAO {
     private static final String FIND_BY_ID_SQL = "SELECT * FROM rooms WHERE id = ?";
     private static final String FIND_BY_ROOM_NUMBER_SQL = "SELECT * FROM rooms WHERE room_number = ?";
     private static final String FIND_ALL_SQL = "SELECT * FROM rooms WHERE is_active = 1 ORDER BY room_number";
-    private static final String FIND_BY_STATUS_SQL = "SELECT * FROM rooms WHERE status = ? AND is_active = 1 ORDER BY room_number";
+    static final String FIND_BY_STATUS_SQL = "SELECT * FROM rooms WHERE status = ? AND is_active = 1 ORDER BY room_number";
     private static final String ADD_SQL = "INSERT INTO rooms (room_number, capacity, slots_available, monthly_rate, status, description, created_at, updated_at, is_active) VALUES (?, ?, ?, ?, ?, ?, NOW(), NOW(), 1)";
     private static final String UPDATE_SQL = "UPDATE rooms SET room_number = ?, capacity = ?, slots_available = ?, monthly_rate = ?, status = ?, description = ?, updated_at = NOW() WHERE id = ?";
     private static final String DELETE_SQL = "DELETE FROM rooms WHERE id = ?";
     private static final String COUNT_ALL_SQL = "SELECT COUNT(*) FROM rooms WHERE is_active = 1"; // Updated SQL
-    private static final String COUNT_BY_STATUS_SQL = "SELECT COUNT(*) FROM rooms WHERE status = ? AND is_active = 1"; // Updated SQL
+    static final String COUNT_BY_STATUS_SQL = "SELECT COUNT(*) FROM rooms WHERE status = ? AND is_active = 1"; // Updated SQL
     private static final String UPDATE_SLOTS_AVAILABLE_SQL = "UPDATE rooms SET slots_available = ?, updated_at = NOW() WHERE id = ?";
     private static final String DECREMENT_SLOTS_AVAILABLE_SQL = "UPDATE rooms SET slots_available = slots_available - 1, updated_at = NOW() WHERE id = ? AND slots_available > 0";
+    private static final String CHANGE_STAMP_SQL = "SELECT COUNT(*), MAX(updated_at) FROM rooms";
     private static final String INCREMENT_SLOTS_AVAILABLE_SQL = "UPDATE rooms SET slots_available = slots_available + 1, updated_at = NOW() WHERE id = ? AND slots_available < capacity";
 
     @Override
@@ -68,6 +69,15 @@ public class RoomDAOImpl implements RoomDAO {
 
     @Override
     public List<Room> findAll() {
+        try {
+            return findAllOrThrow();
+        } catch (SQLException e) {
+            return new ArrayList<>(); // Logged by findAllOrThrow
+        }
+    }
+
+    @Override
+    public List<Room> findAllOrThrow() throws SQLException {
         List<Room> rooms = new ArrayList<>();
         // Use try-with-resources
         try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement pstmt = conn.prepareStatement(FIND_ALL_SQL); ResultSet rs = pstmt.executeQuery()) { // Execute query
@@ -77,6 +87,7 @@ public class RoomDAOImpl implements RoomDAO {
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error finding all rooms", e);
+            throw e;
         }
         return rooms; // Return list
     }
@@ -239,6 +250,21 @@ public class RoomDAOImpl implements RoomDAO {
         return 0;
     }
     
+    @Override
+    public String findChangeStamp() {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(CHANGE_STAMP_SQL);
+             ResultSet rs = pstmt.executeQuery()) {
+            if (rs.next()) {
+                Timestamp lastUpdated = rs.getTimestamp(2);
+                return rs.getInt(1) + "@" + (lastUpdated != null ? lastUpdated.getTime() : 0);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error reading room change stamp", e);
+        }
+        return null;
+    }
+
     @Override
     public boolean setActiveStatus(int roomId, boolean status)
     {
@@ -290,6 +316,30 @@ public class RoomDAOImpl implements RoomDAO {
         }
     }
 
+    @Override
+    public boolean reserveSlots(int roomId, int count, Connection conn) throws SQLException {
+        final String sql = "UPDATE rooms SET slots_available = slots_available - ?, updated_at = NOW() " +
+                          "WHERE id = ? AND slots_available >= ?";
+
+        // Use the provided connection, DO NOT get/close connection here
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, count);
+            pstmt.setInt(2, roomId);
+            pstmt.setInt(3, count);
+            int affectedRows = pstmt.executeUpdate();
+
+            if (affectedRows == 0) {
+                LOGGER.log(Level.WARNING, "(Tx) Could not reserve " + count + " slots in roomId: " + roomId +
+                                         ". Room may not exist or have too few available slots.");
+                return false;
+            }
+            return true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "(Tx) Error reserving " + count + " slots in room: " + roomId, e);
+            throw e; // Re-throw SQLException
+        }
+    }
+
     @Override
     public boolean incrementSlotsAvailable(int roomId, Connection conn) throws SQLException { // Add conn parameter, throws SQLException
         final String sql = "UPDATE rooms SET slots_available = slots_available + 1, updated_at = NOW() " +
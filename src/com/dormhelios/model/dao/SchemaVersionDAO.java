@@ -0,0 +1,91 @@
+package com.dormhelios.model.dao;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Access to the schema_version table, which records the schema migrations
+ * applied to the database, and to the statements that apply them.
+ */
+public interface SchemaVersionDAO {
+
+    /**
+     * A connection holding the migration lock, so two copies of the
+     * application starting at once never migrate the same database together
+     */
+    interface MigrationSession extends AutoCloseable {
+
+        /**
+         * @return The migrations applied so far, by version
+         */
+        Map<Integer, AppliedMigration> findApplied() throws SQLException;
+
+        /**
+         * Runs one statement of a migration. MySQL commits DDL at once, so a
+         * migration that failed halfway is simply run again; the statements
+         * that already took effect are then skipped.
+         * @param statement SQL statement without a trailing semicolon
+         * @return false if it was skipped because the index or column it adds already exists
+         */
+        boolean execute(String statement) throws SQLException;
+
+        /**
+         * Records a migration as applied
+         * @param version Migration number
+         * @param description Human-readable name of the migration
+         * @param checksum Checksum of the migration script
+         * @param executionMillis Time the migration took
+         */
+        void recordApplied(int version, String description, long checksum, long executionMillis) throws SQLException;
+
+        /**
+         * Releases the migration lock and the connection
+         */
+        @Override
+        void close() throws SQLException;
+    }
+
+    /**
+     * Creates schema_version if it does not exist yet, then waits for the
+     * migration lock on a dedicated connection
+     * @param lockTimeoutSeconds How long to wait for another copy of the application to finish migrating
+     * @return The session holding the lock
+     * @throws SQLException if the lock is not granted in time
+     */
+    MigrationSession openSession(int lockTimeoutSeconds) throws SQLException;
+
+    /**
+     * One row of schema_version
+     */
+    final class AppliedMigration {
+
+        private final int version;
+        private final String description;
+        private final long checksum;
+        private final LocalDateTime installedAt;
+
+        public AppliedMigration(int version, String description, long checksum, LocalDateTime installedAt) {
+            this.version = version;
+            this.description = description;
+            this.checksum = checksum;
+            this.installedAt = installedAt;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public long getChecksum() {
+            return checksum;
+        }
+
+        public LocalDateTime getInstalledAt() {
+            return installedAt;
+        }
+    }
+}
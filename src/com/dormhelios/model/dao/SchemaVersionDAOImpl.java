@@ -0,0 +1,132 @@
+package com.dormhelios.model.dao;
+
+import com.dormhelios.util.DatabaseConnection;
+
+import java.sql.*;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class SchemaVersionDAOImpl implements SchemaVersionDAO {
+
+    private static final Logger LOGGER = Logger.getLogger(SchemaVersionDAOImpl.class.getName());
+
+    private static final String LOCK_NAME = "dormhelios_schema_migration";
+    // MySQL error codes for an index name or column that already exists
+    private static final int ER_DUP_FIELDNAME = 1060;
+    private static final int ER_DUP_KEYNAME = 1061;
+
+    // --- SQL Constants ---
+    private static final String CREATE_TABLE_SQL =
+        "CREATE TABLE IF NOT EXISTS schema_version (" +
+        "version int NOT NULL PRIMARY KEY, " +
+        "description varchar(200) NOT NULL, " +
+        "checksum bigint NOT NULL, " +
+        "installed_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+        "execution_ms int NOT NULL" +
+        ") ENGINE=InnoDB";
+    private static final String FIND_APPLIED_SQL =
+        "SELECT version, description, checksum, installed_at FROM schema_version ORDER BY version";
+    private static final String RECORD_APPLIED_SQL =
+        "INSERT INTO schema_version (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)";
+    private static final String GET_LOCK_SQL = "SELECT GET_LOCK(?, ?)";
+    private static final String RELEASE_LOCK_SQL = "SELECT RELEASE_LOCK(?)";
+
+    @Override
+    public MigrationSession openSession(int lockTimeoutSeconds) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        try {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(CREATE_TABLE_SQL);
+            }
+            // Named locks belong to the connection, so every migration runs on this one
+            try (PreparedStatement pstmt = conn.prepareStatement(GET_LOCK_SQL)) {
+                pstmt.setString(1, LOCK_NAME);
+                pstmt.setInt(2, lockTimeoutSeconds);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next() || rs.getInt(1) != 1) {
+                        throw new SQLException("Timed out waiting for another instance to finish migrating the database");
+                    }
+                }
+            }
+            return new JdbcMigrationSession(conn);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error opening schema migration session", e);
+            conn.close();
+            throw e;
+        }
+    }
+
+    // --- Session ---
+
+    private static final class JdbcMigrationSession implements MigrationSession {
+
+        private final Connection conn;
+
+        JdbcMigrationSession(Connection conn) {
+            this.conn = conn;
+        }
+
+        @Override
+        public Map<Integer, AppliedMigration> findApplied() throws SQLException {
+            Map<Integer, AppliedMigration> applied = new TreeMap<>();
+            try (PreparedStatement pstmt = conn.prepareStatement(FIND_APPLIED_SQL);
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp installedAt = rs.getTimestamp("installed_at");
+                    applied.put(rs.getInt("version"), new AppliedMigration(
+                            rs.getInt("version"),
+                            rs.getString("description"),
+                            rs.getLong("checksum"),
+                            installedAt != null ? installedAt.toLocalDateTime() : null));
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error reading schema_version", e);
+                throw e;
+            }
+            return applied;
+        }
+
+        @Override
+        public boolean execute(String statement) throws SQLException {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(statement);
+                return true;
+            } catch (SQLException e) {
+                if (e.getErrorCode() == ER_DUP_KEYNAME || e.getErrorCode() == ER_DUP_FIELDNAME) {
+                    // Databases created from a newer dormhelios_db.sql already have it
+                    LOGGER.info("Skipping migration statement, already applied: " + e.getMessage());
+                    return false;
+                }
+                LOGGER.log(Level.SEVERE, "Error executing migration statement: " + statement, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public void recordApplied(int version, String description, long checksum, long executionMillis)
+                throws SQLException {
+            try (PreparedStatement pstmt = conn.prepareStatement(RECORD_APPLIED_SQL)) {
+                pstmt.setInt(1, version);
+                pstmt.setString(2, description);
+                pstmt.setLong(3, checksum);
+                pstmt.setInt(4, (int) Math.min(Integer.MAX_VALUE, executionMillis));
+                pstmt.executeUpdate();
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error recording migration " + version, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try (PreparedStatement pstmt = conn.prepareStatement(RELEASE_LOCK_SQL)) {
+                pstmt.setString(1, LOCK_NAME);
+                pstmt.executeQuery().close();
+            } finally {
+                conn.close();
+            }
+        }
+    }
+}
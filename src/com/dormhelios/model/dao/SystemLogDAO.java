@@ -19,4 +19,11 @@ public interface SystemLogDAO {
      * @return true if insert succeeded, false otherwise
      */
     boolean insert(SystemLog log);
-}
\ No newline at end of file
+
+    /**
+     * Inserts several system log entries in one JDBC batch and transaction
+     * @param logs entries to insert
+     * @return number of entries inserted (0 if the batch failed)
+     */
+    int insertBatch(List<SystemLog> logs);
+}
@@ -44,4 +44,33 @@ public class SystemLogDAOImpl implements SystemLogDAO {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public int insertBatch(List<SystemLog> logs) {
+        if (logs.isEmpty()) {
+            return 0;
+        }
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL)) {
+                for (SystemLog log : logs) {
+                    stmt.setString(1, log.getName());
+                    stmt.setString(2, log.getValue());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+                return logs.size();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error inserting batch of " + logs.size() + " system logs", e);
+            return 0;
+        }
+    }
+}
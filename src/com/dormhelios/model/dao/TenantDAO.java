@@ -2,6 +2,8 @@ package com.dormhelios.model.dao;
 
 import com.dormhelios.model.entity.Tenant;
 import com.dormhelios.model.entity.TenantWithRoom;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -17,10 +19,23 @@ public interface TenantDAO {
 
     List<Tenant> findByRoomId(int roomId); // Find tenants in a specific room
 
+    Optional<Tenant> findByUserId(int userId); // Active tenant linked to a login account (uses idx_tenants_user)
+
+    int countActiveByRoomId(int roomId); // Active tenants in a room (uses idx_tenants_room)
+
     List<Tenant> findByLastName(String lastName); // Example search
 
     int addTenant(Tenant tenant); // Return generated ID
 
+    /**
+     * Inserts tenants with one JDBC batch, within the caller's transaction.
+     * Room slots are not touched; the caller reserves them (see RoomDAO.reserveSlots).
+     * @param tenants Tenants to insert; their IDs are set from the generated keys
+     * @param conn Connection of the caller's transaction
+     * @throws SQLException so the caller can roll back
+     */
+    void addTenantsBatch(List<Tenant> tenants, Connection conn) throws SQLException;
+
     boolean updateTenant(Tenant tenant);
 
     // boolean deleteTenant(int tenantId); // Deprecated: Use setActiveStatus for soft delete
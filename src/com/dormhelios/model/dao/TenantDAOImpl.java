@@ -21,6 +21,8 @@ public class TenantDAOImpl implements TenantDAO {
     private static final String FIND_BY_ID_SQL = "SELECT * FROM tenants WHERE id = ?";
     private static final String FIND_ALL_SQL = "SELECT * FROM tenants ORDER BY last_name, first_name";
     private static final String FIND_BY_ROOM_ID_SQL = "SELECT * FROM tenants WHERE room_id = ? ORDER BY last_name, first_name";
+    private static final String FIND_BY_USER_ID_SQL = "SELECT * FROM tenants WHERE user_id = ? AND is_active = TRUE ORDER BY id LIMIT 1";
+    private static final String COUNT_ACTIVE_BY_ROOM_ID_SQL = "SELECT COUNT(*) FROM tenants WHERE room_id = ? AND is_active = TRUE";
     private static final String FIND_BY_LAST_NAME_SQL = "SELECT * FROM tenants WHERE last_name LIKE ? ORDER BY first_name";
     private static final String ADD_SQL = 
         "INSERT INTO tenants (user_id, room_id, guardian_name, emergency_contact_number, first_name, last_name, student_number, email, phone_number, permanent_address, lease_start_date, lease_end_date, deposit_amount, deposit_status, created_at, updated_at) " +
@@ -31,9 +33,9 @@ public class TenantDAOImpl implements TenantDAO {
     private static final String DELETE_SQL = "DELETE FROM tenants WHERE id = ?";
     private static final String ASSIGN_ROOM_SQL = "UPDATE tenants SET room_id = ?, updated_at = NOW() WHERE id = ?";
     private static final String ASSIGN_USER_ACCOUNT_SQL = "UPDATE tenants SET user_id = ?, updated_at = NOW() WHERE id = ?";
-    private static final String COUNT_ALL_SQL = "SELECT COUNT(*) FROM tenants WHERE is_active = TRUE"; // Filter active
+    static final String COUNT_ALL_SQL = "SELECT COUNT(*) FROM tenants WHERE is_active = TRUE"; // Filter active
     private static final String SET_ACTIVE_STATUS_SQL = "UPDATE tenants SET is_active = ?, updated_at = NOW() WHERE id = ?"; // New SQL for soft delete
-    private static final String FIND_ALL_WITH_ROOM_NUMBERS_SQL = 
+    static final String FIND_ALL_WITH_ROOM_NUMBERS_SQL = 
         "SELECT t.*, r.room_number FROM tenants t " +
         "LEFT JOIN rooms r ON t.room_id = r.id " +
         "WHERE t.is_active = 1 " +
@@ -86,6 +88,36 @@ public class TenantDAOImpl implements TenantDAO {
         return tenants;
     }
 
+    @Override
+    public Optional<Tenant> findByUserId(int userId) {
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement pstmt = conn.prepareStatement(FIND_BY_USER_ID_SQL)) {
+            pstmt.setInt(1, userId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(mapResultSetToTenant(rs));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error finding active tenant by User ID: " + userId, e);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public int countActiveByRoomId(int roomId) {
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement pstmt = conn.prepareStatement(COUNT_ACTIVE_BY_ROOM_ID_SQL)) {
+            pstmt.setInt(1, roomId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error counting active tenants in Room ID: " + roomId, e);
+        }
+        return 0;
+    }
+
     @Override
     public List<Tenant> findByRoomId(int roomId) {
         List<Tenant> tenants = new ArrayList<>();
@@ -137,20 +169,7 @@ public class TenantDAOImpl implements TenantDAO {
 
             pstmt = conn.prepareStatement(ADD_SQL, Statement.RETURN_GENERATED_KEYS);
 
-            pstmt.setObject(1, tenant.getUserId());
-            pstmt.setObject(2, tenant.getRoomId());
-            pstmt.setString(3, tenant.getGuardianName());
-            pstmt.setString(4, tenant.getEmergencyContactNumber());
-            pstmt.setString(5, tenant.getFirstName());
-            pstmt.setString(6, tenant.getLastName());
-            pstmt.setString(7, tenant.getStudentIdNumber());
-            pstmt.setString(8, tenant.getEmail());
-            pstmt.setString(9, tenant.getPhoneNumber());
-            pstmt.setString(10, tenant.getPermanentAddress());
-            pstmt.setObject(11, tenant.getLeaseStartDate() != null ? Date.valueOf(tenant.getLeaseStartDate()) : null);
-            pstmt.setObject(12, tenant.getLeaseEndDate() != null ? Date.valueOf(tenant.getLeaseEndDate()) : null);
-            pstmt.setBigDecimal(13, tenant.getSecurityDepositAmount());
-            pstmt.setString(14, tenant.getSecurityDepositStatus().name());
+            bindAddParameters(pstmt, tenant);
 
             int affectedRows = pstmt.executeUpdate();
             int tenantId = -1;
@@ -214,6 +233,33 @@ public class TenantDAOImpl implements TenantDAO {
         }
     }
 
+    @Override
+    public void addTenantsBatch(List<Tenant> tenants, Connection conn) throws SQLException {
+        if (tenants.isEmpty()) {
+            return;
+        }
+        // Use the provided connection, DO NOT get/close connection here
+        try (PreparedStatement pstmt = conn.prepareStatement(ADD_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            for (Tenant tenant : tenants) {
+                bindAddParameters(pstmt, tenant);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch(); // One multi-row INSERT with rewriteBatchedStatements=true
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                for (Tenant tenant : tenants) {
+                    if (!generatedKeys.next()) {
+                        throw new SQLException("Missing generated key for batch-inserted tenant: "
+                                + tenant.getFirstName() + " " + tenant.getLastName());
+                    }
+                    tenant.setTenantId(generatedKeys.getInt(1));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "(Tx) Error batch-inserting " + tenants.size() + " tenants", e);
+            throw e; // Re-throw SQLException
+        }
+    }
+
     @Override
     public boolean updateTenant(Tenant tenant) {
         if (tenant.getTenantId() <= 0) {
@@ -417,6 +463,26 @@ public class TenantDAOImpl implements TenantDAO {
     }
 
     // --- Helper Method for Mapping ---
+    /**
+     * Binds the parameters of ADD_SQL for one tenant
+     */
+    private static void bindAddParameters(PreparedStatement pstmt, Tenant tenant) throws SQLException {
+        pstmt.setObject(1, tenant.getUserId());
+        pstmt.setObject(2, tenant.getRoomId());
+        pstmt.setString(3, tenant.getGuardianName());
+        pstmt.setString(4, tenant.getEmergencyContactNumber());
+        pstmt.setString(5, tenant.getFirstName());
+        pstmt.setString(6, tenant.getLastName());
+        pstmt.setString(7, tenant.getStudentIdNumber());
+        pstmt.setString(8, tenant.getEmail());
+        pstmt.setString(9, tenant.getPhoneNumber());
+        pstmt.setString(10, tenant.getPermanentAddress());
+        pstmt.setObject(11, tenant.getLeaseStartDate() != null ? Date.valueOf(tenant.getLeaseStartDate()) : null);
+        pstmt.setObject(12, tenant.getLeaseEndDate() != null ? Date.valueOf(tenant.getLeaseEndDate()) : null);
+        pstmt.setBigDecimal(13, tenant.getSecurityDepositAmount());
+        pstmt.setString(14, tenant.getSecurityDepositStatus().name());
+    }
+
     private Tenant mapResultSetToTenant(ResultSet rs) throws SQLException {
         Tenant tenant = new Tenant();
         tenant.setTenantId(rs.getInt("id"));
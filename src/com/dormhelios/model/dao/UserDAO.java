@@ -36,6 +36,20 @@ public interface UserDAO {
      */
     List<User> findAll();
 
+    /**
+     * Counts user accounts without loading them.
+     *
+     * @return Number of users, or 0 if the count fails.
+     */
+    int countAll();
+
+    /**
+     * Counts active user accounts without loading them.
+     *
+     * @return Number of users with is_active set, or 0 if the count fails.
+     */
+    int countActive();
+
     /**
      * Adds a new user to the database. The user object should have its ID set
      * upon successful insertion if auto-generated.
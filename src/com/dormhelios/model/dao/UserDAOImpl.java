@@ -18,6 +18,8 @@ public class UserDAOImpl implements UserDAO {
     private static final String FIND_BY_EMAIL_SQL = "SELECT * FROM users WHERE email = ?";
     private static final String FIND_BY_ID_SQL = "SELECT * FROM users WHERE id = ?";
     private static final String FIND_ALL_SQL = "SELECT * FROM users ORDER BY first_name";
+    private static final String COUNT_ALL_SQL = "SELECT COUNT(*) FROM users";
+    private static final String COUNT_ACTIVE_SQL = "SELECT COUNT(*) FROM users WHERE is_active = TRUE";
     private static final String ADD_USER_SQL = "INSERT INTO users (username, password_hash, full_name, role, email, phone_number, is_active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, NOW(), NOW())";
     private static final String UPDATE_USER_SQL = "UPDATE users SET password_hash = ?, first_name = ?, surname = ?, role = ?, email = ?, phone_number = ?, is_active = ?, updated_at = NOW() WHERE id = ?";
     private static final String REGISTER_USER_SQL = """
@@ -94,6 +96,25 @@ public class UserDAOImpl implements UserDAO {
         return users;
     }
 
+    @Override
+    public int countAll() {
+        return count(COUNT_ALL_SQL);
+    }
+
+    @Override
+    public int countActive() {
+        return count(COUNT_ACTIVE_SQL);
+    }
+
+    private int count(String sql) {
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql); ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error counting users", e);
+            return 0;
+        }
+    }
+
     @Override
     public int addUser(User user) {
         ResultSet generatedKeys = null;
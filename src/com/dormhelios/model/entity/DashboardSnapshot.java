@@ -0,0 +1,127 @@
+package com.dormhelios.model.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of everything the main dashboard shows: KPI counts,
+ * overdue and recent payments, and per-month dues for the chart.
+ * Built by DashboardService in one load and handed to the EDT as a unit.
+ */
+public final class DashboardSnapshot {
+
+    private final Kpis kpis;
+    private final List<Payment> overduePayments;
+    private final List<Payment> recentPayments;
+    private final MonthlyDues monthlyDues;
+    private final LocalDateTime generatedAt;
+    private final long loadMillis;
+    private final Map<String, Long> partMillis;
+
+    public DashboardSnapshot(Kpis kpis, List<Payment> overduePayments, List<Payment> recentPayments,
+            MonthlyDues monthlyDues, LocalDateTime generatedAt,
+            long loadMillis, Map<String, Long> partMillis) {
+        this.kpis = kpis;
+        this.overduePayments = List.copyOf(overduePayments);
+        this.recentPayments = List.copyOf(recentPayments);
+        this.monthlyDues = monthlyDues;
+        this.generatedAt = generatedAt;
+        this.loadMillis = loadMillis;
+        this.partMillis = Collections.unmodifiableMap(new LinkedHashMap<>(partMillis));
+    }
+
+    public Kpis getKpis() {
+        return kpis;
+    }
+
+    public List<Payment> getOverduePayments() {
+        return overduePayments;
+    }
+
+    public List<Payment> getRecentPayments() {
+        return recentPayments;
+    }
+
+    /**
+     * @return Tenants due and tenants paid per month over the chart range
+     */
+    public MonthlyDues getMonthlyDues() {
+        return monthlyDues;
+    }
+
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+
+    /**
+     * @return Wall-clock time to build the snapshot
+     */
+    public long getLoadMillis() {
+        return loadMillis;
+    }
+
+    /**
+     * @return Time taken by each part of the load, keyed by part name
+     */
+    public Map<String, Long> getPartMillis() {
+        return partMillis;
+    }
+
+    /**
+     * Scalar dashboard figures, loaded together in one query
+     */
+    public static final class Kpis {
+
+        private final int activeTenants;
+        private final int newTenantsThisMonth;
+        private final int totalRooms;
+        private final int occupiedRooms;
+        private final BigDecimal monthlyRevenue;
+
+        public Kpis(int activeTenants, int newTenantsThisMonth, int totalRooms, int occupiedRooms, BigDecimal monthlyRevenue) {
+            this.activeTenants = activeTenants;
+            this.newTenantsThisMonth = newTenantsThisMonth;
+            this.totalRooms = totalRooms;
+            this.occupiedRooms = occupiedRooms;
+            this.monthlyRevenue = monthlyRevenue != null ? monthlyRevenue : BigDecimal.ZERO;
+        }
+
+        public int getActiveTenants() {
+            return activeTenants;
+        }
+
+        public int getNewTenantsThisMonth() {
+            return newTenantsThisMonth;
+        }
+
+        public int getTotalRooms() {
+            return totalRooms;
+        }
+
+        public int getOccupiedRooms() {
+            return occupiedRooms;
+        }
+
+        public BigDecimal getMonthlyRevenue() {
+            return monthlyRevenue;
+        }
+
+        /**
+         * @return Occupied rooms as a percentage of active rooms, or -1 if there are no rooms
+         */
+        public double getOccupancyPercent() {
+            return totalRooms > 0 ? (double) occupiedRooms / totalRooms * 100 : -1;
+        }
+
+        @Override
+        public String toString() {
+            return "Kpis{" + "activeTenants=" + activeTenants + ", newTenantsThisMonth=" + newTenantsThisMonth
+                    + ", totalRooms=" + totalRooms + ", occupiedRooms=" + occupiedRooms
+                    + ", monthlyRevenue=" + monthlyRevenue + '}';
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.dormhelios.model.entity;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-month rent dues over a contiguous range of months: how many active
+ * tenants owed rent in each month and how many of them had that month
+ * covered by a payment. Counts are held in primitive arrays indexed by
+ * month offset from the first month of the range.
+ */
+public final class MonthlyDues {
+
+    private final YearMonth from;
+    private final int[] dueCounts;
+    private final int[] paidCounts;
+
+    /**
+     * @param from First month of the range; index 0 in both arrays
+     * @param dueCounts Tenants due per month
+     * @param paidCounts Due tenants with the month covered, per month
+     */
+    public MonthlyDues(YearMonth from, int[] dueCounts, int[] paidCounts) {
+        if (dueCounts.length != paidCounts.length) {
+            throw new IllegalArgumentException("dueCounts and paidCounts must have the same length");
+        }
+        this.from = from;
+        this.dueCounts = dueCounts.clone();
+        this.paidCounts = paidCounts.clone();
+    }
+
+    /**
+     * @param from First month, inclusive
+     * @param to Last month, inclusive
+     * @return Dues for the range with every count zero
+     */
+    public static MonthlyDues empty(YearMonth from, YearMonth to) {
+        int months = monthsBetween(from, to) + 1;
+        return new MonthlyDues(from, new int[months], new int[months]);
+    }
+
+    /**
+     * @return Number of whole months from one month to another (0 if equal, negative if to is before from)
+     */
+    public static int monthsBetween(YearMonth from, YearMonth to) {
+        return (to.getYear() - from.getYear()) * 12 + (to.getMonthValue() - from.getMonthValue());
+    }
+
+    public YearMonth getFrom() {
+        return from;
+    }
+
+    public YearMonth getTo() {
+        return from.plusMonths(dueCounts.length - 1);
+    }
+
+    public int size() {
+        return dueCounts.length;
+    }
+
+    /**
+     * @return Index of the month in the count arrays, or -1 if outside the range
+     */
+    public int indexOf(YearMonth month) {
+        int index = monthsBetween(from, month);
+        return index >= 0 && index < dueCounts.length ? index : -1;
+    }
+
+    public YearMonth monthAt(int index) {
+        return from.plusMonths(index);
+    }
+
+    /**
+     * @return All months in the range, oldest first
+     */
+    public List<YearMonth> getMonths() {
+        List<YearMonth> months = new ArrayList<>(dueCounts.length);
+        for (int i = 0; i < dueCounts.length; i++) {
+            months.add(from.plusMonths(i));
+        }
+        return months;
+    }
+
+    /**
+     * @return Copy of the due counts, one per month
+     */
+    public int[] getDueCounts() {
+        return dueCounts.clone();
+    }
+
+    /**
+     * @return Copy of the paid counts, one per month
+     */
+    public int[] getPaidCounts() {
+        return paidCounts.clone();
+    }
+
+    /**
+     * @return Copy of due minus paid, one per month
+     */
+    public int[] getUnpaidCounts() {
+        int[] unpaid = new int[dueCounts.length];
+        for (int i = 0; i < unpaid.length; i++) {
+            unpaid[i] = dueCounts[i] - paidCounts[i];
+        }
+        return unpaid;
+    }
+
+    public int getDue(YearMonth month) {
+        int index = indexOf(month);
+        return index >= 0 ? dueCounts[index] : 0;
+    }
+
+    public int getPaid(YearMonth month) {
+        int index = indexOf(month);
+        return index >= 0 ? paidCounts[index] : 0;
+    }
+
+    public int getUnpaid(YearMonth month) {
+        return getDue(month) - getPaid(month);
+    }
+
+    @Override
+    public String toString() {
+        return "MonthlyDues{" + "from=" + from + ", to=" + getTo() + ", months=" + dueCounts.length + '}';
+    }
+}
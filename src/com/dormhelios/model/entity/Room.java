@@ -41,6 +41,24 @@ public class Room {
         this.monthlyRate = monthlyRate;
     }
 
+    /**
+     * @return A field-by-field copy of this room
+     */
+    public Room copy() {
+        Room copy = new Room();
+        copy.roomId = roomId;
+        copy.roomNumber = roomNumber;
+        copy.capacity = capacity;
+        copy.slotsAvailable = slotsAvailable;
+        copy.monthlyRate = monthlyRate;
+        copy.status = status;
+        copy.description = description;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        copy.isActive = isActive;
+        return copy;
+    }
+
     // --- Getters and Setters ---
 
     public int getRoomId() {
@@ -0,0 +1,1231 @@
+package com.dormhelios.service;
+
+import com.dormhelios.model.dao.BackupDAO;
+import com.dormhelios.model.dao.BackupDAO.RestoreSession;
+import com.dormhelios.model.dao.BackupDAO.RowSource;
+import com.dormhelios.model.dao.BackupDAO.Snapshot;
+import com.dormhelios.model.dao.ExportDAO.ColumnKind;
+import com.dormhelios.model.dao.ExportDAO.RowSink;
+import com.dormhelios.util.LruCache;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Backs up the database to a single archive file and restores it again.
+ *
+ * A backup reads every table inside a consistent snapshot (a REPEATABLE READ,
+ * read-only transaction), so the archive shows the whole database as of one
+ * moment while the front desk keeps writing: consistent reads take no locks.
+ * Each table is streamed row by row into its own gzip-compressed,
+ * tab-separated file, and the files are then packed, without compressing
+ * them again, into a zip archive together with a manifest.
+ *
+ * With a parallelism above 1, tables are dumped on that many connections at
+ * once, largest first. Each connection has its own snapshot, so every table
+ * is consistent in itself but tables may be a few moments apart; the
+ * manifest records which kind of backup it is. A row written during such a
+ * backup can reference a row that another table's snapshot does not hold,
+ * and a restore, which runs with foreign key checks off, brings it back as
+ * an orphan, so single-snapshot mode is the default.
+ *
+ * An incremental backup holds only what changed since the previous backup
+ * of its chain. Before each snapshot the server time is taken as the
+ * watermark; the next incremental backup dumps the rows whose updated_at is
+ * at or after that watermark, less a few minutes for transactions that were
+ * still open when the snapshot started. Deletes leave no timestamp behind,
+ * so it also records the ranges of primary keys that still exist. Tables
+ * without updated_at or an integer primary key are copied whole. After
+ * MAX_CHAIN_LENGTH increments, when the chain is broken, or after any
+ * restore, a full backup is made instead and starts a new chain.
+ *
+ * A restore first reads every archive of the chain to the end and checks
+ * its columns against the current database, so a damaged archive or an
+ * older schema is refused before any table is emptied. It then replaces each table's contents with
+ * the archived rows using batched inserts on one connection with foreign key
+ * and unique checks off. For an incremental archive it first restores the
+ * full backup of the chain and then replays every increment in order,
+ * replacing the changed rows and deleting the keys that no longer exist. All
+ * archives of a chain must be in one folder. Tables are committed in
+ * intervals, so a restore cannot be cancelled halfway; a failed restore
+ * should simply be run again.
+ */
+public class BackupEngine {
+
+    private static final Logger LOGGER = Logger.getLogger(BackupEngine.class.getName());
+    private static final String LOG_SOURCE = "BackupEngine";
+
+    /**
+     * Tables in a backup, in restore order (referenced tables first)
+     */
+    public static final List<String> TABLES = List.of(
+            "users", "rooms", "guardians", "emergency_contacts", "tenants", "payments", "system_logs");
+
+    /**
+     * Upper limit on parallel dump connections, so the front desk still finds free pooled connections
+     */
+    public static final int MAX_PARALLELISM = 3;
+
+    /**
+     * Incremental backups on one full backup before the next full one, so a
+     * restore never has to replay more than this many archives
+     */
+    public static final int MAX_CHAIN_LENGTH = 14;
+
+    static final int FORMAT_VERSION = 1;
+    static final String MANIFEST_ENTRY = "manifest.properties";
+    static final String TABLE_ENTRY_PREFIX = "tables/";
+    static final String KEY_ENTRY_PREFIX = "keys/";
+    static final String TABLE_ENTRY_SUFFIX = ".tsv.gz";
+    static final String CHANGE_COLUMN = "updated_at";
+
+    private static final String TYPE_FULL = "full";
+    private static final String TYPE_INCREMENTAL = "incremental";
+    private static final String MODE_FULL = "full";
+    private static final String MODE_CHANGES = "changes";
+    // Rows written by transactions that were still open when the previous snapshot started
+    // carry a time just before its watermark, so each increment looks back this much further
+    private static final Duration WATERMARK_OVERLAP = Duration.ofMinutes(5);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int PROGRESS_INTERVAL_ROWS = 5_000;
+    private static final String NULL_FIELD = "\\N";
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+    /**
+     * Receives progress. During a parallel backup it may be called from several dump threads at once.
+     */
+    public interface ProgressListener {
+
+        /**
+         * @param rowsDone Rows written or restored so far, over all tables
+         * @param rowsTotal Rows expected in total; estimated from table statistics for a backup
+         */
+        void onProgress(long rowsDone, long rowsTotal);
+
+        /**
+         * @param table Table that was just dumped or restored
+         * @param rows Rows in the table
+         * @param elapsedMillis Time the table took
+         */
+        void onTableFinished(String table, long rows, long elapsedMillis);
+    }
+
+    private final BackupDAO backupDAO;
+    private volatile boolean cancelled;
+    private volatile boolean stopping; // Set by cancel() or when a parallel dump fails
+
+    public BackupEngine(BackupDAO backupDAO) {
+        this.backupDAO = backupDAO;
+    }
+
+    /**
+     * @return A file name such as "dormhelios_backup_20250302_101500.zip"
+     */
+    public static String defaultArchiveName() {
+        return "dormhelios_backup_" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".zip";
+    }
+
+    // --- Backup ---
+
+    /**
+     * Backs up every table in TABLES. Blocks until done; call it from a background thread.
+     *
+     * @param archive Zip file to create or replace
+     * @param parallelism Number of tables dumped at once; 1 gives a single consistent snapshot
+     * @param listener Progress callback, may be null
+     * @return Summary of the run; on success the backup is also recorded in BackupHistory
+     * @throws SQLException if a table cannot be read
+     * @throws IOException if the archive cannot be written
+     */
+    public Summary backup(Path archive, int parallelism, ProgressListener listener) throws SQLException, IOException {
+        long start = System.nanoTime();
+        int workers = Math.max(1, Math.min(parallelism, Math.min(MAX_PARALLELISM, TABLES.size())));
+        SystemLogService.log(LOG_SOURCE, "Started backup to " + archive + (workers > 1 ? " with " + workers + " connections" : ""));
+
+        Map<String, Long> estimates = backupDAO.estimateRowCounts();
+        long estimatedTotal = TABLES.stream().mapToLong(table -> estimates.getOrDefault(table, 0L)).sum();
+        Progress progress = new Progress(listener, estimatedTotal);
+        progress.report();
+
+        Path workDirectory = Files.createTempDirectory(archive.toAbsolutePath().getParent(), ".dormhelios-backup-");
+        try {
+            LocalDateTime snapshotTime = LocalDateTime.now();
+            // Taken before any snapshot opens, so the next increment cannot miss a change
+            LocalDateTime watermark = backupDAO.currentServerTime();
+            Map<String, TableFile> tableFiles = new ConcurrentHashMap<>();
+            if (workers == 1) {
+                try (Snapshot snapshot = backupDAO.openSnapshot()) {
+                    for (String table : TABLES) {
+                        if (stopping) {
+                            break;
+                        }
+                        tableFiles.put(table, dumpTable(snapshot, table, workDirectory, progress));
+                    }
+                }
+            } else {
+                dumpInParallel(workers, estimates, workDirectory, progress, tableFiles);
+            }
+            if (cancelled) {
+                return finish(new Summary(Summary.Operation.BACKUP, archive, progress.rows.get(), 0, workers == 1, 0, true,
+                        elapsedMillis(start)));
+            }
+
+            BackupHistory.Chain chain = new BackupHistory.Chain(UUID.randomUUID().toString(), 0, watermark, archive);
+            Properties manifest = newManifest(TYPE_FULL, chain, snapshotTime, workers == 1);
+            Map<String, TableFile> entries = new LinkedHashMap<>();
+            for (String table : TABLES) {
+                manifest.setProperty("mode." + table, MODE_FULL);
+                entries.put(TABLE_ENTRY_PREFIX + table + TABLE_ENTRY_SUFFIX, tableFiles.get(table));
+            }
+            return finishBackup(archive, manifest, entries, chain, workers == 1, start);
+        } finally {
+            deleteDirectory(workDirectory);
+        }
+    }
+
+    /**
+     * Backs up the rows changed since the last backup made on this computer,
+     * continuing its chain. Makes a full backup instead when there is no
+     * chain to continue, it is MAX_CHAIN_LENGTH increments long, or its last
+     * archive is missing, was replaced or lies in another folder. Blocks
+     * until done; call it from a background thread.
+     *
+     * @param archive Zip file to create; must be in the same folder as the rest of the chain
+     * @param listener Progress callback, may be null
+     * @return Summary of the run; on success the backup is also recorded in BackupHistory
+     * @throws SQLException if a table cannot be read
+     * @throws IOException if the archive cannot be written
+     */
+    public Summary backupIncremental(Path archive, ProgressListener listener) throws SQLException, IOException {
+        Optional<BackupHistory.Chain> lastChain = BackupHistory.getChain();
+        String fullReason = reasonForFullBackup(lastChain.orElse(null), archive);
+        if (fullReason != null) {
+            SystemLogService.log(LOG_SOURCE, "Making a full backup instead of an incremental one: " + fullReason);
+            return backup(archive, 1, listener);
+        }
+
+        long start = System.nanoTime();
+        BackupHistory.Chain previous = lastChain.get();
+        LocalDateTime since = previous.getWatermark().minus(WATERMARK_OVERLAP);
+        int sequence = previous.getSequence() + 1;
+        SystemLogService.log(LOG_SOURCE, "Started incremental backup #" + sequence + " to " + archive + " with changes since " + since);
+        Progress progress = new Progress(listener, 0); // The number of changed rows is not known up front
+        progress.report();
+
+        Path workDirectory = Files.createTempDirectory(archive.toAbsolutePath().getParent(), ".dormhelios-backup-");
+        try {
+            LocalDateTime snapshotTime = LocalDateTime.now();
+            LocalDateTime watermark = backupDAO.currentServerTime();
+            BackupHistory.Chain chain = new BackupHistory.Chain(previous.getId(), sequence, watermark, archive);
+            Properties manifest = newManifest(TYPE_INCREMENTAL, chain, snapshotTime, true);
+            manifest.setProperty("chain.previous", previous.getArchive().getFileName().toString());
+            manifest.setProperty("since", since.toString());
+            Map<String, TableFile> entries = new LinkedHashMap<>();
+
+            try (Snapshot snapshot = backupDAO.openSnapshot()) {
+                for (String table : TABLES) {
+                    if (stopping) {
+                        break;
+                    }
+                    String keyColumn = snapshot.hasColumn(table, CHANGE_COLUMN) ? snapshot.findKeyColumn(table) : null;
+                    if (keyColumn == null) {
+                        // Changes can neither be found nor matched up, so the whole table is copied
+                        manifest.setProperty("mode." + table, MODE_FULL);
+                        entries.put(TABLE_ENTRY_PREFIX + table + TABLE_ENTRY_SUFFIX,
+                                dumpTable(snapshot, table, workDirectory, progress));
+                        continue;
+                    }
+                    manifest.setProperty("mode." + table, MODE_CHANGES);
+                    manifest.setProperty("key." + table, keyColumn);
+                    long tableStart = System.nanoTime();
+                    TableFile changes = writeTableFile(workDirectory.resolve(table + TABLE_ENTRY_SUFFIX), progress,
+                            sink -> snapshot.streamChangedRows(table, CHANGE_COLUMN, since, sink));
+                    TableFile keys = writeTableFile(workDirectory.resolve(table + ".keys" + TABLE_ENTRY_SUFFIX), null,
+                            sink -> {
+                                KeyRangeSink ranges = new KeyRangeSink(sink);
+                                snapshot.streamKeys(table, keyColumn, ranges);
+                                return ranges.finish();
+                            });
+                    entries.put(TABLE_ENTRY_PREFIX + table + TABLE_ENTRY_SUFFIX, changes);
+                    entries.put(KEY_ENTRY_PREFIX + table + TABLE_ENTRY_SUFFIX, keys);
+                    long elapsed = elapsedMillis(tableStart);
+                    progress.tableFinished(table + " (changes)", changes.rows, elapsed);
+                    LOGGER.fine("Dumped changes of " + table + ": " + changes.rows + " rows, " + keys.rows
+                            + " key ranges in " + elapsed + " ms");
+                }
+            }
+            if (cancelled) {
+                return finish(new Summary(Summary.Operation.BACKUP, archive, progress.rows.get(), 0, true, sequence, true,
+                        elapsedMillis(start)));
+            }
+            return finishBackup(archive, manifest, entries, chain, true, start);
+        } finally {
+            deleteDirectory(workDirectory);
+        }
+    }
+
+    /**
+     * @return Why the next backup cannot continue the chain, or null if it can
+     */
+    private static String reasonForFullBackup(BackupHistory.Chain chain, Path archive) {
+        if (chain == null) {
+            return BackupHistory.getLastRestoreTime().isPresent()
+                    ? "a restore was made since the last backup"
+                    : "no full backup was made on this computer yet";
+        }
+        if (chain.getSequence() >= MAX_CHAIN_LENGTH) {
+            return "the chain already has " + MAX_CHAIN_LENGTH + " incremental backups";
+        }
+        Path last = chain.getArchive().toAbsolutePath();
+        if (last.equals(archive.toAbsolutePath())) {
+            return "the new archive would overwrite the previous one";
+        }
+        if (!last.getParent().equals(archive.toAbsolutePath().getParent())) {
+            return "the archive is not in the folder of the previous backup, " + last.getParent();
+        }
+        if (!Files.isRegularFile(last)) {
+            return "the previous backup " + last.getFileName() + " is missing";
+        }
+        try {
+            // An increment is only useful if the whole chain before it can still be restored
+            List<ChainArchive> archives = resolveChain(last);
+            ChainArchive lastArchive = archives.get(archives.size() - 1);
+            if (!chain.getId().equals(lastArchive.chainId) || lastArchive.sequence != chain.getSequence()) {
+                return "the previous backup " + last.getFileName() + " was replaced";
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Cannot continue the backup chain of " + last, e);
+            return e.getMessage();
+        }
+        return null;
+    }
+
+    /**
+     * Stops a running backup at the next row and discards its files.
+     * Restores are not cancellable.
+     */
+    public void cancel() {
+        cancelled = true;
+        stopping = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    private void dumpInParallel(int workers, Map<String, Long> estimates, Path workDirectory, Progress progress,
+            Map<String, TableFile> tableFiles) throws SQLException, IOException {
+        // Largest tables first, so the last table to finish is a small one
+        List<String> ordered = new ArrayList<>(TABLES);
+        ordered.sort(Comparator.comparingLong((String table) -> estimates.getOrDefault(table, 0L)).reversed());
+        ConcurrentLinkedQueue<String> pending = new ConcurrentLinkedQueue<>(ordered);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "dormhelios-backup-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                futures.add(pool.submit(() -> {
+                    try (Snapshot snapshot = backupDAO.openSnapshot()) {
+                        String table;
+                        while (!stopping && (table = pending.poll()) != null) {
+                            tableFiles.put(table, dumpTable(snapshot, table, workDirectory, progress));
+                        }
+                    } catch (SQLException | IOException | RuntimeException e) {
+                        stopping = true; // Let the other connections stop too
+                        throw e;
+                    }
+                    return null;
+                }));
+            }
+            Throwable failure = null;
+            boolean interrupted = false;
+            for (Future<Void> future : futures) {
+                while (true) {
+                    try {
+                        future.get();
+                        break;
+                    } catch (ExecutionException e) {
+                        if (failure == null) {
+                            failure = e.getCause();
+                        }
+                        break;
+                    } catch (InterruptedException e) {
+                        // The task running the backup was cancelled; keep waiting,
+                        // the workers stop at their next row
+                        cancel();
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure instanceof SQLException) {
+                throw (SQLException) failure;
+            } else if (failure instanceof IOException) {
+                throw (IOException) failure;
+            } else if (failure != null) {
+                throw new IOException("Backup failed: " + failure.getMessage(), failure);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private TableFile dumpTable(Snapshot snapshot, String table, Path workDirectory, Progress progress)
+            throws SQLException, IOException {
+        long start = System.nanoTime();
+        TableFile tableFile = writeTableFile(workDirectory.resolve(table + TABLE_ENTRY_SUFFIX), progress,
+                sink -> snapshot.streamTable(table, sink));
+        long elapsed = elapsedMillis(start);
+        progress.tableFinished(table, tableFile.rows, elapsed);
+        LOGGER.fine("Dumped " + table + ": " + tableFile.rows + " rows in " + elapsed + " ms");
+        return tableFile;
+    }
+
+    /**
+     * Writes the rows of one dump into a gzip-compressed, tab-separated file
+     * @param progress Counts the rows, or null if they are not table rows
+     */
+    private TableFile writeTableFile(Path file, Progress progress, Dump dump) throws SQLException, IOException {
+        CRC32 crc = new CRC32(); // Of the compressed bytes, as a stored zip entry needs
+        long rows;
+        try (OutputStream fileOut = Files.newOutputStream(file);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(
+                     new CheckedOutputStream(new BufferedOutputStream(fileOut, BUFFER_SIZE), crc), BUFFER_SIZE),
+                     StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            rows = dump.into(new TsvSink(writer, progress));
+        }
+        return new TableFile(file, rows, Files.size(file), crc.getValue());
+    }
+
+    private static Properties newManifest(String type, BackupHistory.Chain chain, LocalDateTime snapshotTime,
+            boolean consistent) {
+        Properties manifest = new Properties();
+        manifest.setProperty("format", String.valueOf(FORMAT_VERSION));
+        manifest.setProperty("type", type);
+        manifest.setProperty("snapshot.time", snapshotTime.toString());
+        manifest.setProperty("snapshot.consistent", String.valueOf(consistent));
+        manifest.setProperty("chain.id", chain.getId());
+        manifest.setProperty("chain.sequence", String.valueOf(chain.getSequence()));
+        manifest.setProperty("watermark", chain.getWatermark().toString());
+        return manifest;
+    }
+
+    /**
+     * Packs the dumped files into the archive and records it as the newest link of its chain
+     * @param entries Work files by entry name; the table entries must be in TABLES order
+     */
+    private Summary finishBackup(Path archive, Properties manifest, Map<String, TableFile> entries,
+            BackupHistory.Chain chain, boolean consistent, long startNanos) throws IOException {
+        long rows = 0;
+        List<String> tables = new ArrayList<>();
+        for (String table : TABLES) {
+            TableFile tableFile = entries.get(TABLE_ENTRY_PREFIX + table + TABLE_ENTRY_SUFFIX);
+            manifest.setProperty("rows." + table, String.valueOf(tableFile.rows));
+            rows += tableFile.rows;
+            tables.add(table);
+        }
+        manifest.setProperty("tables", String.join(",", tables));
+        writeArchive(archive, manifest, entries);
+        long bytes = Files.size(archive);
+        BackupHistory.recordBackup(LocalDateTime.now(), archive, rows, bytes, chain);
+        return finish(new Summary(Summary.Operation.BACKUP, archive, rows, bytes, consistent, chain.getSequence(), false,
+                elapsedMillis(startNanos)));
+    }
+
+    private static void writeArchive(Path archive, Properties manifest, Map<String, TableFile> entries) throws IOException {
+        Path partFile = archive.resolveSibling(archive.getFileName() + ".part");
+        boolean moved = false;
+        try {
+            try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(partFile), BUFFER_SIZE))) {
+                zip.putNextEntry(new ZipEntry(MANIFEST_ENTRY));
+                manifest.store(zip, "DormHelios backup");
+                zip.closeEntry();
+                for (Map.Entry<String, TableFile> file : entries.entrySet()) {
+                    // Already gzipped, so stored as is instead of being compressed twice
+                    TableFile tableFile = file.getValue();
+                    ZipEntry entry = new ZipEntry(file.getKey());
+                    entry.setMethod(ZipEntry.STORED);
+                    entry.setSize(tableFile.bytes);
+                    entry.setCompressedSize(tableFile.bytes);
+                    entry.setCrc(tableFile.crc);
+                    zip.putNextEntry(entry);
+                    Files.copy(tableFile.file, zip);
+                    zip.closeEntry();
+                }
+            }
+            DataExportJob.moveIntoPlace(partFile, archive);
+            moved = true;
+        } finally {
+            if (!moved) {
+                Files.deleteIfExists(partFile);
+            }
+        }
+    }
+
+    // --- Restore ---
+
+    /**
+     * Replaces the contents of every table with the archived rows. For an
+     * incremental archive, the full backup of its chain is restored first and
+     * every increment up to the given one is then replayed in order. Blocks
+     * until done; call it from a background thread.
+     *
+     * @param archive Backup archive written by {@link #backup} or {@link #backupIncremental}
+     * @param listener Progress callback, may be null
+     * @return Summary of the run
+     * @throws IOException if an archive of the chain is missing, unreadable or not a DormHelios backup
+     * @throws SQLException if a table cannot be restored
+     */
+    public Summary restore(Path archive, ProgressListener listener) throws SQLException, IOException {
+        long start = System.nanoTime();
+        List<ChainArchive> chain = resolveChain(archive);
+        long total = 0;
+        long bytes = 0;
+        boolean consistent = true;
+        for (ChainArchive link : chain) {
+            for (String table : TABLES) {
+                total += Long.parseLong(link.manifest.getProperty("rows." + table, "0"));
+            }
+            bytes += Files.size(link.path);
+            consistent &= Boolean.parseBoolean(link.manifest.getProperty("snapshot.consistent"));
+        }
+        int increments = chain.size() - 1;
+        SystemLogService.log(LOG_SOURCE, "Started restore from " + archive
+                + (increments > 0 ? " (full backup plus " + increments + " incremental)" : ""));
+        Progress progress = new Progress(listener, total);
+        progress.report();
+
+        boolean replacing = false;
+        try (RestoreSession session = backupDAO.openRestore()) {
+            verifyChain(session, chain);
+            replacing = true;
+            for (ChainArchive link : chain) {
+                try (ZipFile zip = new ZipFile(link.path.toFile(), StandardCharsets.UTF_8)) {
+                    for (String table : manifestTables(link.manifest, zip)) {
+                        restoreTable(session, zip, link, table, progress);
+                    }
+                }
+            }
+        } finally {
+            // Even a failed restore may have replaced tables, so nothing cached from before can be trusted
+            RoomCatalog.invalidate();
+            LruCache.invalidateAllCaches();
+            if (replacing) {
+                BackupHistory.recordRestore(LocalDateTime.now(), archive);
+            }
+        }
+        return finish(new Summary(Summary.Operation.RESTORE, archive, progress.rows.get(), bytes, consistent, increments,
+                false, elapsedMillis(start)));
+    }
+
+    /**
+     * Reads every archive of the chain once before anything is written. Each
+     * entry is decompressed to its end, which checks the gzip CRC, every line
+     * must have as many fields as the header, and the header's columns must
+     * exist in the current database. Otherwise a restore could stop halfway,
+     * after the first tables were already emptied.
+     */
+    private static void verifyChain(RestoreSession session, List<ChainArchive> chain) throws SQLException, IOException {
+        long start = System.nanoTime();
+        for (ChainArchive link : chain) {
+            try (ZipFile zip = new ZipFile(link.path.toFile(), StandardCharsets.UTF_8)) {
+                List<String> tables = manifestTables(link.manifest, zip);
+                if (!tables.containsAll(TABLES)) {
+                    throw new IOException("Backup " + link.path.getFileName() + " does not contain every table");
+                }
+                for (String table : tables) {
+                    verifyTable(session, zip, link, table);
+                }
+            } catch (IOException e) {
+                throw new IOException("Backup " + link.path.getFileName() + " cannot be restored: " + e.getMessage(), e);
+            }
+        }
+        LOGGER.info("Verified " + chain.size() + " backup archive(s) in " + elapsedMillis(start) + " ms");
+    }
+
+    private static void verifyTable(RestoreSession session, ZipFile zip, ChainArchive link, String table)
+            throws SQLException, IOException {
+        String mode = link.manifest.getProperty("mode." + table, MODE_FULL);
+        boolean changes = MODE_CHANGES.equals(mode) && link.incremental;
+        if (!MODE_FULL.equals(mode) && !changes) {
+            throw new IOException("unknown mode for " + table + ": " + mode);
+        }
+        List<String> columns;
+        long rows = 0;
+        try (BufferedReader reader = openTableReader(zip.getInputStream(
+                zip.getEntry(TABLE_ENTRY_PREFIX + table + TABLE_ENTRY_SUFFIX)))) {
+            columns = parseHeader(reader.readLine(), table);
+            parseKinds(reader.readLine(), columns.size(), table);
+            TsvSource source = new TsvSource(reader, table, columns.size(), null);
+            while (source.next() != null) {
+                rows++;
+            }
+        }
+        if (!String.valueOf(rows).equals(link.manifest.getProperty("rows." + table))) {
+            throw new IOException("the data for " + table + " has " + rows + " rows, not the "
+                    + link.manifest.getProperty("rows." + table) + " in the manifest");
+        }
+        session.checkColumns(table, columns);
+        if (!changes) {
+            return;
+        }
+
+        String keyColumn = link.manifest.getProperty("key." + table);
+        if (keyColumn == null || columns.stream().noneMatch(keyColumn::equalsIgnoreCase)) {
+            throw new IOException("the changed rows of " + table + " do not include their key column");
+        }
+        ZipEntry keys = zip.getEntry(KEY_ENTRY_PREFIX + table + TABLE_ENTRY_SUFFIX);
+        if (keys == null) {
+            throw new IOException("the keys of table " + table + " are missing");
+        }
+        try (BufferedReader reader = openTableReader(zip.getInputStream(keys))) {
+            List<String> keyColumns = parseHeader(reader.readLine(), table);
+            parseKinds(reader.readLine(), keyColumns.size(), table);
+            if (keyColumns.size() != 2) {
+                throw new IOException("the keys of table " + table + " are damaged");
+            }
+            TsvSource source = new TsvSource(reader, table, 2, null);
+            String[] range;
+            while ((range = source.next()) != null) {
+                Long.parseLong(range[0]);
+                Long.parseLong(range[1]);
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("the keys of table " + table + " are damaged", e);
+        }
+    }
+
+    private static void restoreTable(RestoreSession session, ZipFile zip, ChainArchive link, String table,
+            Progress progress) throws SQLException, IOException {
+        long start = System.nanoTime();
+        String mode = link.manifest.getProperty("mode." + table, MODE_FULL);
+        ZipEntry entry = zip.getEntry(TABLE_ENTRY_PREFIX + table + TABLE_ENTRY_SUFFIX);
+        long rows;
+        try (BufferedReader reader = openTableReader(zip.getInputStream(entry))) {
+            List<String> columns = parseHeader(reader.readLine(), table);
+            List<ColumnKind> kinds = parseKinds(reader.readLine(), columns.size(), table);
+            TsvSource source = new TsvSource(reader, table, columns.size(), progress);
+            if (MODE_FULL.equals(mode)) {
+                rows = session.replaceTable(table, columns, kinds, source);
+            } else if (MODE_CHANGES.equals(mode) && link.incremental) {
+                String keyColumn = link.manifest.getProperty("key." + table);
+                if (keyColumn == null) {
+                    throw new IOException("Backup " + link.path.getFileName() + " does not name the key of " + table);
+                }
+                rows = session.replaceRows(table, keyColumn, columns, kinds, source);
+                rows -= deleteRemovedKeys(session, zip, link, table, keyColumn);
+            } else {
+                throw new IOException("Backup " + link.path.getFileName() + " has an unknown mode for " + table + ": " + mode);
+            }
+        }
+        // For an increment, the reported count is the net change in rows
+        progress.tableFinished(link.incremental ? table + " (#" + link.sequence + ")" : table, rows, elapsedMillis(start));
+    }
+
+    /**
+     * @return Number of rows deleted because their keys were gone when the increment was made
+     */
+    private static long deleteRemovedKeys(RestoreSession session, ZipFile zip, ChainArchive link, String table,
+            String keyColumn) throws SQLException, IOException {
+        ZipEntry entry = zip.getEntry(KEY_ENTRY_PREFIX + table + TABLE_ENTRY_SUFFIX);
+        if (entry == null) {
+            throw new IOException("Backup " + link.path.getFileName() + " is missing the keys of table " + table);
+        }
+        try (BufferedReader reader = openTableReader(zip.getInputStream(entry))) {
+            List<String> columns = parseHeader(reader.readLine(), table);
+            parseKinds(reader.readLine(), columns.size(), table);
+            if (columns.size() != 2) {
+                throw new IOException("Backup " + link.path.getFileName() + " has damaged keys for table " + table);
+            }
+            return session.deleteKeysOutside(table, keyColumn, new TsvSource(reader, table, 2, null));
+        }
+    }
+
+    /**
+     * Follows an archive back to the full backup of its chain
+     * @return The archives to restore, full backup first
+     */
+    private static List<ChainArchive> resolveChain(Path archive) throws IOException {
+        Deque<ChainArchive> chain = new ArrayDeque<>();
+        ChainArchive current = ChainArchive.read(archive);
+        chain.addFirst(current);
+        while (current.incremental) {
+            String previousName = current.manifest.getProperty("chain.previous", "");
+            Path previousPath = current.path.resolveSibling(previousName);
+            // Only a plain file name is accepted, so a manifest cannot point outside the folder
+            if (previousName.isEmpty() || !previousPath.getFileName().toString().equals(previousName)) {
+                throw new IOException("Backup " + current.path.getFileName() + " does not name the backup it follows");
+            }
+            if (!Files.isRegularFile(previousPath)) {
+                throw new IOException(current.path.getFileName() + " is an incremental backup; it needs the earlier backup "
+                        + previousName + " in the same folder");
+            }
+            ChainArchive previous = ChainArchive.read(previousPath);
+            if (previous.chainId == null || !previous.chainId.equals(current.chainId)
+                    || previous.sequence != current.sequence - 1) {
+                throw new IOException(previousName + " is not the backup that " + current.path.getFileName() + " follows");
+            }
+            chain.addFirst(previous);
+            current = previous;
+        }
+        if (current.sequence != 0) {
+            throw new IOException("The chain of " + archive.getFileName() + " does not start with a full backup");
+        }
+        return new ArrayList<>(chain);
+    }
+
+    static Properties readManifest(ZipFile zip) throws IOException {
+        ZipEntry entry = zip.getEntry(MANIFEST_ENTRY);
+        if (entry == null) {
+            throw new IOException("Not a DormHelios backup: " + MANIFEST_ENTRY + " is missing");
+        }
+        Properties manifest = new Properties();
+        try (InputStream in = zip.getInputStream(entry)) {
+            manifest.load(in);
+        }
+        if (!String.valueOf(FORMAT_VERSION).equals(manifest.getProperty("format"))) {
+            throw new IOException("Unsupported backup format: " + manifest.getProperty("format"));
+        }
+        return manifest;
+    }
+
+    /**
+     * @return The archive's tables, each checked against TABLES and present in the zip
+     */
+    private static List<String> manifestTables(Properties manifest, ZipFile zip) throws IOException {
+        List<String> tables = new ArrayList<>();
+        for (String table : manifest.getProperty("tables", "").split(",")) {
+            if (table.isEmpty()) {
+                continue;
+            }
+            if (!TABLES.contains(table)) {
+                throw new IOException("Backup contains an unknown table: " + table);
+            }
+            if (zip.getEntry(TABLE_ENTRY_PREFIX + table + TABLE_ENTRY_SUFFIX) == null) {
+                throw new IOException("Backup is missing the data for table " + table);
+            }
+            tables.add(table);
+        }
+        if (tables.isEmpty()) {
+            throw new IOException("Backup contains no tables");
+        }
+        return tables;
+    }
+
+    private static BufferedReader openTableReader(InputStream entry) throws IOException {
+        return new BufferedReader(new InputStreamReader(new GZIPInputStream(entry, BUFFER_SIZE), StandardCharsets.UTF_8),
+                BUFFER_SIZE);
+    }
+
+    private static List<String> parseHeader(String line, String table) throws IOException {
+        if (line == null) {
+            throw new IOException("Backup data for " + table + " has no header");
+        }
+        return Arrays.asList(splitLine(line, new String[countFields(line)]));
+    }
+
+    private static List<ColumnKind> parseKinds(String line, int columnCount, String table) throws IOException {
+        if (line == null || countFields(line) != columnCount) {
+            throw new IOException("Backup data for " + table + " has no valid column types");
+        }
+        List<ColumnKind> kinds = new ArrayList<>(columnCount);
+        try {
+            for (String kind : line.split("\t")) {
+                kinds.add(ColumnKind.valueOf(kind));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Backup data for " + table + " has an unknown column type", e);
+        }
+        return kinds;
+    }
+
+    // --- Tab-separated rows ---
+    // One row per line, fields separated by tabs. Backslash, tab, newline and
+    // carriage return are escaped as \\, \t, \n and \r, and NULL is \N, so a
+    // line break or tab inside a value never splits it.
+
+    static void appendEscaped(StringBuilder line, String value) {
+        if (value == null) {
+            line.append(NULL_FIELD);
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    line.append("\\\\");
+                    break;
+                case '\t':
+                    line.append("\\t");
+                    break;
+                case '\n':
+                    line.append("\\n");
+                    break;
+                case '\r':
+                    line.append("\\r");
+                    break;
+                default:
+                    line.append(c);
+            }
+        }
+    }
+
+    static int countFields(String line) {
+        int fields = 1;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '\t') {
+                fields++;
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Splits and unescapes a line into the given array, which must have one slot per field
+     */
+    static String[] splitLine(String line, String[] fields) {
+        int field = 0;
+        int from = 0;
+        for (int i = 0; i <= line.length(); i++) {
+            if (i == line.length() || line.charAt(i) == '\t') {
+                fields[field++] = unescape(line, from, i);
+                from = i + 1;
+            }
+        }
+        return fields;
+    }
+
+    private static String unescape(String line, int from, int to) {
+        if (to - from == 2 && line.startsWith(NULL_FIELD, from)) {
+            return null;
+        }
+        int firstBackslash = line.indexOf('\\', from);
+        if (firstBackslash < 0 || firstBackslash >= to) {
+            return line.substring(from, to);
+        }
+        StringBuilder value = new StringBuilder(to - from);
+        for (int i = from; i < to; i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < to) {
+                char next = line.charAt(++i);
+                value.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                value.append(c);
+            }
+        }
+        return value.toString();
+    }
+
+    /**
+     * Dumps rows from a snapshot into a sink
+     */
+    private interface Dump {
+
+        /**
+         * @return Number of rows handed to the sink
+         */
+        long into(RowSink sink) throws SQLException, IOException;
+    }
+
+    /**
+     * Turns ascending keys into {first, last} ranges of consecutive keys.
+     * Keys come from auto-increment columns, so a table holds few gaps and
+     * its ranges stay small however many rows it has.
+     */
+    private static final class KeyRangeSink implements RowSink {
+
+        private final RowSink ranges;
+        private final String[] range = new String[2];
+        private boolean open;
+        private long first;
+        private long last;
+        private long count;
+
+        KeyRangeSink(RowSink ranges) {
+            this.ranges = ranges;
+        }
+
+        @Override
+        public void start(List<String> columns, List<ColumnKind> kinds) throws IOException {
+            ranges.start(List.of("first", "last"), List.of(ColumnKind.NUMBER, ColumnKind.NUMBER));
+        }
+
+        @Override
+        public boolean row(String[] values) throws IOException {
+            long key;
+            try {
+                key = Long.parseLong(values[0]);
+            } catch (NumberFormatException e) {
+                throw new IOException("Not an integer key: " + values[0], e);
+            }
+            if (open && key == last + 1) {
+                last = key;
+                return true;
+            }
+            boolean more = !open || emit();
+            open = true;
+            first = key;
+            last = key;
+            return more;
+        }
+
+        /**
+         * Writes the last range
+         * @return Number of ranges written
+         */
+        long finish() throws IOException {
+            if (open) {
+                emit();
+                open = false;
+            }
+            return count;
+        }
+
+        private boolean emit() throws IOException {
+            range[0] = String.valueOf(first);
+            range[1] = String.valueOf(last);
+            count++;
+            return ranges.row(range);
+        }
+    }
+
+    /**
+     * Writes streamed rows as tab-separated lines
+     */
+    private final class TsvSink implements RowSink {
+
+        private final Writer writer;
+        private final Progress progress;
+        private final StringBuilder line = new StringBuilder(256);
+
+        TsvSink(Writer writer, Progress progress) {
+            this.writer = writer;
+            this.progress = progress;
+        }
+
+        @Override
+        public void start(List<String> columns, List<ColumnKind> kinds) throws IOException {
+            writeLine(columns.toArray(new String[0]));
+            List<String> kindNames = new ArrayList<>(kinds.size());
+            for (ColumnKind kind : kinds) {
+                kindNames.add(kind.name());
+            }
+            writer.write(String.join("\t", kindNames));
+            writer.write('\n');
+        }
+
+        @Override
+        public boolean row(String[] values) throws IOException {
+            if (Thread.currentThread().isInterrupted()) {
+                cancel(); // The task running the backup was cancelled
+            }
+            if (stopping) {
+                return false;
+            }
+            writeLine(values);
+            if (progress != null) {
+                progress.rowDone();
+            }
+            return true;
+        }
+
+        private void writeLine(String[] values) throws IOException {
+            line.setLength(0);
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    line.append('\t');
+                }
+                appendEscaped(line, values[i]);
+            }
+            line.append('\n');
+            writer.append(line);
+        }
+    }
+
+    /**
+     * Reads tab-separated lines back as rows for a restore
+     */
+    private static final class TsvSource implements RowSource {
+
+        private final BufferedReader reader;
+        private final String table;
+        private final String[] fields;
+        private final Progress progress;
+        private long lineNumber = 2; // After the two header lines
+
+        TsvSource(BufferedReader reader, String table, int columnCount, Progress progress) {
+            this.reader = reader;
+            this.table = table;
+            this.fields = new String[columnCount];
+            this.progress = progress;
+        }
+
+        @Override
+        public String[] next() throws IOException {
+            String line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+            if (countFields(line) != fields.length) {
+                throw new IOException("Backup data for " + table + " is damaged at line " + lineNumber);
+            }
+            if (progress != null) {
+                progress.rowDone();
+            }
+            return splitLine(line, fields);
+        }
+    }
+
+    // --- Helpers ---
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private static Summary finish(Summary summary) {
+        SystemLogService.log(LOG_SOURCE, summary.toString());
+        LOGGER.info(summary.toString());
+        return summary;
+    }
+
+    private static void deleteDirectory(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Could not delete backup work file " + path, e);
+                }
+            });
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not clean up backup work directory " + directory, e);
+        }
+    }
+
+    /**
+     * Row counter shared by all dump threads; reports every PROGRESS_INTERVAL_ROWS rows
+     */
+    private static final class Progress {
+
+        private final ProgressListener listener;
+        private final long total;
+        private final AtomicLong rows = new AtomicLong();
+
+        Progress(ProgressListener listener, long total) {
+            this.listener = listener;
+            this.total = total;
+        }
+
+        void rowDone() {
+            if (rows.incrementAndGet() % PROGRESS_INTERVAL_ROWS == 0) {
+                report();
+            }
+        }
+
+        void report() {
+            if (listener != null) {
+                listener.onProgress(rows.get(), total);
+            }
+        }
+
+        void tableFinished(String table, long tableRows, long elapsedMillis) {
+            if (listener != null) {
+                listener.onTableFinished(table, tableRows, elapsedMillis);
+                listener.onProgress(rows.get(), total);
+            }
+        }
+    }
+
+    /**
+     * An archive of a backup chain, with its manifest
+     */
+    private static final class ChainArchive {
+
+        private final Path path;
+        private final Properties manifest;
+        private final String chainId; // Null for archives made before backups were chained
+        private final int sequence;
+        private final boolean incremental;
+
+        private ChainArchive(Path path, Properties manifest, String chainId, int sequence, boolean incremental) {
+            this.path = path;
+            this.manifest = manifest;
+            this.chainId = chainId;
+            this.sequence = sequence;
+            this.incremental = incremental;
+        }
+
+        static ChainArchive read(Path path) throws IOException {
+            Properties manifest;
+            try (ZipFile zip = new ZipFile(path.toFile(), StandardCharsets.UTF_8)) {
+                manifest = readManifest(zip);
+            }
+            String type = manifest.getProperty("type", TYPE_FULL);
+            if (!TYPE_FULL.equals(type) && !TYPE_INCREMENTAL.equals(type)) {
+                throw new IOException("Unsupported backup type in " + path.getFileName() + ": " + type);
+            }
+            try {
+                int sequence = Integer.parseInt(manifest.getProperty("chain.sequence", "0"));
+                return new ChainArchive(path, manifest, manifest.getProperty("chain.id"), sequence,
+                        TYPE_INCREMENTAL.equals(type));
+            } catch (NumberFormatException e) {
+                throw new IOException("Backup " + path.getFileName() + " has an invalid chain position", e);
+            }
+        }
+    }
+
+    /**
+     * One dumped table in the work directory
+     */
+    private static final class TableFile {
+
+        private final Path file;
+        private final long rows;
+        private final long bytes;
+        private final long crc;
+
+        TableFile(Path file, long rows, long bytes, long crc) {
+            this.file = file;
+            this.rows = rows;
+            this.bytes = bytes;
+            this.crc = crc;
+        }
+    }
+
+    /**
+     * Outcome of a backup or restore
+     */
+    public static final class Summary {
+
+        public enum Operation {
+            BACKUP,
+            RESTORE
+        }
+
+        private final Operation operation;
+        private final Path archive;
+        private final long rows;
+        private final long bytes;
+        private final boolean consistentSnapshot;
+        private final int increments;
+        private final boolean cancelled;
+        private final long elapsedMillis;
+
+        public Summary(Operation operation, Path archive, long rows, long bytes, boolean consistentSnapshot,
+                int increments, boolean cancelled, long elapsedMillis) {
+            this.operation = operation;
+            this.archive = archive;
+            this.rows = rows;
+            this.bytes = bytes;
+            this.consistentSnapshot = consistentSnapshot;
+            this.increments = increments;
+            this.cancelled = cancelled;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+        public Path getArchive() {
+            return archive;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * @return true if all tables come from one snapshot, false for a parallel backup
+         */
+        public boolean isConsistentSnapshot() {
+            return consistentSnapshot;
+        }
+
+        /**
+         * @return For a backup, its position in the chain (0 for a full
+         *         backup); for a restore, the number of increments replayed
+         */
+        public int getIncrements() {
+            return increments;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            if (operation == Operation.RESTORE) {
+                return "Restore finished: " + rows + " rows from " + archive.getFileName()
+                        + (increments > 0 ? " (full backup plus " + increments + " incremental)" : "")
+                        + ", " + elapsedMillis + " ms"
+                        + (consistentSnapshot ? "" : ". Its tables were dumped in parallel, so some rows may refer to rows that are missing");
+            }
+            if (cancelled) {
+                return "Backup cancelled after " + rows + " rows, " + elapsedMillis + " ms; no archive was written";
+            }
+            return (increments > 0 ? "Incremental backup #" + increments + " finished: " : "Backup finished: ") + rows + " rows, " + bytes / 1024 + " KB to " + archive.getFileName()
+                    + (consistentSnapshot ? "" : " (tables dumped in parallel)") + ", " + elapsedMillis + " ms";
+        }
+    }
+}
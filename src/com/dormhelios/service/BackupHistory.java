@@ -0,0 +1,241 @@
+package com.dormhelios.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Remembers the most recent successful backup made on this computer, in
+ * ~/.dormhelios/backup.properties next to the remembered credentials, so the
+ * admin dashboard can show when the database was last backed up. It also
+ * keeps the backup chain that the next incremental backup continues, which a
+ * restore ends.
+ */
+public final class BackupHistory {
+
+    private static final Logger LOGGER = Logger.getLogger(BackupHistory.class.getName());
+    private static final Path HISTORY_FILE = Paths.get(System.getProperty("user.home"), ".dormhelios", "backup.properties");
+
+    private static final String TIME_PROPERTY = "lastBackup.time";
+    private static final String ARCHIVE_PROPERTY = "lastBackup.archive";
+    private static final String ROWS_PROPERTY = "lastBackup.rows";
+    private static final String BYTES_PROPERTY = "lastBackup.bytes";
+    private static final String CHAIN_ID_PROPERTY = "chain.id";
+    private static final String CHAIN_SEQUENCE_PROPERTY = "chain.sequence";
+    private static final String CHAIN_WATERMARK_PROPERTY = "chain.watermark";
+    private static final String CHAIN_ARCHIVE_PROPERTY = "chain.archive";
+    private static final String RESTORE_TIME_PROPERTY = "lastRestore.time";
+    private static final String RESTORE_ARCHIVE_PROPERTY = "lastRestore.archive";
+
+    private BackupHistory() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * @return The last recorded backup, or empty if none was made here yet
+     */
+    public static synchronized Optional<LastBackup> getLastBackup() {
+        Properties props = load();
+        String time = props.getProperty(TIME_PROPERTY);
+        String archive = props.getProperty(ARCHIVE_PROPERTY);
+        if (time == null || archive == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new LastBackup(LocalDateTime.parse(time), Paths.get(archive),
+                    Long.parseLong(props.getProperty(ROWS_PROPERTY, "0")),
+                    Long.parseLong(props.getProperty(BYTES_PROPERTY, "0"))));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "Ignoring unreadable backup history in " + HISTORY_FILE, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return The chain the next incremental backup would continue, or empty
+     *         if no full backup was made here yet
+     */
+    public static synchronized Optional<Chain> getChain() {
+        Properties props = load();
+        String id = props.getProperty(CHAIN_ID_PROPERTY);
+        String watermark = props.getProperty(CHAIN_WATERMARK_PROPERTY);
+        String archive = props.getProperty(CHAIN_ARCHIVE_PROPERTY);
+        if (id == null || watermark == null || archive == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new Chain(id, Integer.parseInt(props.getProperty(CHAIN_SEQUENCE_PROPERTY, "0")),
+                    LocalDateTime.parse(watermark), Paths.get(archive)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "Ignoring unreadable backup chain in " + HISTORY_FILE, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Records a finished backup
+     * @param finishedAt When the backup completed
+     * @param archive Archive file that was written
+     * @param rows Rows in the archive
+     * @param bytes Size of the archive
+     * @param chain The chain position the archive takes, which the next incremental backup continues
+     */
+    public static synchronized void recordBackup(LocalDateTime finishedAt, Path archive, long rows, long bytes, Chain chain) {
+        Properties props = load();
+        props.setProperty(TIME_PROPERTY, finishedAt.toString());
+        props.setProperty(ARCHIVE_PROPERTY, archive.toAbsolutePath().toString());
+        props.setProperty(ROWS_PROPERTY, String.valueOf(rows));
+        props.setProperty(BYTES_PROPERTY, String.valueOf(bytes));
+        props.setProperty(CHAIN_ID_PROPERTY, chain.getId());
+        props.setProperty(CHAIN_SEQUENCE_PROPERTY, String.valueOf(chain.getSequence()));
+        props.setProperty(CHAIN_WATERMARK_PROPERTY, chain.getWatermark().toString());
+        props.setProperty(CHAIN_ARCHIVE_PROPERTY, chain.getArchive().toAbsolutePath().toString());
+        store(props);
+    }
+
+    /**
+     * Records a restore and forgets the backup chain: the restored data no
+     * longer matches the chain's watermark, so the next backup must be full
+     * @param restoredAt When the restore ended, successfully or not
+     * @param archive Archive that was restored
+     */
+    public static synchronized void recordRestore(LocalDateTime restoredAt, Path archive) {
+        Properties props = load();
+        props.setProperty(RESTORE_TIME_PROPERTY, restoredAt.toString());
+        props.setProperty(RESTORE_ARCHIVE_PROPERTY, archive.toAbsolutePath().toString());
+        props.remove(CHAIN_ID_PROPERTY);
+        props.remove(CHAIN_SEQUENCE_PROPERTY);
+        props.remove(CHAIN_WATERMARK_PROPERTY);
+        props.remove(CHAIN_ARCHIVE_PROPERTY);
+        store(props);
+    }
+
+    /**
+     * @return When the last restore on this computer ended, or empty if there was none
+     */
+    public static synchronized Optional<LocalDateTime> getLastRestoreTime() {
+        String time = load().getProperty(RESTORE_TIME_PROPERTY);
+        if (time == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(LocalDateTime.parse(time));
+        } catch (DateTimeParseException e) {
+            LOGGER.log(Level.WARNING, "Ignoring unreadable restore time in " + HISTORY_FILE, e);
+            return Optional.empty();
+        }
+    }
+
+    // --- File access ---
+
+    private static Properties load() {
+        Properties props = new Properties();
+        if (Files.exists(HISTORY_FILE)) {
+            try (InputStream in = Files.newInputStream(HISTORY_FILE)) {
+                props.load(in);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to read backup history from " + HISTORY_FILE, e);
+            }
+        }
+        return props;
+    }
+
+    private static void store(Properties props) {
+        try {
+            Files.createDirectories(HISTORY_FILE.getParent());
+            Path temp = HISTORY_FILE.resolveSibling(HISTORY_FILE.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                props.store(out, "DormHelios Backup History");
+            }
+            Files.move(temp, HISTORY_FILE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Failed to save backup history to " + HISTORY_FILE, e);
+        }
+    }
+
+    /**
+     * The most recent backup
+     */
+    public static final class LastBackup {
+
+        private final LocalDateTime time;
+        private final Path archive;
+        private final long rows;
+        private final long bytes;
+
+        public LastBackup(LocalDateTime time, Path archive, long rows, long bytes) {
+            this.time = time;
+            this.archive = archive;
+            this.rows = rows;
+            this.bytes = bytes;
+        }
+
+        public LocalDateTime getTime() {
+            return time;
+        }
+
+        public Path getArchive() {
+            return archive;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+    }
+
+    /**
+     * The newest archive of a backup chain: a full backup (sequence 0)
+     * followed by incremental backups, each holding the changes since the
+     * previous one
+     */
+    public static final class Chain {
+
+        private final String id;
+        private final int sequence;
+        private final LocalDateTime watermark;
+        private final Path archive;
+
+        /**
+         * @param id Identifier shared by every archive of the chain
+         * @param sequence Position of the archive; 0 for the full backup
+         * @param watermark Database server time taken just before the archive's snapshot
+         * @param archive The archive file
+         */
+        public Chain(String id, int sequence, LocalDateTime watermark, Path archive) {
+            this.id = id;
+            this.sequence = sequence;
+            this.watermark = watermark;
+            this.archive = archive;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public int getSequence() {
+            return sequence;
+        }
+
+        public LocalDateTime getWatermark() {
+            return watermark;
+        }
+
+        public Path getArchive() {
+            return archive;
+        }
+    }
+}
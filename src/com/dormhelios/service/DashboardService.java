@@ -0,0 +1,240 @@
+package com.dormhelios.service;
+
+import com.dormhelios.model.dao.DashboardStatsDAO;
+import com.dormhelios.model.dao.PaymentDAO;
+import com.dormhelios.model.entity.DashboardSnapshot;
+import com.dormhelios.model.entity.MonthlyDues;
+import com.dormhelios.model.entity.Payment;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Builds the main dashboard's DashboardSnapshot.
+ * The scalar KPIs come from one aggregate query; the overdue list, recent
+ * payments and chart counts are independent, so all four parts run in
+ * parallel and the snapshot is ready after the slowest one rather than
+ * after the sum of all of them.
+ *
+ * The last snapshot is cached with stale-while-revalidate semantics: callers
+ * show the cached snapshot immediately and, if it is older than the TTL or
+ * was invalidated by a write, a refresh runs in the background and listeners
+ * receive the new snapshot when it is ready.
+ */
+public class DashboardService {
+
+    private static final Logger LOGGER = Logger.getLogger(DashboardService.class.getName());
+
+    public static final int RECENT_PAYMENT_LIMIT = 5;
+    public static final int CHART_MONTHS = 6;
+    private static final long SNAPSHOT_TTL_MS = 60_000;
+    private static final long INVALIDATION_REFRESH_DELAY_MS = 750; // Coalesces bursts of writes
+    private static final long BACKGROUND_REFRESH_INTERVAL_MS = 5 * 60_000;
+
+    // Shared by all instances; one thread per snapshot part
+    private static final ExecutorService LOADERS = Executors.newFixedThreadPool(4, new DaemonThreadFactory("dormhelios-dashboard"));
+    // Runs refreshes (which wait on LOADERS) and the periodic/debounced refresh timers
+    private static final ScheduledExecutorService REFRESHER =
+            Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("dormhelios-dashboard-refresh"));
+
+    private final DashboardStatsDAO statsDAO;
+    private final PaymentDAO paymentDAO;
+
+    // --- Snapshot cache ---
+    private final List<Consumer<DashboardSnapshot>> snapshotListeners = new CopyOnWriteArrayList<>();
+    private volatile DashboardSnapshot cachedSnapshot;
+    private volatile long cachedAtNanos;
+    private final AtomicLong dataVersion = new AtomicLong(); // Bumped on every invalidation
+    private volatile long cachedVersion = -1;
+    private CompletableFuture<DashboardSnapshot> refreshInFlight; // Guarded by "this"
+    private ScheduledFuture<?> pendingInvalidationRefresh;        // Guarded by "this"
+    private final ScheduledFuture<?> backgroundRefresh;
+    private boolean closed;                                       // Guarded by "this"
+
+    public DashboardService(DashboardStatsDAO statsDAO, PaymentDAO paymentDAO) {
+        this.statsDAO = statsDAO;
+        this.paymentDAO = paymentDAO;
+        this.backgroundRefresh = REFRESHER.scheduleWithFixedDelay(() -> {
+            if (cachedSnapshot != null && isStale()) {
+                refreshAsync();
+            }
+        }, BACKGROUND_REFRESH_INTERVAL_MS, BACKGROUND_REFRESH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return The last loaded snapshot, possibly stale; empty before the first load
+     */
+    public Optional<DashboardSnapshot> getCachedSnapshot() {
+        return Optional.ofNullable(cachedSnapshot);
+    }
+
+    /**
+     * @return true if there is no snapshot, it is older than the TTL, or data changed since it was loaded
+     */
+    public boolean isStale() {
+        return cachedSnapshot == null
+                || cachedVersion != dataVersion.get()
+                || System.nanoTime() - cachedAtNanos > TimeUnit.MILLISECONDS.toNanos(SNAPSHOT_TTL_MS);
+    }
+
+    /**
+     * Registers a callback for every newly loaded snapshot. Called on a
+     * background thread; Swing code must hop to the EDT itself.
+     */
+    public void addSnapshotListener(Consumer<DashboardSnapshot> listener) {
+        snapshotListeners.add(listener);
+    }
+
+    /**
+     * Starts a background refresh, or joins the one already running
+     * @return Future completed with the new snapshot
+     */
+    public synchronized CompletableFuture<DashboardSnapshot> refreshAsync() {
+        if (refreshInFlight != null && !refreshInFlight.isDone()) {
+            return refreshInFlight;
+        }
+        long version = dataVersion.get();
+        refreshInFlight = CompletableFuture.supplyAsync(this::loadSnapshot, REFRESHER)
+                .whenComplete((snapshot, error) -> {
+                    if (error != null) {
+                        LOGGER.log(Level.SEVERE, "Dashboard refresh failed", error);
+                        return;
+                    }
+                    cachedSnapshot = snapshot;
+                    cachedAtNanos = System.nanoTime();
+                    cachedVersion = version; // A write during the load leaves the snapshot stale
+                    for (Consumer<DashboardSnapshot> listener : snapshotListeners) {
+                        listener.accept(snapshot);
+                    }
+                });
+        return refreshInFlight;
+    }
+
+    /**
+     * Marks the cached snapshot as out of date after a write and schedules a
+     * background refresh shortly afterwards. Several writes in quick
+     * succession result in one refresh.
+     */
+    public synchronized void invalidate() {
+        dataVersion.incrementAndGet();
+        if (closed) {
+            return;
+        }
+        if (pendingInvalidationRefresh != null) {
+            pendingInvalidationRefresh.cancel(false);
+        }
+        pendingInvalidationRefresh = REFRESHER.schedule(this::refreshAsync,
+                INVALIDATION_REFRESH_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic and pending refreshes and drops the listeners. The
+     * refresh threads are shared, so a service that is no longer shown (e.g.
+     * after logout) must be closed or it keeps refreshing in the background.
+     */
+    public synchronized void close() {
+        closed = true;
+        backgroundRefresh.cancel(false);
+        if (pendingInvalidationRefresh != null) {
+            pendingInvalidationRefresh.cancel(false);
+            pendingInvalidationRefresh = null;
+        }
+        snapshotListeners.clear();
+    }
+
+    /**
+     * Loads a fresh snapshot, bypassing the cache. Blocks until all parts are
+     * loaded; call it off the EDT.
+     * @return The dashboard snapshot
+     */
+    public DashboardSnapshot loadSnapshot() {
+        long start = System.nanoTime();
+        YearMonth currentMonth = YearMonth.now();
+        Map<String, Long> partMillis = new ConcurrentHashMap<>();
+
+        CompletableFuture<DashboardSnapshot.Kpis> kpis =
+                timed("kpis", partMillis, () -> statsDAO.loadKpis(currentMonth));
+        CompletableFuture<List<Payment>> overdue =
+                timed("overdue", partMillis, paymentDAO::findOverduePayments);
+        CompletableFuture<List<Payment>> recent =
+                timed("recent", partMillis, () -> paymentDAO.findRecentPayments(RECENT_PAYMENT_LIMIT));
+        CompletableFuture<MonthlyDues> chart =
+                timed("chart", partMillis, () -> statsDAO.loadMonthlyDues(currentMonth.minusMonths(CHART_MONTHS - 1), currentMonth));
+
+        CompletableFuture.allOf(kpis, overdue, recent, chart).join();
+        long loadMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Report parts in a fixed order
+        Map<String, Long> orderedParts = new LinkedHashMap<>();
+        for (String part : new String[]{"kpis", "overdue", "recent", "chart"}) {
+            orderedParts.put(part, partMillis.getOrDefault(part, 0L));
+        }
+        LOGGER.log(Level.INFO, "Dashboard snapshot loaded in {0} ms {1}", new Object[]{loadMillis, orderedParts});
+
+        return new DashboardSnapshot(kpis.join(), overdue.join(), recent.join(), chart.join(),
+                LocalDateTime.now(), loadMillis, orderedParts);
+    }
+
+    /**
+     * Computes dues for a longer range than the dashboard chart (e.g. 12 or 24
+     * months), ending with the current month. Not cached; call it off the EDT.
+     * @param months Number of months, including the current one
+     * @return Due and paid counts per month, oldest first
+     */
+    public MonthlyDues loadMonthlyDues(int months) {
+        if (months < 1) {
+            throw new IllegalArgumentException("months must be at least 1: " + months);
+        }
+        YearMonth currentMonth = YearMonth.now();
+        long start = System.nanoTime();
+        MonthlyDues dues = statsDAO.loadMonthlyDues(currentMonth.minusMonths(months - 1), currentMonth);
+        LOGGER.log(Level.FINE, "Monthly dues for {0} months computed in {1} ms",
+                new Object[]{months, (System.nanoTime() - start) / 1_000_000});
+        return dues;
+    }
+
+    private static <T> CompletableFuture<T> timed(String part, Map<String, Long> partMillis, Supplier<T> loader) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                return loader.get();
+            } finally {
+                partMillis.put(part, (System.nanoTime() - start) / 1_000_000);
+            }
+        }, LOADERS);
+    }
+
+    private static final class DaemonThreadFactory implements java.util.concurrent.ThreadFactory {
+
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        private DaemonThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,461 @@
+package com.dormhelios.service;
+
+import com.dormhelios.model.dao.ExportDAO;
+import com.dormhelios.model.dao.ExportDAO.ColumnKind;
+import com.dormhelios.model.dao.ExportDAO.Dataset;
+import com.dormhelios.model.dao.ExportDAO.RowSink;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports a whole table to a CSV or JSON Lines file.
+ *
+ * Rows are streamed from ExportDAO and written straight to the file as they
+ * arrive, so memory use does not depend on the number of rows. Output goes
+ * through a buffered FileChannel stream, optionally gzip-compressed, into a
+ * ".part" file that is moved over the target only when the export completes;
+ * a failed or cancelled export leaves no partial file behind.
+ */
+public class DataExportJob {
+
+    private static final Logger LOGGER = Logger.getLogger(DataExportJob.class.getName());
+    private static final String LOG_SOURCE = "DataExportJob";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int PROGRESS_INTERVAL_ROWS = 5_000;
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+    /**
+     * Output file formats
+     */
+    public enum Format {
+        CSV("CSV", "csv"),
+        JSON_LINES("JSON Lines", "jsonl");
+
+        private final String label;
+        private final String extension;
+
+        Format(String label, String extension) {
+            this.label = label;
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /**
+     * Receives progress every PROGRESS_INTERVAL_ROWS rows. Called on the exporting thread.
+     */
+    public interface ProgressListener {
+
+        /**
+         * @param rowsWritten Rows written so far
+         * @param totalRows Row count taken when the export started; the final count may differ slightly
+         * @param bytesWritten Bytes written to the file so far (compressed size when gzipping)
+         */
+        void onProgress(long rowsWritten, long totalRows, long bytesWritten);
+    }
+
+    private final ExportDAO exportDAO;
+    private volatile boolean cancelled;
+
+    public DataExportJob(ExportDAO exportDAO) {
+        this.exportDAO = exportDAO;
+    }
+
+    /**
+     * Suggests a file name such as "payments_20250302_101500.csv.gz"
+     * @param dataset Dataset being exported
+     * @param format Output format
+     * @param gzip Whether the file is compressed
+     * @return File name without directory
+     */
+    public static String defaultFileName(Dataset dataset, Format format, boolean gzip) {
+        return dataset.name().toLowerCase(Locale.ROOT) + "_" + LocalDateTime.now().format(FILE_TIMESTAMP)
+                + "." + format.getExtension() + (gzip ? ".gz" : "");
+    }
+
+    /**
+     * Runs the export. Blocks until every row is written or the job is
+     * cancelled; call it from a background thread.
+     *
+     * @param dataset Table to export
+     * @param format Output format
+     * @param target File to create or replace
+     * @param gzip True to gzip-compress the output
+     * @param listener Progress callback, may be null
+     * @return Summary of the run
+     * @throws SQLException if the rows cannot be read
+     * @throws IOException if the file cannot be written
+     */
+    public Summary run(Dataset dataset, Format format, Path target, boolean gzip, ProgressListener listener)
+            throws SQLException, IOException {
+        long start = System.nanoTime();
+        SystemLogService.log(LOG_SOURCE, "Started " + dataset.getLabel() + " export to " + target);
+        long totalRows = exportDAO.count(dataset);
+        reportProgress(listener, 0, totalRows, 0);
+
+        Path partFile = target.resolveSibling(target.getFileName() + ".part");
+        long rows;
+        boolean moved = false;
+        try {
+            try (FileChannel channel = FileChannel.open(partFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+                if (gzip) {
+                    out = new GZIPOutputStream(out, BUFFER_SIZE);
+                }
+                try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+                    RowSink formatSink = format == Format.CSV ? new CsvSink(writer) : new JsonLinesSink(writer);
+                    rows = exportDAO.stream(dataset,
+                            new ProgressSink(formatSink, totalRows, listener, () -> positionOf(channel)));
+                }
+            }
+            if (!cancelled) {
+                moveIntoPlace(partFile, target);
+                moved = true;
+            }
+        } finally {
+            if (!moved) {
+                Files.deleteIfExists(partFile);
+            }
+        }
+
+        long bytes = moved ? Files.size(target) : 0;
+        reportProgress(listener, rows, totalRows, bytes);
+        Summary summary = new Summary(dataset, format, target, rows, bytes, cancelled, (System.nanoTime() - start) / 1_000_000);
+        SystemLogService.log(LOG_SOURCE, summary.toString());
+        LOGGER.info(summary.toString());
+        return summary;
+    }
+
+    /**
+     * Stops the export at the next row and discards the partial file
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // --- Internals ---
+
+    private static void reportProgress(ProgressListener listener, long rows, long totalRows, long bytes) {
+        if (listener != null) {
+            listener.onProgress(rows, totalRows, bytes);
+        }
+    }
+
+    private static long positionOf(FileChannel channel) {
+        try {
+            return channel.position();
+        } catch (IOException e) {
+            return 0; // Progress only
+        }
+    }
+
+    /**
+     * Moves a finished ".part" file over its target; shared with BackupEngine
+     */
+    static void moveIntoPlace(Path partFile, Path target) throws IOException {
+        try {
+            Files.move(partFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            LOGGER.log(Level.FINE, "Atomic move not supported for " + target + ", using a plain move", e);
+            Files.move(partFile, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Counts rows, reports progress and stops the stream once the job is cancelled
+     */
+    private final class ProgressSink implements RowSink {
+
+        private final RowSink delegate;
+        private final long totalRows;
+        private final ProgressListener listener;
+        private final LongSupplier bytesWritten;
+        private long rows;
+
+        ProgressSink(RowSink delegate, long totalRows, ProgressListener listener, LongSupplier bytesWritten) {
+            this.delegate = delegate;
+            this.totalRows = totalRows;
+            this.listener = listener;
+            this.bytesWritten = bytesWritten;
+        }
+
+        @Override
+        public void start(List<String> columns, List<ColumnKind> kinds) throws IOException {
+            delegate.start(columns, kinds);
+        }
+
+        @Override
+        public boolean row(String[] values) throws IOException {
+            if (cancelled || Thread.currentThread().isInterrupted()) {
+                cancel();
+                return false;
+            }
+            delegate.row(values);
+            if (++rows % PROGRESS_INTERVAL_ROWS == 0) {
+                reportProgress(listener, rows, totalRows, bytesWritten.getAsLong());
+            }
+            return true;
+        }
+    }
+
+    /**
+     * RFC 4180 CSV: header line, CRLF line endings, fields quoted only when needed
+     */
+    private static final class CsvSink implements RowSink {
+
+        private final Writer writer;
+
+        CsvSink(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void start(List<String> columns, List<ColumnKind> kinds) throws IOException {
+            writeLine(columns.toArray(new String[0]));
+        }
+
+        @Override
+        public boolean row(String[] values) throws IOException {
+            writeLine(values);
+            return true;
+        }
+
+        private void writeLine(String[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writeField(values[i]);
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            if (!needsQuotes(value)) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    writer.write('"'); // Quotes are escaped by doubling
+                }
+                writer.write(c);
+            }
+            writer.write('"');
+        }
+
+        private static boolean needsQuotes(String value) {
+            if (value.isEmpty()) {
+                return false;
+            }
+            if (Character.isWhitespace(value.charAt(0)) || Character.isWhitespace(value.charAt(value.length() - 1))) {
+                return true; // Keep spaces that readers would otherwise trim
+            }
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * One JSON object per line, keyed by column label. NUMBER and BOOLEAN
+     * columns are written unquoted; NULL becomes null.
+     */
+    private static final class JsonLinesSink implements RowSink {
+
+        private final Writer writer;
+        private String[] keys;       // Pre-escaped "label": prefixes
+        private ColumnKind[] kinds;
+
+        JsonLinesSink(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void start(List<String> columns, List<ColumnKind> kinds) throws IOException {
+            this.keys = new String[columns.size()];
+            for (int i = 0; i < keys.length; i++) {
+                StringBuilder key = new StringBuilder();
+                appendString(key, columns.get(i));
+                keys[i] = key.append(':').toString();
+            }
+            this.kinds = kinds.toArray(new ColumnKind[0]);
+        }
+
+        @Override
+        public boolean row(String[] values) throws IOException {
+            writer.write('{');
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(keys[i]);
+                String value = values[i];
+                if (value == null) {
+                    writer.write("null");
+                } else if (kinds[i] == ColumnKind.TEXT) {
+                    writeString(value);
+                } else {
+                    writer.write(value); // Database numbers and true/false are valid JSON as they are
+                }
+            }
+            writer.write("}\n");
+            return true;
+        }
+
+        private void writeString(String value) throws IOException {
+            writer.write('"');
+            int plainFrom = 0;
+            for (int i = 0; i < value.length(); i++) {
+                String escape = escapeFor(value.charAt(i));
+                if (escape != null) {
+                    writer.write(value, plainFrom, i - plainFrom);
+                    writer.write(escape);
+                    plainFrom = i + 1;
+                }
+            }
+            writer.write(value, plainFrom, value.length() - plainFrom);
+            writer.write('"');
+        }
+
+        private static void appendString(StringBuilder sb, String value) {
+            sb.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                String escape = escapeFor(c);
+                if (escape != null) {
+                    sb.append(escape);
+                } else {
+                    sb.append(c);
+                }
+            }
+            sb.append('"');
+        }
+
+        /**
+         * @return The JSON escape for a character, or null if it can be written as is
+         */
+        private static String escapeFor(char c) {
+            switch (c) {
+                case '"':
+                    return "\\\"";
+                case '\\':
+                    return "\\\\";
+                case '\n':
+                    return "\\n";
+                case '\r':
+                    return "\\r";
+                case '\t':
+                    return "\\t";
+                default:
+                    return c < 0x20 ? String.format("\\u%04x", (int) c) : null;
+            }
+        }
+    }
+
+    /**
+     * Outcome of an export run
+     */
+    public static final class Summary {
+
+        private final Dataset dataset;
+        private final Format format;
+        private final Path target;
+        private final long rowsWritten;
+        private final long bytesWritten;
+        private final boolean cancelled;
+        private final long elapsedMillis;
+
+        public Summary(Dataset dataset, Format format, Path target, long rowsWritten, long bytesWritten,
+                boolean cancelled, long elapsedMillis) {
+            this.dataset = dataset;
+            this.format = format;
+            this.target = target;
+            this.rowsWritten = rowsWritten;
+            this.bytesWritten = bytesWritten;
+            this.cancelled = cancelled;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public Dataset getDataset() {
+            return dataset;
+        }
+
+        public Format getFormat() {
+            return format;
+        }
+
+        public Path getTarget() {
+            return target;
+        }
+
+        public long getRowsWritten() {
+            return rowsWritten;
+        }
+
+        public long getBytesWritten() {
+            return bytesWritten;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            if (cancelled) {
+                return dataset.getLabel() + " export cancelled after " + rowsWritten + " rows, " + elapsedMillis
+                        + " ms; no file was written";
+            }
+            return dataset.getLabel() + " export finished: " + rowsWritten + " rows, " + bytesWritten / 1024
+                    + " KB " + format + " to " + target.getFileName() + ", " + elapsedMillis + " ms";
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.dormhelios.service;
+
+import com.dormhelios.model.dao.PaymentDAO;
+import com.dormhelios.model.entity.Payment;
+import com.dormhelios.model.entity.Room;
+import com.dormhelios.model.entity.Tenant;
+import com.dormhelios.util.SMSDispatcher;
+import com.dormhelios.util.SMSService.SMSResult;
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Sends a payment reminder to every overdue tenant in one run.
+ * Overdue tenants and their phone numbers come from a single query
+ * (PaymentDAO.findOverduePayments); messages are rendered per tenant and sent
+ * concurrently through SMSDispatcher. Each outcome is recorded in the system
+ * log so the run can be audited afterwards.
+ *
+ * Template placeholders: {firstName}, {lastName}, {room}, {amount},
+ * {lastPaymentDate} and {month}.
+ */
+public class OverdueReminderJob {
+
+    private static final Logger LOGGER = Logger.getLogger(OverdueReminderJob.class.getName());
+    private static final String LOG_SOURCE = "OverdueReminderJob";
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.ENGLISH);
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM d, yyyy", Locale.ENGLISH);
+
+    /**
+     * Receives progress while the job runs. Called from dispatcher threads.
+     */
+    public interface ProgressListener {
+
+        void onRecipientFinished(RecipientResult result, int finished, int total);
+    }
+
+    private final PaymentDAO paymentDAO;
+    private final SMSDispatcher dispatcher;
+    private final List<CompletableFuture<SMSResult>> inFlight = Collections.synchronizedList(new ArrayList<>());
+    private volatile boolean cancelled;
+
+    public OverdueReminderJob(PaymentDAO paymentDAO, SMSDispatcher dispatcher) {
+        this.paymentDAO = paymentDAO;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Loads overdue tenants and sends each one the rendered template. Blocks
+     * until every send has finished or the job is cancelled; call it from a
+     * background thread.
+     *
+     * @param template Message template with placeholders
+     * @param listener Progress callback, may be null
+     * @return Summary with one result per overdue tenant
+     */
+    public Summary run(String template, ProgressListener listener) {
+        long start = System.nanoTime();
+        List<Payment> overdue = paymentDAO.findOverduePayments();
+        int total = overdue.size();
+        AtomicInteger finished = new AtomicInteger();
+        List<RecipientResult> results = Collections.synchronizedList(new ArrayList<>(total));
+        List<CompletableFuture<Void>> completions = new ArrayList<>(total);
+        SystemLogService.log(LOG_SOURCE, "Started reminder run for " + total + " overdue tenants");
+
+        for (Payment payment : overdue) {
+            if (cancelled) {
+                break;
+            }
+            Tenant tenant = payment.getTenant();
+            String phone = tenant != null ? tenant.getPhoneNumber() : null;
+            if (phone == null || phone.trim().isEmpty()) {
+                RecipientResult result = new RecipientResult(tenant, phone, false, "No phone number on file", null);
+                record(result, results, finished, total, listener);
+                continue;
+            }
+
+            String message = render(template, tenant, payment.getRoom(), payment.getPaymentDate());
+            CompletableFuture<SMSResult> send = dispatcher.send(phone, message);
+            inFlight.add(send);
+            completions.add(send.handle((smsResult, error) -> {
+                RecipientResult result = error != null
+                        ? new RecipientResult(tenant, phone, false, "Cancelled", null)
+                        : new RecipientResult(tenant, phone, smsResult.isSuccess(), smsResult.getMessage(), smsResult.getMessageId());
+                record(result, results, finished, total, listener);
+                return null;
+            }));
+        }
+
+        try {
+            CompletableFuture.allOf(completions.toArray(new CompletableFuture<?>[0])).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel();
+        } catch (ExecutionException | CancellationException e) {
+            LOGGER.log(Level.WARNING, "Reminder run ended abnormally", e);
+        }
+
+        Summary summary;
+        synchronized (results) {
+            summary = new Summary(new ArrayList<>(results), total, cancelled, (System.nanoTime() - start) / 1_000_000);
+        }
+        SystemLogService.log(LOG_SOURCE, summary.toString());
+        LOGGER.info(summary.toString());
+        return summary;
+    }
+
+    /**
+     * Stops the run. Sends that have not started are skipped; the ones
+     * already talking to the gateway finish normally.
+     */
+    public void cancel() {
+        cancelled = true;
+        synchronized (inFlight) {
+            for (CompletableFuture<SMSResult> send : inFlight) {
+                send.cancel(false);
+            }
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Replaces the template placeholders with the tenant's details
+     *
+     * @param template Message template
+     * @param tenant The tenant
+     * @param room The tenant's room, may be null
+     * @param lastPaymentDate Date of the tenant's last payment, may be null
+     * @return The rendered message
+     */
+    public static String render(String template, Tenant tenant, Room room, LocalDate lastPaymentDate) {
+        BigDecimal rate = room != null ? room.getMonthlyRate() : null;
+        return template
+                .replace("{firstName}", nullToEmpty(tenant != null ? tenant.getFirstName() : null))
+                .replace("{lastName}", nullToEmpty(tenant != null ? tenant.getLastName() : null))
+                .replace("{room}", room != null && room.getRoomNumber() != null ? room.getRoomNumber() : "N/A")
+                .replace("{amount}", rate != null ? NumberFormat.getCurrencyInstance(Locale.of("en", "PH")).format(rate) : "your monthly rent")
+                .replace("{lastPaymentDate}", lastPaymentDate != null ? lastPaymentDate.format(DATE_FORMATTER) : "no payment on record")
+                .replace("{month}", LocalDate.now().format(MONTH_FORMATTER));
+    }
+
+    private void record(RecipientResult result, List<RecipientResult> results, AtomicInteger finished,
+            int total, ProgressListener listener) {
+        results.add(result);
+        SystemLogService.log(LOG_SOURCE, result.toString());
+        int done = finished.incrementAndGet();
+        if (listener != null) {
+            listener.onRecipientFinished(result, done, total);
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    /**
+     * Outcome for one tenant
+     */
+    public static class RecipientResult {
+
+        private final Tenant tenant;
+        private final String phoneNumber;
+        private final boolean success;
+        private final String detail;
+        private final String messageId;
+
+        public RecipientResult(Tenant tenant, String phoneNumber, boolean success, String detail, String messageId) {
+            this.tenant = tenant;
+            this.phoneNumber = phoneNumber;
+            this.success = success;
+            this.detail = detail;
+            this.messageId = messageId;
+        }
+
+        public Tenant getTenant() {
+            return tenant;
+        }
+
+        public String getPhoneNumber() {
+            return phoneNumber;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public String getDetail() {
+            return detail;
+        }
+
+        public String getMessageId() {
+            return messageId;
+        }
+
+        public String getTenantName() {
+            return tenant != null ? tenant.getLastName() + ", " + tenant.getFirstName() : "Unknown Tenant";
+        }
+
+        @Override
+        public String toString() {
+            return (success ? "SENT " : "FAILED ") + getTenantName()
+                    + " (tenant " + (tenant != null ? tenant.getTenantId() : "?") + ", " + phoneNumber + "): " + detail
+                    + (messageId != null ? " [message " + messageId + "]" : "");
+        }
+    }
+
+    /**
+     * Totals for one run
+     */
+    public static class Summary {
+
+        private final List<RecipientResult> results;
+        private final int total;
+        private final boolean cancelled;
+        private final long elapsedMillis;
+
+        public Summary(List<RecipientResult> results, int total, boolean cancelled, long elapsedMillis) {
+            this.results = results;
+            this.total = total;
+            this.cancelled = cancelled;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public List<RecipientResult> getResults() {
+            return results;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getSentCount() {
+            int sent = 0;
+            for (RecipientResult result : results) {
+                if (result.isSuccess()) {
+                    sent++;
+                }
+            }
+            return sent;
+        }
+
+        public int getFailedCount() {
+            return results.size() - getSentCount();
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Reminder run %s: %d sent, %d failed, %d skipped of %d overdue tenants in %d ms",
+                    cancelled ? "cancelled" : "finished", getSentCount(), getFailedCount(),
+                    total - results.size(), total, elapsedMillis);
+        }
+    }
+}
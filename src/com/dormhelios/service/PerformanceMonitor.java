@@ -0,0 +1,263 @@
+package com.dormhelios.service;
+
+import com.dormhelios.util.ConnectionPool;
+import com.dormhelios.util.DatabaseConnection;
+import com.dormhelios.util.EdtWatchdog;
+import com.dormhelios.util.LruCache;
+import com.dormhelios.util.QueryMetrics;
+import com.dormhelios.util.SMSDispatcher;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Samples the application's runtime health for the admin Performance tab:
+ * connection pool, JDBC statement timings, cache hit rates, background
+ * queue depths, background task lanes, Swing event thread responsiveness and heap/GC usage.
+ *
+ * Sampling runs on a background timer only while at least one listener is
+ * registered, and reads in-memory counters only: it never queries the
+ * database, so looking at the panel does not add load to what it measures.
+ */
+public class PerformanceMonitor {
+
+    private static final Logger LOGGER = Logger.getLogger(PerformanceMonitor.class.getName());
+
+    public static final long SAMPLE_INTERVAL_MS = 2_000;
+
+    private static final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dormhelios-perf-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final List<Consumer<Snapshot>> listeners = new CopyOnWriteArrayList<>();
+    private static ScheduledFuture<?> samplingTask; // Guarded by PerformanceMonitor.class
+
+    private PerformanceMonitor() {
+    }
+
+    /**
+     * Registers a listener for periodic snapshots and starts sampling if it
+     * was idle. Listeners are called on the sampler thread; Swing code must
+     * hop to the EDT itself.
+     */
+    public static synchronized void addListener(Consumer<Snapshot> listener) {
+        listeners.add(listener);
+        if (samplingTask == null) {
+            samplingTask = sampler.scheduleWithFixedDelay(PerformanceMonitor::publishSample,
+                    0, SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Removes a listener; sampling stops when the last one is removed
+     */
+    public static synchronized void removeListener(Consumer<Snapshot> listener) {
+        listeners.remove(listener);
+        if (listeners.isEmpty() && samplingTask != null) {
+            samplingTask.cancel(false);
+            samplingTask = null;
+        }
+    }
+
+    /**
+     * Collects one snapshot from the in-memory counters. Cheap; safe on any thread.
+     * @return The current runtime health
+     */
+    public static Snapshot sample() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        MemoryUsage heap = memory.getHeapMemoryUsage();
+        long gcCount = 0;
+        long gcMillis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(0, gc.getCollectionCount());
+            gcMillis += Math.max(0, gc.getCollectionTime());
+        }
+        com.dormhelios.util.Logger appLogger = com.dormhelios.util.Logger.getInstance();
+
+        return new Snapshot(LocalDateTime.now(),
+                DatabaseConnection.getPoolStats(),
+                QueryMetrics.snapshot(),
+                LruCache.allStats(),
+                appLogger.getPendingEntryCount(),
+                appLogger.getDroppedEntryCount(),
+                SystemLogService.getMetrics(),
+                SMSDispatcher.getPendingSendCount(),
+                EdtWatchdog.getStats(),
+                TaskExecutor.getStats(),
+                heap.getUsed(), heap.getCommitted(), heap.getMax(),
+                memory.getNonHeapMemoryUsage().getUsed(),
+                gcCount, gcMillis,
+                ManagementFactory.getThreadMXBean().getThreadCount(),
+                ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    // --- Internals ---
+
+    private static void publishSample() {
+        try {
+            Snapshot snapshot = sample();
+            for (Consumer<Snapshot> listener : listeners) {
+                listener.accept(snapshot);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Performance sample failed", e);
+        }
+    }
+
+    /**
+     * Point-in-time runtime health
+     */
+    public static final class Snapshot {
+
+        private final LocalDateTime sampledAt;
+        private final Optional<ConnectionPool.PoolStats> poolStats;
+        private final QueryMetrics.Snapshot queryMetrics;
+        private final List<LruCache.Stats> caches;
+        private final int loggerQueueDepth;
+        private final long loggerDropped;
+        private final SystemLogService.Metrics auditLog;
+        private final int smsPending;
+        private final EdtWatchdog.Stats edtStalls;
+        private final TaskExecutor.Stats tasks;
+        private final long heapUsed;
+        private final long heapCommitted;
+        private final long heapMax;
+        private final long nonHeapUsed;
+        private final long gcCount;
+        private final long gcMillis;
+        private final int threadCount;
+        private final long uptimeMillis;
+
+        private Snapshot(LocalDateTime sampledAt, Optional<ConnectionPool.PoolStats> poolStats,
+                QueryMetrics.Snapshot queryMetrics, List<LruCache.Stats> caches,
+                int loggerQueueDepth, long loggerDropped, SystemLogService.Metrics auditLog, int smsPending,
+                EdtWatchdog.Stats edtStalls, TaskExecutor.Stats tasks,
+                long heapUsed, long heapCommitted, long heapMax, long nonHeapUsed,
+                long gcCount, long gcMillis, int threadCount, long uptimeMillis) {
+            this.sampledAt = sampledAt;
+            this.poolStats = poolStats;
+            this.queryMetrics = queryMetrics;
+            this.caches = List.copyOf(caches);
+            this.loggerQueueDepth = loggerQueueDepth;
+            this.loggerDropped = loggerDropped;
+            this.auditLog = auditLog;
+            this.smsPending = smsPending;
+            this.edtStalls = edtStalls;
+            this.tasks = tasks;
+            this.heapUsed = heapUsed;
+            this.heapCommitted = heapCommitted;
+            this.heapMax = heapMax;
+            this.nonHeapUsed = nonHeapUsed;
+            this.gcCount = gcCount;
+            this.gcMillis = gcMillis;
+            this.threadCount = threadCount;
+            this.uptimeMillis = uptimeMillis;
+        }
+
+        public LocalDateTime getSampledAt() {
+            return sampledAt;
+        }
+
+        /**
+         * @return Pool counters, or empty when the pool is disabled
+         */
+        public Optional<ConnectionPool.PoolStats> getPoolStats() {
+            return poolStats;
+        }
+
+        public QueryMetrics.Snapshot getQueryMetrics() {
+            return queryMetrics;
+        }
+
+        /**
+         * @return Stats of every live cache, ordered by name
+         */
+        public List<LruCache.Stats> getCaches() {
+            return caches;
+        }
+
+        public int getLoggerQueueDepth() {
+            return loggerQueueDepth;
+        }
+
+        public long getLoggerDropped() {
+            return loggerDropped;
+        }
+
+        public SystemLogService.Metrics getAuditLog() {
+            return auditLog;
+        }
+
+        public int getSmsPending() {
+            return smsPending;
+        }
+
+        /**
+         * @return Event thread stall counters from the EDT watchdog
+         */
+        public EdtWatchdog.Stats getEdtStalls() {
+            return edtStalls;
+        }
+
+        /**
+         * @return Lane depths and per-task timings from the TaskExecutor
+         */
+        public TaskExecutor.Stats getTasks() {
+            return tasks;
+        }
+
+        public long getHeapUsed() {
+            return heapUsed;
+        }
+
+        public long getHeapCommitted() {
+            return heapCommitted;
+        }
+
+        /**
+         * @return Maximum heap size in bytes, or -1 if undefined
+         */
+        public long getHeapMax() {
+            return heapMax;
+        }
+
+        public long getNonHeapUsed() {
+            return nonHeapUsed;
+        }
+
+        /**
+         * @return Collections by all garbage collectors since JVM start
+         */
+        public long getGcCount() {
+            return gcCount;
+        }
+
+        /**
+         * @return Accumulated collection time of all garbage collectors since JVM start
+         */
+        public long getGcMillis() {
+            return gcMillis;
+        }
+
+        public int getThreadCount() {
+            return threadCount;
+        }
+
+        public long getUptimeMillis() {
+            return uptimeMillis;
+        }
+    }
+}
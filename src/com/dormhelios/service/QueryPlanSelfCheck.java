@@ -0,0 +1,151 @@
+package com.dormhelios.service;
+
+import com.dormhelios.model.dao.QueryPlanDAO;
+import com.dormhelios.model.dao.QueryPlanDAO.AuditedQuery;
+import com.dormhelios.model.dao.QueryPlanDAO.PlanStep;
+import com.dormhelios.model.dao.QueryPlanDAOImpl;
+import com.dormhelios.service.TaskExecutor.Lane;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Explains the DAO statements on hot paths and flags the ones that still
+ * read a whole table or index, e.g. because a migration that adds their
+ * index has not run.
+ *
+ * On a small table the optimizer rightly prefers a scan to an index, so
+ * scans of fewer than MIN_FLAGGED_ROWS estimated rows are only logged at
+ * FINE level.
+ */
+public class QueryPlanSelfCheck {
+
+    private static final Logger LOGGER = Logger.getLogger(QueryPlanSelfCheck.class.getName());
+
+    /**
+     * Estimated rows from which a full scan is reported as a warning
+     */
+    public static final long MIN_FLAGGED_ROWS = 1_000;
+
+    private final QueryPlanDAO queryPlanDAO;
+
+    public QueryPlanSelfCheck(QueryPlanDAO queryPlanDAO) {
+        this.queryPlanDAO = queryPlanDAO;
+    }
+
+    /**
+     * Runs the check on the background lane unless diagnostics are disabled
+     * by system property. Findings go to the log.
+     */
+    public static void startFromSystemProperties() {
+        if (!Boolean.parseBoolean(System.getProperty("dormhelios.diagnostics", "true"))) {
+            return;
+        }
+        QueryPlanSelfCheck check = new QueryPlanSelfCheck(new QueryPlanDAOImpl());
+        TaskExecutor.submit(Lane.BACKGROUND, "diagnostics.queryPlans", check::run,
+                summary -> LOGGER.info(summary.toString()));
+    }
+
+    /**
+     * Explains every audited statement. A statement that cannot be explained
+     * is logged and counted, and the check goes on with the next.
+     *
+     * @return Summary of the check
+     */
+    public Summary run() {
+        List<AuditedQuery> queries = queryPlanDAO.findAuditedQueries();
+        List<Finding> findings = new ArrayList<>();
+        int failed = 0;
+        for (AuditedQuery query : queries) {
+            List<PlanStep> steps;
+            try {
+                steps = queryPlanDAO.explain(query);
+            } catch (SQLException e) {
+                failed++;
+                continue; // Logged by the DAO
+            }
+            for (PlanStep step : steps) {
+                if (!step.isFullScan() || step.getTable() == null) {
+                    continue;
+                }
+                Finding finding = new Finding(query.getName(), step);
+                if (step.getEstimatedRows() >= MIN_FLAGGED_ROWS) {
+                    findings.add(finding);
+                    LOGGER.warning(finding.toString());
+                } else {
+                    LOGGER.fine(finding + " (small table, a scan is expected)");
+                }
+            }
+        }
+        return new Summary(queries.size(), failed, findings);
+    }
+
+    /**
+     * A statement step that reads a whole table or index
+     */
+    public static final class Finding {
+
+        private final String queryName;
+        private final PlanStep step;
+
+        public Finding(String queryName, PlanStep step) {
+            this.queryName = queryName;
+            this.step = step;
+        }
+
+        public String getQueryName() {
+            return queryName;
+        }
+
+        public PlanStep getStep() {
+            return step;
+        }
+
+        @Override
+        public String toString() {
+            return "Full " + ("ALL".equals(step.getAccessType()) ? "table" : "index") + " scan in " + queryName
+                    + ": " + step.getTable() + ", ~" + step.getEstimatedRows() + " rows"
+                    + (step.getKey() != null ? " via " + step.getKey() : "")
+                    + (step.getExtra() != null ? " (" + step.getExtra() + ")" : "");
+        }
+    }
+
+    /**
+     * Outcome of a self-check
+     */
+    public static final class Summary {
+
+        private final int queriesChecked;
+        private final int queriesFailed;
+        private final List<Finding> findings;
+
+        public Summary(int queriesChecked, int queriesFailed, List<Finding> findings) {
+            this.queriesChecked = queriesChecked;
+            this.queriesFailed = queriesFailed;
+            this.findings = Collections.unmodifiableList(findings);
+        }
+
+        public int getQueriesChecked() {
+            return queriesChecked;
+        }
+
+        public int getQueriesFailed() {
+            return queriesFailed;
+        }
+
+        /**
+         * @return Full scans of at least MIN_FLAGGED_ROWS estimated rows
+         */
+        public List<Finding> getFindings() {
+            return findings;
+        }
+
+        @Override
+        public String toString() {
+            return "Query plan self-check: " + queriesChecked + " statements, " + findings.size() + " full scan(s)"
+                    + (queriesFailed > 0 ? ", " + queriesFailed + " could not be explained" : "");
+        }
+    }
+}
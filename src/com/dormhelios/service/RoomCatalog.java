@@ -0,0 +1,235 @@
+package com.dormhelios.service;
+
+import com.dormhelios.model.dao.RoomDAO;
+import com.dormhelios.model.dao.RoomDAOImpl;
+import com.dormhelios.model.entity.Room;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Application-wide, versioned snapshot of the active rooms, shared by every
+ * dialog and list that needs the room list.
+ *
+ * Rooms change rarely, so the snapshot is kept until the code that wrote a
+ * room calls invalidate() after its commit, or a periodic background check
+ * of the rooms table's row count and latest updated_at shows a change made
+ * elsewhere. Between those, reads cost no queries at all.
+ *
+ * If a load fails, the previous snapshot stays in use (or an empty one if
+ * there is none yet) and the load is retried by the next background check,
+ * so a database hiccup is never cached as "no rooms".
+ */
+public class RoomCatalog {
+
+    private static final Logger LOGGER = Logger.getLogger(RoomCatalog.class.getName());
+    private static final RoomDAO dao = new RoomDAOImpl();
+
+    private static final long CHANGE_CHECK_INTERVAL_MS = 30_000;
+    private static final long FAILED_LOAD_RETRY_MS = 5_000;
+    private static final Snapshot EMPTY = new Snapshot(0, -1, null, List.of());
+
+    private static final AtomicLong writeVersion = new AtomicLong(); // Bumped by every room write
+    private static final AtomicBoolean checkRunning = new AtomicBoolean();
+    private static final ExecutorService checker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dormhelios-room-catalog");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static volatile Snapshot snapshot;
+    private static volatile long lastCheckNanos;
+    private static volatile boolean loadFailed; // Last load failed; retried by the background check
+
+    private RoomCatalog() {
+    }
+
+    /**
+     * Returns the current snapshot. Loads it (one query) if there is none yet
+     * or a room was written since it was built; otherwise returns at once and,
+     * at most every CHANGE_CHECK_INTERVAL_MS, checks for outside changes in
+     * the background. After a failed load, the last good snapshot is returned
+     * and the load is retried in the background every FAILED_LOAD_RETRY_MS.
+     * @return The current room snapshot
+     */
+    public static Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (!loadFailed && (current == null || current.writeVersion != writeVersion.get())) {
+            return reload();
+        }
+        long interval = loadFailed ? FAILED_LOAD_RETRY_MS : CHANGE_CHECK_INTERVAL_MS;
+        if (System.nanoTime() - lastCheckNanos > interval * 1_000_000L) {
+            checkForChangesAsync();
+        }
+        return current != null ? current : EMPTY;
+    }
+
+    /**
+     * @return Copies of all active rooms, ordered by room number
+     */
+    public static List<Room> getRooms() {
+        return getSnapshot().getRooms();
+    }
+
+    /**
+     * Marks the snapshot stale after a room write. The next read reloads it.
+     */
+    public static void invalidate() {
+        writeVersion.incrementAndGet();
+        loadFailed = false; // A write just went through, so try the database again
+    }
+
+    /**
+     * Loads the snapshot in the background so the first dialog that needs
+     * rooms does not wait for it.
+     */
+    public static void warmUp() {
+        checker.execute(RoomCatalog::getSnapshot);
+    }
+
+    /**
+     * Rebuilds the snapshot from the database
+     * @return The new snapshot, or the previous one (empty if none) if the rooms could not be read
+     */
+    public static synchronized Snapshot reload() {
+        Snapshot current = snapshot;
+        long version = writeVersion.get();
+        if (current != null && current.writeVersion == version) {
+            return current; // Another thread reloaded while we waited for the lock
+        }
+        long start = System.nanoTime();
+        // Read the stamp before the rows: a change in between only causes one extra reload
+        String changeStamp = dao.findChangeStamp();
+        List<Room> rooms;
+        try {
+            rooms = dao.findAllOrThrow();
+        } catch (SQLException e) {
+            loadFailed = true;
+            lastCheckNanos = System.nanoTime();
+            LOGGER.log(Level.WARNING, "Room catalog could not be loaded; keeping the previous snapshot and retrying later");
+            return current != null ? current : EMPTY;
+        }
+        loadFailed = false;
+        long catalogVersion = current != null ? current.version + 1 : 1;
+        Snapshot loaded = new Snapshot(catalogVersion, version, changeStamp, rooms);
+        snapshot = loaded;
+        lastCheckNanos = System.nanoTime();
+        LOGGER.log(Level.INFO, "Room catalog v{0} loaded: {1} rooms in {2} ms",
+                new Object[]{catalogVersion, rooms.size(), (System.nanoTime() - start) / 1_000_000});
+        return loaded;
+    }
+
+    private static void checkForChangesAsync() {
+        if (!checkRunning.compareAndSet(false, true)) {
+            return;
+        }
+        lastCheckNanos = System.nanoTime();
+        checker.execute(() -> {
+            try {
+                if (loadFailed) {
+                    reload();
+                    return;
+                }
+                Snapshot current = snapshot;
+                String stamp = dao.findChangeStamp();
+                if (current != null && stamp != null && !stamp.equals(current.changeStamp)) {
+                    LOGGER.log(Level.INFO, "Rooms changed outside this client ({0} -> {1}), reloading catalog",
+                            new Object[]{current.changeStamp, stamp});
+                    invalidate();
+                    reload();
+                }
+            } finally {
+                checkRunning.set(false);
+            }
+        });
+    }
+
+    /**
+     * Immutable set of active rooms, indexed by id, room number and status.
+     * Rooms handed out are copies, so callers may modify them freely.
+     */
+    public static final class Snapshot {
+
+        private final long version;
+        private final long writeVersion;
+        private final String changeStamp;
+        private final List<Room> rooms;
+        private final Map<Integer, Room> byId;
+        private final Map<String, Room> byRoomNumber;
+        private final Map<Room.RoomStatus, List<Room>> byStatus;
+
+        private Snapshot(long version, long writeVersion, String changeStamp, List<Room> rooms) {
+            this.version = version;
+            this.writeVersion = writeVersion;
+            this.changeStamp = changeStamp;
+            this.rooms = Collections.unmodifiableList(new ArrayList<>(rooms));
+            Map<Integer, Room> ids = new LinkedHashMap<>();
+            Map<String, Room> numbers = new LinkedHashMap<>();
+            Map<Room.RoomStatus, List<Room>> statuses = new EnumMap<>(Room.RoomStatus.class);
+            for (Room room : rooms) {
+                ids.put(room.getRoomId(), room);
+                if (room.getRoomNumber() != null) {
+                    numbers.put(room.getRoomNumber(), room);
+                }
+                if (room.getStatus() != null) {
+                    statuses.computeIfAbsent(room.getStatus(), status -> new ArrayList<>()).add(room);
+                }
+            }
+            this.byId = ids;
+            this.byRoomNumber = numbers;
+            this.byStatus = statuses;
+        }
+
+        /**
+         * @return Catalog version; increases by one with every reload
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        public int size() {
+            return rooms.size();
+        }
+
+        /**
+         * @return Copies of all active rooms, ordered by room number
+         */
+        public List<Room> getRooms() {
+            return copyAll(rooms);
+        }
+
+        public Optional<Room> findById(int roomId) {
+            return Optional.ofNullable(byId.get(roomId)).map(Room::copy);
+        }
+
+        public Optional<Room> findByRoomNumber(String roomNumber) {
+            return Optional.ofNullable(byRoomNumber.get(roomNumber)).map(Room::copy);
+        }
+
+        /**
+         * @return Copies of the active rooms with the status, ordered by room number
+         */
+        public List<Room> findByStatus(Room.RoomStatus status) {
+            return copyAll(byStatus.getOrDefault(Objects.requireNonNull(status), List.of()));
+        }
+
+        private static List<Room> copyAll(List<Room> source) {
+            List<Room> copies = new ArrayList<>(source.size());
+            for (Room room : source) {
+                copies.add(room.copy());
+            }
+            return copies;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.dormhelios.service;
+
+import com.dormhelios.model.dao.SchemaVersionDAO;
+import com.dormhelios.model.dao.SchemaVersionDAO.AppliedMigration;
+import com.dormhelios.model.dao.SchemaVersionDAO.MigrationSession;
+import com.dormhelios.model.dao.SchemaVersionDAOImpl;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Brings the database schema up to date at startup.
+ *
+ * Migrations are SQL scripts under /resources/db/migration named
+ * V&lt;number&gt;__&lt;description&gt;.sql and listed in MIGRATIONS. Each is
+ * applied once, in number order, and recorded in schema_version with a
+ * checksum of its script. A script that was changed after it was applied
+ * stops the run, since the database no longer matches what the script says;
+ * add a new migration instead of editing an old one.
+ *
+ * Scripts hold plain statements separated by semicolons at the end of a
+ * line; lines starting with "--" are comments. A statement that adds an
+ * index or column that already exists is skipped, so databases created from
+ * the current dormhelios_db.sql take the same migrations as older ones.
+ */
+public class SchemaMigrator {
+
+    private static final Logger LOGGER = Logger.getLogger(SchemaMigrator.class.getName());
+    private static final String LOG_SOURCE = "SchemaMigrator";
+
+    static final String MIGRATION_PATH = "/resources/db/migration/";
+
+    /**
+     * Every migration, in order. A new migration is added as a script and listed here.
+     */
+    static final List<String> MIGRATIONS = List.of(
+            "V001__payments_date_indexes",
+            "V002__tenants_active_indexes",
+            "V003__rooms_status_index",
+            "V004__payments_updated_at");
+
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+    private static final Pattern NAME_PATTERN = Pattern.compile("V(\\d+)__(\\w+)");
+
+    private final SchemaVersionDAO schemaVersionDAO;
+
+    public SchemaMigrator(SchemaVersionDAO schemaVersionDAO) {
+        this.schemaVersionDAO = schemaVersionDAO;
+    }
+
+    /**
+     * Migrates the database unless disabled with -Ddormhelios.migrations=false.
+     * Failures are logged rather than thrown, so the application still starts
+     * and reports the database problem where it first needs the database.
+     */
+    public static void migrateFromSystemProperties() {
+        if (!Boolean.parseBoolean(System.getProperty("dormhelios.migrations", "true"))) {
+            LOGGER.info("Schema migrations disabled by system property");
+            return;
+        }
+        try {
+            Summary summary = new SchemaMigrator(new SchemaVersionDAOImpl()).migrate();
+            LOGGER.info(summary.toString());
+        } catch (SQLException | IOException e) {
+            LOGGER.log(Level.SEVERE, "Schema migration failed; the application may run slowly or fail on missing columns", e);
+        }
+    }
+
+    /**
+     * Applies every migration that is not recorded in schema_version yet.
+     * Blocks until done.
+     *
+     * @return Summary of the run
+     * @throws IOException if a migration script is missing or unreadable
+     * @throws SQLException if a migration fails or an applied migration's script has changed
+     */
+    public Summary migrate() throws SQLException, IOException {
+        long start = System.nanoTime();
+        List<Migration> migrations = new ArrayList<>(MIGRATIONS.size());
+        for (String name : MIGRATIONS) {
+            Migration migration = load(name);
+            if (!migrations.isEmpty() && migration.version <= migrations.get(migrations.size() - 1).version) {
+                throw new IOException("Migration " + name + " is listed out of order");
+            }
+            migrations.add(migration);
+        }
+
+        int applied = 0;
+        int skippedStatements = 0;
+        int version;
+        try (MigrationSession session = schemaVersionDAO.openSession(LOCK_TIMEOUT_SECONDS)) {
+            Map<Integer, AppliedMigration> done = session.findApplied();
+            for (Migration migration : migrations) {
+                AppliedMigration previous = done.get(migration.version);
+                if (previous != null) {
+                    if (previous.getChecksum() != migration.checksum) {
+                        throw new SQLException("Migration " + migration.name + " was changed after it was applied on "
+                                + previous.getInstalledAt() + "; add a new migration instead");
+                    }
+                    continue;
+                }
+                long migrationStart = System.nanoTime();
+                for (String statement : migration.statements) {
+                    if (!session.execute(statement)) {
+                        skippedStatements++;
+                    }
+                }
+                long elapsed = (System.nanoTime() - migrationStart) / 1_000_000;
+                session.recordApplied(migration.version, migration.description, migration.checksum, elapsed);
+                applied++;
+                SystemLogService.log(LOG_SOURCE, "Applied schema migration " + migration.name + " in " + elapsed + " ms");
+            }
+            int newest = migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).version;
+            int recorded = done.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+            if (recorded > newest) {
+                LOGGER.warning("The database schema is at version " + recorded + ", newer than this application ("
+                        + newest + "); it was probably migrated by a newer release");
+            }
+            version = Math.max(recorded, newest);
+        }
+        return new Summary(applied, skippedStatements, version, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // --- Scripts ---
+
+    static Migration load(String name) throws IOException {
+        Matcher matcher = NAME_PATTERN.matcher(name);
+        if (!matcher.matches()) {
+            throw new IOException("Invalid migration name: " + name);
+        }
+        String path = MIGRATION_PATH + name + ".sql";
+        String script;
+        try (InputStream in = SchemaMigrator.class.getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IOException("Migration script not found: " + path);
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            in.transferTo(bytes);
+            script = bytes.toString(StandardCharsets.UTF_8);
+        }
+        List<String> statements = splitStatements(script);
+        if (statements.isEmpty()) {
+            throw new IOException("Migration " + name + " contains no statements");
+        }
+        return new Migration(name, Integer.parseInt(matcher.group(1)), matcher.group(2).replace('_', ' '),
+                statements, checksum(script));
+    }
+
+    /**
+     * Splits a script at semicolons that end a line, dropping comment lines
+     */
+    static List<String> splitStatements(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : script.split("\r?\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+            if (current.length() > 0) {
+                current.append('\n');
+            }
+            if (trimmed.endsWith(";")) {
+                current.append(trimmed, 0, trimmed.length() - 1);
+                statements.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(trimmed);
+            }
+        }
+        if (current.toString().trim().length() > 0) {
+            statements.add(current.toString().trim()); // Last statement without a semicolon
+        }
+        return statements;
+    }
+
+    /**
+     * CRC32 of the script with line endings normalized, so a checkout with
+     * Windows line endings does not count as a changed migration
+     */
+    static long checksum(String script) {
+        CRC32 crc = new CRC32();
+        crc.update(script.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    /**
+     * One migration script
+     */
+    static final class Migration {
+
+        private final String name;
+        private final int version;
+        private final String description;
+        private final List<String> statements;
+        private final long checksum;
+
+        Migration(String name, int version, String description, List<String> statements, long checksum) {
+            this.name = name;
+            this.version = version;
+            this.description = description;
+            this.statements = statements;
+            this.checksum = checksum;
+        }
+    }
+
+    /**
+     * Outcome of a migration run
+     */
+    public static final class Summary {
+
+        private final int applied;
+        private final int skippedStatements;
+        private final int schemaVersion;
+        private final long elapsedMillis;
+
+        public Summary(int applied, int skippedStatements, int schemaVersion, long elapsedMillis) {
+            this.applied = applied;
+            this.skippedStatements = skippedStatements;
+            this.schemaVersion = schemaVersion;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getApplied() {
+            return applied;
+        }
+
+        /**
+         * @return Statements skipped because their index or column already existed
+         */
+        public int getSkippedStatements() {
+            return skippedStatements;
+        }
+
+        public int getSchemaVersion() {
+            return schemaVersion;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            if (applied == 0) {
+                return "Database schema is up to date at version " + schemaVersion;
+            }
+            return "Applied " + applied + " schema migration(s), now at version " + schemaVersion
+                    + (skippedStatements > 0 ? " (" + skippedStatements + " statement(s) already in place)" : "")
+                    + ", " + elapsedMillis + " ms";
+        }
+    }
+}
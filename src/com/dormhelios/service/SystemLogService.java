@@ -3,26 +3,70 @@ package com.dormhelios.service;
 import com.dormhelios.model.dao.SystemLogDAO;
 import com.dormhelios.model.dao.SystemLogDAOImpl;
 import com.dormhelios.model.entity.SystemLog;
+import com.dormhelios.util.DatabaseConnection;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
- * Service layer for system logs, wrapping DAO operations
+ * Service layer for system logs, wrapping DAO operations.
+ * log() only queues the entry; a background flusher writes queued entries to
+ * system_logs in JDBC batches once FLUSH_BATCH_SIZE entries are waiting or
+ * FLUSH_INTERVAL_MS has passed, so audit logging adds no database latency to
+ * the calling thread.
  */
 public class SystemLogService {
+    private static final Logger LOGGER = Logger.getLogger(SystemLogService.class.getName());
     private static final SystemLogDAO dao = new SystemLogDAOImpl();
     private static final DateTimeFormatter NAME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
 
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final int FLUSH_BATCH_SIZE = 100;
+    private static final long FLUSH_INTERVAL_MS = 500;
+
+    private static final BlockingQueue<SystemLog> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private static final Object flushLock = new Object();
+    private static volatile boolean running = true;
+
+    // --- Metrics ---
+    private static final AtomicLong enqueued = new AtomicLong();
+    private static final AtomicLong written = new AtomicLong();
+    private static final AtomicLong failed = new AtomicLong();
+    private static final AtomicLong overflowWrites = new AtomicLong();
+    private static final AtomicLong flushCount = new AtomicLong();
+    private static final AtomicLong totalFlushNanos = new AtomicLong();
+    private static final AtomicLong maxFlushNanos = new AtomicLong();
+    private static volatile long lastFlushNanos;
+
+    private static final Thread flusher = new Thread(SystemLogService::runFlusher, "dormhelios-systemlog-flusher");
+
+    static {
+        flusher.setDaemon(true);
+        flusher.start();
+        // Flushed by the database shutdown, before the pool closes
+        DatabaseConnection.addShutdownTask(SystemLogService::shutdown);
+    }
+
     /**
-     * Retrieves all system log entries
+     * Retrieves all system log entries. Pending entries are flushed first so
+     * the result includes everything logged so far.
      */
     public static List<SystemLog> getAllLogs() {
+        flush();
         return dao.findAll();
     }
 
     /**
-     * Writes a log entry with a timestamped key
+     * Queues a log entry with a timestamped key. Returns immediately; if the
+     * queue is full the entry is written on the calling thread instead of
+     * being lost.
      * @param source identifier of the component logging the message
      * @param message log message
      */
@@ -30,6 +74,175 @@ public class SystemLogService {
         String timestamp = LocalDateTime.now().format(NAME_FORMATTER);
         String key = timestamp + ":" + source;
         SystemLog entry = new SystemLog(key, message);
-        dao.insert(entry);
+        enqueued.incrementAndGet();
+        if (!running || !queue.offer(entry)) {
+            overflowWrites.incrementAndGet();
+            writeBatch(List.of(entry));
+        }
+    }
+
+    /**
+     * Writes all queued entries now, on the calling thread.
+     */
+    public static void flush() {
+        List<SystemLog> batch = new ArrayList<>();
+        synchronized (flushLock) {
+            while (queue.drainTo(batch, FLUSH_BATCH_SIZE) > 0) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Stops the background flusher and writes whatever is still queued.
+     * Called automatically on JVM shutdown, before the connection pool closes.
+     */
+    public static void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            flusher.join(FLUSH_INTERVAL_MS * 2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * @return Snapshot of the audit log pipeline's counters
+     */
+    public static Metrics getMetrics() {
+        long flushes = flushCount.get();
+        return new Metrics(queue.size(), enqueued.get(), written.get(), failed.get(), overflowWrites.get(),
+                flushes,
+                flushes == 0 ? 0 : totalFlushNanos.get() / flushes / 1_000_000.0,
+                maxFlushNanos.get() / 1_000_000.0,
+                lastFlushNanos / 1_000_000.0);
+    }
+
+    // --- Background flusher ---
+
+    private static void runFlusher() {
+        List<SystemLog> batch = new ArrayList<>(FLUSH_BATCH_SIZE);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MS);
+        while (running) {
+            try {
+                // Wait for a full batch or the time trigger, whichever comes first
+                long remaining = deadline - System.nanoTime();
+                SystemLog next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                if (next != null) {
+                    batch.add(next);
+                    queue.drainTo(batch, FLUSH_BATCH_SIZE - batch.size());
+                    if (batch.size() < FLUSH_BATCH_SIZE) {
+                        continue;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                synchronized (flushLock) {
+                    writeBatch(batch);
+                }
+                batch.clear();
+            }
+            deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MS);
+        }
+        if (!batch.isEmpty()) {
+            synchronized (flushLock) {
+                writeBatch(batch);
+            }
+        }
+    }
+
+    private static void writeBatch(List<SystemLog> batch) {
+        long start = System.nanoTime();
+        int inserted = dao.insertBatch(batch);
+        long elapsed = System.nanoTime() - start;
+
+        written.addAndGet(inserted);
+        if (inserted < batch.size()) {
+            failed.addAndGet(batch.size() - inserted);
+            LOGGER.log(Level.WARNING, "Failed to write {0} system log entries", batch.size() - inserted);
+        }
+        flushCount.incrementAndGet();
+        totalFlushNanos.addAndGet(elapsed);
+        maxFlushNanos.accumulateAndGet(elapsed, Math::max);
+        lastFlushNanos = elapsed;
+    }
+
+    /**
+     * Point-in-time view of the audit log pipeline
+     */
+    public static final class Metrics {
+        private final int queueDepth;
+        private final long enqueued;
+        private final long written;
+        private final long failed;
+        private final long overflowWrites;
+        private final long flushCount;
+        private final double averageFlushMillis;
+        private final double maxFlushMillis;
+        private final double lastFlushMillis;
+
+        private Metrics(int queueDepth, long enqueued, long written, long failed, long overflowWrites,
+                long flushCount, double averageFlushMillis, double maxFlushMillis, double lastFlushMillis) {
+            this.queueDepth = queueDepth;
+            this.enqueued = enqueued;
+            this.written = written;
+            this.failed = failed;
+            this.overflowWrites = overflowWrites;
+            this.flushCount = flushCount;
+            this.averageFlushMillis = averageFlushMillis;
+            this.maxFlushMillis = maxFlushMillis;
+            this.lastFlushMillis = lastFlushMillis;
+        }
+
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        public long getEnqueued() {
+            return enqueued;
+        }
+
+        public long getWritten() {
+            return written;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        /** Entries written synchronously because the queue was full or shut down */
+        public long getOverflowWrites() {
+            return overflowWrites;
+        }
+
+        public long getFlushCount() {
+            return flushCount;
+        }
+
+        public double getAverageFlushMillis() {
+            return averageFlushMillis;
+        }
+
+        public double getMaxFlushMillis() {
+            return maxFlushMillis;
+        }
+
+        public double getLastFlushMillis() {
+            return lastFlushMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("queue=%d enqueued=%d written=%d failed=%d overflow=%d flushes=%d avgFlush=%.1fms maxFlush=%.1fms",
+                    queueDepth, enqueued, written, failed, overflowWrites, flushCount, averageFlushMillis, maxFlushMillis);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,444 @@
+package com.dormhelios.service;
+
+import com.dormhelios.util.LatencyHistogram;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.SwingUtilities;
+
+/**
+ * Runs the controllers' database work off the Event Dispatch Thread and
+ * hands the result back to it, replacing ad-hoc SwingWorkers.
+ *
+ * Work is submitted to one of two lanes. INTERACTIVE is for loads and saves
+ * a user is waiting on; it runs every task at once, on virtual threads by
+ * default, so a slow report never queues ahead of a click. BACKGROUND is for
+ * bulk and periodic work; it runs on two low-priority platform threads, so it
+ * can never hold more than two pooled connections.
+ *
+ * Keyed submissions are latest-wins: submitting under a key cancels the
+ * task previously submitted under it, and a superseded task's callbacks are
+ * never called, so rapid filter changes only ever display the last result.
+ *
+ * Callbacks run on the EDT. Every task is timed per name and lane; see getStats().
+ * Virtual threads can be turned off with -Ddormhelios.tasks.virtualThreads=false.
+ */
+public class TaskExecutor {
+
+    private static final Logger LOGGER = Logger.getLogger(TaskExecutor.class.getName());
+
+    public enum Lane {
+        INTERACTIVE, // User is waiting: dialogs, list loads, saves
+        BACKGROUND   // Bulk and periodic work: imports, exports, reminders
+    }
+
+    private static final int BACKGROUND_THREADS = 2;
+    private static final int PLATFORM_INTERACTIVE_THREADS = 8; // Used when virtual threads are off
+    private static final long SLOW_TASK_MS = 1_000;
+
+    private static final Map<Lane, LaneState> lanes = new EnumMap<>(Lane.class);
+    private static final Map<String, Task<?>> latestByKey = new ConcurrentHashMap<>();
+    private static final Map<String, TaskMetrics> metricsByName = new ConcurrentHashMap<>();
+
+    static {
+        boolean virtual = Boolean.parseBoolean(System.getProperty("dormhelios.tasks.virtualThreads", "true"));
+        lanes.put(Lane.INTERACTIVE, new LaneState(virtual
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dormhelios-task-", 1).factory())
+                : Executors.newFixedThreadPool(PLATFORM_INTERACTIVE_THREADS, platformThreads("dormhelios-task", Thread.NORM_PRIORITY))));
+        lanes.put(Lane.BACKGROUND, new LaneState(
+                Executors.newFixedThreadPool(BACKGROUND_THREADS, platformThreads("dormhelios-background", Thread.MIN_PRIORITY))));
+    }
+
+    private TaskExecutor() {
+    }
+
+    /**
+     * Runs work in the background; failures are logged
+     * @param lane Lane to run in
+     * @param name Task name used in metrics and logs, e.g. "tenants.load"
+     * @param work Background work; must not touch Swing components
+     * @param onSuccess Called on the EDT with the result
+     * @return Handle for cancelling the task
+     */
+    public static <T> Task<T> submit(Lane lane, String name, Callable<T> work, Consumer<T> onSuccess) {
+        return submit(lane, name, work, onSuccess, null);
+    }
+
+    /**
+     * Runs work in the background
+     * @param lane Lane to run in
+     * @param name Task name used in metrics and logs, e.g. "tenants.load"
+     * @param work Background work; must not touch Swing components
+     * @param onSuccess Called on the EDT with the result
+     * @param onFailure Called on the EDT with the exception thrown by work; null to only log it
+     * @return Handle for cancelling the task
+     */
+    public static <T> Task<T> submit(Lane lane, String name, Callable<T> work,
+            Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        Task<T> task = new Task<>(name, null, lane);
+        start(task, work, onSuccess, onFailure);
+        return task;
+    }
+
+    /**
+     * Runs work in the background, cancelling the task last submitted under
+     * the same key. Only the latest task's callbacks are called.
+     * @param key Identifies what the task loads, e.g. "payments.page"; also its metrics name
+     * @param lane Lane to run in
+     * @param work Background work; must not touch Swing components
+     * @param onSuccess Called on the EDT with the result, unless superseded
+     * @param onFailure Called on the EDT with the exception thrown by work, unless superseded; null to only log it
+     * @return Handle for cancelling the task
+     */
+    public static <T> Task<T> submitLatest(String key, Lane lane, Callable<T> work,
+            Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        Task<T> task = new Task<>(key, key, lane);
+        Task<?> previous = latestByKey.put(key, task);
+        if (previous != null) {
+            previous.cancel();
+        }
+        start(task, work, onSuccess, onFailure);
+        return task;
+    }
+
+    /**
+     * @return Per-lane and per-task counters, busiest task names first
+     */
+    public static Stats getStats() {
+        List<LaneStats> laneStats = new ArrayList<>();
+        for (Map.Entry<Lane, LaneState> entry : lanes.entrySet()) {
+            LaneState state = entry.getValue();
+            laneStats.add(new LaneStats(entry.getKey(), state.active.get(), state.queued.get(),
+                    state.completed.get(), state.queueWait.snapshot()));
+        }
+        List<TaskStats> taskStats = new ArrayList<>();
+        for (Map.Entry<String, TaskMetrics> entry : metricsByName.entrySet()) {
+            TaskMetrics metrics = entry.getValue();
+            taskStats.add(new TaskStats(entry.getKey(), metrics.lane, metrics.succeeded.get(), metrics.failed.get(),
+                    metrics.cancelled.get(), metrics.duration.snapshot()));
+        }
+        taskStats.sort((a, b) -> Double.compare(b.getDuration().getTotalMillis(), a.getDuration().getTotalMillis()));
+        return new Stats(laneStats, taskStats);
+    }
+
+    // --- Internals ---
+
+    private static <T> void start(Task<T> task, Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        LaneState lane = lanes.get(task.lane);
+        long submittedNanos = System.nanoTime();
+        lane.queued.incrementAndGet();
+        try {
+            lane.executor.execute(() -> run(task, lane, submittedNanos, work, onSuccess, onFailure));
+        } catch (RejectedExecutionException e) {
+            lane.queued.decrementAndGet();
+            LOGGER.log(Level.SEVERE, "Task rejected: " + task.name, e);
+            deliver(task, () -> {
+                if (onFailure != null) {
+                    onFailure.accept(e);
+                }
+            });
+        }
+    }
+
+    private static <T> void run(Task<T> task, LaneState lane, long submittedNanos, Callable<T> work,
+            Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        long startNanos = System.nanoTime();
+        lane.queued.decrementAndGet();
+        lane.queueWait.recordNanos(startNanos - submittedNanos);
+        TaskMetrics metrics = metricsByName.computeIfAbsent(task.name, name -> new TaskMetrics(task.lane));
+        if (!task.begin()) {
+            metrics.cancelled.incrementAndGet();
+            return;
+        }
+
+        lane.active.incrementAndGet();
+        T result = null;
+        Exception error = null;
+        try {
+            result = work.call();
+        } catch (Exception e) {
+            error = e;
+        } finally {
+            task.end();
+            lane.active.decrementAndGet();
+            lane.completed.incrementAndGet();
+        }
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        metrics.duration.recordNanos(elapsedNanos);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        if (elapsedMillis >= SLOW_TASK_MS) {
+            LOGGER.log(Level.INFO, "Task {0} took {1} ms", new Object[]{task.name, elapsedMillis});
+        }
+
+        if (task.cancelled) {
+            metrics.cancelled.incrementAndGet();
+            return;
+        }
+        if (error != null) {
+            metrics.failed.incrementAndGet();
+            LOGGER.log(Level.SEVERE, "Task failed: " + task.name, error);
+            Exception failure = error;
+            deliver(task, () -> {
+                if (onFailure != null) {
+                    onFailure.accept(failure);
+                }
+            });
+        } else {
+            metrics.succeeded.incrementAndGet();
+            T value = result;
+            deliver(task, () -> {
+                if (onSuccess != null) {
+                    onSuccess.accept(value);
+                }
+            });
+        }
+    }
+
+    /**
+     * Runs a callback on the EDT unless the task was cancelled or superseded in the meantime
+     */
+    private static void deliver(Task<?> task, Runnable callback) {
+        SwingUtilities.invokeLater(() -> {
+            if (task.key != null) {
+                latestByKey.remove(task.key, task);
+            }
+            if (task.cancelled) {
+                return;
+            }
+            try {
+                callback.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Callback failed for task " + task.name, e);
+            }
+        });
+    }
+
+    private static java.util.concurrent.ThreadFactory platformThreads(String prefix, int priority) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(priority);
+            return thread;
+        };
+    }
+
+    private static final class LaneState {
+
+        final ExecutorService executor;
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger queued = new AtomicInteger();
+        final AtomicLong completed = new AtomicLong();
+        final LatencyHistogram queueWait = new LatencyHistogram();
+
+        LaneState(ExecutorService executor) {
+            this.executor = executor;
+        }
+    }
+
+    private static final class TaskMetrics {
+
+        final Lane lane;
+        final AtomicLong succeeded = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final AtomicLong cancelled = new AtomicLong();
+        final LatencyHistogram duration = new LatencyHistogram();
+
+        TaskMetrics(Lane lane) {
+            this.lane = lane;
+        }
+    }
+
+    /**
+     * Handle for a submitted task
+     */
+    public static final class Task<T> {
+
+        private final String name;
+        private final String key;
+        private final Lane lane;
+        private volatile boolean cancelled;
+        private volatile boolean done;
+
+        private Task(String name, String key, Lane lane) {
+            this.name = name;
+            this.key = key;
+            this.lane = lane;
+        }
+
+        /**
+         * Cancels the task: it is skipped if not started yet, and its
+         * callbacks are not called. Work already running is left to finish
+         * and its result dropped; it is not interrupted, since interrupting
+         * a thread blocked in JDBC I/O closes its connection's socket.
+         * Long jobs offer their own cancel() for stopping early.
+         */
+        public synchronized void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * @return true once the work has finished or was skipped
+         */
+        public boolean isDone() {
+            return done;
+        }
+
+        private synchronized boolean begin() {
+            if (cancelled) {
+                done = true;
+                return false;
+            }
+            return true;
+        }
+
+        private void end() {
+            done = true;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Point-in-time counters for one lane
+     */
+    public static final class LaneStats {
+
+        private final Lane lane;
+        private final int active;
+        private final int queued;
+        private final long completed;
+        private final LatencyHistogram.Snapshot queueWait;
+
+        public LaneStats(Lane lane, int active, int queued, long completed, LatencyHistogram.Snapshot queueWait) {
+            this.lane = lane;
+            this.active = active;
+            this.queued = queued;
+            this.completed = completed;
+            this.queueWait = queueWait;
+        }
+
+        public Lane getLane() {
+            return lane;
+        }
+
+        public int getActive() {
+            return active;
+        }
+
+        public int getQueued() {
+            return queued;
+        }
+
+        public long getCompleted() {
+            return completed;
+        }
+
+        /**
+         * @return Time tasks waited for a thread before starting
+         */
+        public LatencyHistogram.Snapshot getQueueWait() {
+            return queueWait;
+        }
+    }
+
+    /**
+     * Point-in-time counters for one task name
+     */
+    public static final class TaskStats {
+
+        private final String name;
+        private final Lane lane;
+        private final long succeeded;
+        private final long failed;
+        private final long cancelled;
+        private final LatencyHistogram.Snapshot duration;
+
+        public TaskStats(String name, Lane lane, long succeeded, long failed, long cancelled,
+                LatencyHistogram.Snapshot duration) {
+            this.name = name;
+            this.lane = lane;
+            this.succeeded = succeeded;
+            this.failed = failed;
+            this.cancelled = cancelled;
+            this.duration = duration;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Lane getLane() {
+            return lane;
+        }
+
+        public long getSucceeded() {
+            return succeeded;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        /**
+         * @return Tasks cancelled or superseded before their result was delivered
+         */
+        public long getCancelled() {
+            return cancelled;
+        }
+
+        public LatencyHistogram.Snapshot getDuration() {
+            return duration;
+        }
+
+        @Override
+        public String toString() {
+            return name + " [" + lane + "] ok=" + succeeded + ", failed=" + failed + ", cancelled=" + cancelled
+                    + ", " + duration;
+        }
+    }
+
+    /**
+     * Counters for all lanes and task names
+     */
+    public static final class Stats {
+
+        private final List<LaneStats> lanes;
+        private final List<TaskStats> tasks;
+
+        public Stats(List<LaneStats> lanes, List<TaskStats> tasks) {
+            this.lanes = List.copyOf(lanes);
+            this.tasks = List.copyOf(tasks);
+        }
+
+        public List<LaneStats> getLanes() {
+            return lanes;
+        }
+
+        /**
+         * @return Per-name counters, largest total run time first
+         */
+        public List<TaskStats> getTasks() {
+            return tasks;
+        }
+    }
+}
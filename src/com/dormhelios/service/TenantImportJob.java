@@ -0,0 +1,624 @@
+package com.dormhelios.service;
+
+import com.dormhelios.model.dao.RoomDAO;
+import com.dormhelios.model.dao.TenantDAO;
+import com.dormhelios.model.entity.Room;
+import com.dormhelios.model.entity.Tenant;
+import com.dormhelios.util.DatabaseConnection;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Imports tenants in bulk from a CSV file.
+ *
+ * The file is parsed as a stream and handled in chunks of CHUNK_SIZE rows.
+ * The rows of a chunk are validated in parallel against lookups loaded once
+ * per run (active rooms, existing student numbers and emails). A sequential
+ * pass then catches duplicates within the file and hands out room slots.
+ * Each chunk is written in one transaction: the slots taken in each room are
+ * reserved with a single UPDATE per room, then the tenants are inserted
+ * with one JDBC batch. If the transaction fails, the whole chunk is rolled
+ * back and every row in it is reported.
+ *
+ * In dry-run mode every row is parsed, validated and assigned a slot, but
+ * nothing is written.
+ *
+ * The first line must be a header. first_name, last_name, email and
+ * phone_number are required. The optional columns are student_number,
+ * room_number, guardian_name, emergency_contact_number, permanent_address,
+ * lease_start_date, lease_end_date (yyyy-MM-dd), deposit_amount and
+ * deposit_status. Other columns are ignored.
+ */
+public class TenantImportJob {
+
+    private static final Logger LOGGER = Logger.getLogger(TenantImportJob.class.getName());
+    private static final String LOG_SOURCE = "TenantImportJob";
+
+    public static final int CHUNK_SIZE = 250;
+    private static final List<String> REQUIRED_COLUMNS = List.of("first_name", "last_name", "email", "phone_number");
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final Pattern PHONE_PATTERN = Pattern.compile("^\\+?[0-9][0-9 -]{6,19}$");
+
+    /**
+     * Receives progress after each chunk. Called on the importing thread.
+     */
+    public interface ProgressListener {
+
+        void onChunkFinished(int rowsProcessed, int rowsImported, List<RowError> chunkErrors);
+    }
+
+    private final TenantDAO tenantDAO;
+    private final RoomDAO roomDAO;
+    private volatile boolean cancelled;
+
+    public TenantImportJob(TenantDAO tenantDAO, RoomDAO roomDAO) {
+        this.tenantDAO = tenantDAO;
+        this.roomDAO = roomDAO;
+    }
+
+    /**
+     * Reads and imports the CSV. Blocks until the whole file is processed or
+     * the job is cancelled; call it from a background thread.
+     *
+     * @param csv Source of the CSV text; not closed by this method
+     * @param dryRun True to validate only, without writing anything
+     * @param listener Progress callback, may be null
+     * @return Summary with every rejected row
+     * @throws IOException if the file cannot be read or has no usable header
+     */
+    public Summary run(Reader csv, boolean dryRun, ProgressListener listener) throws IOException {
+        long start = System.nanoTime();
+        CsvReader reader = new CsvReader(csv);
+        Map<String, Integer> columns = readHeader(reader);
+        Lookups lookups = loadLookups();
+        SystemLogService.log(LOG_SOURCE, (dryRun ? "Started tenant import dry run" : "Started tenant import"));
+
+        List<RowError> errors = new ArrayList<>();
+        int processed = 0;
+        int imported = 0;
+        List<CsvRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        CsvRow row;
+        while (!cancelled && (row = reader.next()) != null) {
+            if (row.isBlank()) {
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() == CHUNK_SIZE) {
+                ChunkResult result = processChunk(chunk, columns, lookups, dryRun);
+                processed += chunk.size();
+                imported += result.imported;
+                errors.addAll(result.errors);
+                notify(listener, processed, imported, result.errors);
+                chunk.clear();
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                cancel();
+            }
+        }
+        if (!cancelled && !chunk.isEmpty()) {
+            ChunkResult result = processChunk(chunk, columns, lookups, dryRun);
+            processed += chunk.size();
+            imported += result.imported;
+            errors.addAll(result.errors);
+            notify(listener, processed, imported, result.errors);
+        }
+
+        Summary summary = new Summary(processed, imported, errors, dryRun, cancelled, (System.nanoTime() - start) / 1_000_000);
+        SystemLogService.log(LOG_SOURCE, summary.toString());
+        LOGGER.info(summary.toString());
+        return summary;
+    }
+
+    /**
+     * Stops the import after the chunk being written; committed chunks stay imported
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // --- Pipeline stages ---
+
+    private static Map<String, Integer> readHeader(CsvReader reader) throws IOException {
+        CsvRow header = reader.next();
+        if (header == null) {
+            throw new IOException("The file is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.fields.size(); i++) {
+            String name = header.fields.get(i).trim().toLowerCase(Locale.ROOT).replace(' ', '_');
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1); // Byte order mark written by Excel
+            }
+            columns.putIfAbsent(name, i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new IOException("Missing required column: " + required);
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Loads what validation checks against: one query for rooms (fresh, since
+     * slots matter) and one for existing tenants.
+     */
+    private Lookups loadLookups() {
+        RoomCatalog.invalidate();
+        Map<String, Room> rooms = new HashMap<>();
+        Map<Integer, Integer> slotsLeft = new HashMap<>();
+        for (Room room : RoomCatalog.getRooms()) {
+            if (room.getRoomNumber() != null) {
+                rooms.put(normalizeKey(room.getRoomNumber()), room);
+                slotsLeft.put(room.getRoomId(), room.getSlotsAvailable());
+            }
+        }
+        Set<String> studentNumbers = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (Tenant tenant : tenantDAO.findAllIncludingInactive()) {
+            if (tenant.getStudentIdNumber() != null) {
+                studentNumbers.add(normalizeKey(tenant.getStudentIdNumber()));
+            }
+            if (tenant.getEmail() != null) {
+                emails.add(normalizeKey(tenant.getEmail()));
+            }
+        }
+        return new Lookups(rooms, slotsLeft, studentNumbers, emails);
+    }
+
+    private ChunkResult processChunk(List<CsvRow> chunk, Map<String, Integer> columns, Lookups lookups, boolean dryRun) {
+        // Field checks only read the lookups, so the rows are validated in parallel
+        List<Validated> validated = chunk.parallelStream()
+                .map(row -> validate(row, columns, lookups))
+                .toList();
+
+        // Duplicates and slots depend on earlier rows, so they are checked in file order
+        List<RowError> errors = new ArrayList<>();
+        List<Tenant> accepted = new ArrayList<>();
+        List<Integer> acceptedLines = new ArrayList<>();
+        Map<Integer, Integer> slotsTaken = new LinkedHashMap<>();
+        for (Validated result : validated) {
+            if (result.error != null) {
+                errors.add(result.error);
+                continue;
+            }
+            Tenant tenant = result.tenant;
+            String rejection = claimUniqueKeys(tenant, lookups);
+            if (rejection == null && tenant.getRoomId() != null) {
+                int roomId = tenant.getRoomId();
+                int left = lookups.slotsLeft.getOrDefault(roomId, 0);
+                if (left <= 0) {
+                    rejection = "Room " + result.roomNumber + " has no available slots left";
+                } else {
+                    lookups.slotsLeft.put(roomId, left - 1);
+                    slotsTaken.merge(roomId, 1, Integer::sum);
+                }
+            }
+            if (rejection != null) {
+                errors.add(new RowError(result.lineNumber, rejection));
+            } else {
+                accepted.add(tenant);
+                acceptedLines.add(result.lineNumber);
+            }
+        }
+
+        if (dryRun || accepted.isEmpty()) {
+            return new ChunkResult(accepted.size(), errors);
+        }
+        try {
+            writeChunk(accepted, slotsTaken);
+            return new ChunkResult(accepted.size(), errors);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Tenant import chunk rolled back", e);
+            // Nothing of the chunk was written, so a later row may take its slots and keys
+            slotsTaken.forEach((roomId, count) -> lookups.slotsLeft.merge(roomId, count, Integer::sum));
+            for (Tenant tenant : accepted) {
+                releaseUniqueKeys(tenant, lookups);
+            }
+            for (int lineNumber : acceptedLines) {
+                errors.add(new RowError(lineNumber, "Not imported, its batch was rolled back: " + e.getMessage()));
+            }
+            errors.sort((a, b) -> Integer.compare(a.lineNumber, b.lineNumber));
+            return new ChunkResult(0, errors);
+        }
+    }
+
+    /**
+     * Writes one chunk in a single transaction: one slot UPDATE per room, then one tenant batch
+     */
+    private void writeChunk(List<Tenant> tenants, Map<Integer, Integer> slotsTaken) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                for (Map.Entry<Integer, Integer> entry : slotsTaken.entrySet()) {
+                    if (!roomDAO.reserveSlots(entry.getKey(), entry.getValue(), conn)) {
+                        throw new SQLException("Room slots changed while importing (room id " + entry.getKey() + ")");
+                    }
+                }
+                tenantDAO.addTenantsBatch(tenants, conn);
+                conn.commit();
+                if (!slotsTaken.isEmpty()) {
+                    // Slots changed; re-read once the commit is visible
+                    roomDAO.invalidateRooms(slotsTaken.keySet());
+                    RoomCatalog.invalidate();
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Field-level checks of one row. Only reads the lookups, so it is safe to run in parallel.
+     */
+    private static Validated validate(CsvRow row, Map<String, Integer> columns, Lookups lookups) {
+        List<String> problems = new ArrayList<>();
+        Tenant tenant = new Tenant();
+        tenant.setFirstName(field(row, columns, "first_name"));
+        tenant.setLastName(field(row, columns, "last_name"));
+        tenant.setEmail(field(row, columns, "email"));
+        tenant.setPhoneNumber(field(row, columns, "phone_number"));
+        tenant.setStudentIdNumber(field(row, columns, "student_number"));
+        tenant.setGuardianName(field(row, columns, "guardian_name"));
+        tenant.setEmergencyContactNumber(field(row, columns, "emergency_contact_number"));
+        tenant.setPermanentAddress(field(row, columns, "permanent_address"));
+
+        for (String required : REQUIRED_COLUMNS) {
+            if (field(row, columns, required) == null) {
+                problems.add(required + " is required");
+            }
+        }
+        if (tenant.getEmail() != null && !EMAIL_PATTERN.matcher(tenant.getEmail()).matches()) {
+            problems.add("invalid email '" + tenant.getEmail() + "'");
+        }
+        if (tenant.getPhoneNumber() != null && !PHONE_PATTERN.matcher(tenant.getPhoneNumber()).matches()) {
+            problems.add("invalid phone number '" + tenant.getPhoneNumber() + "'");
+        }
+
+        String roomNumber = field(row, columns, "room_number");
+        if (roomNumber != null) {
+            Room room = lookups.rooms.get(normalizeKey(roomNumber));
+            if (room == null) {
+                problems.add("unknown room '" + roomNumber + "'");
+            } else if (room.getStatus() == Room.RoomStatus.UNDER_MAINTENANCE) {
+                problems.add("room " + roomNumber + " is under maintenance");
+            } else {
+                tenant.setRoomId(room.getRoomId());
+            }
+        }
+
+        tenant.setLeaseStartDate(parseDate(field(row, columns, "lease_start_date"), "lease_start_date", problems));
+        tenant.setLeaseEndDate(parseDate(field(row, columns, "lease_end_date"), "lease_end_date", problems));
+        if (tenant.getLeaseStartDate() != null && tenant.getLeaseEndDate() != null
+                && tenant.getLeaseEndDate().isBefore(tenant.getLeaseStartDate())) {
+            problems.add("lease_end_date is before lease_start_date");
+        }
+
+        String deposit = field(row, columns, "deposit_amount");
+        if (deposit != null) {
+            try {
+                BigDecimal amount = new BigDecimal(deposit.replace(",", ""));
+                if (amount.signum() < 0) {
+                    problems.add("deposit_amount cannot be negative");
+                } else {
+                    tenant.setSecurityDepositAmount(amount);
+                }
+            } catch (NumberFormatException e) {
+                problems.add("invalid deposit_amount '" + deposit + "'");
+            }
+        }
+        String depositStatus = field(row, columns, "deposit_status");
+        if (depositStatus != null) {
+            try {
+                tenant.setSecurityDepositStatus(Tenant.DepositStatus.valueOf(depositStatus.trim().toUpperCase(Locale.ROOT).replace(' ', '_')));
+            } catch (IllegalArgumentException e) {
+                problems.add("invalid deposit_status '" + depositStatus + "'");
+            }
+        }
+
+        if (!problems.isEmpty()) {
+            return new Validated(row.lineNumber, null, roomNumber, new RowError(row.lineNumber, String.join("; ", problems)));
+        }
+        return new Validated(row.lineNumber, tenant, roomNumber, null);
+    }
+
+    /**
+     * Rejects student numbers and emails already used by a tenant or by an earlier row,
+     * and records the row's own keys
+     * @return The rejection message, or null if the keys are unique
+     */
+    private static String claimUniqueKeys(Tenant tenant, Lookups lookups) {
+        String studentNumber = tenant.getStudentIdNumber() != null ? normalizeKey(tenant.getStudentIdNumber()) : null;
+        String email = normalizeKey(tenant.getEmail());
+        if (studentNumber != null && lookups.studentNumbers.contains(studentNumber)) {
+            return "student_number " + tenant.getStudentIdNumber() + " already exists";
+        }
+        if (lookups.emails.contains(email)) {
+            return "email " + tenant.getEmail() + " already exists";
+        }
+        if (studentNumber != null) {
+            lookups.studentNumbers.add(studentNumber);
+        }
+        lookups.emails.add(email);
+        return null;
+    }
+
+    /**
+     * Undoes claimUniqueKeys for a row that was not written after all
+     */
+    private static void releaseUniqueKeys(Tenant tenant, Lookups lookups) {
+        if (tenant.getStudentIdNumber() != null) {
+            lookups.studentNumbers.remove(normalizeKey(tenant.getStudentIdNumber()));
+        }
+        lookups.emails.remove(normalizeKey(tenant.getEmail()));
+    }
+
+    private static String field(CsvRow row, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= row.fields.size()) {
+            return null;
+        }
+        String value = row.fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static LocalDate parseDate(String value, String column, List<String> problems) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            problems.add("invalid " + column + " '" + value + "' (expected yyyy-MM-dd)");
+            return null;
+        }
+    }
+
+    private static String normalizeKey(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void notify(ProgressListener listener, int processed, int imported, List<RowError> chunkErrors) {
+        if (listener != null) {
+            listener.onChunkFinished(processed, imported, Collections.unmodifiableList(chunkErrors));
+        }
+    }
+
+    // --- CSV parsing ---
+
+    /**
+     * Minimal RFC 4180 reader: comma separated, double-quoted fields may
+     * contain commas, line breaks and doubled quotes. Reads one record at a
+     * time, so memory use does not grow with the file.
+     */
+    static final class CsvReader {
+
+        private final BufferedReader in;
+        private int lineNumber;
+
+        CsvReader(Reader in) {
+            this.in = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+        }
+
+        /**
+         * @return The next record, or null at the end of the input
+         */
+        CsvRow next() throws IOException {
+            String line = in.readLine();
+            if (line == null) {
+                return null;
+            }
+            int startLine = ++lineNumber;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                for (int i = 0; i < line.length(); i++) {
+                    char c = line.charAt(i);
+                    if (quoted) {
+                        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                            field.append('"');
+                            i++;
+                        } else if (c == '"') {
+                            quoted = false;
+                        } else {
+                            field.append(c);
+                        }
+                    } else if (c == '"') {
+                        quoted = true;
+                    } else if (c == ',') {
+                        fields.add(field.toString());
+                        field.setLength(0);
+                    } else {
+                        field.append(c);
+                    }
+                }
+                if (!quoted) {
+                    break;
+                }
+                line = in.readLine(); // Quoted field continues on the next line
+                if (line == null) {
+                    throw new IOException("Unterminated quoted field starting on line " + startLine);
+                }
+                lineNumber++;
+                field.append('\n');
+            }
+            fields.add(field.toString());
+            return new CsvRow(startLine, fields);
+        }
+    }
+
+    static final class CsvRow {
+
+        final int lineNumber;
+        final List<String> fields;
+
+        CsvRow(int lineNumber, List<String> fields) {
+            this.lineNumber = lineNumber;
+            this.fields = fields;
+        }
+
+        boolean isBlank() {
+            for (String field : fields) {
+                if (!field.trim().isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Lookups {
+
+        final Map<String, Room> rooms;           // Read-only; keyed by normalized room number
+        final Map<Integer, Integer> slotsLeft;   // Updated in file order as rows take slots
+        final Set<String> studentNumbers;        // Updated in file order
+        final Set<String> emails;                // Updated in file order
+
+        Lookups(Map<String, Room> rooms, Map<Integer, Integer> slotsLeft, Set<String> studentNumbers, Set<String> emails) {
+            this.rooms = rooms;
+            this.slotsLeft = slotsLeft;
+            this.studentNumbers = studentNumbers;
+            this.emails = emails;
+        }
+    }
+
+    private static final class Validated {
+
+        final int lineNumber;
+        final Tenant tenant;     // Null when the row has errors
+        final String roomNumber; // As written in the file, for messages
+        final RowError error;
+
+        Validated(int lineNumber, Tenant tenant, String roomNumber, RowError error) {
+            this.lineNumber = lineNumber;
+            this.tenant = tenant;
+            this.roomNumber = roomNumber;
+            this.error = error;
+        }
+    }
+
+    private static final class ChunkResult {
+
+        final int imported;
+        final List<RowError> errors;
+
+        ChunkResult(int imported, List<RowError> errors) {
+            this.imported = imported;
+            this.errors = errors;
+        }
+    }
+
+    /**
+     * A rejected row
+     */
+    public static final class RowError {
+
+        private final int lineNumber;
+        private final String message;
+
+        public RowError(int lineNumber, String message) {
+            this.lineNumber = lineNumber;
+            this.message = message;
+        }
+
+        /**
+         * @return Line of the file the row starts on; the header is line 1
+         */
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "Line " + lineNumber + ": " + message;
+        }
+    }
+
+    /**
+     * Outcome of a whole import
+     */
+    public static final class Summary {
+
+        private final int rowsProcessed;
+        private final int rowsImported;
+        private final List<RowError> errors;
+        private final boolean dryRun;
+        private final boolean cancelled;
+        private final long elapsedMillis;
+
+        public Summary(int rowsProcessed, int rowsImported, List<RowError> errors, boolean dryRun,
+                boolean cancelled, long elapsedMillis) {
+            this.rowsProcessed = rowsProcessed;
+            this.rowsImported = rowsImported;
+            this.errors = List.copyOf(errors);
+            this.dryRun = dryRun;
+            this.cancelled = cancelled;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getRowsProcessed() {
+            return rowsProcessed;
+        }
+
+        /**
+         * @return Rows written, or in a dry run the rows that would have been
+         */
+        public int getRowsImported() {
+            return rowsImported;
+        }
+
+        public List<RowError> getErrors() {
+            return errors;
+        }
+
+        public boolean isDryRun() {
+            return dryRun;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return (dryRun ? "Tenant import dry run" : "Tenant import")
+                    + (cancelled ? " cancelled" : " finished") + ": "
+                    + rowsImported + " of " + rowsProcessed + " rows " + (dryRun ? "valid" : "imported")
+                    + ", " + errors.size() + " rejected, " + elapsedMillis + " ms";
+        }
+    }
+}
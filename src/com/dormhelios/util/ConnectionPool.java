@@ -0,0 +1,503 @@
+package com.dormhelios.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Small bounded JDBC connection pool used by {@link DatabaseConnection} when
+ * pooling is enabled in database.properties.
+ *
+ * Callers borrow a connection and return it by calling {@code close()} on it,
+ * exactly as they would with a plain DriverManager connection, so the DAOs do
+ * not need to know whether pooling is on.
+ */
+public class ConnectionPool {
+
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    // Connections used within this window are handed out again without a validation round trip
+    private static final long VALIDATION_BYPASS_MS = 500;
+    private static final long HOUSEKEEPING_PERIOD_MS = 30_000;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minIdle;
+    private final int maxSize;
+    private final long connectionTimeoutMs;
+    private final long idleTimeoutMs;
+    private final long leakDetectionThresholdMs;
+    private final int validationTimeoutSeconds;
+
+    // Idle connections, most recently returned first (LIFO keeps the hot set small)
+    private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowedConnections = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+
+    // --- Statistics ---
+    private final AtomicLong totalBorrows = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong totalCreated = new AtomicLong();
+    private final AtomicLong totalDestroyed = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong borrowTimeouts = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+
+    private volatile boolean closed;
+
+    /**
+     * Creates a pool. No connections are opened here; the housekeeper fills
+     * the pool up to {@code minIdle} in the background.
+     *
+     * @param url JDBC URL
+     * @param user database user
+     * @param password database password
+     * @param minIdle number of idle connections to keep warm
+     * @param maxSize hard upper bound on open connections
+     * @param connectionTimeoutMs how long a caller may wait for a free connection
+     * @param idleTimeoutMs idle connections above minIdle are closed after this long
+     * @param leakDetectionThresholdMs borrowed connections held longer than this are
+     * reported with the borrower's stack trace (0 disables leak detection)
+     * @param validationTimeoutSeconds timeout passed to {@link Connection#isValid(int)}
+     */
+    public ConnectionPool(String url, String user, String password, int minIdle, int maxSize,
+            long connectionTimeoutMs, long idleTimeoutMs, long leakDetectionThresholdMs,
+            int validationTimeoutSeconds) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool maxSize must be at least 1");
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.minIdle = Math.max(0, Math.min(minIdle, maxSize));
+        this.connectionTimeoutMs = connectionTimeoutMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.leakDetectionThresholdMs = leakDetectionThresholdMs;
+        this.validationTimeoutSeconds = Math.max(1, validationTimeoutSeconds);
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "dormhelios-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0, HOUSEKEEPING_PERIOD_MS, TimeUnit.MILLISECONDS);
+
+        LOGGER.log(Level.INFO, "Connection pool created (minIdle={0}, maxSize={1})", new Object[]{this.minIdle, maxSize});
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new one if no idle
+     * connection is available and the pool is below its maximum size.
+     *
+     * @return a connection handle; closing it returns the connection to the pool
+     * @throws SQLException if no connection could be obtained within the timeout
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool has been shut down.");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(connectionTimeoutMs, TimeUnit.MILLISECONDS)) {
+                borrowTimeouts.incrementAndGet();
+                throw new SQLTimeoutException("Timed out after " + connectionTimeoutMs
+                        + " ms waiting for a pooled connection (maxSize=" + maxSize + ", borrowed="
+                        + borrowedConnections.size() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a pooled connection.", e);
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idleConnections.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    break;
+                }
+                validationFailures.incrementAndGet();
+                destroy(pooled);
+            }
+            if (pooled == null) {
+                pooled = openConnection();
+            }
+
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.borrowSite = leakDetectionThresholdMs > 0
+                    ? new Throwable("Connection borrowed by thread " + Thread.currentThread().getName())
+                    : null;
+            pooled.leakReported = false;
+            borrowedConnections.add(pooled);
+
+            long waited = System.nanoTime() - start;
+            totalBorrows.incrementAndGet();
+            totalWaitNanos.addAndGet(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a snapshot of the pool counters.
+     *
+     * @return current pool statistics
+     */
+    public PoolStats getStats() {
+        long borrows = totalBorrows.get();
+        return new PoolStats(
+                idleConnections.size() + borrowedConnections.size(),
+                idleConnections.size(),
+                borrowedConnections.size(),
+                maxSize,
+                permits.getQueueLength(),
+                borrows,
+                borrows == 0 ? 0.0 : totalWaitNanos.get() / (double) borrows / 1_000_000.0,
+                maxWaitNanos.get() / 1_000_000.0,
+                totalCreated.get(),
+                totalDestroyed.get(),
+                validationFailures.get(),
+                borrowTimeouts.get(),
+                leaksDetected.get());
+    }
+
+    /**
+     * Closes all idle connections and stops the housekeeper. Connections still
+     * borrowed are closed when their borrowers return them.
+     */
+    public void shutdown() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            destroy(pooled);
+        }
+        LOGGER.log(Level.INFO, "Connection pool shut down. {0}", getStats());
+    }
+
+    // --- Internal helpers ---
+
+    private PooledConnection openConnection() throws SQLException {
+        Connection raw = DriverManager.getConnection(url, user, password);
+        if (raw == null) {
+            throw new SQLException("Failed to establish database connection - DriverManager returned null.");
+        }
+        totalCreated.incrementAndGet();
+        try {
+            return new PooledConnection(raw, raw.getTransactionIsolation());
+        } catch (SQLException e) {
+            raw.close();
+            throw e;
+        }
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.lastReturnedAt < VALIDATION_BYPASS_MS) {
+            return true;
+        }
+        try {
+            return pooled.raw.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Pooled connection failed validation", e);
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        if (!borrowedConnections.remove(pooled)) {
+            return; // Already returned
+        }
+        try {
+            // An interrupt during socket I/O may have closed the socket without
+            // the driver noticing yet, and the connection would skip validation
+            boolean reusable = !closed && !pooled.raw.isClosed() && !Thread.currentThread().isInterrupted();
+            if (reusable && !pooled.raw.getAutoCommit()) {
+                // Discard anything the borrower left uncommitted
+                pooled.raw.rollback();
+                pooled.raw.setAutoCommit(true);
+            }
+            if (reusable && pooled.sessionChanged) {
+                // Hand the next borrower the settings of a fresh connection
+                pooled.raw.setReadOnly(false);
+                pooled.raw.setTransactionIsolation(pooled.defaultIsolation);
+                pooled.sessionChanged = false;
+            }
+            if (reusable) {
+                pooled.lastReturnedAt = System.currentTimeMillis();
+                idleConnections.offerFirst(pooled);
+            } else {
+                destroy(pooled);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Could not reset pooled connection on return; discarding it.", e);
+            destroy(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void destroy(PooledConnection pooled) {
+        totalDestroyed.incrementAndGet();
+        try {
+            pooled.raw.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Error closing pooled connection", e);
+        }
+    }
+
+    /**
+     * Periodic maintenance: evicts long-idle connections above minIdle, tops
+     * the pool back up to minIdle and reports suspected connection leaks.
+     */
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+
+            // 1. Idle eviction (oldest connections sit at the tail of the deque)
+            Iterator<PooledConnection> it = idleConnections.descendingIterator();
+            while (it.hasNext() && idleConnections.size() + borrowedConnections.size() > minIdle) {
+                PooledConnection pooled = it.next();
+                if (now - pooled.lastReturnedAt > idleTimeoutMs && idleConnections.remove(pooled)) {
+                    destroy(pooled);
+                }
+            }
+
+            // 2. Keep minIdle connections warm
+            while (!closed && idleConnections.size() + borrowedConnections.size() < minIdle
+                    && permits.tryAcquire()) {
+                try {
+                    PooledConnection pooled = openConnection();
+                    pooled.lastReturnedAt = System.currentTimeMillis();
+                    idleConnections.offerLast(pooled);
+                } finally {
+                    permits.release();
+                }
+            }
+
+            // 3. Leak detection
+            if (leakDetectionThresholdMs > 0) {
+                for (PooledConnection pooled : borrowedConnections) {
+                    long heldFor = now - pooled.borrowedAt;
+                    if (!pooled.leakReported && heldFor > leakDetectionThresholdMs) {
+                        pooled.leakReported = true;
+                        leaksDetected.incrementAndGet();
+                        LOGGER.log(Level.WARNING, "Possible connection leak: connection held for " + heldFor
+                                + " ms without being closed.", pooled.borrowSite);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Connection pool could not open a warm-up connection", e);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Unexpected error during connection pool housekeeping", e);
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool.
+     */
+    private final class PooledConnection {
+        private final Connection raw;
+        private final int defaultIsolation;
+        private volatile long lastReturnedAt;
+        private volatile long borrowedAt;
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+        // Set when a borrower changes read-only mode or isolation level
+        private volatile boolean sessionChanged;
+
+        PooledConnection(Connection raw, int defaultIsolation) {
+            this.raw = raw;
+            this.defaultIsolation = defaultIsolation;
+        }
+
+        /**
+         * Creates a fresh handle for one borrow. Each handle can be closed only
+         * once, so a stale reference closed twice cannot return the physical
+         * connection while someone else is using it.
+         */
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new HandleInvocationHandler(this));
+        }
+    }
+
+    /**
+     * Routes calls on a borrowed handle to the physical connection and turns
+     * {@code close()} into a return to the pool.
+     */
+    private final class HandleInvocationHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private volatile boolean handleClosed;
+
+        HandleInvocationHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!handleClosed) {
+                        handleClosed = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return handleClosed || pooled.raw.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.raw + (handleClosed ? ", returned" : "") + "]";
+                case "setReadOnly":
+                case "setTransactionIsolation":
+                    if (!handleClosed) {
+                        pooled.sessionChanged = true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (handleClosed) {
+                throw new SQLException("Connection has already been returned to the pool.");
+            }
+            try {
+                return method.invoke(pooled.raw, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Immutable snapshot of pool counters for display in the admin UI.
+     */
+    public static final class PoolStats {
+        private final int totalConnections;
+        private final int idleConnections;
+        private final int borrowedConnections;
+        private final int maxSize;
+        private final int threadsAwaiting;
+        private final long totalBorrows;
+        private final double averageWaitMillis;
+        private final double maxWaitMillis;
+        private final long connectionsCreated;
+        private final long connectionsDestroyed;
+        private final long validationFailures;
+        private final long borrowTimeouts;
+        private final long leaksDetected;
+
+        public PoolStats(int totalConnections, int idleConnections, int borrowedConnections, int maxSize,
+                int threadsAwaiting, long totalBorrows, double averageWaitMillis, double maxWaitMillis,
+                long connectionsCreated, long connectionsDestroyed, long validationFailures,
+                long borrowTimeouts, long leaksDetected) {
+            this.totalConnections = totalConnections;
+            this.idleConnections = idleConnections;
+            this.borrowedConnections = borrowedConnections;
+            this.maxSize = maxSize;
+            this.threadsAwaiting = threadsAwaiting;
+            this.totalBorrows = totalBorrows;
+            this.averageWaitMillis = averageWaitMillis;
+            this.maxWaitMillis = maxWaitMillis;
+            this.connectionsCreated = connectionsCreated;
+            this.connectionsDestroyed = connectionsDestroyed;
+            this.validationFailures = validationFailures;
+            this.borrowTimeouts = borrowTimeouts;
+            this.leaksDetected = leaksDetected;
+        }
+
+        public int getTotalConnections() {
+            return totalConnections;
+        }
+
+        public int getIdleConnections() {
+            return idleConnections;
+        }
+
+        public int getBorrowedConnections() {
+            return borrowedConnections;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public int getThreadsAwaiting() {
+            return threadsAwaiting;
+        }
+
+        public long getTotalBorrows() {
+            return totalBorrows;
+        }
+
+        public double getAverageWaitMillis() {
+            return averageWaitMillis;
+        }
+
+        public double getMaxWaitMillis() {
+            return maxWaitMillis;
+        }
+
+        public long getConnectionsCreated() {
+            return connectionsCreated;
+        }
+
+        public long getConnectionsDestroyed() {
+            return connectionsDestroyed;
+        }
+
+        public long getValidationFailures() {
+            return validationFailures;
+        }
+
+        public long getBorrowTimeouts() {
+            return borrowTimeouts;
+        }
+
+        public long getLeaksDetected() {
+            return leaksDetected;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("PoolStats{total=%d, idle=%d, borrowed=%d, max=%d, awaiting=%d, borrows=%d, "
+                    + "avgWait=%.2fms, maxWait=%.2fms, created=%d, destroyed=%d, validationFailures=%d, "
+                    + "timeouts=%d, leaks=%d}",
+                    totalConnections, idleConnections, borrowedConnections, maxSize, threadsAwaiting,
+                    totalBorrows, averageWaitMillis, maxWaitMillis, connectionsCreated, connectionsDestroyed,
+                    validationFailures, borrowTimeouts, leaksDetected);
+        }
+    }
+}
@@ -3,9 +3,12 @@ package com.dormhelios.util;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.Deque;
+import java.util.Optional;
 import java.util.Properties; // For potentially loading from file
 import java.io.InputStream; // For loading properties file
 import java.io.IOException; // For file loading errors
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -17,16 +20,34 @@ public class DatabaseConnection {
     // --- Configuration Variables ---
     // Load these from the properties file for better practice
     
-    private static String dbUrl = "jdbc:mysql://localhost:3306/dormhelios_db?useSSL=false&serverTimezone=UTC"; // Default URL
+    // rewriteBatchedStatements lets Connector/J send a JDBC batch as one multi-row INSERT
+    private static String dbUrl = "jdbc:mysql://localhost:3306/dormhelios_db?useSSL=false&serverTimezone=UTC&rewriteBatchedStatements=true"; // Default URL
     private static String dbUser = "root"; // Default User
     private static String dbPassword = ""; // Default Password
-     
-   
+
+    // --- Pool Configuration (db.pool.* keys in database.properties) ---
+    private static boolean poolEnabled = true;
+    private static int poolMinIdle = 2;
+    private static int poolMaxSize = 10;
+    private static long poolConnectionTimeoutMs = 10_000;
+    private static long poolIdleTimeoutMs = 300_000;
+    private static long poolLeakDetectionThresholdMs = 30_000;
+    private static int poolValidationTimeoutSeconds = 2;
+
+    // Null when pooling is disabled
+    private static ConnectionPool pool;
+
+    // Run newest first by shutdown() before the pool closes, so final writes (e.g. audit entries) still get a connection
+    private static final Deque<Runnable> shutdownTasks = new ConcurrentLinkedDeque<>();
+
+    // --- Query Instrumentation (db.metrics.* keys in database.properties) ---
+    private static boolean metricsEnabled = false;
+    private static long slowQueryThresholdMs = 200;
 
 
     private static final String JDBC_DRIVER = "com.mysql.cj.jdbc.Driver";
 
-    // --- Standard JDBC Driver Loading (Without Pooling) ---
+    // --- Standard JDBC Driver Loading ---
     static {
         // Load properties first before trying to load the driver (in case driver class name is in properties)
         loadProperties();
@@ -41,6 +62,21 @@ public class DatabaseConnection {
             LOGGER.log(Level.SEVERE, "An unexpected error occurred during static initialization.", e);
             throw new RuntimeException("Fatal Error: Unexpected error during static initialization.", e);
         }
+
+        // -Ddormhelios.db.metrics=true overrides the properties file
+        metricsEnabled = Boolean.parseBoolean(System.getProperty("dormhelios.db.metrics", String.valueOf(metricsEnabled)));
+        QueryMetrics.configure(metricsEnabled, slowQueryThresholdMs);
+
+        if (poolEnabled) {
+            pool = new ConnectionPool(dbUrl, dbUser, dbPassword, poolMinIdle, poolMaxSize,
+                    poolConnectionTimeoutMs, poolIdleTimeoutMs, poolLeakDetectionThresholdMs,
+                    poolValidationTimeoutSeconds);
+        } else {
+            LOGGER.log(Level.INFO, "Connection pooling disabled; using a new DriverManager connection per request.");
+        }
+        // The only hook that touches the database: the JVM runs hooks concurrently, so
+        // anything that must write on exit registers a shutdown task instead of its own hook
+        Runtime.getRuntime().addShutdownHook(new Thread(DatabaseConnection::shutdown, "dormhelios-db-shutdown"));
     }
 
     private static void loadProperties() {
@@ -57,6 +93,17 @@ public class DatabaseConnection {
             dbUser = props.getProperty("db.user", dbUser);
             dbPassword = props.getProperty("db.password", dbPassword);
 
+            poolEnabled = Boolean.parseBoolean(props.getProperty("db.pool.enabled", String.valueOf(poolEnabled)));
+            poolMinIdle = parseInt(props, "db.pool.minIdle", poolMinIdle);
+            poolMaxSize = parseInt(props, "db.pool.maxSize", poolMaxSize);
+            poolConnectionTimeoutMs = parseLong(props, "db.pool.connectionTimeoutMs", poolConnectionTimeoutMs);
+            poolIdleTimeoutMs = parseLong(props, "db.pool.idleTimeoutMs", poolIdleTimeoutMs);
+            poolLeakDetectionThresholdMs = parseLong(props, "db.pool.leakDetectionThresholdMs", poolLeakDetectionThresholdMs);
+            poolValidationTimeoutSeconds = parseInt(props, "db.pool.validationTimeoutSeconds", poolValidationTimeoutSeconds);
+
+            metricsEnabled = Boolean.parseBoolean(props.getProperty("db.metrics.enabled", String.valueOf(metricsEnabled)));
+            slowQueryThresholdMs = parseLong(props, "db.metrics.slowQueryThresholdMs", slowQueryThresholdMs);
+
             LOGGER.log(Level.INFO, "Database properties loaded successfully from " + PROPERTIES_FILE);
 
         } catch (IOException e) {
@@ -64,11 +111,63 @@ public class DatabaseConnection {
         }
     }
 
+    private static int parseInt(Properties props, String key, int defaultValue) {
+        try {
+            return Integer.parseInt(props.getProperty(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "Invalid value for " + key + ". Using default: " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    private static long parseLong(Properties props, String key, long defaultValue) {
+        try {
+            return Long.parseLong(props.getProperty(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "Invalid value for " + key + ". Using default: " + defaultValue);
+            return defaultValue;
+        }
+    }
+
     private DatabaseConnection() {
         throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
     }
 
+    /**
+     * Returns a database connection. When pooling is enabled the connection is
+     * borrowed from the pool and closing it hands it back; otherwise a new
+     * DriverManager connection is opened. Either way callers simply close it.
+     * While {@link QueryMetrics} is enabled the connection is instrumented and
+     * the time taken to obtain it is recorded.
+     *
+     * @return an open connection
+     * @throws SQLException if no connection could be obtained
+     */
     public static Connection getConnection() throws SQLException {
+        if (!QueryMetrics.isEnabled()) {
+            return acquireConnection();
+        }
+        long start = System.nanoTime();
+        boolean acquired = false;
+        try {
+            Connection connection = acquireConnection();
+            acquired = true;
+            return QueryMetrics.instrument(connection);
+        } finally {
+            QueryMetrics.recordAcquisition(System.nanoTime() - start, acquired);
+        }
+    }
+
+    private static Connection acquireConnection() throws SQLException {
+        if (pool != null) {
+            try {
+                return pool.getConnection();
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Failed to borrow a pooled database connection.", e);
+                LOGGER.log(Level.SEVERE, "Connection URL: " + dbUrl + ", User: " + dbUser);
+                throw e;
+            }
+        }
 
         try {
             Connection connection = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
@@ -86,4 +185,54 @@ public class DatabaseConnection {
         }
     }
 
+    /**
+     * @return true if connections are served from the built-in pool
+     */
+    public static boolean isPoolingEnabled() {
+        return pool != null;
+    }
+
+    /**
+     * Returns the current pool counters (borrowed, idle, wait times, leaks).
+     *
+     * @return pool statistics, or empty if pooling is disabled
+     */
+    public static Optional<ConnectionPool.PoolStats> getPoolStats() {
+        return pool != null ? Optional.of(pool.getStats()) : Optional.empty();
+    }
+
+    /**
+     * Registers work to run on shutdown while connections are still available.
+     * Tasks run newest first, on the shutdown thread.
+     *
+     * @param task e.g. a final flush of queued writes
+     */
+    public static void addShutdownTask(Runnable task) {
+        shutdownTasks.addFirst(task);
+    }
+
+    /**
+     * @param task A task passed to addShutdownTask that is no longer needed
+     */
+    public static void removeShutdownTask(Runnable task) {
+        shutdownTasks.remove(task);
+    }
+
+    /**
+     * Runs the shutdown tasks, then closes all pooled connections. Safe to
+     * call more than once. Called automatically on JVM shutdown.
+     */
+    public static void shutdown() {
+        Runnable task;
+        while ((task = shutdownTasks.pollFirst()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Shutdown task failed", e);
+            }
+        }
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
 }
@@ -0,0 +1,340 @@
+package com.dormhelios.util;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.swing.SwingUtilities;
+
+/**
+ * Detects freezes of the Swing Event Dispatch Thread.
+ *
+ * A background thread keeps one heartbeat event queued on the EDT. When a
+ * heartbeat has waited longer than the stall threshold, the EDT is blocked
+ * (typically by JDBC or other I/O in a listener): the watchdog captures the
+ * EDT's stack, attributes the stall to the first application frame on it
+ * (controller frames first), logs it through the application Logger and
+ * counts it. When the heartbeat finally runs, the total stall duration is
+ * logged as well.
+ *
+ * Enabled by default; run with -Ddormhelios.diagnostics=false to turn it off.
+ * The threshold is set with -Ddormhelios.edt.stallThresholdMs (default 250).
+ */
+public class EdtWatchdog {
+
+    public static final long DEFAULT_STALL_THRESHOLD_MS = 250;
+    private static final int MAX_RECENT_STALLS = 20;
+    private static final int LOGGED_STACK_DEPTH = 25;
+    private static final String SOURCE = "EdtWatchdog";
+
+    private static final AtomicLong stallCount = new AtomicLong();
+    private static final AtomicLong maxStallMillis = new AtomicLong();
+    private static final Map<String, AtomicLong> stallsBySource = new ConcurrentHashMap<>();
+    private static final Deque<Stall> recentStalls = new ArrayDeque<>(); // Guarded by itself; newest first
+
+    private static volatile long thresholdMillis = DEFAULT_STALL_THRESHOLD_MS;
+    private static volatile Thread watchdogThread;
+    private static volatile Thread edtThread;
+    private static volatile Heartbeat pending;
+
+    private EdtWatchdog() {
+    }
+
+    /**
+     * Starts the watchdog unless diagnostics are disabled by system property.
+     * Safe to call more than once.
+     */
+    public static void startFromSystemProperties() {
+        if (!Boolean.parseBoolean(System.getProperty("dormhelios.diagnostics", "true"))) {
+            return;
+        }
+        long threshold = DEFAULT_STALL_THRESHOLD_MS;
+        String configured = System.getProperty("dormhelios.edt.stallThresholdMs");
+        if (configured != null) {
+            try {
+                threshold = Long.parseLong(configured.trim());
+            } catch (NumberFormatException e) {
+                Logger.getInstance().warning(SOURCE, "Invalid dormhelios.edt.stallThresholdMs: " + configured);
+            }
+        }
+        start(threshold);
+    }
+
+    /**
+     * Starts the watchdog, or changes the threshold if it is already running
+     * @param stallThresholdMs Time the EDT may be busy before it counts as stalled
+     */
+    public static synchronized void start(long stallThresholdMs) {
+        if (stallThresholdMs < 1) {
+            throw new IllegalArgumentException("stallThresholdMs must be positive: " + stallThresholdMs);
+        }
+        thresholdMillis = stallThresholdMs;
+        if (watchdogThread != null) {
+            return;
+        }
+        Thread thread = new Thread(EdtWatchdog::run, "dormhelios-edt-watchdog");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY); // Must get CPU time while the app is busy
+        watchdogThread = thread;
+        thread.start();
+        Logger.getInstance().system(SOURCE, "EDT watchdog started, stall threshold " + stallThresholdMs + " ms");
+    }
+
+    public static synchronized void stop() {
+        Thread thread = watchdogThread;
+        watchdogThread = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    public static boolean isRunning() {
+        return watchdogThread != null;
+    }
+
+    public static long getStallThresholdMillis() {
+        return thresholdMillis;
+    }
+
+    /**
+     * @return Current counters and the most recent stalls
+     */
+    public static Stats getStats() {
+        Map<String, Long> bySource = new LinkedHashMap<>();
+        stallsBySource.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().get(), a.getValue().get()))
+                .forEach(entry -> bySource.put(entry.getKey(), entry.getValue().get()));
+        List<Stall> recent;
+        synchronized (recentStalls) {
+            recent = new ArrayList<>(recentStalls);
+        }
+        Heartbeat current = pending;
+        long blockedMillis = current != null && current.reported
+                ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - current.postedNanos) : 0;
+        return new Stats(isRunning(), thresholdMillis, stallCount.get(), maxStallMillis.get(),
+                blockedMillis, bySource, recent);
+    }
+
+    // --- Internals ---
+
+    private static void run() {
+        while (watchdogThread == Thread.currentThread()) {
+            long threshold = thresholdMillis;
+            try {
+                // Check a few times per threshold so a stall is caught soon after it crosses it
+                Thread.sleep(Math.max(10, threshold / 4));
+            } catch (InterruptedException e) {
+                return;
+            }
+            Heartbeat heartbeat = pending;
+            if (heartbeat == null) {
+                Heartbeat next = new Heartbeat(System.nanoTime());
+                pending = next;
+                SwingUtilities.invokeLater(next);
+            } else if (!heartbeat.reported
+                    && System.nanoTime() - heartbeat.postedNanos >= TimeUnit.MILLISECONDS.toNanos(threshold)) {
+                reportStall(heartbeat, threshold);
+            }
+        }
+    }
+
+    private static void reportStall(Heartbeat heartbeat, long threshold) {
+        Thread edt = edtThread;
+        StackTraceElement[] stack = edt != null ? edt.getStackTrace() : new StackTraceElement[0];
+        if (pending != heartbeat) {
+            return; // The EDT caught up while the stack was being captured
+        }
+        String source = attribute(stack);
+        heartbeat.reported = true;
+        heartbeat.source = source;
+
+        stallCount.incrementAndGet();
+        stallsBySource.computeIfAbsent(source, key -> new AtomicLong()).incrementAndGet();
+
+        StringBuilder message = new StringBuilder("EDT blocked for over ")
+                .append(threshold).append(" ms in ").append(source).append('\n');
+        for (int i = 0; i < Math.min(stack.length, LOGGED_STACK_DEPTH); i++) {
+            message.append("    at ").append(stack[i]).append('\n');
+        }
+        if (stack.length > LOGGED_STACK_DEPTH) {
+            message.append("    ... ").append(stack.length - LOGGED_STACK_DEPTH).append(" more");
+        }
+        Logger.getInstance().warning(SOURCE, message.toString().trim());
+    }
+
+    /**
+     * Records the end of a stall once the blocked heartbeat runs
+     */
+    private static void stallEnded(Heartbeat heartbeat) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - heartbeat.postedNanos);
+        maxStallMillis.accumulateAndGet(millis, Math::max);
+        synchronized (recentStalls) {
+            recentStalls.addFirst(new Stall(heartbeat.source, millis, LocalDateTime.now()));
+            while (recentStalls.size() > MAX_RECENT_STALLS) {
+                recentStalls.removeLast();
+            }
+        }
+        Logger.getInstance().warning(SOURCE, "EDT stall in " + heartbeat.source + " lasted " + millis + " ms");
+    }
+
+    /**
+     * Names the application method the EDT is stuck in: the innermost
+     * controller frame if there is one, otherwise the innermost frame of any
+     * other application class, then of any non-JDK class, then the top of the stack.
+     */
+    static String attribute(StackTraceElement[] stack) {
+        StackTraceElement applicationFrame = null;
+        for (StackTraceElement frame : stack) {
+            String className = frame.getClassName();
+            if (className.startsWith("com.dormhelios.controller.")) {
+                return describe(frame);
+            }
+            if (applicationFrame == null && className.startsWith("com.dormhelios.")
+                    && !className.startsWith(EdtWatchdog.class.getName())) {
+                applicationFrame = frame;
+            }
+        }
+        if (applicationFrame != null) {
+            return describe(applicationFrame);
+        }
+        for (StackTraceElement frame : stack) {
+            String className = frame.getClassName();
+            if (!className.startsWith("java.") && !className.startsWith("javax.")
+                    && !className.startsWith("jdk.") && !className.startsWith("sun.")) {
+                return describe(frame); // e.g. a library listener
+            }
+        }
+        return stack.length > 0 ? describe(stack[0]) : "unknown";
+    }
+
+    private static String describe(StackTraceElement frame) {
+        String className = frame.getClassName();
+        String simpleName = className.substring(className.lastIndexOf('.') + 1);
+        int lambda = simpleName.indexOf('$');
+        if (lambda > 0) {
+            simpleName = simpleName.substring(0, lambda); // Anonymous and inner classes report their outer class
+        }
+        return simpleName + "." + frame.getMethodName()
+                + (frame.getLineNumber() > 0 ? ":" + frame.getLineNumber() : "");
+    }
+
+    private static final class Heartbeat implements Runnable {
+
+        final long postedNanos;
+        volatile boolean reported; // Set by the watchdog once the stall is logged
+        volatile String source;
+
+        Heartbeat(long postedNanos) {
+            this.postedNanos = postedNanos;
+        }
+
+        @Override
+        public void run() {
+            edtThread = Thread.currentThread();
+            pending = null;
+            if (reported) {
+                stallEnded(this);
+            }
+        }
+    }
+
+    /**
+     * One finished stall
+     */
+    public static final class Stall {
+
+        private final String source;
+        private final long durationMillis;
+        private final LocalDateTime endedAt;
+
+        public Stall(String source, long durationMillis, LocalDateTime endedAt) {
+            this.source = source;
+            this.durationMillis = durationMillis;
+            this.endedAt = endedAt;
+        }
+
+        /**
+         * @return Method the EDT was blocked in, e.g. "PaymentController.showLogPaymentDialog:212"
+         */
+        public String getSource() {
+            return source;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        public LocalDateTime getEndedAt() {
+            return endedAt;
+        }
+    }
+
+    /**
+     * Point-in-time watchdog counters
+     */
+    public static final class Stats {
+
+        private final boolean running;
+        private final long thresholdMillis;
+        private final long stallCount;
+        private final long maxStallMillis;
+        private final long currentlyBlockedMillis;
+        private final Map<String, Long> stallsBySource;
+        private final List<Stall> recentStalls;
+
+        public Stats(boolean running, long thresholdMillis, long stallCount, long maxStallMillis,
+                long currentlyBlockedMillis, Map<String, Long> stallsBySource, List<Stall> recentStalls) {
+            this.running = running;
+            this.thresholdMillis = thresholdMillis;
+            this.stallCount = stallCount;
+            this.maxStallMillis = maxStallMillis;
+            this.currentlyBlockedMillis = currentlyBlockedMillis;
+            this.stallsBySource = Collections.unmodifiableMap(new LinkedHashMap<>(stallsBySource));
+            this.recentStalls = List.copyOf(recentStalls);
+        }
+
+        public boolean isRunning() {
+            return running;
+        }
+
+        public long getThresholdMillis() {
+            return thresholdMillis;
+        }
+
+        public long getStallCount() {
+            return stallCount;
+        }
+
+        public long getMaxStallMillis() {
+            return maxStallMillis;
+        }
+
+        /**
+         * @return How long the EDT has been blocked by a stall still in progress, or 0
+         */
+        public long getCurrentlyBlockedMillis() {
+            return currentlyBlockedMillis;
+        }
+
+        /**
+         * @return Stall counts per attributed method, most frequent first
+         */
+        public Map<String, Long> getStallsBySource() {
+            return stallsBySource;
+        }
+
+        /**
+         * @return The most recent finished stalls, newest first
+         */
+        public List<Stall> getRecentStalls() {
+            return recentStalls;
+        }
+    }
+}
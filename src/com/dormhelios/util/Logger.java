@@ -2,33 +2,91 @@ package com.dormhelios.util;
 
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * System-wide logger utility for DormHelios application
- * Logs messages to a file and keeps them in memory for display
+ * Logs messages to a file and keeps them in memory for display.
+ *
+ * The in-memory tail is a lock-free ring buffer. By default file output is
+ * asynchronous: callers enqueue entries on a bounded queue and a single writer
+ * thread keeps the day's log file open, flushing in batches. Behaviour can be
+ * tuned with system properties:
+ * <ul>
+ *   <li>{@code dormhelios.log.async} - true (default) or false for synchronous writes</li>
+ *   <li>{@code dormhelios.log.queueCapacity} - pending entries before the overflow policy applies (default 8192)</li>
+ *   <li>{@code dormhelios.log.overflowPolicy} - DROP (default) or BLOCK when the queue is full</li>
+ * </ul>
  */
 public class Logger {
-    private static final Logger instance = new Logger();
     private static final String LOG_FOLDER = "logs";
     private static final String LOG_FILE_PREFIX = "dormhelios_";
     private static final String LOG_FILE_EXT = ".log";
     private static final int MAX_MEMORY_LOGS = 1000;
-    
-    private final List<LogEntry> logEntries;
-    private final SimpleDateFormat dateFormat;
-    private String currentLogFile;
-    
+    private static final int DEFAULT_QUEUE_CAPACITY = 8192;
+    private static final int FLUSH_BATCH_SIZE = 256;     // Flush after this many unflushed lines...
+    private static final long FLUSH_INTERVAL_MS = 1000;  // ...or after this long, whichever comes first
+    private static final DateTimeFormatter FILE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    // Declared after the constants above so they are initialized first
+    private static final Logger instance = new Logger();
+
+    /**
+     * What log() does when the asynchronous queue is full
+     */
+    public enum OverflowPolicy {
+        DROP,  // Discard the entry (it still reaches the in-memory buffer) and count it
+        BLOCK  // Wait for the writer to make room
+    }
+
+    // --- In-memory ring buffer ---
+    private final AtomicReferenceArray<Slot> ring = new AtomicReferenceArray<>(MAX_MEMORY_LOGS);
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    // --- File output ---
+    private final boolean async;
+    private final OverflowPolicy overflowPolicy;
+    private final BlockingQueue<LogEntry> pending;
+    private final AtomicLong droppedEntries = new AtomicLong();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+    private volatile String currentLogFile;
+    private LocalDate currentLogDate;   // Guarded by "this" (writer thread in async mode)
+    private BufferedWriter fileWriter;  // Guarded by "this"
+    private int unflushedLines;         // Guarded by "this"
+    private long lastFlushMillis;       // Guarded by "this"
+
     private Logger() {
-        this.logEntries = new ArrayList<>();
-        this.dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        this.async = Boolean.parseBoolean(System.getProperty("dormhelios.log.async", "true"));
+        this.overflowPolicy = parsePolicy(System.getProperty("dormhelios.log.overflowPolicy"));
+        this.pending = new ArrayBlockingQueue<>(parseCapacity(System.getProperty("dormhelios.log.queueCapacity")));
         initLogDirectory();
-        setupCurrentLogFile();
+        setupCurrentLogFile(LocalDate.now());
+
+        if (async) {
+            writerThread = new Thread(this::runWriter, "dormhelios-log-writer");
+            writerThread.setDaemon(true);
+            writerThread.start();
+        } else {
+            writerThread = null;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "dormhelios-log-shutdown"));
     }
     
     public static Logger getInstance() {
@@ -82,11 +140,22 @@ public class Logger {
     }
     
     /**
-     * Returns all log entries currently in memory
+     * Returns all log entries currently in memory, oldest first.
+     * Reads the ring buffer without locking; entries overwritten while
+     * reading are skipped.
      * @return List of LogEntry objects
      */
     public List<LogEntry> getLogEntries() {
-        return new ArrayList<>(logEntries);
+        long end = nextSequence.get();
+        long start = Math.max(0, end - MAX_MEMORY_LOGS);
+        List<LogEntry> entries = new ArrayList<>((int) (end - start));
+        for (long seq = start; seq < end; seq++) {
+            Slot slot = ring.get((int) (seq % MAX_MEMORY_LOGS));
+            if (slot != null && slot.sequence == seq) {
+                entries.add(slot.entry);
+            }
+        }
+        return entries;
     }
     
     /**
@@ -95,7 +164,7 @@ public class Logger {
      */
     public String getFormattedLogs() {
         StringBuilder sb = new StringBuilder();
-        for (LogEntry entry : logEntries) {
+        for (LogEntry entry : getLogEntries()) {
             sb.append(entry.toString()).append("\n");
         }
         return sb.toString();
@@ -108,18 +177,105 @@ public class Logger {
     public String getCurrentLogFile() {
         return currentLogFile;
     }
+
+    /**
+     * @return Number of entries not written to file because the queue was full
+     */
+    public long getDroppedEntryCount() {
+        return droppedEntries.get();
+    }
+
+    /**
+     * @return Number of entries waiting for the writer thread
+     */
+    public int getPendingEntryCount() {
+        return pending.size();
+    }
+
+    /**
+     * Stops the writer thread after it has written everything queued so far.
+     * Called automatically on JVM shutdown.
+     */
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        if (writerThread != null) {
+            // Not interrupted: an interrupt during a write would close the file channel.
+            // The writer notices running == false within one poll interval.
+            try {
+                writerThread.join(FLUSH_INTERVAL_MS * 2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            // Anything left (sync mode, or the writer did not finish in time)
+            List<LogEntry> rest = new ArrayList<>();
+            pending.drainTo(rest);
+            for (LogEntry entry : rest) {
+                writeToLogFile(entry);
+            }
+            closeLogFile();
+        }
+    }
     
     private void log(LogLevel level, String source, String message) {
         LogEntry entry = new LogEntry(level, source, message, new Date());
         
-        // Add to memory cache
-        logEntries.add(entry);
-        if (logEntries.size() > MAX_MEMORY_LOGS) {
-            logEntries.remove(0); // Remove oldest entry if we exceed max
-        }
+        // Add to memory cache; the slot being replaced is the oldest entry
+        long seq = nextSequence.getAndIncrement();
+        ring.set((int) (seq % MAX_MEMORY_LOGS), new Slot(seq, entry));
         
         // Write to file
-        writeToLogFile(entry);
+        if (!async || !running) {
+            synchronized (this) {
+                writeToLogFile(entry);
+                flushLogFile();
+            }
+        } else if (overflowPolicy == OverflowPolicy.BLOCK) {
+            try {
+                pending.put(entry);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                droppedEntries.incrementAndGet();
+            }
+        } else if (!pending.offer(entry)) {
+            droppedEntries.incrementAndGet();
+        }
+    }
+
+    // --- Writer thread ---
+
+    private void runWriter() {
+        List<LogEntry> batch = new ArrayList<>(FLUSH_BATCH_SIZE);
+        while (running || !pending.isEmpty()) {
+            try {
+                LogEntry first = pending.poll(FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    pending.drainTo(batch, FLUSH_BATCH_SIZE - 1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false; // Drain what is left, then exit
+            }
+            synchronized (this) {
+                for (LogEntry entry : batch) {
+                    writeToLogFile(entry);
+                }
+                if (unflushedLines >= FLUSH_BATCH_SIZE
+                        || (unflushedLines > 0 && (pending.isEmpty()
+                        || System.currentTimeMillis() - lastFlushMillis >= FLUSH_INTERVAL_MS))) {
+                    flushLogFile();
+                }
+            }
+            batch.clear();
+        }
+        synchronized (this) {
+            flushLogFile();
+        }
     }
     
     private void initLogDirectory() {
@@ -129,20 +285,98 @@ public class Logger {
         }
     }
     
-    private void setupCurrentLogFile() {
-        SimpleDateFormat fileDateFormat = new SimpleDateFormat("yyyy-MM-dd");
+    private void setupCurrentLogFile(LocalDate date) {
+        currentLogDate = date;
         currentLogFile = LOG_FOLDER + File.separator + 
                          LOG_FILE_PREFIX + 
-                         fileDateFormat.format(new Date()) + 
+                         FILE_DATE_FORMAT.format(date) + 
                          LOG_FILE_EXT;
     }
     
+    /**
+     * Appends one entry to the open log file, rolling over to a new file when
+     * the entry's date differs from the current file's date. Caller holds the lock.
+     */
     private void writeToLogFile(LogEntry entry) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(currentLogFile, true))) {
-            writer.write(entry.toString());
-            writer.newLine();
+        LocalDate entryDate = entry.getTimestamp().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        try {
+            if (!entryDate.equals(currentLogDate)) {
+                closeLogFile();
+                setupCurrentLogFile(entryDate);
+            }
+            if (fileWriter == null) {
+                fileWriter = Files.newBufferedWriter(Paths.get(currentLogFile), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            fileWriter.write(entry.toString());
+            fileWriter.newLine();
+            unflushedLines++;
         } catch (IOException e) {
             System.err.println("Failed to write to log file: " + e.getMessage());
+            closeLogFile(); // Reopen on the next entry
+        }
+    }
+
+    private void flushLogFile() {
+        if (fileWriter != null) {
+            try {
+                fileWriter.flush();
+            } catch (IOException e) {
+                System.err.println("Failed to flush log file: " + e.getMessage());
+            }
+        }
+        unflushedLines = 0;
+        lastFlushMillis = System.currentTimeMillis();
+    }
+
+    private void closeLogFile() {
+        if (fileWriter != null) {
+            try {
+                fileWriter.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close log file: " + e.getMessage());
+            }
+            fileWriter = null;
+        }
+        unflushedLines = 0;
+    }
+
+    private static OverflowPolicy parsePolicy(String value) {
+        if (value != null) {
+            try {
+                return OverflowPolicy.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.err.println("Unknown log overflow policy '" + value + "', using DROP");
+            }
+        }
+        return OverflowPolicy.DROP;
+    }
+
+    private static int parseCapacity(String value) {
+        if (value != null) {
+            try {
+                int capacity = Integer.parseInt(value.trim());
+                if (capacity > 0) {
+                    return capacity;
+                }
+            } catch (NumberFormatException e) {
+                // Fall through to the default
+            }
+            System.err.println("Invalid log queue capacity '" + value + "', using " + DEFAULT_QUEUE_CAPACITY);
+        }
+        return DEFAULT_QUEUE_CAPACITY;
+    }
+
+    /**
+     * Ring buffer slot; the sequence number lets readers detect overwritten slots
+     */
+    private static final class Slot {
+        private final long sequence;
+        private final LogEntry entry;
+
+        private Slot(long sequence, LogEntry entry) {
+            this.sequence = sequence;
+            this.entry = entry;
         }
     }
     
@@ -0,0 +1,303 @@
+package com.dormhelios.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded, thread-safe LRU cache with an optional time-to-live and
+ * hit/miss/eviction counters. Values can be copied on the way in and out
+ * so callers never share a mutable instance with the cache.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public class LruCache<K, V> {
+
+    // Every live cache, for the admin performance panel; weak so dropped caches are not kept alive
+    private static final Set<LruCache<?, ?>> REGISTRY = Collections.synchronizedSet(
+            Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private final String name;
+    private final int maxEntries;
+    private final long ttlNanos; // 0 = entries never expire
+    private final UnaryOperator<V> copier;
+    private final LinkedHashMap<K, Entry<V>> entries; // Guarded by "this"; access-ordered
+    // Bumped by every put and invalidation (guarded by "this"), so a load that
+    // started before one of them cannot store its older result afterwards
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * @param name Name used in stats and log output
+     * @param maxEntries Maximum number of entries before the least recently used is evicted
+     * @param ttl Time-to-live of an entry, or 0 for no expiry
+     * @param unit Unit of ttl
+     * @param copier Copies values on put and get; use UnaryOperator.identity() for immutable values
+     */
+    public LruCache(String name, int maxEntries, long ttl, TimeUnit unit, UnaryOperator<V> copier) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1: " + maxEntries);
+        }
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl > 0 ? unit.toNanos(ttl) : 0;
+        this.copier = copier;
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > LruCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        REGISTRY.add(this);
+    }
+
+    /**
+     * @return Stats of every cache created in this JVM that is still reachable, by name
+     */
+    public static List<Stats> allStats() {
+        List<LruCache<?, ?>> caches;
+        synchronized (REGISTRY) {
+            caches = new ArrayList<>(REGISTRY);
+        }
+        List<Stats> stats = new ArrayList<>(caches.size());
+        for (LruCache<?, ?> cache : caches) {
+            stats.add(cache.getStats());
+        }
+        stats.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return stats;
+    }
+
+    /**
+     * Empties every cache created in this JVM that is still reachable, for
+     * when the tables behind them were replaced wholesale (e.g. by a restore)
+     */
+    public static void invalidateAllCaches() {
+        List<LruCache<?, ?>> caches;
+        synchronized (REGISTRY) {
+            caches = new ArrayList<>(REGISTRY);
+        }
+        for (LruCache<?, ?> cache : caches) {
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * @return A copy of the cached value, or empty on a miss or expired entry
+     */
+    public Optional<V> get(K key) {
+        V value;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && isExpired(entry, System.nanoTime())) {
+                entries.remove(key);
+                expirations.incrementAndGet();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.incrementAndGet();
+                return Optional.empty();
+            }
+            value = entry.value;
+        }
+        hits.incrementAndGet();
+        return Optional.of(copier.apply(value));
+    }
+
+    /**
+     * Returns the cached value, loading and caching it on a miss. Empty
+     * results are not cached. The loader runs outside the cache lock, so two
+     * threads missing on the same key may both load it. A loaded value is
+     * only cached if no put or invalidation happened while it was loading.
+     * @param key Cache key
+     * @param loader Loads the value from the backing store
+     * @return The cached or loaded value
+     */
+    public Optional<V> getOrLoad(K key, Function<K, Optional<V>> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+        }
+        Optional<V> cached = get(key);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        Optional<V> loaded = loader.apply(key);
+        if (loaded.isPresent()) {
+            Entry<V> entry = new Entry<>(copier.apply(loaded.get()), System.nanoTime());
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    entries.put(key, entry);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    public void put(K key, V value) {
+        Entry<V> entry = new Entry<>(copier.apply(value), System.nanoTime());
+        synchronized (this) {
+            generation++;
+            entries.put(key, entry);
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (this) {
+            generation++;
+            if (entries.remove(key) != null) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (this) {
+            generation++;
+            invalidations.addAndGet(entries.size());
+            entries.clear();
+        }
+    }
+
+    /**
+     * Drops expired entries without waiting for them to be read
+     * @return Number of entries removed
+     */
+    public int purgeExpired() {
+        if (ttlNanos == 0) {
+            return 0;
+        }
+        int removed = 0;
+        long now = System.nanoTime();
+        synchronized (this) {
+            for (Iterator<Entry<V>> it = entries.values().iterator(); it.hasNext();) {
+                if (isExpired(it.next(), now)) {
+                    it.remove();
+                    removed++;
+                }
+            }
+        }
+        expirations.addAndGet(removed);
+        return removed;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Stats getStats() {
+        return new Stats(name, size(), maxEntries, hits.get(), misses.get(),
+                evictions.get(), expirations.get(), invalidations.get());
+    }
+
+    private boolean isExpired(Entry<V> entry, long now) {
+        return ttlNanos > 0 && now - entry.storedAtNanos > ttlNanos;
+    }
+
+    private static final class Entry<V> {
+
+        final V value;
+        final long storedAtNanos;
+
+        Entry(V value, long storedAtNanos) {
+            this.value = value;
+            this.storedAtNanos = storedAtNanos;
+        }
+    }
+
+    /**
+     * Point-in-time counters for one cache
+     */
+    public static final class Stats {
+
+        private final String name;
+        private final int size;
+        private final int maxEntries;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long expirations;
+        private final long invalidations;
+
+        public Stats(String name, int size, int maxEntries, long hits, long misses,
+                long evictions, long expirations, long invalidations) {
+            this.name = name;
+            this.size = size;
+            this.maxEntries = maxEntries;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.invalidations = invalidations;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public long getExpirations() {
+            return expirations;
+        }
+
+        public long getInvalidations() {
+            return invalidations;
+        }
+
+        /**
+         * @return Hits as a fraction of all lookups, or 0 before the first lookup
+         */
+        public double getHitRatio() {
+            long lookups = hits + misses;
+            return lookups > 0 ? (double) hits / lookups : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s{size=%d/%d, hits=%d, misses=%d, hitRatio=%.2f, evictions=%d, expirations=%d, invalidations=%d}",
+                    name, size, maxEntries, hits, misses, getHitRatio(), evictions, expirations, invalidations);
+        }
+    }
+}
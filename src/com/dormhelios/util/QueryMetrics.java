@@ -0,0 +1,605 @@
+package com.dormhelios.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Query-level instrumentation for {@link DatabaseConnection}.
+ *
+ * When enabled, connections handed out by DatabaseConnection are wrapped in
+ * proxies that time every statement execution and record, per SQL template,
+ * the call count, errors, rows returned or updated and a latency histogram.
+ * Connection acquisition time is recorded separately. Statements slower than
+ * the slow-query threshold are logged and kept in a short list for the admin
+ * UI. When disabled, DatabaseConnection returns the plain connection and the
+ * only cost is one volatile read per getConnection().
+ */
+public class QueryMetrics {
+
+    private static final Logger LOGGER = Logger.getLogger(QueryMetrics.class.getName());
+
+    private static final int MAX_TEMPLATES = 500;            // Further templates are folded into OTHER_TEMPLATE
+    private static final int MAX_TEMPLATE_LENGTH = 1_000;
+    private static final int RECENT_SLOW_QUERY_LIMIT = 50;
+    private static final String OTHER_TEMPLATE = "<other statements>";
+
+    // Literal values in plain Statement SQL, replaced by ? so equal queries share a template
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static volatile boolean enabled;
+    private static volatile long slowQueryThresholdNanos = 200_000_000L;
+
+    private static final Map<String, TemplateMetrics> templates = new ConcurrentHashMap<>();
+    private static final LatencyHistogram acquisition = new LatencyHistogram();
+    private static final AtomicLong acquisitionFailures = new AtomicLong();
+    private static final AtomicLong slowQueries = new AtomicLong();
+    private static final Deque<SlowQuery> recentSlowQueries = new ArrayDeque<>(); // Guarded by itself
+    private static volatile long enabledSinceMillis;
+
+    private QueryMetrics() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    // --- Configuration ---
+
+    /**
+     * Applies the db.metrics.* settings from database.properties
+     * @param enable Whether instrumentation starts enabled
+     * @param slowQueryThresholdMs Statements at least this slow are logged
+     */
+    static void configure(boolean enable, long slowQueryThresholdMs) {
+        setSlowQueryThresholdMillis(slowQueryThresholdMs);
+        setEnabled(enable);
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns instrumentation on or off. Takes effect for connections obtained
+     * afterwards; connections already handed out keep their current mode.
+     */
+    public static void setEnabled(boolean enable) {
+        if (enable && !enabled) {
+            enabledSinceMillis = System.currentTimeMillis();
+        }
+        enabled = enable;
+        LOGGER.log(Level.INFO, "Query instrumentation {0} (slow query threshold {1} ms)",
+                new Object[]{enable ? "enabled" : "disabled", getSlowQueryThresholdMillis()});
+    }
+
+    public static long getSlowQueryThresholdMillis() {
+        return slowQueryThresholdNanos / 1_000_000;
+    }
+
+    public static void setSlowQueryThresholdMillis(long thresholdMs) {
+        slowQueryThresholdNanos = Math.max(0, thresholdMs) * 1_000_000;
+    }
+
+    /**
+     * Clears all collected metrics
+     */
+    public static void reset() {
+        templates.clear();
+        acquisition.reset();
+        acquisitionFailures.set(0);
+        slowQueries.set(0);
+        synchronized (recentSlowQueries) {
+            recentSlowQueries.clear();
+        }
+        enabledSinceMillis = System.currentTimeMillis();
+    }
+
+    // --- Recording (called by DatabaseConnection) ---
+
+    static void recordAcquisition(long nanos, boolean succeeded) {
+        if (succeeded) {
+            acquisition.recordNanos(nanos);
+        } else {
+            acquisitionFailures.incrementAndGet();
+        }
+    }
+
+    /**
+     * Wraps a connection so that statements created from it are timed
+     */
+    static Connection instrument(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection));
+    }
+
+    // --- Snapshot API ---
+
+    /**
+     * @return All collected metrics, statements ordered by total time spent, slowest first
+     */
+    public static Snapshot snapshot() {
+        List<StatementStats> statements = new ArrayList<>(templates.size());
+        for (TemplateMetrics metrics : templates.values()) {
+            statements.add(metrics.toStats());
+        }
+        statements.sort(Comparator.comparingDouble(StatementStats::getTotalMillis).reversed());
+        List<SlowQuery> slow;
+        synchronized (recentSlowQueries) {
+            slow = new ArrayList<>(recentSlowQueries);
+        }
+        return new Snapshot(enabled, getSlowQueryThresholdMillis(), enabledSinceMillis, statements,
+                acquisition.snapshot(), acquisitionFailures.get(), slowQueries.get(), slow);
+    }
+
+    // --- Internal helpers ---
+
+    private static TemplateMetrics metricsFor(String sql) {
+        String template = sql == null ? OTHER_TEMPLATE : sql;
+        TemplateMetrics metrics = templates.get(template);
+        if (metrics != null) {
+            return metrics;
+        }
+        if (templates.size() >= MAX_TEMPLATES) {
+            template = OTHER_TEMPLATE;
+        }
+        return templates.computeIfAbsent(template, TemplateMetrics::new);
+    }
+
+    /**
+     * Turns literal SQL (plain Statement) into a template by replacing string
+     * and numeric literals with ? and collapsing whitespace
+     */
+    static String normalize(String sql) {
+        if (sql == null) {
+            return OTHER_TEMPLATE;
+        }
+        String template = STRING_LITERAL.matcher(sql).replaceAll("?");
+        template = NUMBER_LITERAL.matcher(template).replaceAll("?");
+        template = WHITESPACE.matcher(template).replaceAll(" ").trim();
+        return template.length() > MAX_TEMPLATE_LENGTH ? template.substring(0, MAX_TEMPLATE_LENGTH) + "..." : template;
+    }
+
+    private static String compact(String sql) {
+        String template = WHITESPACE.matcher(sql).replaceAll(" ").trim();
+        return template.length() > MAX_TEMPLATE_LENGTH ? template.substring(0, MAX_TEMPLATE_LENGTH) + "..." : template;
+    }
+
+    private static void recordExecution(TemplateMetrics metrics, long nanos, boolean failed, long updatedRows) {
+        metrics.latency.recordNanos(nanos);
+        if (failed) {
+            metrics.errors.incrementAndGet();
+        }
+        if (updatedRows > 0) {
+            metrics.rowsUpdated.addAndGet(updatedRows);
+        }
+        if (nanos >= slowQueryThresholdNanos) {
+            slowQueries.incrementAndGet();
+            double millis = nanos / 1_000_000.0;
+            LOGGER.log(Level.WARNING, "Slow query ({0} ms{1}): {2}", new Object[]{
+                String.format("%.1f", millis), failed ? ", failed" : "", metrics.template});
+            synchronized (recentSlowQueries) {
+                if (recentSlowQueries.size() >= RECENT_SLOW_QUERY_LIMIT) {
+                    recentSlowQueries.removeLast();
+                }
+                recentSlowQueries.addFirst(new SlowQuery(metrics.template, millis, failed,
+                        LocalDateTime.now(), Thread.currentThread().getName()));
+            }
+        }
+    }
+
+    private static long updateCount(Object result) {
+        if (result instanceof Integer) {
+            return Math.max(0, (Integer) result);
+        }
+        if (result instanceof Long) {
+            return Math.max(0, (Long) result);
+        }
+        long total = 0;
+        if (result instanceof int[]) {
+            for (int count : (int[]) result) {
+                total += Math.max(0, count);
+            }
+        } else if (result instanceof long[]) {
+            for (long count : (long[]) result) {
+                total += Math.max(0, count);
+            }
+        }
+        return total;
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static boolean isExecute(String name) {
+        return name.startsWith("execute");
+    }
+
+    /**
+     * Wraps statements created from the connection; everything else passes through.
+     */
+    private static final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "InstrumentedConnection[" + target + "]";
+                default:
+                    break;
+            }
+            Object result = invokeTarget(target, method, args);
+            if (result instanceof CallableStatement) {
+                return wrapStatement(CallableStatement.class, (Statement) result, metricsFor(compact((String) args[0])));
+            }
+            if (result instanceof PreparedStatement) {
+                return wrapStatement(PreparedStatement.class, (Statement) result, metricsFor(compact((String) args[0])));
+            }
+            if (result instanceof Statement) {
+                return wrapStatement(Statement.class, (Statement) result, null);
+            }
+            return result;
+        }
+
+        private static Object wrapStatement(Class<? extends Statement> type, Statement statement, TemplateMetrics metrics) {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    new StatementHandler(statement, metrics));
+        }
+    }
+
+    /**
+     * Times execute* calls. Prepared statements have a fixed template; plain
+     * statements are templated from the SQL passed to each execute call.
+     */
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final TemplateMetrics preparedMetrics; // Null for plain statements
+        private ResultSetHandler openResultSet;
+
+        StatementHandler(Statement target, TemplateMetrics preparedMetrics) {
+            this.target = target;
+            this.preparedMetrics = preparedMetrics;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "InstrumentedStatement[" + target + "]";
+                case "close":
+                    flushRows();
+                    return invokeTarget(target, method, args);
+                default:
+                    break;
+            }
+            if (!isExecute(name)) {
+                Object result = invokeTarget(target, method, args);
+                return result instanceof ResultSet && preparedMetrics != null && "getResultSet".equals(name)
+                        ? wrapResultSet((ResultSet) result, preparedMetrics)
+                        : result;
+            }
+
+            TemplateMetrics metrics = preparedMetrics;
+            if (metrics == null) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                metrics = metricsFor(normalize(sql));
+            }
+            flushRows();
+            long start = System.nanoTime();
+            boolean failed = false;
+            Object result = null;
+            try {
+                result = invokeTarget(target, method, args);
+                return result instanceof ResultSet ? wrapResultSet((ResultSet) result, metrics) : result;
+            } catch (Throwable t) {
+                failed = true;
+                throw t;
+            } finally {
+                recordExecution(metrics, System.nanoTime() - start, failed,
+                        "executeUpdate".equals(name) || "executeLargeUpdate".equals(name)
+                                || "executeBatch".equals(name) || "executeLargeBatch".equals(name)
+                                ? updateCount(result) : 0);
+            }
+        }
+
+        private ResultSet wrapResultSet(ResultSet resultSet, TemplateMetrics metrics) {
+            openResultSet = new ResultSetHandler(resultSet, metrics);
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, openResultSet);
+        }
+
+        /**
+         * Records rows of a result set that was never closed explicitly
+         * (closing the statement closes it behind the proxy's back)
+         */
+        private void flushRows() {
+            if (openResultSet != null) {
+                openResultSet.recordRows();
+                openResultSet = null;
+            }
+        }
+    }
+
+    /**
+     * Counts rows read through next() and records them once on close.
+     */
+    private static final class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet target;
+        private final TemplateMetrics metrics;
+        private long rows;
+        private boolean recorded;
+
+        ResultSetHandler(ResultSet target, TemplateMetrics metrics) {
+            this.target = target;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next": {
+                    Object result = invokeTarget(target, method, args);
+                    if (Boolean.TRUE.equals(result)) {
+                        rows++;
+                    }
+                    return result;
+                }
+                case "close":
+                    recordRows();
+                    return invokeTarget(target, method, args);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "InstrumentedResultSet[" + target + "]";
+                default:
+                    return invokeTarget(target, method, args);
+            }
+        }
+
+        void recordRows() {
+            if (!recorded) {
+                recorded = true;
+                metrics.rowsReturned.addAndGet(rows);
+            }
+        }
+    }
+
+    /**
+     * Live counters for one SQL template
+     */
+    private static final class TemplateMetrics {
+
+        final String template;
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong rowsReturned = new AtomicLong();
+        final AtomicLong rowsUpdated = new AtomicLong();
+
+        TemplateMetrics(String template) {
+            this.template = template;
+        }
+
+        StatementStats toStats() {
+            return new StatementStats(template, latency.snapshot(), errors.get(), rowsReturned.get(), rowsUpdated.get());
+        }
+    }
+
+    /**
+     * Point-in-time metrics for one SQL template
+     */
+    public static final class StatementStats {
+
+        private final String template;
+        private final LatencyHistogram.Snapshot latency;
+        private final long errors;
+        private final long rowsReturned;
+        private final long rowsUpdated;
+
+        public StatementStats(String template, LatencyHistogram.Snapshot latency, long errors,
+                long rowsReturned, long rowsUpdated) {
+            this.template = template;
+            this.latency = latency;
+            this.errors = errors;
+            this.rowsReturned = rowsReturned;
+            this.rowsUpdated = rowsUpdated;
+        }
+
+        public String getTemplate() {
+            return template;
+        }
+
+        public long getCalls() {
+            return latency.getCount();
+        }
+
+        public LatencyHistogram.Snapshot getLatency() {
+            return latency;
+        }
+
+        public double getTotalMillis() {
+            return latency.getTotalMillis();
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public long getRowsReturned() {
+            return rowsReturned;
+        }
+
+        public long getRowsUpdated() {
+            return rowsUpdated;
+        }
+
+        @Override
+        public String toString() {
+            return "StatementStats{" + template + ": " + latency + ", errors=" + errors
+                    + ", rowsReturned=" + rowsReturned + ", rowsUpdated=" + rowsUpdated + '}';
+        }
+    }
+
+    /**
+     * One statement that exceeded the slow-query threshold
+     */
+    public static final class SlowQuery {
+
+        private final String template;
+        private final double millis;
+        private final boolean failed;
+        private final LocalDateTime executedAt;
+        private final String threadName;
+
+        public SlowQuery(String template, double millis, boolean failed, LocalDateTime executedAt, String threadName) {
+            this.template = template;
+            this.millis = millis;
+            this.failed = failed;
+            this.executedAt = executedAt;
+            this.threadName = threadName;
+        }
+
+        public String getTemplate() {
+            return template;
+        }
+
+        public double getMillis() {
+            return millis;
+        }
+
+        public boolean isFailed() {
+            return failed;
+        }
+
+        public LocalDateTime getExecutedAt() {
+            return executedAt;
+        }
+
+        public String getThreadName() {
+            return threadName;
+        }
+    }
+
+    /**
+     * Everything the admin UI needs in one immutable object
+     */
+    public static final class Snapshot {
+
+        private final boolean enabled;
+        private final long slowQueryThresholdMillis;
+        private final long collectingSinceMillis;
+        private final List<StatementStats> statements;
+        private final LatencyHistogram.Snapshot acquisition;
+        private final long acquisitionFailures;
+        private final long slowQueryCount;
+        private final List<SlowQuery> recentSlowQueries;
+
+        public Snapshot(boolean enabled, long slowQueryThresholdMillis, long collectingSinceMillis,
+                List<StatementStats> statements, LatencyHistogram.Snapshot acquisition, long acquisitionFailures,
+                long slowQueryCount, List<SlowQuery> recentSlowQueries) {
+            this.enabled = enabled;
+            this.slowQueryThresholdMillis = slowQueryThresholdMillis;
+            this.collectingSinceMillis = collectingSinceMillis;
+            this.statements = List.copyOf(statements);
+            this.acquisition = acquisition;
+            this.acquisitionFailures = acquisitionFailures;
+            this.slowQueryCount = slowQueryCount;
+            this.recentSlowQueries = List.copyOf(recentSlowQueries);
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public long getSlowQueryThresholdMillis() {
+            return slowQueryThresholdMillis;
+        }
+
+        /**
+         * @return Epoch millis when collection started (last enable or reset)
+         */
+        public long getCollectingSinceMillis() {
+            return collectingSinceMillis;
+        }
+
+        /**
+         * @return Per-template statistics, slowest total time first
+         */
+        public List<StatementStats> getStatements() {
+            return statements;
+        }
+
+        /**
+         * @return Time spent obtaining connections from DatabaseConnection
+         */
+        public LatencyHistogram.Snapshot getAcquisition() {
+            return acquisition;
+        }
+
+        public long getAcquisitionFailures() {
+            return acquisitionFailures;
+        }
+
+        public long getSlowQueryCount() {
+            return slowQueryCount;
+        }
+
+        /**
+         * @return The most recent slow queries, newest first
+         */
+        public List<SlowQuery> getRecentSlowQueries() {
+            return recentSlowQueries;
+        }
+
+        public long getTotalCalls() {
+            long total = 0;
+            for (StatementStats stats : statements) {
+                total += stats.getCalls();
+            }
+            return total;
+        }
+    }
+}
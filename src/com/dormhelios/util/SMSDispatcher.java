@@ -0,0 +1,311 @@
+package com.dormhelios.util;
+
+import com.dormhelios.util.SMSService.SMSResult;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Concurrent SMS dispatch engine on top of SMSService.
+ * Each recipient is sent as its own request on a bounded worker pool, so one
+ * bad number only fails its own result. Requests pass through a token-bucket
+ * rate limiter sized to the gateway's limits, large recipient lists are
+ * submitted in chunks, and transient failures are retried with exponential
+ * backoff and jitter without holding a worker thread while waiting.
+ */
+public class SMSDispatcher {
+
+    private static final Logger LOGGER = Logger.getLogger(SMSDispatcher.class.getName());
+
+    public static final int DEFAULT_WORKERS = 4;
+    public static final double DEFAULT_PERMITS_PER_SECOND = 2.0; // Semaphore's documented per-key send limit
+    public static final int DEFAULT_BURST = 2;
+    public static final int DEFAULT_CHUNK_SIZE = 50;
+    public static final int DEFAULT_MAX_ATTEMPTS = 4;
+    public static final long DEFAULT_BASE_BACKOFF_MS = 1000;
+    public static final long DEFAULT_MAX_BACKOFF_MS = 30_000;
+
+    // Sends accepted but not yet finished, across all dispatchers (includes sends waiting to retry)
+    private static final AtomicInteger PENDING_SENDS = new AtomicInteger();
+
+    private final SMSService smsService;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService retryScheduler;
+    private final TokenBucket rateLimiter;
+    private final int chunkSize;
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+    // Sends of this dispatcher that have not finished, completed by shutdown()
+    private final Set<SendFuture> unfinished = ConcurrentHashMap.newKeySet();
+    private final Runnable shutdownTask = this::shutdown;
+
+    /**
+     * Creates a dispatcher with the default pool size, rate and retry settings
+     *
+     * @param smsService The service used for individual send attempts
+     */
+    public SMSDispatcher(SMSService smsService) {
+        this(smsService, DEFAULT_WORKERS, DEFAULT_PERMITS_PER_SECOND, DEFAULT_BURST, DEFAULT_CHUNK_SIZE,
+                DEFAULT_MAX_ATTEMPTS, DEFAULT_BASE_BACKOFF_MS, DEFAULT_MAX_BACKOFF_MS);
+    }
+
+    /**
+     * @param smsService The service used for individual send attempts
+     * @param workerCount Number of concurrent sends
+     * @param permitsPerSecond Sustained request rate allowed by the gateway
+     * @param burst Requests allowed back-to-back before the rate applies
+     * @param chunkSize Recipients submitted to the pool at a time by sendBulk
+     * @param maxAttempts Attempts per recipient, including the first
+     * @param baseBackoffMs Delay before the first retry; doubled for each further retry
+     * @param maxBackoffMs Upper bound for the retry delay
+     */
+    public SMSDispatcher(SMSService smsService, int workerCount, double permitsPerSecond, int burst,
+            int chunkSize, int maxAttempts, long baseBackoffMs, long maxBackoffMs) {
+        if (workerCount < 1 || permitsPerSecond <= 0 || burst < 1 || chunkSize < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("Invalid SMS dispatcher configuration");
+        }
+        this.smsService = smsService;
+        this.workers = Executors.newFixedThreadPool(workerCount, daemonThreads("dormhelios-sms-worker"));
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("dormhelios-sms-retry"));
+        this.rateLimiter = new TokenBucket(permitsPerSecond, burst);
+        this.chunkSize = chunkSize;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        // Runs before the pool closes, so results logged by the sends it completes can still be written
+        DatabaseConnection.addShutdownTask(shutdownTask);
+    }
+
+    /**
+     * Sends one message asynchronously, retrying transient failures
+     *
+     * @param phoneNumber The recipient's phone number
+     * @param message The message content
+     * @return Future completed with the final result; never completed exceptionally.
+     *         Cancelling it skips any attempt that has not started yet; while
+     *         an attempt is talking to the gateway, cancel returns false.
+     */
+    public CompletableFuture<SMSResult> send(String phoneNumber, String message) {
+        SendFuture future = new SendFuture();
+        PENDING_SENDS.incrementAndGet();
+        unfinished.add(future);
+        future.whenComplete((result, error) -> {
+            unfinished.remove(future);
+            PENDING_SENDS.decrementAndGet();
+        });
+        submitAttempt(phoneNumber, message, 1, future);
+        return future;
+    }
+
+    /**
+     * @return Number of messages queued, sending or waiting to retry, across all dispatchers
+     */
+    public static int getPendingSendCount() {
+        return PENDING_SENDS.get();
+    }
+
+    /**
+     * Sends the same message to every recipient, each as its own request.
+     * Recipients are submitted chunk by chunk, so a large list does not flood
+     * the worker queue. Duplicate numbers are sent once.
+     *
+     * @param phoneNumbers The recipients' phone numbers
+     * @param message The message content
+     * @return Future completed with each recipient's result, in input order
+     */
+    public CompletableFuture<Map<String, SMSResult>> sendBulk(List<String> phoneNumbers, String message) {
+        List<String> recipients = new ArrayList<>(new LinkedHashSet<>(phoneNumbers));
+        Map<String, SMSResult> results = Collections.synchronizedMap(new LinkedHashMap<>());
+        for (String recipient : recipients) {
+            results.put(recipient, null); // Reserve the slot so results keep input order
+        }
+
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+        for (int start = 0; start < recipients.size(); start += chunkSize) {
+            List<String> chunk = recipients.subList(start, Math.min(start + chunkSize, recipients.size()));
+            chain = chain.thenCompose(ignored -> sendChunk(chunk, message, results));
+        }
+        return chain.thenApply(ignored -> {
+            synchronized (results) {
+                return new LinkedHashMap<>(results);
+            }
+        });
+    }
+
+    /**
+     * Stops accepting work. Queued sends and scheduled retries are abandoned
+     * and their futures completed with a failed result. Also runs on JVM exit.
+     */
+    public void shutdown() {
+        retryScheduler.shutdownNow();
+        workers.shutdownNow();
+        for (SendFuture future : unfinished) {
+            future.complete(new SMSResult(false, "SMS dispatcher is shut down", null));
+        }
+        DatabaseConnection.removeShutdownTask(shutdownTask);
+    }
+
+    // --- Internals ---
+
+    private CompletableFuture<Void> sendChunk(List<String> chunk, String message, Map<String, SMSResult> results) {
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            String recipient = chunk.get(i);
+            sends[i] = send(recipient, message).thenAccept(result -> results.put(recipient, result));
+        }
+        return CompletableFuture.allOf(sends);
+    }
+
+    private void submitAttempt(String phoneNumber, String message, int attempt, SendFuture future) {
+        try {
+            workers.execute(() -> runAttempt(phoneNumber, message, attempt, future));
+        } catch (RejectedExecutionException e) {
+            future.complete(new SMSResult(false, "SMS dispatcher is shut down", null));
+        }
+    }
+
+    private void runAttempt(String phoneNumber, String message, int attempt, SendFuture future) {
+        if (future.isDone()) {
+            return; // Cancelled by the caller
+        }
+        try {
+            rateLimiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.complete(new SMSResult(false, "SMS send interrupted", null));
+            return;
+        }
+        if (!future.beginAttempt()) {
+            return; // Cancelled while waiting for a permit
+        }
+        SMSResult result;
+        try {
+            result = smsService.sendSingleAttempt(phoneNumber, message);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Unexpected error sending SMS to " + phoneNumber, e);
+            result = new SMSResult(false, "Error sending SMS: " + e.getMessage(), null);
+        }
+
+        boolean last = result.isSuccess() || !result.isRetryable() || attempt >= maxAttempts;
+        future.endAttempt(last ? result : null);
+        if (last) {
+            return;
+        }
+
+        long delay = backoffDelay(attempt);
+        LOGGER.log(Level.INFO, "Retrying SMS to {0} in {1} ms (attempt {2} of {3})",
+                new Object[]{phoneNumber, delay, attempt + 1, maxAttempts});
+        try {
+            retryScheduler.schedule(() -> submitAttempt(phoneNumber, message, attempt + 1, future),
+                    delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            future.complete(result);
+        }
+    }
+
+    /**
+     * Exponential backoff with "equal jitter": half the delay is fixed, half is random,
+     * so retries from many recipients failing together do not stay in lock-step.
+     */
+    private long backoffDelay(int attempt) {
+        long exponential = baseBackoffMs << Math.min(attempt - 1, 20);
+        long capped = Math.min(maxBackoffMs, exponential);
+        long half = capped / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Future of one send. Cancelling and starting an attempt take the same
+     * lock, so a cancel either stops the next attempt or, once the attempt
+     * has been handed to the gateway, fails and the send's result is kept.
+     */
+    private static final class SendFuture extends CompletableFuture<SMSResult> {
+
+        private boolean attemptRunning;
+
+        synchronized boolean beginAttempt() {
+            if (isDone()) {
+                return false;
+            }
+            attemptRunning = true;
+            return true;
+        }
+
+        /**
+         * @param result The final result, or null if the send will be retried
+         */
+        synchronized void endAttempt(SMSResult result) {
+            attemptRunning = false;
+            if (result != null) {
+                complete(result);
+            }
+        }
+
+        @Override
+        public synchronized boolean cancel(boolean mayInterruptIfRunning) {
+            return !attemptRunning && super.cancel(mayInterruptIfRunning);
+        }
+    }
+
+    /**
+     * Token bucket: holds up to {@code capacity} permits and refills at a fixed
+     * rate. acquire() waits until a permit is available.
+     */
+    static final class TokenBucket {
+
+        private final double permitsPerNano;
+        private final double capacity;
+        private double available;
+        private long lastRefillNanos;
+
+        TokenBucket(double permitsPerSecond, int capacity) {
+            this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = capacity;
+            this.available = capacity;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        void acquire() throws InterruptedException {
+            while (true) {
+                long waitNanos;
+                synchronized (this) {
+                    long now = System.nanoTime();
+                    available = Math.min(capacity, available + (now - lastRefillNanos) * permitsPerNano);
+                    lastRefillNanos = now;
+                    if (available >= 1.0) {
+                        available -= 1.0;
+                        return;
+                    }
+                    waitNanos = (long) Math.ceil((1.0 - available) / permitsPerNano);
+                }
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }
+    }
+}
@@ -1,22 +1,21 @@
 package com.dormhelios.util;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
 import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Properties;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-/*
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
-*/
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Utility class for sending SMS messages via the Semaphore.co SMS Gateway API.
@@ -28,9 +27,15 @@ public class SMSService {
     private static final String API_BASE_URL = "https://api.semaphore.co/api/v4/messages";
     private static final int MAX_RETRIES = 3;
     private static final int RETRY_DELAY_MS = 2000; // 2 seconds
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Pattern MESSAGE_ID_PATTERN = Pattern.compile("\"message_id\"\\s*:\\s*\"?([^\",}\\s]+)");
     
     private final String apiKey;
     private final String senderId;
+    private final URI apiUrl;
+    // One shared client so connections are kept alive and reused across messages
+    private final HttpClient httpClient;
     private boolean enabled;
     
     /**
@@ -49,8 +54,25 @@ public class SMSService {
      * @param senderId The sender ID (optional)
      */
     public SMSService(String apiKey, String senderId) {
+        this(apiKey, senderId, API_BASE_URL);
+    }
+    
+    /**
+     * Constructor with API key, sender ID and endpoint URL. Pointing the
+     * endpoint at a local stub server allows exercising the send path
+     * without the real gateway.
+     * 
+     * @param apiKey The Semaphore API key
+     * @param senderId The sender ID (optional)
+     * @param apiUrl The messages endpoint URL
+     */
+    public SMSService(String apiKey, String senderId, String apiUrl) {
         this.apiKey = apiKey;
         this.senderId = senderId;
+        this.apiUrl = URI.create(apiUrl);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(CONNECT_TIMEOUT)
+                .build();
         this.enabled = (apiKey != null && !apiKey.isEmpty());
     }
     
@@ -66,8 +88,9 @@ public class SMSService {
             
             String apiKey = props.getProperty("sms.apiKey", "");
             String senderId = props.getProperty("sms.senderId", "");
+            String apiUrl = props.getProperty("sms.apiUrl", API_BASE_URL);
             
-            return new SMSService(apiKey, senderId.isEmpty() ? null : senderId);
+            return new SMSService(apiKey, senderId.isEmpty() ? null : senderId, apiUrl);
         } catch (IOException | NullPointerException ex) {
             LOGGER.log(Level.WARNING, "Could not load SMS configuration. SMS service will be disabled.", ex);
             return new SMSService(null);
@@ -108,20 +131,35 @@ public class SMSService {
         validatePhoneNumber(phoneNumber);
         validateMessage(message);
         
-        Map<String, Object> params = new HashMap<>();
-        params.put("apikey", apiKey);
-        params.put("number", formatPhoneNumber(phoneNumber));
-        params.put("message", message);
-        
-        if (senderId != null && !senderId.isEmpty()) {
-            params.put("sendername", senderId);
+        return sendRequest(buildParams(formatPhoneNumber(phoneNumber), message));
+    }
+    
+    /**
+     * Makes a single send attempt to one recipient without retrying. Invalid
+     * input is reported as a failed result rather than an exception. Used by
+     * SMSDispatcher, which schedules its own retries.
+     * 
+     * @param phoneNumber The recipient's phone number
+     * @param message The message content
+     * @return SMSResult; {@link SMSResult#isRetryable()} tells whether another attempt may succeed
+     */
+    public SMSResult sendSingleAttempt(String phoneNumber, String message) {
+        if (!isEnabled()) {
+            return new SMSResult(false, "SMS service is disabled", null);
         }
-        
-        return sendRequest(params);
+        try {
+            validatePhoneNumber(phoneNumber);
+            validateMessage(message);
+        } catch (IllegalArgumentException e) {
+            return new SMSResult(false, e.getMessage(), null);
+        }
+        return executeRequest(buildParams(formatPhoneNumber(phoneNumber), message));
     }
     
     /**
-     * Sends the same SMS message to multiple recipients
+     * Sends the same SMS message to multiple recipients in one request.
+     * The gateway rejects the whole request if any number is bad; use
+     * SMSDispatcher.sendBulk for per-recipient delivery and results.
      * 
      * @param phoneNumbers Array of recipient phone numbers
      * @param message The message content
@@ -149,126 +187,92 @@ public class SMSService {
             }
         }
         
-        Map<String, Object> params = new HashMap<>();
+        return sendRequest(buildParams(formattedNumbers.toString(), message));
+    }
+    
+    private Map<String, String> buildParams(String numbers, String message) {
+        Map<String, String> params = new LinkedHashMap<>();
         params.put("apikey", apiKey);
-        params.put("number", formattedNumbers.toString());
+        params.put("number", numbers);
         params.put("message", message);
         
         if (senderId != null && !senderId.isEmpty()) {
             params.put("sendername", senderId);
         }
-        
-        return sendRequest(params);
+        return params;
     }
     
     /**
-     * Sends the actual HTTP request to the SMS API
+     * Sends the request to the SMS API, retrying retryable failures
      * 
      * @param params Map of request parameters
      * @return SMSResult object containing the result of the operation
      */
-    private SMSResult sendRequest(Map<String, Object> params) {
-        int retries = 0;
-        while (retries < MAX_RETRIES) {
-            HttpURLConnection conn = null;
+    private SMSResult sendRequest(Map<String, String> params) {
+        SMSResult result = null;
+        for (int attempt = 1; attempt <= MAX_RETRIES; attempt++) {
+            result = executeRequest(params);
+            if (result.isSuccess() || !result.isRetryable() || attempt == MAX_RETRIES) {
+                return result;
+            }
+            LOGGER.info("Retrying SMS send (attempt " + (attempt + 1) + " of " + MAX_RETRIES + ")");
             try {
-                // Create JSON payload
-                /*
-                JSONObject jsonPayload = new JSONObject(params);
-                String requestBody = jsonPayload.toJSONString();
-                LOGGER.fine("Sending SMS with payload: " + requestBody);*/
-                
-                // Setup connection
-                URL url = new URL(API_BASE_URL);
-                conn = (HttpURLConnection) url.openConnection();
-                conn.setRequestMethod("POST");
-                conn.setRequestProperty("Content-Type", "application/json");
-                conn.setRequestProperty("Accept", "application/json");
-                conn.setDoOutput(true);
-                
-                // Send request
-                try (OutputStream os = conn.getOutputStream()) {
-                    //byte[] input = requestBody.getBytes(StandardCharsets.UTF_8);
-                    //os.write(input, 0, input.length);
-                }
-                
-                // Handle response
-                int responseCode = conn.getResponseCode();
-                if (responseCode == HttpURLConnection.HTTP_OK || 
-                    responseCode == HttpURLConnection.HTTP_CREATED) {
-                    
-                    // Read the response
-                    try (BufferedReader br = new BufferedReader(
-                            new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
-                        StringBuilder response = new StringBuilder();
-                        String line;
-                        while ((line = br.readLine()) != null) {
-                            response.append(line);
-                        }
-                        
-                        // Parse response JSON
-                        /*
-                        JSONParser parser = new JSONParser();
-                        JSONObject jsonResponse = (JSONObject) parser.parse(response.toString());
-                        String messageId = jsonResponse.containsKey("message_id") ? 
-                                jsonResponse.get("message_id").toString() : null;
-                        
-                        LOGGER.info("SMS sent successfully. Message ID: " + messageId);
-                        return new SMSResult(true, "Message sent successfully", messageId);
-                    } catch (ParseException e) {
-                        LOGGER.log(Level.WARNING, "Error parsing SMS API response", e);
-                        return new SMSResult(false, "Error parsing API response: " + e.getMessage(), null);*/
-                    }
-                } else {
-                    // Handle error response
-                    StringBuilder errorResponse = new StringBuilder();
-                    try (BufferedReader br = new BufferedReader(
-                            new InputStreamReader(conn.getErrorStream(), StandardCharsets.UTF_8))) {
-                        String line;
-                        while ((line = br.readLine()) != null) {
-                            errorResponse.append(line);
-                        }
-                    }
-                    
-                    String errorMessage = "API Error: HTTP " + responseCode + " - " + errorResponse.toString();
-                    LOGGER.warning(errorMessage);
-                    
-                    // Check if we should retry
-                    if (isRetryableError(responseCode) && retries < MAX_RETRIES - 1) {
-                        retries++;
-                        LOGGER.info("Retrying SMS send (attempt " + retries + " of " + MAX_RETRIES + ")");
-                        try {
-                            Thread.sleep(RETRY_DELAY_MS);
-                        } catch (InterruptedException ie) {
-                            Thread.currentThread().interrupt();
-                            return new SMSResult(false, "SMS send interrupted during retry: " + ie.getMessage(), null);
-                        }
-                    } else {
-                        return new SMSResult(false, errorMessage, null);
-                    }
-                }
-            } catch (IOException e) {
-                LOGGER.log(Level.WARNING, "Error sending SMS", e);
-                if (retries < MAX_RETRIES - 1) {
-                    retries++;
-                    LOGGER.info("Retrying SMS send (attempt " + retries + " of " + MAX_RETRIES + ")");
-                    try {
-                        Thread.sleep(RETRY_DELAY_MS);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        return new SMSResult(false, "SMS send interrupted during retry: " + ie.getMessage(), null);
-                    }
-                } else {
-                    return new SMSResult(false, "Error sending SMS: " + e.getMessage(), null);
-                }
-            } finally {
-                if (conn != null) {
-                    conn.disconnect();
-                }
+                Thread.sleep(RETRY_DELAY_MS);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return new SMSResult(false, "SMS send interrupted during retry: " + ie.getMessage(), null);
             }
         }
-        
-        return new SMSResult(false, "Failed to send SMS after " + MAX_RETRIES + " attempts", null);
+        return result;
+    }
+    
+    /**
+     * Sends one form-encoded POST to the SMS API
+     * 
+     * @param params Map of request parameters
+     * @return SMSResult object containing the result of the attempt
+     */
+    private SMSResult executeRequest(Map<String, String> params) {
+        HttpRequest request = HttpRequest.newBuilder(apiUrl)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(formEncode(params)))
+                .build();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            int responseCode = response.statusCode();
+            if (responseCode == HttpURLConnection.HTTP_OK || 
+                responseCode == HttpURLConnection.HTTP_CREATED) {
+                Matcher matcher = MESSAGE_ID_PATTERN.matcher(response.body());
+                String messageId = matcher.find() ? matcher.group(1) : null;
+                LOGGER.fine("SMS sent successfully. Message ID: " + messageId);
+                return new SMSResult(true, "Message sent successfully", messageId);
+            }
+            
+            String errorMessage = "API Error: HTTP " + responseCode + " - " + response.body();
+            LOGGER.warning(errorMessage);
+            return new SMSResult(false, errorMessage, null, isRetryableError(responseCode));
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Error sending SMS", e);
+            return new SMSResult(false, "Error sending SMS: " + e.getMessage(), null, true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new SMSResult(false, "SMS send interrupted", null);
+        }
+    }
+    
+    private static String formEncode(Map<String, String> params) {
+        StringBuilder body = new StringBuilder();
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            if (body.length() > 0) {
+                body.append('&');
+            }
+            body.append(URLEncoder.encode(param.getKey(), StandardCharsets.UTF_8))
+                .append('=')
+                .append(URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8));
+        }
+        return body.toString();
     }
     
     /**
@@ -348,11 +352,17 @@ public class SMSService {
         private final boolean success;
         private final String message;
         private final String messageId;
+        private final boolean retryable;
         
         public SMSResult(boolean success, String message, String messageId) {
+            this(success, message, messageId, false);
+        }
+        
+        public SMSResult(boolean success, String message, String messageId, boolean retryable) {
             this.success = success;
             this.message = message;
             this.messageId = messageId;
+            this.retryable = retryable;
         }
         
         public boolean isSuccess() {
@@ -367,6 +377,13 @@ public class SMSService {
             return messageId;
         }
         
+        /**
+         * @return true if the failure was transient (network error, HTTP 429 or 5xx)
+         */
+        public boolean isRetryable() {
+            return retryable;
+        }
+        
         @Override
         public String toString() {
             return "SMSResult{" + "success=" + success + ", message=" + message + 
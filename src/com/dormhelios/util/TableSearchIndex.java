@@ -0,0 +1,149 @@
+package com.dormhelios.util;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Predicate;
+import javax.swing.RowFilter;
+import javax.swing.table.TableModel;
+
+/**
+ * Search index for a list table, built once per load so typing into a
+ * search field never touches the table cells.
+ *
+ * Each model row gets a normalized lowercase search text (its searchable
+ * fields joined) and a typed attribute object, such as a parsed date or a
+ * status enum, for the view's filter combo. A search matches rows whose text
+ * contains every whitespace-separated term and whose attribute passes the
+ * filter. When the query only got longer under the same filter, the search
+ * narrows the previous matches instead of scanning every row again.
+ *
+ * Rows must be added in model order. Confined to the EDT, like the table.
+ *
+ * @param <A> Type of the per-row attributes used by filters
+ */
+public class TableSearchIndex<A> {
+
+    private static final char FIELD_SEPARATOR = '\u0000'; // Keeps a term from matching across two fields
+
+    private final List<String> texts = new ArrayList<>();
+    private final List<A> attributes = new ArrayList<>();
+
+    // Last search, reused when the next query extends it
+    private String lastQuery;
+    private Object lastFilterKey;
+    private BitSet lastMatches;
+
+    /**
+     * Removes all rows; call together with clearing the table model
+     */
+    public void clear() {
+        texts.clear();
+        attributes.clear();
+        invalidate();
+    }
+
+    /**
+     * Indexes the next model row
+     * @param attribute Typed values the filters test, e.g. a parsed check-in date
+     * @param searchableFields Field values the search text is matched against; nulls are skipped
+     */
+    public void add(A attribute, String... searchableFields) {
+        StringBuilder text = new StringBuilder();
+        for (String field : searchableFields) {
+            if (field != null) {
+                text.append(normalize(field)).append(FIELD_SEPARATOR);
+            }
+        }
+        texts.add(text.toString());
+        attributes.add(attribute);
+        invalidate();
+    }
+
+    public int size() {
+        return texts.size();
+    }
+
+    /**
+     * @param modelRow Row index in the table model
+     * @return The attribute the row was indexed with
+     */
+    public A getAttribute(int modelRow) {
+        return attributes.get(modelRow);
+    }
+
+    /**
+     * Finds the rows matching a query and filter
+     * @param query Search text; blank matches every row
+     * @param filterKey Identifies the filter (e.g. the combo selection); searches
+     *                  are only narrowed incrementally under an equal key
+     * @param filter Test on the row attributes, or null to accept all
+     * @return Model indices of the matching rows
+     */
+    public BitSet search(String query, Object filterKey, Predicate<? super A> filter) {
+        String normalized = normalize(query == null ? "" : query);
+        String[] terms = normalized.isEmpty() ? new String[0] : normalized.split(" ");
+
+        BitSet candidates;
+        boolean narrowing = lastMatches != null && Objects.equals(filterKey, lastFilterKey)
+                && normalized.startsWith(lastQuery);
+        if (narrowing) {
+            // Every previous term is a prefix of a new term, so the new matches are a subset
+            candidates = lastMatches;
+        } else {
+            candidates = new BitSet(texts.size());
+            candidates.set(0, texts.size());
+        }
+
+        BitSet matches = new BitSet(texts.size());
+        for (int row = candidates.nextSetBit(0); row >= 0; row = candidates.nextSetBit(row + 1)) {
+            if ((narrowing || filter == null || filter.test(attributes.get(row))) && containsAll(texts.get(row), terms)) {
+                matches.set(row);
+            }
+        }
+
+        lastQuery = normalized;
+        lastFilterKey = filterKey;
+        lastMatches = matches;
+        return matches;
+    }
+
+    /**
+     * @param matches Result of {@link #search}
+     * @return A row filter that looks up each model row in the matches
+     */
+    public static <M extends TableModel> RowFilter<M, Integer> rowFilter(BitSet matches) {
+        return new RowFilter<M, Integer>() {
+            @Override
+            public boolean include(Entry<? extends M, ? extends Integer> entry) {
+                return matches.get(entry.getIdentifier());
+            }
+        };
+    }
+
+    // --- Internals ---
+
+    private void invalidate() {
+        lastQuery = null;
+        lastFilterKey = null;
+        lastMatches = null;
+    }
+
+    private static boolean containsAll(String text, String[] terms) {
+        for (String term : terms) {
+            if (!text.contains(term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lowercases and collapses whitespace, so "  De  la Cruz" and "de la cruz" match alike
+     */
+    static String normalize(String value) {
+        return value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
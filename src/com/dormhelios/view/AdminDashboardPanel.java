@@ -14,16 +14,10 @@ import java.awt.Component;
 import com.dormhelios.model.entity.SystemLog;
 import com.dormhelios.service.SystemLogService;
 import java.awt.print.PrinterException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.List;
 import com.dormhelios.view.SystemLogsDialog;
 import com.dormhelios.view.AdminCreateAccountDialog;
 import java.io.File;
-import java.io.InputStream;
-import java.io.IOException;
-import java.util.Properties;
-import java.util.ArrayList;
 import javax.swing.JFileChooser;
 import javax.swing.JOptionPane;
 import java.sql.Connection;
@@ -31,10 +25,31 @@ import java.sql.SQLException;
 import com.dormhelios.util.DatabaseConnection;
 import com.dormhelios.model.dao.UserDAO;
 import com.dormhelios.model.dao.UserDAOImpl;
-import com.dormhelios.model.entity.User;
+import com.dormhelios.service.TaskExecutor;
+import com.dormhelios.service.TaskExecutor.Lane;
+import com.dormhelios.model.dao.ExportDAO.Dataset;
+import com.dormhelios.model.dao.ExportDAOImpl;
+import com.dormhelios.model.dao.BackupDAOImpl;
+import com.dormhelios.service.BackupEngine;
+import com.dormhelios.service.BackupHistory;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import com.dormhelios.service.DataExportJob;
+import com.dormhelios.service.DataExportJob.Format;
+import java.awt.GridLayout;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.swing.GroupLayout;
+import javax.swing.SwingUtilities;
 
 public class AdminDashboardPanel extends javax.swing.JPanel {
 
+    private static final int STATUS_CHECK_TIMEOUT_SECONDS = 3;
+    private static final DateTimeFormatter BACKUP_DATE_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+    private static final DateTimeFormatter BACKUP_TIME_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm");
+
+    private final JButton exportDataButton = new JButton("Export Data");
+
     /**
      * Creates new form DashboardPanel
      */
@@ -42,6 +57,7 @@ public class AdminDashboardPanel extends javax.swing.JPanel {
         initComponents();
         applyCustomStyling(); // Apply our custom styling after initialization
         initSystemLogsFunctionality();
+        setupExportButton();
     }
 
     /**
@@ -503,59 +519,8 @@ public class AdminDashboardPanel extends javax.swing.JPanel {
             }
         });
 
-        backupButton.addActionListener(e -> {
-            // Perform mysqldump backup with user-selected directory
-            JFileChooser chooser = new JFileChooser();
-            chooser.setDialogTitle("Select Backup Directory");
-            chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
-            int result = chooser.showSaveDialog(this);
-            if (result != JFileChooser.APPROVE_OPTION) {
-                return; // user canceled
-            }
-            File backupDir = chooser.getSelectedFile();
-            try {
-                // Load DB properties
-                Properties props = new Properties();
-                try (InputStream in = com.dormhelios.util.DatabaseConnection.class
-                        .getResourceAsStream("/config/database.properties")) {
-                    if (in != null) props.load(in);
-                }
-                String url = props.getProperty("db.url", "jdbc:mysql://localhost:3306/dormhelios_db");
-                String user = props.getProperty("db.user", "root");
-                String pass = props.getProperty("db.password", "");
-                String dbName = url.substring(url.lastIndexOf('/') + 1).split("\\?")[0];
-                // Prepare backup file in chosen directory
-                String timestamp = new SimpleDateFormat("yyyyMMddHHmmss").format(new Date());
-                File backupFile = new File(backupDir, "backup_" + timestamp + ".sql");
-
-                // Hardcode mysqldump path
-                String dumpCmd = "C:\\laragon\\bin\\mysql\\mysql-8.0.30-winx64\\bin\\mysqldump.exe";
-                ArrayList<String> cmd = new ArrayList<>();
-                cmd.add(dumpCmd);
-                cmd.add("-u"); cmd.add(user);
-                if (!pass.isEmpty()) cmd.add("-p" + pass);
-                cmd.add(dbName);
-                cmd.add("-r"); cmd.add(backupFile.getAbsolutePath());
-
-                ProcessBuilder pb = new ProcessBuilder(cmd);
-                pb.redirectErrorStream(true);
-                Process p = pb.start();
-                int exitCode = p.waitFor();
-                if (exitCode == 0) {
-                    SystemLogService.log("AdminDashboardPanel", "Database backup saved to " + backupFile.getAbsolutePath());
-                    String today = new SimpleDateFormat("MMM dd, yyyy").format(new Date());
-                    lastBackupDateValueLabel.setText(today);
-                    JOptionPane.showMessageDialog(this, "Backup saved to " + backupFile.getAbsolutePath(), "Backup Successful", JOptionPane.INFORMATION_MESSAGE);
-                    refreshSystemLogs();
-                } else {
-                    SystemLogService.log("AdminDashboardPanel", "Backup failed with code: " + exitCode);
-                    JOptionPane.showMessageDialog(this, "Backup failed with exit code: " + exitCode, "Backup Failed", JOptionPane.ERROR_MESSAGE);
-                }
-            } catch (IOException | InterruptedException ex) {
-                SystemLogService.log("AdminDashboardPanel", "Backup exception: " + ex.getMessage());
-                JOptionPane.showMessageDialog(this, "Backup failed: " + ex.getMessage(), "Backup Error", JOptionPane.ERROR_MESSAGE);
-            }
-        });
+        backupButton.addActionListener(e -> openBackupDialog());
+        showLastBackup();
 
         createUserAccountButton.addActionListener(e -> {
             AdminCreateAccountDialog dialog = new AdminCreateAccountDialog((java.awt.Frame) this.getTopLevelAncestor(), true);
@@ -566,35 +531,235 @@ public class AdminDashboardPanel extends javax.swing.JPanel {
     }
 
     /**
-     * Loads database status and user account statistics from the database.
+     * Shows the date of the last backup made on this computer
      */
-    private void loadStatistics() {
-        // Database connection status
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            databaseStatusValueLabel.setText("Online");
-        } catch (SQLException ex) {
-            databaseStatusValueLabel.setText("Offline");
+    private void showLastBackup() {
+        Optional<BackupHistory.LastBackup> last = BackupHistory.getLastBackup();
+        if (last.isPresent()) {
+            lastBackupDateValueLabel.setText(last.get().getTime().format(BACKUP_DATE_FORMAT));
+            lastBackupDateValueLabel.setToolTipText(last.get().getArchive().toString());
+        } else {
+            lastBackupDateValueLabel.setText("Never");
+            lastBackupDateValueLabel.setToolTipText(null);
         }
-        // Total and active user counts
-        UserDAO userDAO = new UserDAOImpl();
-        List<User> users = userDAO.findAll();
-        int total = users.size();
-        long activeCount = users.stream().filter(User::isActive).count();
-        totalAccountsValueLabel.setText(String.valueOf(total));
-        activeAccountsValueLabel.setText(String.valueOf(activeCount));
+    }
+
+    private static String describeLastBackup() {
+        return BackupHistory.getLastBackup()
+                .map(last -> last.getTime().format(BACKUP_TIME_FORMAT) + " - " + last.getArchive().getFileName()
+                        + " (" + last.getRows() + " rows)")
+                .orElse("never on this computer");
+    }
+
+    /**
+     * Shows the backup dialog. Backups and restores run on the background
+     * lane while the dialog shows progress per table.
+     */
+    private void openBackupDialog() {
+        BackupDialog dialog = new BackupDialog(SwingUtilities.getWindowAncestor(this));
+        dialog.setLastBackup(describeLastBackup());
+        AtomicReference<BackupEngine> runningEngine = new AtomicReference<>();
+
+        dialog.addBackupButtonListener(e -> {
+            JFileChooser chooser = new JFileChooser();
+            chooser.setDialogTitle("Save Backup As");
+            chooser.setFileFilter(new FileNameExtensionFilter("DormHelios backups (*.zip)", "zip"));
+            BackupHistory.getLastBackup().ifPresent(last -> chooser.setCurrentDirectory(last.getArchive().getParent().toFile()));
+            chooser.setSelectedFile(new File(chooser.getCurrentDirectory(), BackupEngine.defaultArchiveName()));
+            if (chooser.showSaveDialog(dialog) != JFileChooser.APPROVE_OPTION) {
+                return;
+            }
+            File selected = chooser.getSelectedFile();
+            File file = selected.getName().toLowerCase().endsWith(".zip") ? selected
+                    : new File(selected.getParentFile(), selected.getName() + ".zip");
+            boolean incremental = dialog.isIncrementalSelected();
+            int parallelism = dialog.isParallelSelected() ? BackupEngine.MAX_PARALLELISM : 1;
+
+            BackupEngine engine = new BackupEngine(new BackupDAOImpl());
+            runningEngine.set(engine);
+            dialog.showRunning("Backing up to " + file.getName() + "...", true);
+            TaskExecutor.submit(Lane.BACKGROUND, "admin.backup",
+                    () -> incremental ? engine.backupIncremental(file.toPath(), progressTo(dialog))
+                            : engine.backup(file.toPath(), parallelism, progressTo(dialog)),
+                    summary -> {
+                        runningEngine.set(null);
+                        dialog.showFinished(summary.toString());
+                        dialog.setLastBackup(describeLastBackup());
+                        showLastBackup();
+                        refreshSystemLogs();
+                    },
+                    error -> {
+                        runningEngine.set(null);
+                        dialog.showFinished("Backup failed: " + error.getMessage());
+                    });
+        });
+        dialog.addRestoreButtonListener(e -> {
+            JFileChooser chooser = new JFileChooser();
+            chooser.setDialogTitle("Restore Backup");
+            chooser.setFileFilter(new FileNameExtensionFilter("DormHelios backups (*.zip)", "zip"));
+            BackupHistory.getLastBackup().ifPresent(last -> chooser.setCurrentDirectory(last.getArchive().getParent().toFile()));
+            if (chooser.showOpenDialog(dialog) != JFileChooser.APPROVE_OPTION) {
+                return;
+            }
+            File file = chooser.getSelectedFile();
+            int confirm = JOptionPane.showConfirmDialog(dialog,
+                    "Restoring replaces ALL current data with the contents of " + file.getName() + ".\n"
+                    + "For an incremental backup, the earlier backups of its chain are replayed first.\n"
+                    + "Anything entered since that backup will be lost. Continue?",
+                    "Restore Backup", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+            if (confirm != JOptionPane.YES_OPTION) {
+                return;
+            }
+
+            BackupEngine engine = new BackupEngine(new BackupDAOImpl());
+            dialog.showRunning("Restoring from " + file.getName() + "...", false); // A half-done restore cannot be cancelled
+            TaskExecutor.submit(Lane.BACKGROUND, "admin.restore",
+                    () -> engine.restore(file.toPath(), progressTo(dialog)),
+                    summary -> {
+                        dialog.showFinished(summary.toString());
+                        loadStatistics();
+                        refreshSystemLogs();
+                    },
+                    error -> dialog.showFinished("Restore failed: " + error.getMessage()
+                            + ". Run the restore again to complete it."));
+        });
+        dialog.addCancelButtonListener(e -> {
+            BackupEngine engine = runningEngine.get();
+            if (engine != null) {
+                dialog.showCancelling();
+                engine.cancel();
+            }
+        });
+        dialog.addCloseButtonListener(e -> dialog.closeDialog());
+        dialog.showDialog();
     }
 
     /**
-     * Refreshes the systemLogsTextArea with all logs from the database
+     * @return A listener that hands backup or restore progress to the dialog on the EDT
+     */
+    private static BackupEngine.ProgressListener progressTo(BackupDialog dialog) {
+        return new BackupEngine.ProgressListener() {
+            @Override
+            public void onProgress(long rowsDone, long rowsTotal) {
+                SwingUtilities.invokeLater(() -> dialog.setProgress(rowsDone, rowsTotal));
+            }
+
+            @Override
+            public void onTableFinished(String table, long rows, long elapsedMillis) {
+                String line = String.format("%-20s %,12d rows %,9d ms", table, rows, elapsedMillis);
+                SwingUtilities.invokeLater(() -> dialog.appendResult(line));
+            }
+        };
+    }
+
+    /**
+     * Adds the Export Data button next to Create User Account in Quick Actions
+     */
+    private void setupExportButton() {
+        JPanel accountAndExport = new JPanel(new GridLayout(1, 2, 12, 0));
+        accountAndExport.setOpaque(false);
+        ((GroupLayout) quickActionsCard.getLayout()).replace(createUserAccountButton, accountAndExport);
+        accountAndExport.add(createUserAccountButton);
+        accountAndExport.add(exportDataButton);
+        exportDataButton.setToolTipText("Export payments, tenants or rooms to CSV or JSON Lines");
+        exportDataButton.addActionListener(e -> openExportDialog());
+    }
+
+    /**
+     * Shows the export dialog. Each export streams its table to the chosen
+     * file on the background lane while the dialog shows progress.
+     */
+    private void openExportDialog() {
+        DataExportDialog dialog = new DataExportDialog(SwingUtilities.getWindowAncestor(this));
+        AtomicReference<DataExportJob> runningJob = new AtomicReference<>();
+
+        dialog.addExportButtonListener(e -> {
+            Dataset dataset = dialog.getSelectedDataset();
+            Format format = dialog.getSelectedFormat();
+            boolean gzip = dialog.isGzipSelected();
+            JFileChooser chooser = new JFileChooser();
+            chooser.setDialogTitle("Export " + dataset.getLabel());
+            chooser.setSelectedFile(new File(DataExportJob.defaultFileName(dataset, format, gzip)));
+            if (chooser.showSaveDialog(dialog) != JFileChooser.APPROVE_OPTION) {
+                return;
+            }
+            File file = chooser.getSelectedFile();
+            if (file.exists() && JOptionPane.showConfirmDialog(dialog, file.getName() + " already exists. Replace it?",
+                    "Export Data", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE) != JOptionPane.YES_OPTION) {
+                return;
+            }
+
+            DataExportJob job = new DataExportJob(new ExportDAOImpl());
+            runningJob.set(job);
+            dialog.showRunning(file.getName());
+            TaskExecutor.submit(Lane.BACKGROUND, "admin.exportData",
+                    () -> job.run(dataset, format, file.toPath(), gzip, (rows, totalRows, bytes) ->
+                            SwingUtilities.invokeLater(() -> dialog.setProgress(rows, totalRows, bytes))),
+                    summary -> {
+                        runningJob.set(null);
+                        dialog.showFinished(summary.toString());
+                        refreshSystemLogs();
+                    },
+                    error -> {
+                        runningJob.set(null);
+                        dialog.showFinished("Export failed: " + error.getMessage());
+                    });
+        });
+        dialog.addCancelButtonListener(e -> {
+            DataExportJob job = runningJob.get();
+            if (job != null) {
+                dialog.showCancelling();
+                job.cancel();
+            }
+        });
+        dialog.addCloseButtonListener(e -> dialog.closeDialog());
+        dialog.showDialog();
+    }
+
+    /**
+     * Loads database status and user account statistics in the background.
+     * Accounts are counted with aggregate queries rather than loaded.
+     */
+    private void loadStatistics() {
+        databaseStatusValueLabel.setText("Checking...");
+        TaskExecutor.submitLatest("admin.loadStatistics", Lane.INTERACTIVE, () -> {
+                    // Database connection status
+                    try (Connection conn = DatabaseConnection.getConnection()) {
+                        if (!conn.isValid(STATUS_CHECK_TIMEOUT_SECONDS)) {
+                            return null;
+                        }
+                    } catch (SQLException ex) {
+                        return null;
+                    }
+                    // Total and active user counts
+                    UserDAO userDAO = new UserDAOImpl();
+                    return new int[]{userDAO.countAll(), userDAO.countActive()};
+                },
+                counts -> {
+                    databaseStatusValueLabel.setText(counts != null ? "Online" : "Offline");
+                    if (counts != null) {
+                        totalAccountsValueLabel.setText(String.valueOf(counts[0]));
+                        activeAccountsValueLabel.setText(String.valueOf(counts[1]));
+                    }
+                },
+                error -> databaseStatusValueLabel.setText("Offline"));
+    }
+
+    /**
+     * Refreshes the systemLogsTextArea with all logs from the database, loading them in the background
      */
     private void refreshSystemLogs() {
-        List<SystemLog> logs = SystemLogService.getAllLogs();
-        StringBuilder sb = new StringBuilder();
-        for (SystemLog log : logs) {
-            sb.append("[").append(log.getName()).append("] ")
-              .append(log.getValue()).append("\n");
-        }
-        systemLogsTextArea.setText(sb.toString());
+        TaskExecutor.submitLatest("admin.loadSystemLogs", Lane.INTERACTIVE, () -> {
+                    List<SystemLog> logs = SystemLogService.getAllLogs();
+                    StringBuilder sb = new StringBuilder();
+                    for (SystemLog log : logs) {
+                        sb.append("[").append(log.getName()).append("] ")
+                          .append(log.getValue()).append("\n");
+                    }
+                    return sb.toString();
+                },
+                systemLogsTextArea::setText,
+                error -> systemLogsTextArea.setText("Unable to load system logs: " + error.getMessage()));
     }
     
     // Variables declaration - do not modify//GEN-BEGIN:variables
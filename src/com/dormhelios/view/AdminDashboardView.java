@@ -5,6 +5,7 @@ import java.awt.event.ActionListener;
 import javax.swing.JPanel;
 import javax.swing.JButton;
 import javax.swing.JScrollPane;
+import javax.swing.JTabbedPane;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.Cursor;
@@ -24,6 +25,7 @@ public class AdminDashboardView extends javax.swing.JFrame {
     private CardLayout cardLayout;
     private PropertyChangeSupport propertyChangeSupport;
     private AdminDashboardPanel adminDashboardPanel; // Admin dashboard panel reference
+    private PerformancePanel performancePanel;
 
     public AdminDashboardView() {
         // Initialize propertyChangeSupport before any other initialization
@@ -68,9 +70,14 @@ public class AdminDashboardView extends javax.swing.JFrame {
         cardLayout = new CardLayout();
         contentPanel.setLayout(cardLayout);
         
-        // Initialize admin dashboard panel and add it to content panel
+        // Initialize admin dashboard panel and add it to content panel,
+        // with the live performance view as a second tab
         adminDashboardPanel = new AdminDashboardPanel();
-        contentPanel.add(adminDashboardPanel, DASHBOARD_PANEL);
+        performancePanel = new PerformancePanel();
+        JTabbedPane dashboardTabs = new JTabbedPane();
+        dashboardTabs.addTab("Overview", adminDashboardPanel);
+        dashboardTabs.addTab("Performance", performancePanel);
+        contentPanel.add(dashboardTabs, DASHBOARD_PANEL);
         cardLayout.show(contentPanel, DASHBOARD_PANEL);
     }
 
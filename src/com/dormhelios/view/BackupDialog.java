@@ -0,0 +1,208 @@
+package com.dormhelios.view;
+
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.awt.GridLayout;
+import java.awt.Window;
+import java.awt.event.ActionListener;
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.WindowConstants;
+
+/**
+ * Dialog for backing up and restoring the database.
+ * Shows the last backup, runs a backup or restore with a progress bar and a
+ * per-table log, and allows cancelling a running backup.
+ */
+public class BackupDialog extends JDialog {
+
+    private final JLabel lastBackupLabel = new JLabel();
+    private final JCheckBox incrementalCheckBox = new JCheckBox("Incremental: only what changed since the last backup");
+    private final JCheckBox parallelCheckBox = new JCheckBox("Dump tables in parallel (faster, but NOT one consistent snapshot)");
+    private final JLabel statusLabel = new JLabel("Ready.");
+    private final JProgressBar progressBar = new JProgressBar();
+    private final JTextArea resultArea = new JTextArea(10, 56);
+    private final JButton backupButton = new JButton("Back Up Now...");
+    private final JButton restoreButton = new JButton("Restore...");
+    private final JButton cancelButton = new JButton("Cancel");
+    private final JButton closeButton = new JButton("Close");
+
+    public BackupDialog(Window owner) {
+        super(owner, "Backup & Restore", ModalityType.APPLICATION_MODAL);
+        setupComponents();
+    }
+
+    private void setupComponents() {
+        setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE); // Closing is handled by the buttons
+
+        statusLabel.setFont(statusLabel.getFont().deriveFont(Font.BOLD));
+        progressBar.setStringPainted(true);
+        progressBar.setString("");
+        resultArea.setEditable(false);
+        resultArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        cancelButton.setEnabled(false);
+        incrementalCheckBox.setToolTipText("Restoring it needs the earlier backups of its chain in the same folder");
+        incrementalCheckBox.addActionListener(e -> parallelCheckBox.setEnabled(!incrementalCheckBox.isSelected()));
+        parallelCheckBox.setToolTipText("Tables are read a few moments apart; only use it when nobody is entering data");
+        parallelCheckBox.addActionListener(e -> confirmParallel());
+
+        JPanel options = new JPanel(new GridLayout(0, 1, 0, 6));
+        options.add(lastBackupLabel);
+        options.add(incrementalCheckBox);
+        options.add(parallelCheckBox);
+
+        JPanel progress = new JPanel(new BorderLayout(0, 8));
+        progress.add(statusLabel, BorderLayout.NORTH);
+        progress.add(progressBar, BorderLayout.CENTER);
+
+        JPanel top = new JPanel(new BorderLayout(0, 14));
+        top.add(options, BorderLayout.NORTH);
+        top.add(progress, BorderLayout.SOUTH);
+
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttons.add(backupButton);
+        buttons.add(restoreButton);
+        buttons.add(cancelButton);
+        buttons.add(closeButton);
+
+        JPanel content = new JPanel(new BorderLayout(0, 10));
+        content.setBorder(BorderFactory.createEmptyBorder(16, 16, 12, 16));
+        content.add(top, BorderLayout.NORTH);
+        content.add(new JScrollPane(resultArea), BorderLayout.CENTER);
+        content.add(buttons, BorderLayout.SOUTH);
+        setContentPane(content);
+        pack();
+        setLocationRelativeTo(getOwner());
+    }
+
+    /**
+     * Warns before parallel mode is turned on and turns it off again unless confirmed
+     */
+    private void confirmParallel() {
+        if (!parallelCheckBox.isSelected()) {
+            return;
+        }
+        int confirm = JOptionPane.showConfirmDialog(this,
+                "In parallel mode every table is read at a slightly different moment.\n"
+                + "A payment or tenant saved during the backup may then be in the archive\n"
+                + "without the tenant or room it belongs to, and a restore, which runs with\n"
+                + "foreign key checks off, brings such orphaned rows back.\n\n"
+                + "Only use it when nobody is entering data. Use parallel mode?",
+                "Parallel Backup", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+        if (confirm != JOptionPane.YES_OPTION) {
+            parallelCheckBox.setSelected(false);
+        }
+    }
+
+    /**
+     * @param text Description of the last backup, e.g. its date and file
+     */
+    public void setLastBackup(String text) {
+        lastBackupLabel.setText("Last backup: " + text);
+    }
+
+    public boolean isIncrementalSelected() {
+        return incrementalCheckBox.isSelected();
+    }
+
+    public boolean isParallelSelected() {
+        return parallelCheckBox.isSelected();
+    }
+
+    /**
+     * Locks the dialog while a backup or restore runs
+     * @param status Status line to show
+     * @param cancellable Whether the Cancel button is offered
+     */
+    public void showRunning(String status, boolean cancellable) {
+        setActionsEnabled(false);
+        cancelButton.setEnabled(cancellable);
+        closeButton.setEnabled(false);
+        progressBar.setIndeterminate(true);
+        progressBar.setString("");
+        resultArea.setText("");
+        statusLabel.setText(status);
+    }
+
+    /**
+     * Updates the progress bar
+     * @param rowsDone Rows handled so far
+     * @param rowsTotal Rows expected; may be an estimate, or 0 if unknown
+     */
+    public void setProgress(long rowsDone, long rowsTotal) {
+        progressBar.setIndeterminate(rowsTotal <= 0);
+        // Counts can exceed int for very large tables, so the bar works in permille
+        int permille = rowsTotal <= 0 ? 0 : (int) Math.min(1000, rowsDone * 1000 / rowsTotal);
+        progressBar.setMaximum(1000);
+        progressBar.setValue(permille);
+        progressBar.setString(rowsDone + " rows");
+    }
+
+    /**
+     * Appends one line to the result log
+     * @param line Result line for one table
+     */
+    public void appendResult(String line) {
+        resultArea.append(line + "\n");
+    }
+
+    /**
+     * Switches back to the idle state
+     * @param summary Summary text to show in the status line
+     */
+    public void showFinished(String summary) {
+        setActionsEnabled(true);
+        cancelButton.setEnabled(false);
+        closeButton.setEnabled(true);
+        progressBar.setIndeterminate(false);
+        statusLabel.setText(summary);
+    }
+
+    /**
+     * Shows that cancellation was requested and is in progress
+     */
+    public void showCancelling() {
+        cancelButton.setEnabled(false);
+        statusLabel.setText("Cancelling...");
+    }
+
+    private void setActionsEnabled(boolean enabled) {
+        backupButton.setEnabled(enabled);
+        restoreButton.setEnabled(enabled);
+        incrementalCheckBox.setEnabled(enabled);
+        parallelCheckBox.setEnabled(enabled && !incrementalCheckBox.isSelected()); // An increment is small and always uses one snapshot
+    }
+
+    public void addBackupButtonListener(ActionListener listener) {
+        backupButton.addActionListener(listener);
+    }
+
+    public void addRestoreButtonListener(ActionListener listener) {
+        restoreButton.addActionListener(listener);
+    }
+
+    public void addCancelButtonListener(ActionListener listener) {
+        cancelButton.addActionListener(listener);
+    }
+
+    public void addCloseButtonListener(ActionListener listener) {
+        closeButton.addActionListener(listener);
+    }
+
+    public void showDialog() {
+        setVisible(true);
+    }
+
+    public void closeDialog() {
+        dispose();
+    }
+}
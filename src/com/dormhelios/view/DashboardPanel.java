@@ -503,7 +503,7 @@ public void setTotalTenants(int count, String changeText) {
         JFreeChart barChart = ChartFactory.createBarChart(
                 "",                     // chart title
                 "Month",                // domain axis label
-                "Number of Payments",   // range axis label
+                "Number of Tenants",    // range axis label
                 dataset,                // data
                 PlotOrientation.VERTICAL, // orientation
                 true,                   // include legend
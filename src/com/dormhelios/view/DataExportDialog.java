@@ -0,0 +1,165 @@
+package com.dormhelios.view;
+
+import com.dormhelios.model.dao.ExportDAO.Dataset;
+import com.dormhelios.service.DataExportJob.Format;
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.awt.GridLayout;
+import java.awt.Window;
+import java.awt.event.ActionListener;
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.WindowConstants;
+
+/**
+ * Dialog for exporting a table to a file.
+ * Lets the user pick the dataset, format and compression, then shows the
+ * progress of the running export with a Cancel button.
+ */
+public class DataExportDialog extends JDialog {
+
+    private final JComboBox<Dataset> datasetComboBox = new JComboBox<>(Dataset.values());
+    private final JComboBox<Format> formatComboBox = new JComboBox<>(Format.values());
+    private final JCheckBox gzipCheckBox = new JCheckBox("Compress with gzip (.gz)");
+    private final JLabel statusLabel = new JLabel("Choose what to export.");
+    private final JProgressBar progressBar = new JProgressBar();
+    private final JButton exportButton = new JButton("Export...");
+    private final JButton cancelButton = new JButton("Cancel");
+    private final JButton closeButton = new JButton("Close");
+
+    public DataExportDialog(Window owner) {
+        super(owner, "Export Data", ModalityType.APPLICATION_MODAL);
+        setupComponents();
+    }
+
+    private void setupComponents() {
+        setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE); // Closing is handled by the buttons
+
+        statusLabel.setFont(statusLabel.getFont().deriveFont(Font.BOLD));
+        progressBar.setStringPainted(true);
+        progressBar.setString("");
+        cancelButton.setEnabled(false);
+
+        JPanel options = new JPanel(new GridLayout(0, 2, 10, 6));
+        options.add(new JLabel("Data:"));
+        options.add(datasetComboBox);
+        options.add(new JLabel("Format:"));
+        options.add(formatComboBox);
+        options.add(new JLabel());
+        options.add(gzipCheckBox);
+
+        JPanel progress = new JPanel(new BorderLayout(0, 8));
+        progress.add(statusLabel, BorderLayout.NORTH);
+        progress.add(progressBar, BorderLayout.SOUTH);
+
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttons.add(exportButton);
+        buttons.add(cancelButton);
+        buttons.add(closeButton);
+
+        JPanel content = new JPanel(new BorderLayout(0, 14));
+        content.setBorder(BorderFactory.createEmptyBorder(16, 16, 12, 16));
+        content.add(options, BorderLayout.NORTH);
+        content.add(progress, BorderLayout.CENTER);
+        content.add(buttons, BorderLayout.SOUTH);
+        setContentPane(content);
+        pack();
+        setSize(Math.max(getWidth(), 460), getHeight());
+        setLocationRelativeTo(getOwner());
+    }
+
+    public Dataset getSelectedDataset() {
+        return (Dataset) datasetComboBox.getSelectedItem();
+    }
+
+    public Format getSelectedFormat() {
+        return (Format) formatComboBox.getSelectedItem();
+    }
+
+    public boolean isGzipSelected() {
+        return gzipCheckBox.isSelected();
+    }
+
+    /**
+     * Locks the options while an export runs
+     * @param fileName Name of the file being written
+     */
+    public void showRunning(String fileName) {
+        setOptionsEnabled(false);
+        cancelButton.setEnabled(true);
+        closeButton.setEnabled(false);
+        progressBar.setIndeterminate(true);
+        progressBar.setString("");
+        statusLabel.setText("Exporting to " + fileName + "...");
+    }
+
+    /**
+     * Updates the progress bar and status line
+     * @param rowsWritten Rows written so far
+     * @param totalRows Rows expected in total
+     * @param bytesWritten Bytes written to the file so far
+     */
+    public void setProgress(long rowsWritten, long totalRows, long bytesWritten) {
+        progressBar.setIndeterminate(false);
+        // Counts can exceed int for very large tables, so the bar works in permille
+        int permille = totalRows <= 0 ? 1000 : (int) Math.min(1000, rowsWritten * 1000 / totalRows);
+        progressBar.setMaximum(1000);
+        progressBar.setValue(permille);
+        progressBar.setString(permille / 10 + "%");
+        statusLabel.setText("Exported " + rowsWritten + " of " + totalRows + " rows (" + bytesWritten / 1024 + " KB)");
+    }
+
+    /**
+     * Switches back to the options, ready for another export
+     * @param summary Summary text to show in the status line
+     */
+    public void showFinished(String summary) {
+        setOptionsEnabled(true);
+        cancelButton.setEnabled(false);
+        closeButton.setEnabled(true);
+        progressBar.setIndeterminate(false);
+        statusLabel.setText(summary);
+    }
+
+    /**
+     * Shows that cancellation was requested and is in progress
+     */
+    public void showCancelling() {
+        cancelButton.setEnabled(false);
+        statusLabel.setText("Cancelling...");
+    }
+
+    private void setOptionsEnabled(boolean enabled) {
+        datasetComboBox.setEnabled(enabled);
+        formatComboBox.setEnabled(enabled);
+        gzipCheckBox.setEnabled(enabled);
+        exportButton.setEnabled(enabled);
+    }
+
+    public void addExportButtonListener(ActionListener listener) {
+        exportButton.addActionListener(listener);
+    }
+
+    public void addCancelButtonListener(ActionListener listener) {
+        cancelButton.addActionListener(listener);
+    }
+
+    public void addCloseButtonListener(ActionListener listener) {
+        closeButton.addActionListener(listener);
+    }
+
+    public void showDialog() {
+        setVisible(true);
+    }
+
+    public void closeDialog() {
+        dispose();
+    }
+}
@@ -35,6 +35,12 @@ public class MainDashboardView extends javax.swing.JFrame {
         setExtendedState(javax.swing.JFrame.MAXIMIZED_BOTH);
     }
 
+    /**
+     * Property fired by controllers after they commit a write; the new value
+     * names what changed (e.g. "PAYMENT", "TENANT", "ROOM").
+     */
+    public static final String DATA_CHANGED = "DATA_CHANGED";
+
     // Add property change support methods
     public void addPropertyChangeListener(PropertyChangeListener listener) {
         // Check to ensure propertyChangeSupport is not null before using it
@@ -0,0 +1,276 @@
+package com.dormhelios.view;
+
+import com.dormhelios.model.dao.PaymentQuery;
+import com.dormhelios.model.entity.Payment;
+import com.dormhelios.service.TaskExecutor;
+import com.dormhelios.service.TaskExecutor.Lane;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Table model that loads payments one page at a time as the table scrolls.
+ * Only the row count and the visible pages are fetched; older pages are evicted
+ * from a small LRU cache. Consecutive pages are fetched with keyset pagination
+ * (continuing after the last payment of the previous page), falling back to
+ * OFFSET when the user jumps straight to a page whose predecessor is unknown.
+ * All state is confined to the EDT; database work runs on the TaskExecutor's
+ * interactive lane, and a new query cancels the loads of the previous one.
+ */
+public class PagedPaymentTableModel extends AbstractTableModel {
+
+    private static final Logger LOGGER = Logger.getLogger(PagedPaymentTableModel.class.getName());
+
+    public static final int PAGE_SIZE = 100;
+    private static final int MAX_CACHED_PAGES = 8;
+    private static final int QUERY_DEBOUNCE_MS = 250;
+    private static final String LOADING_TEXT = "Loading...";
+    private static final String FAILED_TEXT = "Could not load - refresh to retry";
+
+    /**
+     * Supplies row counts and pages for a query. Implemented by the controller,
+     * typically by delegating to PaymentDAO. Called off the EDT.
+     */
+    public interface PageLoader {
+
+        int count(PaymentQuery query) throws SQLException;
+
+        List<Payment> loadPage(PaymentQuery query, Payment after, int offset, int limit) throws SQLException;
+    }
+
+    private final String[] columnNames;
+    private final int loadingColumn;
+    private final Function<Payment, Object[]> rowMapper;
+    private final Timer debounceTimer;
+
+    private PageLoader loader;
+    private PaymentQuery query = PaymentQuery.all();
+    private PaymentQuery pendingQuery = PaymentQuery.all();
+    private int rowCount;
+    private int generation; // Bumped on every new query so late results are discarded
+
+    // Page index -> mapped rows, in access order so the least recently viewed page is evicted
+    private final Map<Integer, List<Object[]>> pages = new LinkedHashMap<Integer, List<Object[]>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<Object[]>> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    // Last payment of each loaded page; kept after eviction so the next page can continue by key
+    private final Map<Integer, Payment> pageTails = new HashMap<>();
+    private final Map<Integer, TaskExecutor.Task<?>> pagesInFlight = new HashMap<>();
+    // Pages whose load failed; not requested again until the next reload, so a
+    // database outage does not turn every repaint into another query
+    private final Set<Integer> failedPages = new HashSet<>();
+
+    /**
+     * @param columnNames   table column names
+     * @param loadingColumn column that shows a loading hint while a page is fetched
+     * @param rowMapper     converts a payment into one table row
+     */
+    public PagedPaymentTableModel(String[] columnNames, int loadingColumn, Function<Payment, Object[]> rowMapper) {
+        this.columnNames = columnNames.clone();
+        this.loadingColumn = loadingColumn;
+        this.rowMapper = rowMapper;
+        this.debounceTimer = new Timer(QUERY_DEBOUNCE_MS, e -> reload(pendingQuery));
+        this.debounceTimer.setRepeats(false);
+    }
+
+    public void setPageLoader(PageLoader loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Changes the query after a short quiet period, so typing in the search
+     * field triggers one count query rather than one per keystroke.
+     */
+    public void setQuery(PaymentQuery newQuery) {
+        pendingQuery = newQuery != null ? newQuery : PaymentQuery.all();
+        debounceTimer.restart();
+    }
+
+    /**
+     * Drops all cached pages and reloads the row count and first page for the
+     * given query immediately.
+     */
+    public void reload(PaymentQuery newQuery) {
+        debounceTimer.stop();
+        query = newQuery != null ? newQuery : PaymentQuery.all();
+        pendingQuery = query;
+        final int requestGeneration = ++generation;
+        pages.clear();
+        pageTails.clear();
+        failedPages.clear();
+        for (TaskExecutor.Task<?> task : pagesInFlight.values()) {
+            task.cancel(); // Pages of the old query are no longer wanted
+        }
+        pagesInFlight.clear();
+        if (loader == null) {
+            return;
+        }
+
+        final PaymentQuery requestQuery = query;
+        final PageLoader requestLoader = loader;
+        // Latest wins: a newer query cancels this count before its result is shown
+        pagesInFlight.put(0, TaskExecutor.submitLatest("payments.countAndFirstPage", Lane.INTERACTIVE, () -> {
+                    int count = requestLoader.count(requestQuery);
+                    List<Payment> firstPage = count > 0
+                            ? requestLoader.loadPage(requestQuery, null, 0, PAGE_SIZE)
+                            : new ArrayList<>();
+                    return new FirstPage(count, firstPage);
+                },
+                result -> {
+                    if (requestGeneration != generation) {
+                        return; // A newer query superseded this one
+                    }
+                    pagesInFlight.remove(0);
+                    rowCount = result.count;
+                    storePage(0, result.payments);
+                    fireTableDataChanged();
+                },
+                error -> {
+                    if (requestGeneration != generation) {
+                        return;
+                    }
+                    pagesInFlight.remove(0);
+                    LOGGER.log(Level.SEVERE, "Error counting payments for " + requestQuery, error);
+                    rowCount = 1; // A single placeholder row that shows the failure
+                    failedPages.add(0);
+                    fireTableDataChanged();
+                }));
+    }
+
+    /**
+     * Reloads the current query immediately, e.g. after a payment was added or deleted.
+     */
+    public void reload() {
+        reload(query);
+    }
+
+    public PaymentQuery getQuery() {
+        return query;
+    }
+
+    /**
+     * @return true if the row's page is cached and its values are real data
+     */
+    public boolean isRowLoaded(int rowIndex) {
+        return rowAt(rowIndex) != null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int rowIndex, int columnIndex) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        int pageIndex = rowIndex / PAGE_SIZE;
+        Object[] row = rowAt(rowIndex);
+        if (row == null) {
+            requestPage(pageIndex);
+            if (columnIndex != loadingColumn) {
+                return null;
+            }
+            return failedPages.contains(pageIndex) ? FAILED_TEXT : LOADING_TEXT;
+        }
+        // Prefetch the next page once the user scrolls past the middle of this one
+        if (rowIndex % PAGE_SIZE >= PAGE_SIZE / 2 && (pageIndex + 1) * PAGE_SIZE < rowCount) {
+            requestPage(pageIndex + 1);
+        }
+        return row[columnIndex];
+    }
+
+    // --- Page loading ---
+
+    private Object[] rowAt(int rowIndex) {
+        List<Object[]> page = pages.get(rowIndex / PAGE_SIZE);
+        int offsetInPage = rowIndex % PAGE_SIZE;
+        return page != null && offsetInPage < page.size() ? page.get(offsetInPage) : null;
+    }
+
+    private void requestPage(int pageIndex) {
+        if (loader == null || pages.containsKey(pageIndex) || pagesInFlight.containsKey(pageIndex)
+                || failedPages.contains(pageIndex)) {
+            return;
+        }
+        final int requestGeneration = generation;
+        final PaymentQuery requestQuery = query;
+        final PageLoader requestLoader = loader;
+        final Payment after = pageIndex > 0 ? pageTails.get(pageIndex - 1) : null;
+        final int offset = pageIndex * PAGE_SIZE;
+
+        pagesInFlight.put(pageIndex, TaskExecutor.submit(Lane.INTERACTIVE, "payments.page",
+                () -> requestLoader.loadPage(requestQuery, after, offset, PAGE_SIZE),
+                payments -> {
+                    if (requestGeneration != generation) {
+                        return;
+                    }
+                    pagesInFlight.remove(pageIndex);
+                    storePage(pageIndex, payments);
+                    int lastRow = Math.min(offset + PAGE_SIZE, rowCount) - 1;
+                    if (offset <= lastRow) {
+                        fireTableRowsUpdated(offset, lastRow);
+                    }
+                },
+                error -> {
+                    if (requestGeneration != generation) {
+                        return;
+                    }
+                    pagesInFlight.remove(pageIndex);
+                    failedPages.add(pageIndex);
+                    LOGGER.log(Level.SEVERE, "Error loading payment page " + pageIndex + " for " + requestQuery, error);
+                    int lastRow = Math.min(offset + PAGE_SIZE, rowCount) - 1;
+                    if (offset <= lastRow) {
+                        fireTableRowsUpdated(offset, lastRow);
+                    }
+                }));
+    }
+
+    private void storePage(int pageIndex, List<Payment> payments) {
+        List<Object[]> rows = new ArrayList<>(payments.size());
+        for (Payment payment : payments) {
+            rows.add(rowMapper.apply(payment));
+        }
+        pages.put(pageIndex, rows);
+        if (!payments.isEmpty()) {
+            pageTails.put(pageIndex, payments.get(payments.size() - 1));
+        }
+    }
+
+    private static final class FirstPage {
+
+        private final int count;
+        private final List<Payment> payments;
+
+        private FirstPage(int count, List<Payment> payments) {
+            this.count = count;
+            this.payments = payments;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.dormhelios.view;
 
+import com.dormhelios.model.dao.PaymentQuery;
 import com.dormhelios.model.entity.Payment;
+import com.dormhelios.model.entity.Tenant;
 import com.dormhelios.util.TableRenderers;
 import java.awt.Color;
 import java.awt.Component;
@@ -12,31 +14,35 @@ import java.awt.event.MouseAdapter;
 import java.text.NumberFormat;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.function.UnaryOperator;
 import javax.swing.BorderFactory;
+import javax.swing.DefaultComboBoxModel;
 import javax.swing.JOptionPane;
 import javax.swing.JTable;
-import javax.swing.RowFilter;
 import javax.swing.SwingConstants;
 import javax.swing.event.DocumentListener;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableColumn;
 import javax.swing.table.TableColumnModel;
-import javax.swing.table.TableRowSorter;
 
 public class PaymentListView extends javax.swing.JPanel {
 
-    private DefaultTableModel tableModel;
-    private TableRowSorter<DefaultTableModel> sorter;
+    private PagedPaymentTableModel tableModel;
+    // Filter combo labels mapped to the query restriction they apply, in display order
+    private final Map<String, UnaryOperator<PaymentQuery>> filterOptions = new LinkedHashMap<>();
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE; // YYYY-MM-DD
+    private static final String TENANT_FILTER_PREFIX = "Tenant: ";
     private static final NumberFormat CURRENCY_FORMATTER = NumberFormat.getCurrencyInstance(new Locale("en", "PH"));
 
     public PaymentListView() {
         initComponents();
         setupTable();
+        setupFilterOptions();
         setupSearchFieldPlaceholder();
         setupTableAppearance();
         applyCustomStyling();
@@ -44,18 +50,12 @@ public class PaymentListView extends javax.swing.JPanel {
 
     private void setupTable() {
         String[] columnNames = {"ID", "Date", "Tenant", "Room No.", "Amount", "Period", "Method", "Receipt"}; // Added hidden ID
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                // Make Receipt column potentially clickable later, others not editable
-                return column == 7; // Only allow interaction on the last column conceptually
-            }
-        };
+        // Rows are paged in from the database; sorting and filtering happen in SQL,
+        // so no row sorter is installed (it would force every page to load)
+        tableModel = new PagedPaymentTableModel(columnNames, 2, this::toTableRow);
         paymentTable.setModel(tableModel);
         paymentTable.setSelectionMode(javax.swing.ListSelectionModel.SINGLE_SELECTION);
-        paymentTable.setAutoCreateRowSorter(true); // Enable basic column sorting
-        sorter = new TableRowSorter<>(tableModel);
-        paymentTable.setRowSorter(sorter);
+        paymentTable.setAutoCreateRowSorter(false);
 
         // Hide the ID column
         paymentTable.getColumnModel().getColumn(0).setMinWidth(0);
@@ -134,11 +134,51 @@ public class PaymentListView extends javax.swing.JPanel {
         paymentTable.setShowVerticalLines(false);
         paymentTable.setShowHorizontalLines(true);
         paymentTable.setGridColor(new java.awt.Color(230, 230, 230));
-        
-        // Enable row sorting
-        paymentTable.setAutoCreateRowSorter(true);
     }
     
+    /**
+     * Replaces the designer's filter items with date range and payment method
+     * filters. Tenant filters are appended later via {@link #setTenantFilterOptions(List)}.
+     */
+    private void setupFilterOptions() {
+        filterOptions.put("All Payments", query -> query);
+        filterOptions.put("This Month", query -> query.withDateRange(LocalDate.now().withDayOfMonth(1), null));
+        filterOptions.put("Last Month", query -> {
+            LocalDate start = LocalDate.now().withDayOfMonth(1).minusMonths(1);
+            return query.withDateRange(start, start.withDayOfMonth(start.lengthOfMonth()));
+        });
+        filterOptions.put("Most Recent", query -> query.withDateRange(LocalDate.now().minusDays(29), null));
+        filterOptions.put("Last 90 Days", query -> query.withDateRange(LocalDate.now().minusDays(89), null));
+        filterOptions.put("Old", query -> query.withDateRange(null, LocalDate.now().minusDays(91)).withAscending(true));
+        for (Payment.PaymentMethod method : Payment.PaymentMethod.values()) {
+            filterOptions.put("Method: " + method.name(), query -> query.withMethod(method));
+        }
+        filterComboBox.setModel(new DefaultComboBoxModel<>(filterOptions.keySet().toArray(new String[0])));
+    }
+
+    /**
+     * Adds one "Tenant: Last, First" filter per tenant, replacing any previous
+     * tenant filters. The current selection is kept when it still exists, and
+     * no reload is triggered.
+     *
+     * @param tenants Tenants to offer as filters, in display order
+     */
+    public void setTenantFilterOptions(List<Tenant> tenants) {
+        Object selected = filterComboBox.getSelectedItem();
+        filterOptions.keySet().removeIf(label -> label.startsWith(TENANT_FILTER_PREFIX));
+        for (Tenant tenant : tenants) {
+            int tenantId = tenant.getTenantId();
+            String label = TENANT_FILTER_PREFIX + tenant.getLastName() + ", " + tenant.getFirstName();
+            if (filterOptions.containsKey(label)) {
+                label += " (#" + tenantId + ")"; // Keep namesakes apart
+            }
+            filterOptions.put(label, query -> query.withTenantId(tenantId));
+        }
+        DefaultComboBoxModel<String> model = new DefaultComboBoxModel<>(filterOptions.keySet().toArray(new String[0]));
+        model.setSelectedItem(filterOptions.containsKey(selected) ? selected : "All Payments");
+        filterComboBox.setModel(model); // Fires no action event; selection is unchanged
+    }
+
     /**
      * Sets up the search field with placeholder text behavior.
      * The placeholder text "Search" will disappear when the field gains focus
@@ -165,75 +205,41 @@ public class PaymentListView extends javax.swing.JPanel {
         });
     }
 
-    public void displayPayments(List<Payment> payments /* Potentially List<PaymentDTO> */) {
-        tableModel.setRowCount(0); // Clear existing rows
-        if (payments == null) {
-            return;
-        }
-
-        for (Payment payment : payments) {
-            Object[] row = new Object[]{
-                payment.getPaymentId(), // Hidden ID
-                payment.getPaymentDate().format(DATE_FORMATTER),
-                getTenantNameFromId(payment.getTenantId()), // Placeholder - Controller needs to provide this
-                getRoomNumberFromTenantId(payment.getTenantId()), // Placeholder - Controller needs to provide this
-                CURRENCY_FORMATTER.format(payment.getAmount()),
-                formatPeriodCovered(payment.getPeriodCoveredStart(), payment.getPeriodCoveredEnd()),
-                payment.getPaymentMethod() != null ? payment.getPaymentMethod().name() : "N/A",
-                "View" // Action text for the receipt column
-            };
-            tableModel.addRow(row);
-        }
-        // Update pagination info if implemented
-        // updatePaginationInfo();
-    }
-
     /**
-     * Updates the view with payment data including related tenant and room details.
-     * 
-     * @param payments List of payments to display
-     * @param tenantNames Map of tenant IDs to names
-     * @param roomNumbers Map of tenant IDs to room numbers
+     * Sets the loader the table model uses to fetch row counts and pages.
+     * Called once by the controller before the first reload.
+     *
+     * @param loader Source of payment pages, typically backed by PaymentDAO
      */
-    public void displayPayments(List<Payment> payments, java.util.Map<Integer, String> tenantNames, java.util.Map<Integer, String> roomNumbers) {
-        tableModel.setRowCount(0); // Clear existing rows
-        if (payments == null) {
-            System.out.println("WARNING: Payment list is null in displayPayments");
-            return;
-        }
-
-        System.out.println("Displaying " + payments.size() + " payments in PaymentListView");
-        
-        for (Payment payment : payments) {
-            Object[] row = new Object[]{
-                payment.getPaymentId(), // Hidden ID
-                payment.getPaymentDate().format(DATE_FORMATTER),
-                tenantNames.getOrDefault(payment.getTenantId(), "Unknown"), // Get tenant name from map
-                roomNumbers.getOrDefault(payment.getTenantId(), "N/A"), // Get room number from map
-                CURRENCY_FORMATTER.format(payment.getAmount()),
-                formatPeriodCovered(payment.getPeriodCoveredStart(), payment.getPeriodCoveredEnd()),
-                payment.getPaymentMethod() != null ? payment.getPaymentMethod().name() : "N/A",
-                "View" // Action text for the receipt column
-            };
-            System.out.println("Adding payment row: ID=" + payment.getPaymentId() + 
-                               ", Tenant=" + tenantNames.getOrDefault(payment.getTenantId(), "Unknown") +
-                               ", Amount=" + payment.getAmount());
-            tableModel.addRow(row);
-        }
-        System.out.println("Table now has " + tableModel.getRowCount() + " rows");
-        // Update pagination info if implemented
-        // updatePaginationInfo();
+    public void setPageLoader(PagedPaymentTableModel.PageLoader loader) {
+        tableModel.setPageLoader(loader);
     }
 
-    // --- Placeholder Helper Methods (Controller/Service should provide real data) ---
-    private String getTenantNameFromId(int tenantId) {
-        // TODO: Fetch Tenant Name via TenantDAO or use pre-joined data
-        return "Tenant " + tenantId; // Placeholder
+    /**
+     * Reloads the table immediately for the current search text and filter.
+     */
+    public void reloadPayments() {
+        tableModel.reload(buildQuery());
     }
 
-    private String getRoomNumberFromTenantId(int tenantId) {
-        // TODO: Fetch Tenant -> Room -> Room Number or use pre-joined data
-        return "Room ?"; // Placeholder
+    /**
+     * Converts a payment (with tenant and room attached) into a table row.
+     */
+    private Object[] toTableRow(Payment payment) {
+        String tenantName = payment.getTenant() != null
+                ? payment.getTenant().getLastName() + ", " + payment.getTenant().getFirstName()
+                : "Unknown Tenant";
+        String roomNumber = payment.getRoom() != null ? payment.getRoom().getRoomNumber() : "N/A";
+        return new Object[]{
+            payment.getPaymentId(), // Hidden ID
+            payment.getPaymentDate() != null ? payment.getPaymentDate().format(DATE_FORMATTER) : "N/A",
+            tenantName,
+            roomNumber,
+            payment.getAmount() != null ? CURRENCY_FORMATTER.format(payment.getAmount()) : "N/A",
+            formatPeriodCovered(payment.getPeriodCoveredStart(), payment.getPeriodCoveredEnd()),
+            payment.getPaymentMethod() != null ? payment.getPaymentMethod().name() : "N/A",
+            "View" // Action text for the receipt column
+        };
     }
 
     private String formatPeriodCovered(LocalDate start, LocalDate end) {
@@ -245,20 +251,29 @@ public class PaymentListView extends javax.swing.JPanel {
         }
         return start.format(DATE_FORMATTER) + " - " + end.format(DATE_FORMATTER);
     }
-    // --- End Placeholder Helper Methods ---
 
     /**
      * Gets the currently selected payment's ID from the table.
      *
-     * @return The payment ID, or -1 if no row is selected.
+     * @return The payment ID, or -1 if no row is selected or its page is still loading.
      */
     public int getSelectedPaymentId() {
-        int selectedRow = paymentTable.getSelectedRow();
-        if (selectedRow >= 0) {
-            int modelRow = paymentTable.convertRowIndexToModel(selectedRow);
-            return (Integer) tableModel.getValueAt(modelRow, 0); // Get ID from hidden column
+        return getPaymentIdAt(paymentTable.getSelectedRow());
+    }
+
+    /**
+     * Gets the payment ID shown at a view row.
+     *
+     * @param viewRow Row index in the table's view
+     * @return The payment ID, or -1 if the row is out of range or not loaded yet.
+     */
+    public int getPaymentIdAt(int viewRow) {
+        if (viewRow < 0 || viewRow >= paymentTable.getRowCount()) {
+            return -1;
         }
-        return -1;
+        int modelRow = paymentTable.convertRowIndexToModel(viewRow);
+        Object id = tableModel.isRowLoaded(modelRow) ? tableModel.getValueAt(modelRow, 0) : null; // Hidden ID column
+        return id instanceof Integer ? (Integer) id : -1;
     }
 
     /**
@@ -275,113 +290,34 @@ public class PaymentListView extends javax.swing.JPanel {
      * This method is called by the controller when the search field text changes.
      */
     public void filterTableBySearch() {
-        String searchText = getSearchText();
-        
-        // Don't filter if the search field contains the placeholder text "Search"
-        if (searchText.equals("Search")) {
-            sorter.setRowFilter(null); // Clear any existing filter
-            return;
-        }
-        
-        // If empty after trim, clear filter
-        if (searchText.isEmpty()) {
-            sorter.setRowFilter(null); // Clear any existing filter
-            return;
-        }
-        
-        try {
-            // Filter based on multiple columns:
-            // Date (col 1), Tenant Name (col 2), Room No (col 3), Amount (col 4), Method (col 6)
-            RowFilter<DefaultTableModel, Object> rf = RowFilter.regexFilter("(?i)" + searchText, 1, 2, 3, 4, 6);
-            sorter.setRowFilter(rf);
-        } catch (java.util.regex.PatternSyntaxException e) {
-            // If the regex pattern is invalid, don't apply any filter
-            sorter.setRowFilter(null);
-            System.err.println("Invalid search regex: " + e.getMessage());
-        }
+        filterTable();
     }
 
     /**
      * Filters the table based on both the search text and combo box selection.
-     * This provides a more comprehensive filtering solution than filterTableBySearch().
+     * The query runs in the database after a short debounce, so rapid typing
+     * results in a single reload.
      */
     public void filterTable() {
+        tableModel.setQuery(buildQuery());
+    }
+
+    /**
+     * Builds the database query for the current search text and filter selection.
+     * Every filter becomes an SQL predicate: date ranges on payment_date, method
+     * on payment_method and tenant filters on tenant_id. "Old" shows payments
+     * older than 90 days oldest first; everything else is newest first.
+     */
+    private PaymentQuery buildQuery() {
         String searchText = getSearchText();
-        String filterSelection = getSelectedFilter();
-        
         // Don't filter if the search field contains the placeholder text "Search"
         if (searchText.equals("Search")) {
             searchText = "";
         }
-        
-        final String finalSearchText = searchText;
-        final String finalFilterSelection = filterSelection;
-        
-        // Create a custom row filter that works correctly with renderers
-        RowFilter<DefaultTableModel, Object> compositeFilter = new RowFilter<DefaultTableModel, Object>() {
-            @Override
-            public boolean include(Entry<? extends DefaultTableModel, ? extends Object> entry) {
-                // First check if we should include based on search text
-                if (!finalSearchText.isEmpty()) {
-                    boolean matches = false;
-                    // Check tenant name (column 2), room number (column 3), amount (column 4), method (column 6)
-                    String tenant = entry.getStringValue(2).toLowerCase();
-                    String roomNo = entry.getStringValue(3).toLowerCase();
-                    String amount = entry.getStringValue(4).toLowerCase();
-                    String method = entry.getStringValue(6).toLowerCase();
-                    
-                    if (tenant.contains(finalSearchText.toLowerCase()) || 
-                        roomNo.contains(finalSearchText.toLowerCase()) ||
-                        amount.contains(finalSearchText.toLowerCase()) ||
-                        method.contains(finalSearchText.toLowerCase())) {
-                        matches = true;
-                    }
-                    
-                    if (!matches) {
-                        return false; // No need to check filter if search doesn't match
-                    }
-                }
-                
-                // Then check if we should include based on filter combo box
-                if (filterSelection != null && !filterSelection.equals("All Payments") && !filterSelection.trim().isEmpty()) {
-                    if (filterSelection.equals("Most Recent First")) {
-                        // Date is in column 1
-                        String dateStr = entry.getStringValue(1);
-                        if (dateStr.equals("N/A")) {
-                            return false;
-                        }
-                        try {
-                            LocalDate paymentDate = LocalDate.parse(dateStr);
-                            LocalDate thirtyDaysAgo = LocalDate.now().minusDays(30);
-                            return paymentDate.isAfter(thirtyDaysAgo);
-                        } catch (Exception e) {
-                            // If date can't be parsed, include the row
-                            return true;
-                        }
-                    } else if (filterSelection.equals("Oldest First")) {
-                        // Date is in column 1
-                        String dateStr = entry.getStringValue(1);
-                        if (dateStr.equals("N/A")) {
-                            return false;
-                        }
-                        try {
-                            LocalDate paymentDate = LocalDate.parse(dateStr);
-                            LocalDate ninetyDaysAgo = LocalDate.now().minusDays(90);
-                            return paymentDate.isBefore(ninetyDaysAgo);
-                        } catch (Exception e) {
-                            // If date can't be parsed, include the row
-                            return true;
-                        }
-                    }
-                }
-                
-                // If we reach here, include the row
-                return true;
-            }
-        };
-        
-        // Apply our custom filter
-        sorter.setRowFilter(compositeFilter);
+
+        PaymentQuery query = PaymentQuery.all().withSearchText(searchText);
+        UnaryOperator<PaymentQuery> filter = filterOptions.get(getSelectedFilter());
+        return filter != null ? filter.apply(query) : query;
     }
 
     // --- Methods to Add Listeners ---
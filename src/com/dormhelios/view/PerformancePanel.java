@@ -0,0 +1,319 @@
+package com.dormhelios.view;
+
+import com.dormhelios.service.PerformanceMonitor;
+import com.dormhelios.service.SystemLogService;
+import com.dormhelios.service.TaskExecutor;
+import com.dormhelios.util.ConnectionPool;
+import com.dormhelios.util.EdtWatchdog;
+import com.dormhelios.util.LatencyHistogram;
+import com.dormhelios.util.LruCache;
+import com.dormhelios.util.QueryMetrics;
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.awt.GridLayout;
+import java.awt.event.HierarchyEvent;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+import javax.swing.table.DefaultTableModel;
+
+/**
+ * Admin "Performance" tab: live view of PerformanceMonitor snapshots.
+ * Subscribes to the sampler only while the panel is showing, so a hidden
+ * tab costs nothing.
+ */
+public class PerformancePanel extends JPanel {
+
+    private static final int TOP_STATEMENTS = 10;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private final JLabel sampledAtLabel = new JLabel("Waiting for first sample...");
+    private final JCheckBox queryMetricsCheckBox = new JCheckBox("Collect query timings");
+    private final JButton resetButton = new JButton("Reset");
+
+    private final JLabel poolLabel = new JLabel();
+    private final JLabel queriesLabel = new JLabel();
+    private final JLabel edtLabel = new JLabel();
+    private final JLabel queuesLabel = new JLabel();
+    private final JLabel memoryLabel = new JLabel();
+    private final JLabel runtimeLabel = new JLabel();
+
+    private final DefaultTableModel statementModel = readOnlyModel(
+            "Statement", "Calls", "Total (ms)", "Mean (ms)", "p95 (ms)", "Max (ms)", "Errors");
+    private final DefaultTableModel slowQueryModel = readOnlyModel(
+            "Time", "Statement", "Duration (ms)", "Failed", "Thread");
+    private final DefaultTableModel cacheModel = readOnlyModel(
+            "Cache", "Size", "Hit ratio", "Hits", "Misses", "Evictions", "Expired", "Invalidated");
+    private final DefaultTableModel taskModel = readOnlyModel(
+            "Task", "Lane", "Succeeded", "Failed", "Cancelled", "Mean (ms)", "p95 (ms)", "Max (ms)");
+
+    private final Consumer<PerformanceMonitor.Snapshot> listener =
+            snapshot -> SwingUtilities.invokeLater(() -> displaySnapshot(snapshot));
+    private boolean subscribed;
+
+    public PerformancePanel() {
+        setupComponents();
+        // Sample only while visible
+        addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0) {
+                updateSubscription();
+            }
+        });
+    }
+
+    private void setupComponents() {
+        setLayout(new BorderLayout(0, 12));
+        setBackground(new Color(248, 250, 252)); // slate-50
+        setBorder(BorderFactory.createEmptyBorder(16, 16, 16, 16));
+
+        JLabel header = new JLabel("Performance & Health");
+        header.setFont(new Font("Segoe UI", Font.BOLD, 20));
+        header.setForeground(new Color(30, 41, 59)); // slate-800
+        sampledAtLabel.setForeground(new Color(100, 116, 139)); // slate-500
+
+        queryMetricsCheckBox.setOpaque(false);
+        queryMetricsCheckBox.setToolTipText("Time every JDBC statement and record slow queries");
+        queryMetricsCheckBox.addActionListener(e -> {
+            QueryMetrics.setEnabled(queryMetricsCheckBox.isSelected());
+            SystemLogService.log("PerformancePanel", "Query metrics "
+                    + (queryMetricsCheckBox.isSelected() ? "enabled" : "disabled"));
+        });
+        resetButton.setToolTipText("Clear query timings and slow query history");
+        resetButton.addActionListener(e -> QueryMetrics.reset());
+
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.RIGHT, 8, 0));
+        controls.setOpaque(false);
+        controls.add(sampledAtLabel);
+        controls.add(queryMetricsCheckBox);
+        controls.add(resetButton);
+
+        JPanel top = new JPanel(new BorderLayout());
+        top.setOpaque(false);
+        top.add(header, BorderLayout.WEST);
+        top.add(controls, BorderLayout.EAST);
+
+        JPanel cards = new JPanel(new GridLayout(2, 3, 12, 12));
+        cards.setOpaque(false);
+        cards.add(card("Connection Pool", poolLabel));
+        cards.add(card("Queries", queriesLabel));
+        cards.add(card("Event Thread", edtLabel));
+        cards.add(card("Background Queues", queuesLabel));
+        cards.add(card("Memory & GC", memoryLabel));
+        cards.add(card("Runtime", runtimeLabel));
+
+        JPanel north = new JPanel(new BorderLayout(0, 12));
+        north.setOpaque(false);
+        north.add(top, BorderLayout.NORTH);
+        north.add(cards, BorderLayout.CENTER);
+
+        JPanel tables = new JPanel(new GridLayout(4, 1, 0, 12));
+        tables.setOpaque(false);
+        tables.add(tableSection("Top Statements by Total Time", statementModel, 0));
+        tables.add(tableSection("Recent Slow Queries", slowQueryModel, 1));
+        tables.add(tableSection("Background Tasks by Total Time", taskModel, 0));
+        tables.add(tableSection("Caches", cacheModel, 0));
+
+        add(north, BorderLayout.NORTH);
+        add(tables, BorderLayout.CENTER);
+    }
+
+    private void updateSubscription() {
+        boolean showing = isShowing();
+        if (showing && !subscribed) {
+            PerformanceMonitor.addListener(listener);
+            subscribed = true;
+        } else if (!showing && subscribed) {
+            PerformanceMonitor.removeListener(listener);
+            subscribed = false;
+        }
+    }
+
+    // --- Rendering ---
+
+    private void displaySnapshot(PerformanceMonitor.Snapshot snapshot) {
+        sampledAtLabel.setText("Sampled at " + snapshot.getSampledAt().format(TIME_FORMAT));
+
+        displayPool(snapshot.getPoolStats());
+        displayQueries(snapshot.getQueryMetrics());
+        displayEdt(snapshot.getEdtStalls());
+
+        SystemLogService.Metrics audit = snapshot.getAuditLog();
+        List<String> queueLines = new ArrayList<>();
+        for (TaskExecutor.LaneStats lane : snapshot.getTasks().getLanes()) {
+            queueLines.add("Tasks (" + lane.getLane().name().toLowerCase() + "): " + lane.getActive()
+                    + " running, " + lane.getQueued() + " queued"
+                    + String.format(" (wait p95 %s ms)", millis(lane.getQueueWait().getPercentileMillis(95))));
+        }
+        queueLines.add("App logger: " + snapshot.getLoggerQueueDepth() + " pending, "
+                + snapshot.getLoggerDropped() + " dropped");
+        queueLines.add("Audit log: " + audit.getQueueDepth() + " pending, " + audit.getFailed() + " failed"
+                        + String.format(" (flush %.1f ms)", audit.getLastFlushMillis()));
+        queueLines.add("SMS: " + snapshot.getSmsPending() + " pending");
+        queuesLabel.setText(html(queueLines.toArray(new String[0])));
+
+        memoryLabel.setText(html(
+                "Heap: " + megabytes(snapshot.getHeapUsed()) + " / "
+                        + (snapshot.getHeapMax() > 0 ? megabytes(snapshot.getHeapMax()) : megabytes(snapshot.getHeapCommitted())),
+                "Non-heap: " + megabytes(snapshot.getNonHeapUsed()),
+                "GC: " + snapshot.getGcCount() + " collections, " + snapshot.getGcMillis() + " ms"));
+
+        long uptimeMinutes = snapshot.getUptimeMillis() / 60_000;
+        runtimeLabel.setText(html(
+                "Uptime: " + (uptimeMinutes / 60) + " h " + (uptimeMinutes % 60) + " min",
+                "Threads: " + snapshot.getThreadCount(),
+                "Caches: " + snapshot.getCaches().size()));
+
+        displayTasks(snapshot.getTasks().getTasks());
+        displayCaches(snapshot.getCaches());
+    }
+
+    private void displayEdt(EdtWatchdog.Stats edt) {
+        if (!edt.isRunning()) {
+            edtLabel.setText(html("Stall watchdog is off", "Run with -Ddormhelios.diagnostics=true"));
+            return;
+        }
+        String topSource = edt.getStallsBySource().entrySet().stream().findFirst()
+                .map(entry -> entry.getKey() + " (" + entry.getValue() + ")")
+                .orElse("none");
+        edtLabel.setText(html(
+                "Stalls (&ge; " + edt.getThresholdMillis() + " ms): " + edt.getStallCount()
+                        + (edt.getCurrentlyBlockedMillis() > 0 ? ", blocked now " + edt.getCurrentlyBlockedMillis() + " ms" : ""),
+                "Longest: " + edt.getMaxStallMillis() + " ms",
+                "Top: " + topSource));
+    }
+
+    private void displayPool(Optional<ConnectionPool.PoolStats> poolStats) {
+        if (poolStats.isEmpty()) {
+            poolLabel.setText(html("Pooling disabled", "Each query opens its own connection"));
+            return;
+        }
+        ConnectionPool.PoolStats pool = poolStats.get();
+        poolLabel.setText(html(
+                "In use: " + pool.getBorrowedConnections() + " / " + pool.getMaxSize()
+                        + " (" + pool.getIdleConnections() + " idle)",
+                "Waiting: " + pool.getThreadsAwaiting()
+                        + String.format(", avg wait %.1f ms, max %.1f ms", pool.getAverageWaitMillis(), pool.getMaxWaitMillis()),
+                "Timeouts: " + pool.getBorrowTimeouts() + ", leaks: " + pool.getLeaksDetected()));
+    }
+
+    private void displayQueries(QueryMetrics.Snapshot metrics) {
+        if (queryMetricsCheckBox.isSelected() != metrics.isEnabled()) {
+            queryMetricsCheckBox.setSelected(metrics.isEnabled());
+        }
+        if (!metrics.isEnabled()) {
+            queriesLabel.setText(html("Query timing is off", "Tick \"Collect query timings\" to start"));
+        } else {
+            LatencyHistogram.Snapshot acquisition = metrics.getAcquisition();
+            queriesLabel.setText(html(
+                    "Statements: " + metrics.getTotalCalls() + ", slow: " + metrics.getSlowQueryCount()
+                            + " (&ge; " + metrics.getSlowQueryThresholdMillis() + " ms)",
+                    String.format("Connection wait p95: %.1f ms", acquisition.getPercentileMillis(95)),
+                    "Connection failures: " + metrics.getAcquisitionFailures()));
+        }
+
+        statementModel.setRowCount(0);
+        List<QueryMetrics.StatementStats> statements = metrics.getStatements();
+        for (QueryMetrics.StatementStats stats : statements.subList(0, Math.min(TOP_STATEMENTS, statements.size()))) {
+            LatencyHistogram.Snapshot latency = stats.getLatency();
+            statementModel.addRow(new Object[]{
+                stats.getTemplate(), stats.getCalls(), millis(stats.getTotalMillis()), millis(latency.getMeanMillis()),
+                millis(latency.getPercentileMillis(95)), millis(latency.getMaxMillis()), stats.getErrors()});
+        }
+
+        slowQueryModel.setRowCount(0);
+        for (QueryMetrics.SlowQuery slow : metrics.getRecentSlowQueries()) {
+            slowQueryModel.addRow(new Object[]{
+                slow.getExecutedAt().format(TIME_FORMAT), slow.getTemplate(), millis(slow.getMillis()),
+                slow.isFailed() ? "Yes" : "", slow.getThreadName()});
+        }
+    }
+
+    private void displayTasks(List<TaskExecutor.TaskStats> tasks) {
+        taskModel.setRowCount(0);
+        for (TaskExecutor.TaskStats task : tasks) {
+            LatencyHistogram.Snapshot duration = task.getDuration();
+            taskModel.addRow(new Object[]{
+                task.getName(), task.getLane().name().toLowerCase(), task.getSucceeded(), task.getFailed(),
+                task.getCancelled(), millis(duration.getMeanMillis()), millis(duration.getPercentileMillis(95)),
+                millis(duration.getMaxMillis())});
+        }
+    }
+
+    private void displayCaches(List<LruCache.Stats> caches) {
+        cacheModel.setRowCount(0);
+        for (LruCache.Stats cache : caches) {
+            cacheModel.addRow(new Object[]{
+                cache.getName(), cache.getSize() + " / " + cache.getMaxEntries(),
+                String.format("%.1f%%", cache.getHitRatio() * 100), cache.getHits(), cache.getMisses(),
+                cache.getEvictions(), cache.getExpirations(), cache.getInvalidations()});
+        }
+    }
+
+    // --- Helpers ---
+
+    private static JPanel card(String title, JLabel body) {
+        JLabel titleLabel = new JLabel(title);
+        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 13));
+        titleLabel.setForeground(new Color(71, 85, 105)); // slate-600
+        body.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        body.setVerticalAlignment(JLabel.TOP);
+
+        JPanel card = new JPanel(new BorderLayout(0, 6));
+        card.setBackground(Color.WHITE);
+        card.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(new Color(226, 232, 240)), // slate-200
+                BorderFactory.createEmptyBorder(10, 12, 10, 12)));
+        card.add(titleLabel, BorderLayout.NORTH);
+        card.add(body, BorderLayout.CENTER);
+        return card;
+    }
+
+    private static JPanel tableSection(String title, DefaultTableModel model, int wideColumn) {
+        JTable table = new JTable(model);
+        table.setFillsViewportHeight(true);
+        table.setRowHeight(22);
+        table.getColumnModel().getColumn(wideColumn).setPreferredWidth(420);
+
+        JLabel titleLabel = new JLabel(title);
+        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 13));
+
+        JPanel section = new JPanel(new BorderLayout(0, 4));
+        section.setOpaque(false);
+        section.add(titleLabel, BorderLayout.NORTH);
+        section.add(new JScrollPane(table), BorderLayout.CENTER);
+        return section;
+    }
+
+    private static DefaultTableModel readOnlyModel(String... columns) {
+        return new DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+    }
+
+    private static String html(String... lines) {
+        return "<html>" + String.join("<br>", lines) + "</html>";
+    }
+
+    private static String megabytes(long bytes) {
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
+    private static String millis(double millis) {
+        return String.format("%.1f", millis);
+    }
+}
@@ -0,0 +1,117 @@
+package com.dormhelios.view;
+
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.awt.Window;
+import java.awt.event.ActionListener;
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.WindowConstants;
+
+/**
+ * Progress dialog for the "remind all overdue" batch run.
+ * Shows a progress bar, a running per-tenant result log and a Cancel button.
+ */
+public class ReminderBatchDialog extends JDialog {
+
+    private final JLabel statusLabel = new JLabel("Loading overdue tenants...");
+    private final JProgressBar progressBar = new JProgressBar();
+    private final JTextArea resultArea = new JTextArea(14, 48);
+    private final JButton cancelButton = new JButton("Cancel");
+    private final JButton closeButton = new JButton("Close");
+
+    public ReminderBatchDialog(Window owner) {
+        super(owner, "Remind All Overdue Tenants", ModalityType.APPLICATION_MODAL);
+        setupComponents();
+    }
+
+    private void setupComponents() {
+        setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE); // Closing is handled by the buttons
+
+        statusLabel.setFont(statusLabel.getFont().deriveFont(Font.BOLD));
+        progressBar.setIndeterminate(true);
+        progressBar.setStringPainted(true);
+        resultArea.setEditable(false);
+        resultArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        closeButton.setEnabled(false);
+
+        JPanel top = new JPanel(new BorderLayout(0, 8));
+        top.add(statusLabel, BorderLayout.NORTH);
+        top.add(progressBar, BorderLayout.SOUTH);
+
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttons.add(cancelButton);
+        buttons.add(closeButton);
+
+        JPanel content = new JPanel(new BorderLayout(0, 10));
+        content.setBorder(BorderFactory.createEmptyBorder(16, 16, 12, 16));
+        content.add(top, BorderLayout.NORTH);
+        content.add(new JScrollPane(resultArea), BorderLayout.CENTER);
+        content.add(buttons, BorderLayout.SOUTH);
+        setContentPane(content);
+        pack();
+        setLocationRelativeTo(getOwner());
+    }
+
+    /**
+     * Updates the progress bar and status line
+     * @param finished Recipients finished so far
+     * @param total Total recipients in the run
+     */
+    public void setProgress(int finished, int total) {
+        progressBar.setIndeterminate(false);
+        progressBar.setMaximum(Math.max(total, 1));
+        progressBar.setValue(finished);
+        statusLabel.setText("Sending reminders: " + finished + " of " + total);
+    }
+
+    /**
+     * Appends one line to the result log
+     * @param line Result line for one tenant
+     */
+    public void appendResult(String line) {
+        resultArea.append(line + "\n");
+    }
+
+    /**
+     * Switches the dialog to its finished state
+     * @param summary Summary text to show in the status line
+     */
+    public void showFinished(String summary) {
+        progressBar.setIndeterminate(false);
+        statusLabel.setText(summary);
+        cancelButton.setEnabled(false);
+        closeButton.setEnabled(true);
+    }
+
+    /**
+     * Shows that cancellation was requested and is in progress
+     */
+    public void showCancelling() {
+        cancelButton.setEnabled(false);
+        statusLabel.setText("Cancelling...");
+    }
+
+    public void addCancelButtonListener(ActionListener listener) {
+        cancelButton.addActionListener(listener);
+    }
+
+    public void addCloseButtonListener(ActionListener listener) {
+        closeButton.addActionListener(listener);
+    }
+
+    public void showDialog() {
+        setVisible(true);
+    }
+
+    public void closeDialog() {
+        dispose();
+    }
+}
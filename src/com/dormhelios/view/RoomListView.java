@@ -3,13 +3,18 @@ package com.dormhelios.view;
 import com.dormhelios.model.entity.Room; // Import the Room entity
 import java.awt.event.ActionListener;
 import java.text.NumberFormat; // For currency formatting
+import com.dormhelios.util.TableSearchIndex;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Locale;
+import java.util.Vector;
+import java.util.function.Predicate;
 import java.util.logging.Logger; // For logging
 import javax.swing.JOptionPane;
 import javax.swing.JTable;
-import javax.swing.RowFilter;
+import javax.swing.Timer;
 import javax.swing.event.DocumentListener; // For live search
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableRowSorter;
@@ -22,6 +27,9 @@ public class RoomListView extends javax.swing.JPanel {
      */
     private DefaultTableModel tableModel;
     private TableRowSorter<DefaultTableModel> sorter; // For sorting and filtering
+    private final TableSearchIndex<Room.RoomStatus> searchIndex = new TableSearchIndex<>(); // Status per row for the filter
+    private final Timer searchDebounceTimer = new Timer(SEARCH_DEBOUNCE_MS, e -> filterTable());
+    private static final int SEARCH_DEBOUNCE_MS = 150;
     private static final NumberFormat CURRENCY_FORMATTER = NumberFormat.getCurrencyInstance(new Locale("en", "PH"));
     private static final Logger LOGGER = Logger.getLogger(RoomListView.class.getName()); // Logger for debugging
 
@@ -46,9 +54,9 @@ public class RoomListView extends javax.swing.JPanel {
         };
         roomTable.setModel(tableModel);
         roomTable.setSelectionMode(javax.swing.ListSelectionModel.SINGLE_SELECTION);
-        roomTable.setAutoCreateRowSorter(true); // Enable basic column sorting
-        sorter = new TableRowSorter<>(tableModel);
+        sorter = new TableRowSorter<>(tableModel); // Column sorting and filtering
         roomTable.setRowSorter(sorter);
+        searchDebounceTimer.setRepeats(false);
 
         // Set up filter combo box with improved options
         filterComboBox.setModel(new javax.swing.DefaultComboBoxModel<>(
@@ -131,9 +139,6 @@ public class RoomListView extends javax.swing.JPanel {
         roomTable.setShowVerticalLines(false);
         roomTable.setShowHorizontalLines(true);
         roomTable.setGridColor(new java.awt.Color(230, 230, 230));
-
-        // Enable row sorting
-        roomTable.setAutoCreateRowSorter(true);
     }
 
     /**
@@ -177,20 +182,27 @@ public class RoomListView extends javax.swing.JPanel {
     public void displayRooms(List<Room> rooms) {
         // Clear existing rows
         tableModel.setRowCount(0);
+        searchIndex.clear();
         if (rooms == null) {
             return; // Handle null list gracefully
         }
-        // Populate table
+        // Populate table and search index together so their row indices line up
+        Vector<Vector<Object>> rows = new Vector<>(rooms.size());
         for (Room room : rooms) {
-            Object[] row = new Object[]{
+            rows.add(new Vector<>(Arrays.asList(
                 room.getRoomId(), // Include ID in the model
                 room.getRoomNumber(),
                 room.getCapacity(),
                 room.getSlotsAvailable(), // Fixed method name
                 CURRENCY_FORMATTER.format(room.getMonthlyRate() != null ? room.getMonthlyRate() : 0), // Format currency
                 room.getStatus() != null ? room.getStatus().name() : "N/A" // Display status name
-            };
-            tableModel.addRow(row);
+            )));
+            searchIndex.add(room.getStatus(), room.getRoomNumber());
+        }
+        // One insert event instead of one per row, so the sorter re-sorts once
+        if (!rows.isEmpty()) {
+            tableModel.getDataVector().addAll(rows);
+            tableModel.fireTableRowsInserted(0, rows.size() - 1);
         }
     }
 
@@ -231,11 +243,20 @@ public class RoomListView extends javax.swing.JPanel {
         return selected != null ? selected.toString() : "All Rooms"; // Handle null selection
     }
 
+    /**
+     * Filters the table after typing pauses for {@value #SEARCH_DEBOUNCE_MS} ms,
+     * so a burst of keystrokes results in a single search.
+     */
+    public void scheduleFilter() {
+        searchDebounceTimer.restart();
+    }
+
     /**
      * Applies filtering to the table based on the search text and status
-     * filter. Typically called by listeners attached by the controller.
+     * filter. Matching runs against the search index, so no cell is read here.
      */
     public void filterTable() {
+        searchDebounceTimer.stop();
         String searchText = getSearchText();
         String statusFilter = getSelectedFilter();
 
@@ -244,55 +265,28 @@ public class RoomListView extends javax.swing.JPanel {
             searchText = "";
         }
 
-        final String finalSearchText = searchText;
-        final String finalFilterSelection = statusFilter;
-
-        // Create a row filter that handles both search and status filtering
-        RowFilter<DefaultTableModel, Object> compositeFilter = new RowFilter<DefaultTableModel, Object>() {
-            @Override
-            public boolean include(Entry<? extends DefaultTableModel, ? extends Object> entry) {
-                // First check if we should include based on search text
-                if (!finalSearchText.isEmpty()) {
-                    boolean matches = false;
-                    // Check room number (column 1)
-                    String roomNumber = entry.getStringValue(1).toLowerCase();
-                    if (roomNumber.contains(finalSearchText.toLowerCase())) {
-                        matches = true;
-                    }
-
-                    if (!matches) {
-                        return false; // No need to check status if search text doesn't match
-                    }
-                }
-
-                // Then check if we should include based on status filter
-                if (!statusFilter.equals("All Rooms")) {
-                    // Get the status column value (column 5)
-                    String status = entry.getStringValue(5).toUpperCase();
-
-                    switch (statusFilter) {
-                        case "Vacant":
-                            return status.contains("VACANT");
-                        case "Occupied":
-                            return status.contains("OCCUPIED");
-                        case "Maintenance":
-                            return status.contains("MAINTENANCE") || status.contains("UNDER_MAINTENANCE");
-                        default:
-                            return true;
-                    }
-                }
-
-                // If we reach here, include the row
-                return true;
-            }
-        };
-
-        // Apply our custom filter
-        sorter.setRowFilter(compositeFilter);
+        BitSet matches = searchIndex.search(searchText, statusFilter, filterFor(statusFilter));
+        sorter.setRowFilter(TableSearchIndex.rowFilter(matches));
 
         LOGGER.fine("Table filtered - Search: '" + searchText + "', Status: '" + statusFilter + "'");
     }
 
+    /**
+     * @return Test for the status filter selection, or null for "All Rooms"
+     */
+    private static Predicate<Room.RoomStatus> filterFor(String statusFilter) {
+        switch (statusFilter) {
+            case "Vacant":
+                return status -> status == Room.RoomStatus.VACANT;
+            case "Occupied":
+                return status -> status == Room.RoomStatus.OCCUPIED;
+            case "Maintenance":
+                return status -> status == Room.RoomStatus.UNDER_MAINTENANCE;
+            default:
+                return null;
+        }
+    }
+
     // --- Methods to Add Listeners ---
     public void addAddRoomButtonListener(ActionListener listener) {
         addRoomsButton.addActionListener(listener);
@@ -12,6 +12,7 @@ public class SendReminderDialog extends javax.swing.JDialog {
     
     private static final Logger LOGGER = Logger.getLogger(SendReminderDialog.class.getName());
     private boolean saved = false;
+    private final javax.swing.JButton remindAllButton = new javax.swing.JButton("Remind All Overdue...");
 
     /**
      * Creates new form SendReminderView
@@ -23,6 +24,17 @@ public class SendReminderDialog extends javax.swing.JDialog {
     }
     
     private void setupComponents() {
+        // Batch mode button below the generated form
+        javax.swing.JPanel batchPanel = new javax.swing.JPanel(new java.awt.FlowLayout(java.awt.FlowLayout.CENTER));
+        batchPanel.setBackground(jPanel1.getBackground());
+        remindAllButton.setToolTipText("Send the message to every tenant with an overdue payment");
+        batchPanel.add(remindAllButton);
+        javax.swing.JPanel content = new javax.swing.JPanel(new java.awt.BorderLayout());
+        content.add(jPanel1, java.awt.BorderLayout.CENTER);
+        content.add(batchPanel, java.awt.BorderLayout.SOUTH);
+        setContentPane(content);
+        pack();
+
         setLocationRelativeTo(getParent()); // Center relative to parent
         setTitle("Send Payment Reminder");
     }
@@ -103,6 +115,14 @@ public class SendReminderDialog extends javax.swing.JDialog {
         sendButton1.addActionListener(listener);
     }
 
+    /**
+     * Adds an ActionListener to the "Remind All Overdue" button.
+     * @param listener ActionListener provided by the controller.
+     */
+    public void addRemindAllButtonListener(ActionListener listener) {
+        remindAllButton.addActionListener(listener);
+    }
+
     /**
      * Adds an ActionListener to the Cancel button.
      * @param listener ActionListener provided by the controller.
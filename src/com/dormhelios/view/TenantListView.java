@@ -6,11 +6,16 @@ import com.dormhelios.model.entity.Tenant;
 import com.dormhelios.model.entity.TenantWithRoom;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
+import com.dormhelios.util.TableSearchIndex;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Vector;
+import java.util.function.Predicate;
 import javax.swing.JOptionPane;
 import javax.swing.JTable;
-import javax.swing.RowFilter;
+import javax.swing.Timer;
 import javax.swing.event.DocumentListener;
 import java.time.LocalDate;
 import javax.swing.table.TableColumnModel;
@@ -19,7 +24,10 @@ import java.awt.Font;
 import javax.swing.BorderFactory;
 import java.awt.Cursor;
 import java.awt.Dimension;
+import javax.swing.Box;
 import javax.swing.JButton;
+import javax.swing.JPanel;
+import java.awt.FlowLayout;
 
 public class TenantListView extends javax.swing.JPanel {
 
@@ -28,6 +36,19 @@ public class TenantListView extends javax.swing.JPanel {
      */
     private DefaultTableModel tableModel;
     private TableRowSorter<DefaultTableModel> sorter;
+    private final TableSearchIndex<TenantFacts> searchIndex = new TableSearchIndex<>();
+    private final Timer searchDebounceTimer = new Timer(SEARCH_DEBOUNCE_MS, e -> filterTable());
+    private final JButton importButton = new JButton("Import CSV...");
+
+    private static final int SEARCH_DEBOUNCE_MS = 150;
+    private static final String STATUS_ACTIVE = "Active";
+    private static final String STATUS_TO_LEAVE = "To Leave";
+
+    /**
+     * Pre-computed values the filter combo tests, so filtering never parses cells
+     */
+    private static record TenantFacts(LocalDate checkInDate, String status) {
+    }
 
     public TenantListView() {
         initComponents();
@@ -35,6 +56,30 @@ public class TenantListView extends javax.swing.JPanel {
         setupSearchFieldPlaceholder();
         setupTableAppearance();
         applyCustomStyling();
+        setupImportButton();
+    }
+
+    /**
+     * Places the "Import CSV..." button beside the title. The generated layout
+     * has no slot for it, so the title label is swapped for a panel holding both.
+     */
+    private void setupImportButton() {
+        importButton.setToolTipText("Register many tenants at once from a CSV file");
+        importButton.setBackground(Color.WHITE);
+        importButton.setForeground(new Color(30, 41, 59)); // slate-800
+        importButton.setFont(importButton.getFont().deriveFont(Font.BOLD));
+        importButton.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(new Color(226, 232, 240), 1, true), // slate-200
+                BorderFactory.createEmptyBorder(6, 14, 6, 14)));
+        importButton.setFocusPainted(false);
+        importButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
+
+        JPanel header = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        header.setOpaque(false);
+        ((javax.swing.GroupLayout) getLayout()).replace(jLabel1, header);
+        header.add(jLabel1);
+        header.add(Box.createHorizontalStrut(20));
+        header.add(importButton);
     }
 
     private void setupTable() {
@@ -51,9 +96,9 @@ public class TenantListView extends javax.swing.JPanel {
         };
         tenantTable.setModel(tableModel);
         tenantTable.setSelectionMode(javax.swing.ListSelectionModel.SINGLE_SELECTION); // Allow only one row selection
-        tenantTable.setAutoCreateRowSorter(true); // Enable basic column sorting
-        sorter = new TableRowSorter<>(tableModel);
+        sorter = new TableRowSorter<>(tableModel); // Column sorting and filtering
         tenantTable.setRowSorter(sorter);
+        searchDebounceTimer.setRepeats(false);
 
         // Set up filter combo box with improved options
         filterComboBox.setModel(new javax.swing.DefaultComboBoxModel<>(
@@ -127,30 +172,41 @@ public class TenantListView extends javax.swing.JPanel {
     public void displayTenantsWithRooms(List<TenantWithRoom> tenants) {
         // Clear existing rows
         tableModel.setRowCount(0);
+        searchIndex.clear();
         if (tenants == null) {
             return; // Handle null list gracefully
         }
         
-        // Populate table
+        // Populate table and search index together so their row indices line up
+        Vector<Vector<Object>> rows = new Vector<>(tenants.size());
         for (TenantWithRoom tenant : tenants) {
-            Object[] row = new Object[]{
+            String name = tenant.getLastName() + ", " + tenant.getFirstName(); // Combine name
+            String roomNumber = tenant.getRoomNumber() != null ? tenant.getRoomNumber() : "N/A"; // Use the actual room number
+            LocalDate checkInDate = tenant.getLeaseStartDate();
+            String status = getTenantStatus(tenant); // Determine status based on logic
+            rows.add(new Vector<>(Arrays.asList(
                 tenant.getTenantId(),
-                tenant.getLastName() + ", " + tenant.getFirstName(), // Combine name
-                tenant.getRoomNumber() != null ? tenant.getRoomNumber() : "N/A", // Use the actual room number 
-                tenant.getLeaseStartDate() != null ? tenant.getLeaseStartDate().toString() : "N/A", // Format date as needed
-                getTenantStatus(tenant) // Determine status based on logic
-            };
-            tableModel.addRow(row);
+                name,
+                roomNumber,
+                checkInDate != null ? checkInDate : "N/A", // Rendered by DateRenderer
+                status
+            )));
+            searchIndex.add(new TenantFacts(checkInDate, status), name, tenant.getFirstName() + " " + tenant.getLastName(), roomNumber);
+        }
+        // One insert event instead of one per row, so the sorter re-sorts once
+        if (!rows.isEmpty()) {
+            tableModel.getDataVector().addAll(rows);
+            tableModel.fireTableRowsInserted(0, rows.size() - 1);
         }
     }
 
 
     private String getTenantStatus(Tenant tenant) {
         if (tenant.getLeaseEndDate() != null && tenant.getLeaseEndDate().isBefore(java.time.LocalDate.now().plusDays(7))) {
-            return "To Leave";
+            return STATUS_TO_LEAVE;
         }
         // Add logic for Pending, Active etc.
-        return "Active"; // Placeholder
+        return STATUS_ACTIVE; // Placeholder
     }
 
     public int getSelectedTenantId() {
@@ -183,11 +239,20 @@ public class TenantListView extends javax.swing.JPanel {
         return (String) filterComboBox.getSelectedItem();
     }
 
+    /**
+     * Filters the table after typing pauses for {@value #SEARCH_DEBOUNCE_MS} ms,
+     * so a burst of keystrokes results in a single search.
+     */
+    public void scheduleFilter() {
+        searchDebounceTimer.restart();
+    }
+
     /**
      * Applies filtering to the table based on the search text and filter combo box.
-     * Typically called by a listener attached by the controller.
+     * Matching runs against the search index, so no cell is read or parsed here.
      */
     public void filterTable() {
+        searchDebounceTimer.stop();
         String searchText = getSearchText();
         String filterSelection = getSelectedFilter();
         
@@ -196,65 +261,28 @@ public class TenantListView extends javax.swing.JPanel {
             searchText = "";
         }
         
-        // Create final copies of the variables for use in the inner class
-        final String finalSearchText = searchText;
-        final String finalFilterSelection = filterSelection;
-        
-        // Create a custom row filter that works with our renderers
-        RowFilter<DefaultTableModel, Object> compositeFilter = new RowFilter<DefaultTableModel, Object>() {
-            @Override
-            public boolean include(Entry<? extends DefaultTableModel, ? extends Object> entry) {
-                // First check if we should include based on search text
-                if (!finalSearchText.isEmpty()) {
-                    boolean matches = false;
-                    // Search in Name (column 1) and Room No (column 2)
-                    String name = entry.getStringValue(1).toLowerCase();
-                    String roomNo = entry.getStringValue(2).toLowerCase();
-                    
-                    if (name.contains(finalSearchText.toLowerCase()) || 
-                        roomNo.contains(finalSearchText.toLowerCase())) {
-                        matches = true;
-                    }
-                    
-                    if (!matches) {
-                        return false; // No need to check combo box filter if search doesn't match
-                    }
-                }
-                
-                // Then check if we should include based on filter combo box
-                if (finalFilterSelection != null && !finalFilterSelection.equals("All Tenants") && !finalFilterSelection.trim().isEmpty()) {
-                    if (finalFilterSelection.equals("Recent Tenants")) {
-                        // Check-in Date is in column 3
-                        String checkInDateStr = entry.getStringValue(3);
-                        if (checkInDateStr.equals("N/A")) {
-                            return false;
-                        }
-                        try {
-                            LocalDate checkInDate = LocalDate.parse(checkInDateStr);
-                            LocalDate thirtyDaysAgo = LocalDate.now().minusDays(30);
-                            return checkInDate.isAfter(thirtyDaysAgo);
-                        } catch (Exception e) {
-                            // If date can't be parsed, include the row
-                            return true;
-                        }
-                    } else if (finalFilterSelection.equals("To Leave")) {
-                        // Status is in column 4
-                        String status = entry.getStringValue(4).toUpperCase();
-                        return status.contains("LEAVE");
-                    } else if (finalFilterSelection.equals("Active Tenants")) {
-                        // Status is in column 4
-                        String status = entry.getStringValue(4).toUpperCase();
-                        return status.contains("ACTIVE");
-                    }
-                }
-                
-                // If we reach here, include the row
-                return true;
-            }
-        };
-        
-        // Apply our custom filter
-        sorter.setRowFilter(compositeFilter);
+        BitSet matches = searchIndex.search(searchText, filterSelection, filterFor(filterSelection));
+        sorter.setRowFilter(TableSearchIndex.rowFilter(matches));
+    }
+
+    /**
+     * @return Test for the filter combo selection, or null for "All Tenants"
+     */
+    private static Predicate<TenantFacts> filterFor(String filterSelection) {
+        if (filterSelection == null) {
+            return null;
+        }
+        switch (filterSelection) {
+            case "Recent Tenants":
+                LocalDate thirtyDaysAgo = LocalDate.now().minusDays(30);
+                return facts -> facts.checkInDate() != null && facts.checkInDate().isAfter(thirtyDaysAgo);
+            case "To Leave":
+                return facts -> STATUS_TO_LEAVE.equals(facts.status());
+            case "Active Tenants":
+                return facts -> STATUS_ACTIVE.equals(facts.status());
+            default:
+                return null;
+        }
     }
 
     /**
@@ -313,9 +341,7 @@ public class TenantListView extends javax.swing.JPanel {
         tenantTable.setShowVerticalLines(false);
         tenantTable.setShowHorizontalLines(true);
         tenantTable.setGridColor(new Color(230, 230, 230));
-        
-        // Enable row sorting
-        tenantTable.setAutoCreateRowSorter(true);
+
         
         // Make search field look nicer
         searchField.setBorder(BorderFactory.createCompoundBorder(
@@ -406,6 +432,10 @@ public class TenantListView extends javax.swing.JPanel {
         addTenantButton.addActionListener(listener);
     }
 
+    public void addImportButtonListener(ActionListener listener) {
+        importButton.addActionListener(listener);
+    }
+
     public void addEditButtonListener(ActionListener listener) {
         editTenantButton.addActionListener(listener);
     }
@@ -0,0 +1,7 @@
+-- Payments are filtered by payment_date in findByDateRange, sumAmountByDateRange,
+-- the recent payments list, the dashboard KPIs and the dues chart.
+-- idx_payments_date also serves the keyset pagination on
+-- (payment_date, created_at, payment_id); idx_payments_tenant_date serves a
+-- tenant's payment history and the dues join on tenant_id.
+CREATE INDEX idx_payments_date ON payments (payment_date, created_at, payment_id);
+CREATE INDEX idx_payments_tenant_date ON payments (tenant_id, payment_date);
@@ -0,0 +1,5 @@
+-- Almost every tenant query filters on is_active. The lease index serves the
+-- dues chart (active tenants whose lease has not ended); the name index lets
+-- the active tenant list come out in name order without a sort.
+CREATE INDEX idx_tenants_active_lease ON tenants (is_active, lease_end_date);
+CREATE INDEX idx_tenants_active_name ON tenants (is_active, last_name, first_name);
@@ -0,0 +1,3 @@
+-- findByStatus, countByStatus and the occupied rooms KPI filter on status and
+-- is_active; room_number last lets findByStatus skip its sort.
+CREATE INDEX idx_rooms_status_active ON rooms (status, is_active, room_number);
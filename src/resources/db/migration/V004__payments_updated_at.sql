@@ -0,0 +1,6 @@
+-- Incremental backups find changed rows through updated_at. Without it,
+-- payments were copied whole into every increment. Existing rows get the time
+-- of the migration, so the next increment copies them once.
+ALTER TABLE payments
+  ADD COLUMN updated_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP;
+CREATE INDEX idx_payments_updated ON payments (updated_at);